@@ -0,0 +1,59 @@
+#!/bin/bash
+#
+# Scripted stand-in for mpg123 in remote control mode (-R) for developing and
+# testing the music service without audio hardware. Set it as the profile's
+# playerCommand. Each loaded track "plays" for FAKE_TRACK_SECONDS (default 5)
+# and then reports that playback stopped, just like mpg123 at the end of a
+# track. Loading a file that does not exist reports an error.
+#
+TRACK_SECONDS=${FAKE_TRACK_SECONDS:-5}
+TIMER_PID=
+
+stop_timer() {
+	if [ -n "$TIMER_PID" ]; then
+		kill "$TIMER_PID" 2>/dev/null
+		wait "$TIMER_PID" 2>/dev/null
+		TIMER_PID=
+	fi
+}
+
+echo "@R MPG123 (fake)"
+
+while read -r COMMAND ARGS; do
+	case "${COMMAND^^}" in
+	LOAD|L)
+		stop_timer
+		if [ -f "$ARGS" ]; then
+			echo "@I ID3:$(basename "$ARGS")"
+			echo "@S 1.0 3 44100 Joint-Stereo 0 417 2 0 0 0 128 0 1"
+			( sleep "$TRACK_SECONDS"; echo "@P 0" ) &
+			TIMER_PID=$!
+		else
+			echo "@E Error opening stream: $ARGS"
+		fi
+		;;
+	STOP|S)
+		stop_timer
+		echo "@P 0"
+		;;
+	PAUSE|P)
+		echo "@P 1"
+		;;
+	JUMP|J)
+		echo "@J $ARGS"
+		;;
+	VOLUME|V)
+		echo "@V $ARGS%"
+		;;
+	SILENCE)
+		echo "@silence"
+		;;
+	QUIT|Q)
+		stop_timer
+		exit 0
+		;;
+	*)
+		echo "@E Unknown command: $COMMAND"
+		;;
+	esac
+done
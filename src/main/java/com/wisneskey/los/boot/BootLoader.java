@@ -11,6 +11,7 @@ import com.wisneskey.los.kernel.RunMode;
 import com.wisneskey.los.service.ServiceId;
 import com.wisneskey.los.service.audio.AudioService;
 import com.wisneskey.los.service.display.DisplayService;
+import com.wisneskey.los.service.geofence.GeofenceService;
 import com.wisneskey.los.service.lighting.LightingService;
 import com.wisneskey.los.service.location.LocationService;
 import com.wisneskey.los.service.map.MapService;
@@ -21,6 +22,7 @@ import com.wisneskey.los.service.relay.RelayService;
 import com.wisneskey.los.service.remote.RemoteService;
 import com.wisneskey.los.service.script.ScriptService;
 import com.wisneskey.los.service.security.SecurityService;
+import com.wisneskey.los.service.track.TrackService;
 import com.wisneskey.los.state.ChairState.MasterState;
 import com.wisneskey.los.state.ProfileState;
 
@@ -100,9 +102,11 @@ public class BootLoader extends Application {
 		kernel.registerService(RelayService.createService(runMode, profile));
 		kernel.registerService(LightingService.createService(runMode, profile));
 		kernel.registerService(LocationService.createService(runMode, profile));
+		kernel.registerService(TrackService.createService(profile));
 		kernel.registerService(AudioService.createService(profile));
 		kernel.registerService(MusicService.createService(profile));
-		kernel.registerService(ScriptService.createService());
+		kernel.registerService(ScriptService.createService(profile));
+		kernel.registerService(GeofenceService.createService(profile));
 		kernel.registerService(SecurityService.createService(profile));
 		kernel.registerService(MapService.createService(profile));
 		kernel.registerService(RemoteService.createService(runMode));
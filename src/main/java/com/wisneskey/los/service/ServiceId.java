@@ -3,6 +3,7 @@ package com.wisneskey.los.service;
 import com.wisneskey.los.kernel.ShutdownPhase;
 import com.wisneskey.los.service.audio.AudioService;
 import com.wisneskey.los.service.display.DisplayService;
+import com.wisneskey.los.service.geofence.GeofenceService;
 import com.wisneskey.los.service.lighting.LightingService;
 import com.wisneskey.los.service.location.LocationService;
 import com.wisneskey.los.service.map.MapService;
@@ -12,8 +13,10 @@ import com.wisneskey.los.service.relay.RelayService;
 import com.wisneskey.los.service.remote.RemoteService;
 import com.wisneskey.los.service.script.ScriptService;
 import com.wisneskey.los.service.security.SecurityService;
+import com.wisneskey.los.service.track.TrackService;
 import com.wisneskey.los.state.AudioState;
 import com.wisneskey.los.state.DisplayState;
+import com.wisneskey.los.state.GeofenceState;
 import com.wisneskey.los.state.LightingState;
 import com.wisneskey.los.state.LocationState;
 import com.wisneskey.los.state.MapState;
@@ -23,6 +26,7 @@ import com.wisneskey.los.state.RelayState;
 import com.wisneskey.los.state.RemoteState;
 import com.wisneskey.los.state.ScriptState;
 import com.wisneskey.los.state.SecurityState;
+import com.wisneskey.los.state.TrackState;
 import com.wisneskey.los.state.State;
 
 /**
@@ -49,6 +53,7 @@ public enum ServiceId {
 
 	AUDIO(AudioService.class, AudioState.class, ShutdownPhase.TWO, "This service goes to 11."),
 	DISPLAY(DisplayService.class, DisplayState.class, ShutdownPhase.TWO, "Looking good there!"),
+	GEOFENCE(GeofenceService.class, GeofenceState.class, ShutdownPhase.ONE, "You shall not pass!"),
 	LIGHTING(LightingService.class, LightingState.class, ShutdownPhase.TWO, "Let there be lighting!"),
 	LOCATION(LocationService.class, LocationState.class, ShutdownPhase.TWO, "Where the hell am I?"),
 	MAP(MapService.class, MapState.class, ShutdownPhase.THREE, "Roads? Where we are going, we don't need roads!"),
@@ -57,7 +62,8 @@ public enum ServiceId {
 	RELAY(RelayService.class, RelayState.class, ShutdownPhase.THREE, "Have you tried turning it off and on again?"),
 	REMOTE(RemoteService.class, RemoteState.class, ShutdownPhase.ONE, "Remotes, how do they work?"),
 	SCRIPT(ScriptService.class, ScriptState.class, ShutdownPhase.ONE, "Don't tell me what to do!"),
-	SECURITY(SecurityService.class, SecurityState.class, ShutdownPhase.THREE, "1000 times no!");
+	SECURITY(SecurityService.class, SecurityState.class, ShutdownPhase.THREE, "1000 times no!"),
+	TRACK(TrackService.class, TrackState.class, ShutdownPhase.ONE, "Pics or it didn't happen.");
 
 	// ----------------------------------------------------------------------------------------
 	// Variables.
@@ -2,6 +2,11 @@ package com.wisneskey.los.service.audio;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
@@ -11,6 +16,8 @@ import com.wisneskey.los.error.LaissezException;
 import com.wisneskey.los.kernel.Kernel;
 import com.wisneskey.los.service.AbstractService;
 import com.wisneskey.los.service.ServiceId;
+import com.wisneskey.los.service.audio.engine.AudioEngine;
+import com.wisneskey.los.service.audio.engine.PcmClip;
 import com.wisneskey.los.service.profile.model.Profile;
 import com.wisneskey.los.state.AudioState;
 import com.wisneskey.los.state.ChairState.MasterState;
@@ -78,6 +85,28 @@ public class AudioService extends AbstractService<AudioState> {
 	 */
 	private String basePath;
 
+	/**
+	 * In-process engine used to play the effects or null if the external player
+	 * is being used.
+	 */
+	private AudioEngine audioEngine;
+
+	/**
+	 * Cache of the decoded effects played by the in-process engine.
+	 */
+	private SoundEffectCache effectCache;
+
+	/**
+	 * Catalog of the durations and peaks of the effects.
+	 */
+	private SoundEffectCatalog effectCatalog;
+
+	/**
+	 * Timer completing effects played by the external player once their
+	 * duration has passed.
+	 */
+	private ScheduledExecutorService completionTimer;
+
 	// ----------------------------------------------------------------------------------------
 	// Constructors.
 	// ----------------------------------------------------------------------------------------
@@ -94,13 +123,14 @@ public class AudioService extends AbstractService<AudioState> {
 	// ----------------------------------------------------------------------------------------
 
 	/**
-	 * Play a sound effect.
+	 * Play a sound effect. The call returns right away; callers that need to
+	 * follow the effect can wait on or chain to the returned future, which is
+	 * completed once the effect has played for its cataloged duration.
 	 * 
-	 * @param effectId          Id of the sound effect to play.
-	 * @param waitForCompletion Flag indicating if the call should not return
-	 *                            until the playback is completed.
+	 * @param  effectId Id of the sound effect to play.
+	 * @return          Future completed when the effect has finished.
 	 */
-	public void playEffect(SoundEffectId effectId, boolean waitForCompletion) {
+	public CompletableFuture<Void> playEffect(SoundEffectId effectId) {
 
 		// Get the scale factor to use for setting the volume of the MP3 playback.
 		int scaleFactor;
@@ -116,17 +146,43 @@ public class AudioService extends AbstractService<AudioState> {
 
 		LOGGER.debug("Playing sound effect: id={} mp3={} scaleFactor={}", effectId, mp3Path, scaleFactor);
 
-		Thread playerThread = new SoundEffectPlayerThread(mp3Path.toString(), scaleFactor);
+		PcmClip clip = audioEngine == null ? null : getClip(effectId);
+		if (clip != null) {
+			return playInProcess(clip, scaleFactor);
+		}
+
+		// Count the effect as playing before returning so callers checking the
+		// count right away see it.
+		audioState.playingCount().incrementAndGet();
+
+		CompletableFuture<Void> completion = new CompletableFuture<>();
+		SoundEffectCatalog.Entry entry = effectCatalog.getEntry(effectId);
+
+		Thread playerThread = new SoundEffectPlayerThread(mp3Path.toString(), scaleFactor, completion,
+				entry == null ? -1 : entry.getDurationMicros());
 		playerThread.start();
 
-		if (waitForCompletion) {
-			try {
-				playerThread.join();
-			} catch (InterruptedException e) {
-				LOGGER.warn("Interrupted waiting for audio clip to complete.");
-				Thread.currentThread().interrupt();
-			}
-		}
+		return completion;
+	}
+
+	/**
+	 * Returns the measurements of a sound effect from the boot preflight.
+	 * 
+	 * @param  effectId Id of the sound effect.
+	 * @return          Catalog entry for the effect or null if it failed the
+	 *                  preflight.
+	 */
+	public SoundEffectCatalog.Entry getEffectInfo(SoundEffectId effectId) {
+		return effectCatalog.getEntry(effectId);
+	}
+
+	/**
+	 * Returns the in-process audio engine so music can be streamed through it.
+	 * 
+	 * @return Audio engine or null if the external player is being used.
+	 */
+	public AudioEngine getAudioEngine() {
+		return audioEngine;
 	}
 
 	// ----------------------------------------------------------------------------------------
@@ -140,7 +196,14 @@ public class AudioService extends AbstractService<AudioState> {
 
 	@Override
 	public void terminate() {
-		// Nothing to be done for termination, player threads will wrap up on their own.
+
+		// External player threads will wrap up on their own.
+		completionTimer.shutdownNow();
+
+		if (audioEngine != null) {
+			audioEngine.stop();
+			LOGGER.info("Sound effect cache: {}", effectCache.getStatistics());
+		}
 	}
 
 	// ----------------------------------------------------------------------------------------
@@ -170,10 +233,83 @@ public class AudioService extends AbstractService<AudioState> {
 		this.playerCommand = profile.getPlayerCommand();
 		this.basePath = profile.getSoundEffectDir();
 
+		if (profile.getInProcessAudio()) {
+			// The engine and cache are only published once both are ready so a failure
+			// leaves the service entirely on the external player.
+			AudioEngine engine = null;
+			try {
+				SoundEffectCache cache = new SoundEffectCache(basePath, profile.getSoundEffectCacheMb());
+
+				engine = new AudioEngine(profile);
+				engine.start();
+
+				cache.load(Runtime.getRuntime().availableProcessors());
+
+				effectCache = cache;
+				audioEngine = engine;
+			} catch (LaissezException e) {
+				if (engine != null) {
+					engine.stop();
+				}
+				LOGGER.warn("Failed to start in-process audio engine; using external player.", e);
+			}
+		}
+
+		// Check every effect now so a missing file is found at boot, not mid-parade.
+		effectCatalog = new SoundEffectCatalog(basePath);
+		effectCatalog.preflight(effectCache, Runtime.getRuntime().availableProcessors());
+
+		Map<SoundEffectId, String> failures = effectCatalog.getFailures();
+		if (profile.getRequireSoundEffects() && !failures.isEmpty()) {
+			if (audioEngine != null) {
+				audioEngine.stop();
+			}
+			throw new LaissezException("Sound effects failed preflight: " + failures.keySet());
+		}
+
+		completionTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "soundEffectTimer");
+			thread.setDaemon(true);
+			return thread;
+		});
+
 		audioState = new InternalAudioState(profile.getVolume(), profile.getChapModeVolume());
 		return audioState;
 	}
 
+	/**
+	 * Returns the decoded clip for an effect from the cache.
+	 * 
+	 * @param  effectId Id of the effect.
+	 * @return          Decoded clip or null if the effect could not be decoded.
+	 */
+	private PcmClip getClip(SoundEffectId effectId) {
+
+		try {
+			return effectCache.get(effectId);
+		} catch (LaissezException e) {
+			LOGGER.warn("Failed to decode sound effect {}; using external player.", effectId, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Plays a decoded clip with the in-process engine.
+	 * 
+	 * @param  clip        Clip to play.
+	 * @param  scaleFactor Scale factor for the volume as used by the external
+	 *                       player.
+	 * @return             Future completed when the clip has been mixed.
+	 */
+	private CompletableFuture<Void> playInProcess(PcmClip clip, int scaleFactor) {
+
+		audioState.playingCount().incrementAndGet();
+
+		CompletableFuture<Void> completion = audioEngine.play(clip, scaleFactor / MAX_SCALE_FACTOR);
+		completion.whenComplete((result, exception) -> audioState.playingCount().decrementAndGet());
+		return completion;
+	}
+
 	/**
 	 * Returns the scale factor for playing a MP3 track at the configured volume
 	 * using mpg123's -f parameter.
@@ -224,9 +360,23 @@ public class AudioService extends AbstractService<AudioState> {
 		private String trackPath;
 		private int scaleFactor;
 
-		private SoundEffectPlayerThread(String trackPath, int scaleFactor) {
+		/**
+		 * Future to complete when the effect has played.
+		 */
+		private CompletableFuture<Void> completion;
+
+		/**
+		 * Duration of the effect in microseconds or -1 if it is not known, in which
+		 * case the effect completes when the player exits.
+		 */
+		private long durationMicros;
+
+		private SoundEffectPlayerThread(String trackPath, int scaleFactor, CompletableFuture<Void> completion,
+				long durationMicros) {
 			this.trackPath = trackPath;
 			this.scaleFactor = scaleFactor;
+			this.completion = completion;
+			this.durationMicros = durationMicros;
 
 			setName("SoundEffectPlayerThread");
 		}
@@ -246,6 +396,11 @@ public class AudioService extends AbstractService<AudioState> {
 						trackPath);
 				Process playerProcess = processBuilder.start();
 
+				// Complete on schedule rather than when the player gets around to exiting.
+				if (durationMicros >= 0) {
+					completionTimer.schedule(() -> completion.complete(null), durationMicros, TimeUnit.MICROSECONDS);
+				}
+
 				// Wait for the process to complete.
 				int returnCode = playerProcess.waitFor();
 
@@ -260,6 +415,9 @@ public class AudioService extends AbstractService<AudioState> {
 			} catch (Exception e) {
 				LOGGER.warn("Exception during playing of MP3.", e);
 			}
+
+			audioState.playingCount().decrementAndGet();
+			completion.complete(null);
 		}
 	}
 
@@ -0,0 +1,255 @@
+package com.wisneskey.los.service.audio;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.wisneskey.los.error.LaissezException;
+import com.wisneskey.los.service.audio.engine.Mp3Decoder;
+import com.wisneskey.los.service.audio.engine.PcmClip;
+
+/**
+ * Cache of sound effects decoded into PCM clips. Every effect is decoded in
+ * parallel when the cache is loaded at boot so that playing an effect is just
+ * handing its samples to the engine. The cache is held to a memory budget; when
+ * it is exceeded the least recently played clips are evicted and decoded again
+ * the next time they are played.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class SoundEffectCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SoundEffectCache.class);
+
+	/**
+	 * Number of bytes in a mebibyte.
+	 */
+	private static final long BYTES_PER_MB = 1024L * 1024L;
+
+	/**
+	 * Directory containing the sound effect MP3s.
+	 */
+	private String basePath;
+
+	/**
+	 * Maximum number of bytes of samples to hold.
+	 */
+	private long budgetBytes;
+
+	/**
+	 * Decoded clips in least to most recently used order.
+	 */
+	private LinkedHashMap<SoundEffectId, PcmClip> clips = new LinkedHashMap<>(64, 0.75f, true);
+
+	/**
+	 * Number of bytes of samples currently held.
+	 */
+	private long usedBytes;
+
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for an empty cache.
+	 *
+	 * @param basePath Directory containing the sound effect MP3s.
+	 * @param budgetMb Memory budget for the decoded samples in mebibytes.
+	 */
+	public SoundEffectCache(String basePath, int budgetMb) {
+
+		if (budgetMb <= 0) {
+			throw new LaissezException("Sound effect cache budget must be positive.");
+		}
+
+		this.basePath = basePath;
+		this.budgetBytes = budgetMb * BYTES_PER_MB;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Decodes every sound effect in parallel and adds them to the cache. Effects
+	 * that fail to decode are logged and left out; they will be retried when
+	 * played.
+	 *
+	 * @param threads Number of threads to decode with.
+	 */
+	public void load(int threads) {
+
+		long start = System.nanoTime();
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+			Thread thread = new Thread(r, "soundEffectDecoder");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		List<Future<PcmClip>> results = new ArrayList<>();
+		try {
+			for (SoundEffectId effectId : SoundEffectId.values()) {
+				results.add(executor.submit(() -> Mp3Decoder.decode(effectId.name(), getPath(effectId))));
+			}
+
+			SoundEffectId[] effectIds = SoundEffectId.values();
+			for (int index = 0; index < effectIds.length; index++) {
+				try {
+					put(effectIds[index], results.get(index).get());
+				} catch (ExecutionException e) {
+					LOGGER.warn("Failed to decode sound effect {}: {}", effectIds[index], e.getCause().getMessage());
+				}
+			}
+		} catch (InterruptedException e) {
+			LOGGER.warn("Interrupted while decoding sound effects.");
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+
+		synchronized (this) {
+			LOGGER.info("Sound effects decoded: clips={}/{} memoryKb={} budgetKb={} evictions={} threads={} ms={}",
+					clips.size(), SoundEffectId.values().length, usedBytes / 1024, budgetBytes / 1024, evictions,
+					threads, (System.nanoTime() - start) / 1_000_000);
+		}
+	}
+
+	/**
+	 * Returns the clip for an effect, decoding it if it is not in the cache.
+	 *
+	 * @param  effectId Id of the effect.
+	 * @return          Decoded clip for the effect.
+	 */
+	public PcmClip get(SoundEffectId effectId) {
+
+		synchronized (this) {
+			PcmClip clip = clips.get(effectId);
+			if (clip != null) {
+				hits++;
+				return clip;
+			}
+			misses++;
+		}
+
+		// Decode outside of the lock so playing other effects is not held up. Two
+		// callers may both decode the same effect but the result is the same.
+		long start = System.nanoTime();
+		PcmClip clip = Mp3Decoder.decode(effectId.name(), getPath(effectId));
+		LOGGER.debug("Decoded evicted sound effect: clip={} ms={}", clip, (System.nanoTime() - start) / 1_000_000);
+
+		put(effectId, clip);
+		return clip;
+	}
+
+	/**
+	 * Returns the clip for an effect if it is in the cache, without decoding it
+	 * or counting the lookup in the statistics.
+	 *
+	 * @param  effectId Id of the effect.
+	 * @return          Decoded clip or null if the effect is not in the cache.
+	 */
+	public synchronized PcmClip peek(SoundEffectId effectId) {
+		return clips.get(effectId);
+	}
+
+	/**
+	 * Returns the path to the MP3 for an effect.
+	 *
+	 * @param  effectId Id of the effect.
+	 * @return          Path to the MP3.
+	 */
+	public Path getPath(SoundEffectId effectId) {
+		return Paths.get(basePath, effectId.getFileName());
+	}
+
+	/**
+	 * Returns the number of bytes of samples held by the cache.
+	 *
+	 * @return Memory used in bytes.
+	 */
+	public synchronized long getUsedBytes() {
+		return usedBytes;
+	}
+
+	/**
+	 * Returns a summary of the cache's usage for logging.
+	 *
+	 * @return Summary of the cache statistics.
+	 */
+	public synchronized String getStatistics() {
+		return "clips=" + clips.size() + " memoryKb=" + (usedBytes / 1024) + " hits=" + hits + " misses=" + misses
+				+ " evictions=" + evictions;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Adds a clip to the cache as the most recently used and evicts the least
+	 * recently used clips until the cache is within its budget. A clip larger
+	 * than the whole budget is still returned to its caller but not kept.
+	 *
+	 * @param effectId Id of the effect.
+	 * @param clip     Decoded clip for the effect.
+	 */
+	private synchronized void put(SoundEffectId effectId, PcmClip clip) {
+
+		if (clip.getSizeBytes() > budgetBytes) {
+			LOGGER.warn("Sound effect {} is larger than the cache budget; not caching it.", effectId);
+			return;
+		}
+
+		PcmClip previous = clips.put(effectId, clip);
+		if (previous != null) {
+			usedBytes -= previous.getSizeBytes();
+		}
+		usedBytes += clip.getSizeBytes();
+
+		Iterator<Map.Entry<SoundEffectId, PcmClip>> iterator = clips.entrySet().iterator();
+		while ((usedBytes > budgetBytes) && iterator.hasNext()) {
+
+			Map.Entry<SoundEffectId, PcmClip> eldest = iterator.next();
+			if (eldest.getKey() == effectId) {
+				continue;
+			}
+
+			usedBytes -= eldest.getValue().getSizeBytes();
+			iterator.remove();
+			evictions++;
+
+			LOGGER.debug("Evicted sound effect {} from cache.", eldest.getKey());
+		}
+	}
+}
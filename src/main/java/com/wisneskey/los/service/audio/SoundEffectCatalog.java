@@ -0,0 +1,251 @@
+package com.wisneskey.los.service.audio;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.wisneskey.los.error.LaissezException;
+import com.wisneskey.los.service.audio.engine.AudioFormats;
+import com.wisneskey.los.service.audio.engine.Mp3Stream;
+import com.wisneskey.los.service.audio.engine.PcmClip;
+
+/**
+ * Catalog of the exact duration and peak level of every sound effect, built by
+ * a preflight pass at boot. The preflight checks that every effect's MP3 is
+ * present and decodes, so a missing or broken file is reported when the chair
+ * starts rather than when a script first plays it, and the durations let the
+ * completion of an effect be scheduled instead of waited on.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class SoundEffectCatalog {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SoundEffectCatalog.class);
+
+	/**
+	 * Directory containing the sound effect MP3s.
+	 */
+	private String basePath;
+
+	/**
+	 * Entries for the effects that passed the preflight.
+	 */
+	private Map<SoundEffectId, Entry> entries = Collections.synchronizedMap(new EnumMap<>(SoundEffectId.class));
+
+	/**
+	 * Effects that failed the preflight along with the reason.
+	 */
+	private Map<SoundEffectId, String> failures = Collections.synchronizedMap(new EnumMap<>(SoundEffectId.class));
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for an empty catalog.
+	 *
+	 * @param basePath Directory containing the sound effect MP3s.
+	 */
+	public SoundEffectCatalog(String basePath) {
+		this.basePath = basePath;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Checks and measures every sound effect in parallel. Effects already decoded
+	 * by the effect cache are measured from their clips rather than decoded
+	 * again.
+	 *
+	 * @param effectCache Cache of decoded effects or null if there is none.
+	 * @param threads     Number of threads to decode with.
+	 */
+	public void preflight(SoundEffectCache effectCache, int threads) {
+
+		long start = System.nanoTime();
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+			Thread thread = new Thread(r, "soundEffectPreflight");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		List<Future<Entry>> results = new ArrayList<>();
+		try {
+			SoundEffectId[] effectIds = SoundEffectId.values();
+			for (SoundEffectId effectId : effectIds) {
+				PcmClip clip = effectCache == null ? null : effectCache.peek(effectId);
+				results.add(executor.submit(() -> clip == null ? measure(getPath(effectId)) : measure(clip)));
+			}
+
+			for (int index = 0; index < effectIds.length; index++) {
+				try {
+					entries.put(effectIds[index], results.get(index).get());
+				} catch (ExecutionException e) {
+					failures.put(effectIds[index], e.getCause().getMessage());
+				}
+			}
+		} catch (InterruptedException e) {
+			LOGGER.warn("Interrupted while checking sound effects.");
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+
+		for (Map.Entry<SoundEffectId, String> failure : failures.entrySet()) {
+			LOGGER.error("Sound effect {} failed preflight: {}", failure.getKey(), failure.getValue());
+		}
+
+		LOGGER.info("Sound effects checked: valid={}/{} failed={} threads={} ms={}", entries.size(),
+				SoundEffectId.values().length, failures.size(), threads, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	/**
+	 * Returns the catalog entry for an effect.
+	 *
+	 * @param  effectId Id of the effect.
+	 * @return          Entry for the effect or null if it failed the preflight or
+	 *                  the preflight has not been run.
+	 */
+	public Entry getEntry(SoundEffectId effectId) {
+		return entries.get(effectId);
+	}
+
+	/**
+	 * Returns the effects that failed the preflight.
+	 *
+	 * @return Map of the failed effects to the reason they failed.
+	 */
+	public Map<SoundEffectId, String> getFailures() {
+		synchronized (failures) {
+			return new EnumMap<>(failures);
+		}
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	private Path getPath(SoundEffectId effectId) {
+		return Paths.get(basePath, effectId.getFileName());
+	}
+
+	/**
+	 * Measures an effect by decoding its MP3 without keeping the samples.
+	 *
+	 * @param  path Path to the effect's MP3.
+	 * @return      Entry for the effect.
+	 */
+	private static Entry measure(Path path) {
+
+		if (!Files.isReadable(path)) {
+			throw new LaissezException("Sound effect file missing or unreadable: " + path);
+		}
+
+		long frames = 0;
+		int peak = 0;
+
+		try (Mp3Stream stream = new Mp3Stream(path)) {
+
+			short[] samples;
+			while ((samples = stream.nextFrame()) != null) {
+				frames += samples.length / AudioFormats.CHANNELS;
+				peak = Math.max(peak, peakOf(samples));
+			}
+		}
+
+		if (frames == 0) {
+			throw new LaissezException("Sound effect file has no audio: " + path);
+		}
+		return new Entry(AudioFormats.framesToMicros(frames), peak / 32768.0);
+	}
+
+	/**
+	 * Measures an effect from its decoded clip.
+	 *
+	 * @param  clip Decoded clip for the effect.
+	 * @return      Entry for the effect.
+	 */
+	private static Entry measure(PcmClip clip) {
+		return new Entry(AudioFormats.framesToMicros(clip.getFrameCount()), peakOf(clip.getSamples()) / 32768.0);
+	}
+
+	private static int peakOf(short[] samples) {
+
+		int peak = 0;
+		for (short sample : samples) {
+			peak = Math.max(peak, Math.abs(sample));
+		}
+		return peak;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Inner classes.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Measurements of a sound effect.
+	 */
+	public static class Entry {
+
+		private long durationMicros;
+		private double peak;
+
+		private Entry(long durationMicros, double peak) {
+			this.durationMicros = durationMicros;
+			this.peak = peak;
+		}
+
+		/**
+		 * Returns the exact length of the decoded effect.
+		 *
+		 * @return Duration in microseconds.
+		 */
+		public long getDurationMicros() {
+			return durationMicros;
+		}
+
+		/**
+		 * Returns the largest sample in the effect.
+		 *
+		 * @return Sample peak from 0.0 to 1.0.
+		 */
+		public double getPeak() {
+			return peak;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("durationMs=%d peak=%.3f", durationMicros / 1000, peak);
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package com.wisneskey.los.service.audio.engine;
+
+import java.util.concurrent.CompletableFuture;
+
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.wisneskey.los.error.LaissezException;
+import com.wisneskey.los.service.profile.model.Profile;
+
+/**
+ * In-process playback engine that keeps a single output line open for the life
+ * of the chair. A render thread continuously has the mixer render short periods
+ * and writes them to the line, so starting a sound only has to hand an already
+ * decoded clip to the mixer and the sound is heard as soon as the small line
+ * buffer drains instead of after a player process has started.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class AudioEngine {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AudioEngine.class);
+
+	/**
+	 * Number of frames rendered and written to the line at a time (about 2.9ms).
+	 */
+	private static final int PERIOD_FRAMES = 128;
+
+	/**
+	 * Minimum number of periods the line buffer holds so the render thread can
+	 * be scheduled late once without the line running dry.
+	 */
+	private static final int MIN_BUFFERED_PERIODS = 2;
+
+	/**
+	 * Requested output latency in milliseconds.
+	 */
+	private int latencyMs;
+
+	/**
+	 * Mixer producing the output.
+	 */
+	private Mixer mixer;
+
+	/**
+	 * Line the mixed output is written to.
+	 */
+	private SourceDataLine line;
+
+	/**
+	 * Thread rendering and writing the output.
+	 */
+	private RenderThread renderThread;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for an engine configured from the profile's audio settings.
+	 * The output latency is rounded up to whole render periods.
+	 *
+	 * @param profile Profile with the audio settings.
+	 */
+	public AudioEngine(Profile profile) {
+
+		this.latencyMs = profile.getAudioLatencyMs();
+		this.mixer = new Mixer(PERIOD_FRAMES, profile.getMaxVoices(), profile.getMusicDuckGain(),
+				profile.getMusicDuckAttackMs(), profile.getMusicDuckReleaseMs());
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Opens the output line and starts the render thread.
+	 */
+	public void start() {
+
+		int periods = Math.max(MIN_BUFFERED_PERIODS,
+				(AudioFormats.framesForMillis(latencyMs) + PERIOD_FRAMES - 1) / PERIOD_FRAMES);
+		int bufferBytes = periods * PERIOD_FRAMES * AudioFormats.BYTES_PER_FRAME;
+
+		try {
+			line = AudioSystem.getSourceDataLine(AudioFormats.OUTPUT_FORMAT);
+			line.open(AudioFormats.OUTPUT_FORMAT, bufferBytes);
+		} catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+			throw new LaissezException("Unable to open audio output line.", e);
+		}
+
+		line.start();
+
+		LOGGER.info("Audio engine started: line={} bufferFrames={} bufferMs={}", line.getLineInfo(),
+				line.getBufferSize() / AudioFormats.BYTES_PER_FRAME,
+				AudioFormats.framesToMicros(line.getBufferSize() / AudioFormats.BYTES_PER_FRAME) / 1000.0);
+
+		renderThread = new RenderThread();
+		renderThread.start();
+	}
+
+	/**
+	 * Stops the render thread and closes the output line. Any clips still playing
+	 * are completed.
+	 */
+	public void stop() {
+
+		if (renderThread == null) {
+			return;
+		}
+
+		renderThread.interrupt();
+		try {
+			renderThread.join(1000);
+		} catch (InterruptedException e) {
+			LOGGER.warn("Interrupted waiting for audio render thread to stop.");
+			Thread.currentThread().interrupt();
+		}
+
+		line.stop();
+		line.close();
+		renderThread = null;
+
+		mixer.clear();
+
+		LOGGER.info("Audio engine stopped: {}", mixer.getStatistics());
+	}
+
+	/**
+	 * Starts playing a clip. The returned future is completed by the render
+	 * thread once the clip has finished or its voice was stolen for a newer clip
+	 * so anything chained to it should be quick or use the asynchronous variants.
+	 *
+	 * @param  clip Clip to play.
+	 * @param  gain Gain to apply to the clip from 0.0 to 1.0.
+	 * @return      Future completed when the clip has finished.
+	 */
+	public CompletableFuture<Void> play(PcmClip clip, double gain) {
+		return mixer.play(clip, gain);
+	}
+
+	/**
+	 * Returns the mixer producing the output.
+	 *
+	 * @return Mixer for the engine.
+	 */
+	public Mixer getMixer() {
+		return mixer;
+	}
+
+	/**
+	 * Returns how long a sample takes to be heard once it has been mixed, which
+	 * is the time to play out a full line buffer.
+	 *
+	 * @return Output latency in microseconds or 0 if the line is not open.
+	 */
+	public long getOutputLatencyMicros() {
+		if (line == null) {
+			return 0;
+		}
+		return AudioFormats.framesToMicros(line.getBufferSize() / AudioFormats.BYTES_PER_FRAME);
+	}
+
+	/**
+	 * Returns an upper bound on how long the most recently started clip took to
+	 * reach the output: the time waiting for the mixer plus a full line buffer.
+	 *
+	 * @return Start latency in microseconds.
+	 */
+	public long getLastStartLatencyMicros() {
+		return (mixer.getLastStartDelayNanos() / 1000L) + getOutputLatencyMicros();
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Inner classes.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Thread that renders the mixer a period at a time and writes it to the line.
+	 * Writing blocks while the line buffer is full, which paces the thread to the
+	 * output rate.
+	 */
+	private class RenderThread extends Thread {
+
+		/**
+		 * Little endian bytes of the period written to the line.
+		 */
+		private byte[] output = new byte[PERIOD_FRAMES * AudioFormats.BYTES_PER_FRAME];
+
+		// ----------------------------------------------------------------------------------------
+		// Constructors.
+		// ----------------------------------------------------------------------------------------
+
+		private RenderThread() {
+			setName("audioRender");
+			setDaemon(true);
+			setPriority(Thread.MAX_PRIORITY);
+		}
+
+		// ----------------------------------------------------------------------------------------
+		// Thread methods.
+		// ----------------------------------------------------------------------------------------
+
+		@Override
+		public void run() {
+
+			LOGGER.info("Audio render thread started.");
+
+			while (!isInterrupted()) {
+				mixer.render(output);
+				line.write(output, 0, output.length);
+			}
+
+			LOGGER.info("Audio render thread shutdown.");
+		}
+	}
+}
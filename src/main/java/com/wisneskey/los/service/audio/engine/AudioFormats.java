@@ -0,0 +1,88 @@
+package com.wisneskey.los.service.audio.engine;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Constants for the single PCM format used by the audio engine. Everything is
+ * decoded into this format up front so the engine never has to convert sample
+ * rates or channel layouts while it is playing.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class AudioFormats {
+
+	/**
+	 * Sample rate of the output in Hz.
+	 */
+	public static final int SAMPLE_RATE = 44100;
+
+	/**
+	 * Number of channels in the output.
+	 */
+	public static final int CHANNELS = 2;
+
+	/**
+	 * Number of bytes in a single sample.
+	 */
+	public static final int BYTES_PER_SAMPLE = 2;
+
+	/**
+	 * Number of bytes in a frame (one sample for each channel).
+	 */
+	public static final int BYTES_PER_FRAME = CHANNELS * BYTES_PER_SAMPLE;
+
+	/**
+	 * Format of the output line: signed 16-bit little endian stereo.
+	 */
+	public static final AudioFormat OUTPUT_FORMAT = new AudioFormat(SAMPLE_RATE, BYTES_PER_SAMPLE * 8, CHANNELS, true,
+			false);
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Private constructor to disallow instantiation.
+	 */
+	private AudioFormats() {
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Static methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the number of frames played in a period of time.
+	 *
+	 * @param  millis Period of time in milliseconds.
+	 * @return        Number of frames played in the period.
+	 */
+	public static int framesForMillis(double millis) {
+		return (int) Math.round((millis * SAMPLE_RATE) / 1000.0);
+	}
+
+	/**
+	 * Returns the time it takes to play a number of frames.
+	 *
+	 * @param  frames Number of frames.
+	 * @return        Time in microseconds to play the frames.
+	 */
+	public static long framesToMicros(long frames) {
+		return (frames * 1_000_000L) / SAMPLE_RATE;
+	}
+}
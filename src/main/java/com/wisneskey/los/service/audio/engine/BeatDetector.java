@@ -0,0 +1,359 @@
+package com.wisneskey.los.service.audio.engine;
+
+import java.util.Arrays;
+
+/**
+ * Finds the tempo and beats of a whole track offline. The audio is reduced to
+ * an onset strength envelope (the rise in log spectral magnitude between
+ * overlapping blocks), the tempo is taken from the autocorrelation of the
+ * envelope weighted toward common tempos, and the beats are then placed by
+ * dynamic programming that balances landing on strong onsets against keeping
+ * a steady tempo, so beats follow a track that drifts.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class BeatDetector {
+
+	/**
+	 * Number of frames in each block transformed.
+	 */
+	private static final int BLOCK_FRAMES = 1024;
+
+	/**
+	 * Number of frames between the starts of consecutive blocks.
+	 */
+	private static final int HOP_FRAMES = 512;
+
+	/**
+	 * Slowest and fastest tempos considered.
+	 */
+	private static final double MIN_BPM = 60.0;
+	private static final double MAX_BPM = 180.0;
+
+	/**
+	 * Tempo favored when the autocorrelation is ambiguous between a tempo and
+	 * its double or half.
+	 */
+	private static final double PREFERRED_BPM = 120.0;
+
+	/**
+	 * Spread in octaves of the weighting toward the preferred tempo.
+	 */
+	private static final double TEMPO_SPREAD_OCTAVES = 1.0;
+
+	/**
+	 * How strongly beat placement sticks to the tempo rather than chasing onsets.
+	 */
+	private static final double TIGHTNESS = 100.0;
+
+	/**
+	 * Number of blocks on either side averaged to remove the local mean from the
+	 * onset envelope.
+	 */
+	private static final int MEAN_WINDOW = 16;
+
+	/**
+	 * Scale applied before log compressing spectral magnitudes.
+	 */
+	private static final float COMPRESSION = 1000.0f;
+
+	/**
+	 * Time in seconds between consecutive blocks.
+	 */
+	private static final double HOP_SECONDS = (double) HOP_FRAMES / AudioFormats.SAMPLE_RATE;
+
+	/**
+	 * Transform used to measure the spectrum of each block.
+	 */
+	private Fft fft = new Fft(BLOCK_FRAMES);
+
+	/**
+	 * Mono samples of the block being filled.
+	 */
+	private float[] block = new float[BLOCK_FRAMES];
+
+	/**
+	 * Number of samples in the block so far.
+	 */
+	private int blockFill;
+
+	/**
+	 * Log compressed spectrum of the current and previous blocks.
+	 */
+	private float[] spectrum = new float[BLOCK_FRAMES / 2];
+	private float[] previousSpectrum = new float[BLOCK_FRAMES / 2];
+
+	/**
+	 * Onset strength of each block.
+	 */
+	private float[] onsets = new float[4096];
+
+	/**
+	 * Number of blocks measured.
+	 */
+	private int onsetCount;
+
+	/**
+	 * Detected tempo or NaN before analysis or if none was found.
+	 */
+	private double bpm = Double.NaN;
+
+	/**
+	 * Detected beat times in milliseconds.
+	 */
+	private int[] beatTimesMs = new int[0];
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Adds interleaved stereo samples to the track being analyzed.
+	 *
+	 * @param samples Samples to add.
+	 * @param length  Number of samples to add.
+	 */
+	public void process(short[] samples, int length) {
+
+		for (int index = 0; index + AudioFormats.CHANNELS <= length; index += AudioFormats.CHANNELS) {
+
+			block[blockFill++] = (samples[index] + samples[index + 1]) / 65536.0f;
+
+			if (blockFill == BLOCK_FRAMES) {
+				measureOnset();
+				System.arraycopy(block, HOP_FRAMES, block, 0, BLOCK_FRAMES - HOP_FRAMES);
+				blockFill = BLOCK_FRAMES - HOP_FRAMES;
+			}
+		}
+	}
+
+	/**
+	 * Finds the tempo and beats of everything processed. Must be called once all
+	 * of the track has been processed.
+	 */
+	public void analyze() {
+
+		int minLag = (int) Math.floor(60.0 / MAX_BPM / HOP_SECONDS);
+		int maxLag = (int) Math.ceil(60.0 / MIN_BPM / HOP_SECONDS);
+
+		// Too short to hold a few beats at the slowest tempo.
+		if (onsetCount < maxLag * 4) {
+			return;
+		}
+
+		float[] envelope = normalizedEnvelope();
+		if (envelope == null) {
+			return;
+		}
+
+		double period = findPeriod(envelope, minLag, maxLag);
+		bpm = 60.0 / (period * HOP_SECONDS);
+		beatTimesMs = trackBeats(envelope, period);
+	}
+
+	/**
+	 * Returns the tempo found by the analysis.
+	 *
+	 * @return Tempo in beats per minute or NaN if none was found.
+	 */
+	public double getBpm() {
+		return bpm;
+	}
+
+	/**
+	 * Returns the beats found by the analysis.
+	 *
+	 * @return Time of each beat in milliseconds from the start of the track.
+	 */
+	public int[] getBeatTimesMs() {
+		return beatTimesMs;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Measures the onset strength of the full block as the total rise in log
+	 * magnitude across the spectrum since the previous block.
+	 */
+	private void measureOnset() {
+
+		fft.magnitudes(block, spectrum);
+
+		float flux = 0.0f;
+		for (int bin = 0; bin < spectrum.length; bin++) {
+			spectrum[bin] = (float) Math.log1p(COMPRESSION * spectrum[bin]);
+			flux += Math.max(0.0f, spectrum[bin] - previousSpectrum[bin]);
+		}
+
+		float[] swap = previousSpectrum;
+		previousSpectrum = spectrum;
+		spectrum = swap;
+
+		if (onsetCount == onsets.length) {
+			onsets = Arrays.copyOf(onsets, onsets.length * 2);
+		}
+
+		// The first block has nothing to rise from so it is not an onset.
+		onsets[onsetCount] = onsetCount == 0 ? 0.0f : flux;
+		onsetCount++;
+	}
+
+	/**
+	 * Returns the onset envelope with its local mean removed, negative values
+	 * clipped and scaled to unit standard deviation.
+	 *
+	 * @return Normalized envelope or null if the track is silent.
+	 */
+	private float[] normalizedEnvelope() {
+
+		float[] envelope = new float[onsetCount];
+		double sumSquares = 0.0;
+
+		double windowSum = 0.0;
+		int windowStart = 0;
+		int windowEnd = 0;
+
+		for (int index = 0; index < onsetCount; index++) {
+
+			while (windowEnd < Math.min(onsetCount, index + MEAN_WINDOW + 1)) {
+				windowSum += onsets[windowEnd++];
+			}
+			while (windowStart < index - MEAN_WINDOW) {
+				windowSum -= onsets[windowStart++];
+			}
+
+			double mean = windowSum / (windowEnd - windowStart);
+			envelope[index] = (float) Math.max(0.0, onsets[index] - mean);
+			sumSquares += envelope[index] * envelope[index];
+		}
+
+		double deviation = Math.sqrt(sumSquares / onsetCount);
+		if (deviation == 0.0) {
+			return null;
+		}
+
+		float scale = (float) (1.0 / deviation);
+		for (int index = 0; index < onsetCount; index++) {
+			envelope[index] *= scale;
+		}
+		return envelope;
+	}
+
+	/**
+	 * Finds the beat period from the autocorrelation of the envelope, weighted
+	 * toward the preferred tempo and refined between lags by fitting a parabola.
+	 *
+	 * @param  envelope Normalized onset envelope.
+	 * @param  minLag   Shortest period considered in blocks.
+	 * @param  maxLag   Longest period considered in blocks.
+	 * @return          Beat period in blocks.
+	 */
+	private double findPeriod(float[] envelope, int minLag, int maxLag) {
+
+		double[] scores = new double[maxLag + 2];
+
+		for (int lag = minLag - 1; lag <= maxLag + 1; lag++) {
+
+			double correlation = 0.0;
+			for (int index = lag; index < envelope.length; index++) {
+				correlation += envelope[index] * envelope[index - lag];
+			}
+
+			double octaves = Math.log(60.0 / (lag * HOP_SECONDS) / PREFERRED_BPM) / Math.log(2.0);
+			double weight = Math.exp(-0.5 * (octaves / TEMPO_SPREAD_OCTAVES) * (octaves / TEMPO_SPREAD_OCTAVES));
+
+			scores[lag] = weight * correlation / (envelope.length - lag);
+		}
+
+		int best = minLag;
+		for (int lag = minLag; lag <= maxLag; lag++) {
+			if (scores[lag] > scores[best]) {
+				best = lag;
+			}
+		}
+
+		double before = scores[best - 1];
+		double after = scores[best + 1];
+		double curvature = before - 2.0 * scores[best] + after;
+		double shift = curvature == 0.0 ? 0.0 : 0.5 * (before - after) / curvature;
+
+		return best + Math.max(-0.5, Math.min(shift, 0.5));
+	}
+
+	/**
+	 * Places the beats by dynamic programming: each block's score is its onset
+	 * strength plus the best score of a previous beat, penalized by how far the
+	 * gap to it is from the beat period. The beats are then traced back from the
+	 * best scoring block near the end.
+	 *
+	 * @param  envelope Normalized onset envelope.
+	 * @param  period   Beat period in blocks.
+	 * @return          Beat times in milliseconds.
+	 */
+	private int[] trackBeats(float[] envelope, double period) {
+
+		int count = envelope.length;
+		double[] score = new double[count];
+		int[] previous = new int[count];
+
+		int shortestGap = (int) Math.round(period / 2.0);
+		int longestGap = (int) Math.round(period * 2.0);
+
+		for (int index = 0; index < count; index++) {
+
+			double best = Double.NEGATIVE_INFINITY;
+			int bestIndex = -1;
+
+			for (int candidate = Math.max(0, index - longestGap); candidate <= index - shortestGap; candidate++) {
+
+				double deviation = Math.log((index - candidate) / period);
+				double value = score[candidate] - TIGHTNESS * deviation * deviation;
+				if (value > best) {
+					best = value;
+					bestIndex = candidate;
+				}
+			}
+
+			score[index] = envelope[index] + Math.max(0.0, best);
+			previous[index] = best > 0.0 ? bestIndex : -1;
+		}
+
+		int last = count - 1;
+		for (int index = Math.max(0, count - (int) Math.ceil(period)); index < count; index++) {
+			if (score[index] > score[last]) {
+				last = index;
+			}
+		}
+
+		int[] beats = new int[count];
+		int beatCount = 0;
+		for (int index = last; index >= 0; index = previous[index]) {
+			beats[beatCount++] = index;
+		}
+
+		// Beats were traced backward; time each from the center of its block.
+		int[] times = new int[beatCount];
+		for (int beat = 0; beat < beatCount; beat++) {
+			double frames = beats[beatCount - 1 - beat] * (double) HOP_FRAMES + BLOCK_FRAMES / 2.0;
+			times[beat] = (int) Math.round(frames * 1000.0 / AudioFormats.SAMPLE_RATE);
+		}
+		return times;
+	}
+}
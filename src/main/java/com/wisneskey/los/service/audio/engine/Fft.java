@@ -0,0 +1,143 @@
+package com.wisneskey.los.service.audio.engine;
+
+/**
+ * Radix-2 fast Fourier transform of a fixed size with its twiddle factors and
+ * window precomputed, for measuring the spectrum of blocks of audio. An
+ * instance reuses its working buffers so it allocates nothing per transform
+ * but must only be used by one thread at a time.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class Fft {
+
+	/**
+	 * Number of points in the transform.
+	 */
+	private int size;
+
+	/**
+	 * Hann window applied to the input.
+	 */
+	private float[] window;
+
+	/**
+	 * Cosine and sine twiddle factors.
+	 */
+	private float[] cos;
+	private float[] sin;
+
+	/**
+	 * Bit reversed index of each point.
+	 */
+	private int[] reversed;
+
+	/**
+	 * Real and imaginary working buffers.
+	 */
+	private float[] real;
+	private float[] imaginary;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a transform.
+	 *
+	 * @param size Number of points; must be a power of two.
+	 */
+	public Fft(int size) {
+
+		if ((size < 2) || (Integer.bitCount(size) != 1)) {
+			throw new IllegalArgumentException("FFT size must be a power of two: " + size);
+		}
+
+		this.size = size;
+		this.window = new float[size];
+		this.cos = new float[size / 2];
+		this.sin = new float[size / 2];
+		this.reversed = new int[size];
+		this.real = new float[size];
+		this.imaginary = new float[size];
+
+		for (int index = 0; index < size; index++) {
+			window[index] = (float) (0.5 - 0.5 * Math.cos(2.0 * Math.PI * index / size));
+		}
+
+		for (int index = 0; index < size / 2; index++) {
+			cos[index] = (float) Math.cos(-2.0 * Math.PI * index / size);
+			sin[index] = (float) Math.sin(-2.0 * Math.PI * index / size);
+		}
+
+		int bits = Integer.numberOfTrailingZeros(size);
+		for (int index = 0; index < size; index++) {
+			reversed[index] = Integer.reverse(index) >>> (32 - bits);
+		}
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Computes the magnitude spectrum of a windowed block of real samples.
+	 *
+	 * @param input      Block of samples; only the first size samples are used.
+	 * @param magnitudes Receives the magnitude of each of the first size / 2 bins.
+	 */
+	public void magnitudes(float[] input, float[] magnitudes) {
+
+		for (int index = 0; index < size; index++) {
+			real[reversed[index]] = input[index] * window[index];
+			imaginary[reversed[index]] = 0.0f;
+		}
+
+		for (int length = 2; length <= size; length <<= 1) {
+
+			int half = length >> 1;
+			int step = size / length;
+
+			for (int start = 0; start < size; start += length) {
+				for (int offset = 0; offset < half; offset++) {
+
+					float twiddleReal = cos[offset * step];
+					float twiddleImaginary = sin[offset * step];
+
+					int even = start + offset;
+					int odd = even + half;
+
+					float oddReal = real[odd] * twiddleReal - imaginary[odd] * twiddleImaginary;
+					float oddImaginary = real[odd] * twiddleImaginary + imaginary[odd] * twiddleReal;
+
+					real[odd] = real[even] - oddReal;
+					imaginary[odd] = imaginary[even] - oddImaginary;
+					real[even] += oddReal;
+					imaginary[even] += oddImaginary;
+				}
+			}
+		}
+
+		for (int bin = 0; bin < size / 2; bin++) {
+			magnitudes[bin] = (float) Math.sqrt(real[bin] * real[bin] + imaginary[bin] * imaginary[bin]);
+		}
+	}
+
+	public int getSize() {
+		return size;
+	}
+}
@@ -0,0 +1,265 @@
+package com.wisneskey.los.service.audio.engine;
+
+import java.util.Arrays;
+
+/**
+ * Measures the integrated loudness of audio in the engine's output format as
+ * defined by ITU-R BS.1770 and EBU R128: the audio is K-weighted, its mean
+ * square is taken over 400ms blocks overlapping by 75%, and blocks below an
+ * absolute gate and then a gate relative to the loudness of the rest are
+ * ignored. The sample peak is tracked as well so a gain can be limited to
+ * avoid clipping.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class LoudnessMeter {
+
+	/**
+	 * Blocks quieter than this are ignored as silence.
+	 */
+	private static final double ABSOLUTE_GATE_LUFS = -70.0;
+
+	/**
+	 * Blocks this far below the loudness of the ungated blocks are ignored.
+	 */
+	private static final double RELATIVE_GATE_LU = -10.0;
+
+	/**
+	 * Offset in the loudness formula that makes a full scale 1kHz sine -3.01
+	 * LUFS.
+	 */
+	private static final double LOUDNESS_OFFSET = -0.691;
+
+	/**
+	 * Number of 100ms steps in each 400ms block.
+	 */
+	private static final int STEPS_PER_BLOCK = 4;
+
+	/**
+	 * Coefficients of the two K-weighting filter stages: a high shelf modelling
+	 * the head followed by a high pass.
+	 */
+	private double[][] b = new double[2][3];
+	private double[][] a = new double[2][3];
+
+	/**
+	 * Filter state for each channel and stage.
+	 */
+	private double[][] z1 = new double[AudioFormats.CHANNELS][2];
+	private double[][] z2 = new double[AudioFormats.CHANNELS][2];
+
+	/**
+	 * Number of frames in each 100ms step.
+	 */
+	private int stepFrames = AudioFormats.framesForMillis(100);
+
+	/**
+	 * Sum of the squared weighted samples in the current step.
+	 */
+	private double stepEnergy;
+
+	/**
+	 * Number of frames in the current step so far.
+	 */
+	private int stepFrameCount;
+
+	/**
+	 * Energies of the most recent steps.
+	 */
+	private double[] recentSteps = new double[STEPS_PER_BLOCK];
+
+	/**
+	 * Number of steps completed.
+	 */
+	private long stepCount;
+
+	/**
+	 * Mean square of each complete block.
+	 */
+	private double[] blocks = new double[1024];
+
+	/**
+	 * Number of complete blocks.
+	 */
+	private int blockCount;
+
+	/**
+	 * Largest absolute sample value seen.
+	 */
+	private int peak;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a meter at the engine's sample rate.
+	 */
+	public LoudnessMeter() {
+
+		double rate = AudioFormats.SAMPLE_RATE;
+
+		// High shelf stage (coefficients derived for any rate as in libebur128).
+		double f0 = 1681.974450955533;
+		double gain = 3.999843853973347;
+		double q = 0.7071752369554196;
+		double k = Math.tan(Math.PI * f0 / rate);
+		double vh = Math.pow(10.0, gain / 20.0);
+		double vb = Math.pow(vh, 0.4996667741545416);
+		double a0 = 1.0 + k / q + k * k;
+
+		b[0][0] = (vh + vb * k / q + k * k) / a0;
+		b[0][1] = 2.0 * (k * k - vh) / a0;
+		b[0][2] = (vh - vb * k / q + k * k) / a0;
+		a[0][1] = 2.0 * (k * k - 1.0) / a0;
+		a[0][2] = (1.0 - k / q + k * k) / a0;
+
+		// High pass stage.
+		f0 = 38.13547087602444;
+		q = 0.5003270373238773;
+		k = Math.tan(Math.PI * f0 / rate);
+		a0 = 1.0 + k / q + k * k;
+
+		b[1][0] = 1.0;
+		b[1][1] = -2.0;
+		b[1][2] = 1.0;
+		a[1][1] = 2.0 * (k * k - 1.0) / a0;
+		a[1][2] = (1.0 - k / q + k * k) / a0;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Adds interleaved stereo samples to the measurement.
+	 *
+	 * @param samples Samples to add.
+	 * @param length  Number of samples to add.
+	 */
+	public void process(short[] samples, int length) {
+
+		for (int index = 0; index + AudioFormats.CHANNELS <= length; index += AudioFormats.CHANNELS) {
+
+			for (int channel = 0; channel < AudioFormats.CHANNELS; channel++) {
+
+				int sample = samples[index + channel];
+				peak = Math.max(peak, Math.abs(sample));
+
+				double weighted = sample / 32768.0;
+				for (int stage = 0; stage < 2; stage++) {
+					double input = weighted;
+					weighted = b[stage][0] * input + z1[channel][stage];
+					z1[channel][stage] = b[stage][1] * input - a[stage][1] * weighted + z2[channel][stage];
+					z2[channel][stage] = b[stage][2] * input - a[stage][2] * weighted;
+				}
+
+				stepEnergy += weighted * weighted;
+			}
+
+			if (++stepFrameCount == stepFrames) {
+				completeStep();
+			}
+		}
+	}
+
+	/**
+	 * Returns the integrated loudness of everything measured.
+	 *
+	 * @return Loudness in LUFS or NaN if there was too little audio or it was
+	 *         silent.
+	 */
+	public double getIntegratedLoudness() {
+
+		double absoluteGate = energyForLoudness(ABSOLUTE_GATE_LUFS);
+		double ungated = meanAbove(absoluteGate);
+		if (Double.isNaN(ungated)) {
+			return Double.NaN;
+		}
+
+		double relativeGate = energyForLoudness(loudnessForEnergy(ungated) + RELATIVE_GATE_LU);
+		return loudnessForEnergy(meanAbove(Math.max(absoluteGate, relativeGate)));
+	}
+
+	/**
+	 * Returns the largest sample measured.
+	 *
+	 * @return Sample peak from 0.0 to 1.0.
+	 */
+	public double getPeak() {
+		return peak / 32768.0;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Records the energy of a completed step and the block ending with it.
+	 */
+	private void completeStep() {
+
+		recentSteps[(int) (stepCount % STEPS_PER_BLOCK)] = stepEnergy;
+		stepCount++;
+		stepEnergy = 0.0;
+		stepFrameCount = 0;
+
+		if (stepCount < STEPS_PER_BLOCK) {
+			return;
+		}
+
+		double blockEnergy = 0.0;
+		for (double energy : recentSteps) {
+			blockEnergy += energy;
+		}
+
+		if (blockCount == blocks.length) {
+			blocks = Arrays.copyOf(blocks, blocks.length * 2);
+		}
+		blocks[blockCount++] = blockEnergy / (STEPS_PER_BLOCK * stepFrames);
+	}
+
+	/**
+	 * Returns the mean of the block energies above a gate.
+	 *
+	 * @param  gate Energy a block must exceed to count.
+	 * @return      Mean energy or NaN if no block exceeds the gate.
+	 */
+	private double meanAbove(double gate) {
+
+		double total = 0.0;
+		int count = 0;
+
+		for (int index = 0; index < blockCount; index++) {
+			if (blocks[index] > gate) {
+				total += blocks[index];
+				count++;
+			}
+		}
+
+		return count == 0 ? Double.NaN : total / count;
+	}
+
+	private static double loudnessForEnergy(double energy) {
+		return LOUDNESS_OFFSET + 10.0 * Math.log10(energy);
+	}
+
+	private static double energyForLoudness(double loudness) {
+		return Math.pow(10.0, (loudness - LOUDNESS_OFFSET) / 10.0);
+	}
+}
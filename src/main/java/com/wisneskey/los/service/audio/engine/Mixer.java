@@ -0,0 +1,457 @@
+package com.wisneskey.los.service.audio.engine;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Software mixer that sums the playing effect voices and the music stream into
+ * one period of output at a time. Each voice has its own gain and the number of
+ * voices is limited; when a new effect starts with every voice in use the
+ * quietest (and then oldest) voice is faded out over one period and replaced.
+ * The music is ducked to a lower level whenever effects are playing and
+ * smoothly restored after they finish.
+ *
+ * Voices are started from any thread but only the render thread calls
+ * {@link #render(byte[])}, which allocates nothing so the garbage collector
+ * never has a reason to pause the output.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class Mixer {
+
+	/**
+	 * Number of frames in each rendered period.
+	 */
+	private int periodFrames;
+
+	/**
+	 * Slots for the voices currently playing; empty slots are null.
+	 */
+	private Voice[] voices;
+
+	/**
+	 * Voices started by callers waiting to be picked up by the render thread.
+	 */
+	private Queue<Voice> pendingVoices = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Accumulator for the sum of the voices in a period.
+	 */
+	private int[] mix;
+
+	/**
+	 * Source of the music stream or null if no music is being mixed.
+	 */
+	private volatile MusicSource musicSource;
+
+	/**
+	 * Buffer the music is copied to for analysis or null if it is not tapped.
+	 */
+	private volatile PcmRingBuffer musicTap;
+
+	/**
+	 * Buffer the music for a period is read into.
+	 */
+	private short[] musicSamples;
+
+	/**
+	 * Gain applied to the music stream.
+	 */
+	private volatile float musicGain = 1.0f;
+
+	/**
+	 * Level the music is reduced to while effects are playing.
+	 */
+	private float duckGain;
+
+	/**
+	 * Change in the duck level per period while ducking.
+	 */
+	private float duckAttackStep;
+
+	/**
+	 * Change in the duck level per period while restoring.
+	 */
+	private float duckReleaseStep;
+
+	/**
+	 * Current level of the ducking applied to the music.
+	 */
+	private float duckLevel = 1.0f;
+
+	/**
+	 * Sequence number given to the next voice accepted, used to find the oldest
+	 * voice.
+	 */
+	private long nextSequence;
+
+	private volatile int activeVoices;
+	private volatile long voicesStolen;
+	private volatile long lastStartDelayNanos;
+	private volatile long periodsRendered;
+	private volatile long totalRenderNanos;
+	private volatile long maxRenderNanos;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a mixer.
+	 *
+	 * @param periodFrames  Number of frames in each rendered period.
+	 * @param maxVoices     Maximum number of effects that can play at once.
+	 * @param duckGain      Level from 0.0 to 1.0 to reduce the music to while
+	 *                        effects play.
+	 * @param duckAttackMs  Time in milliseconds to duck the music.
+	 * @param duckReleaseMs Time in milliseconds to restore the music.
+	 */
+	public Mixer(int periodFrames, int maxVoices, double duckGain, int duckAttackMs, int duckReleaseMs) {
+
+		this.periodFrames = periodFrames;
+		this.voices = new Voice[Math.max(1, maxVoices)];
+		this.mix = new int[periodFrames * AudioFormats.CHANNELS];
+		this.musicSamples = new short[periodFrames * AudioFormats.CHANNELS];
+
+		this.duckGain = (float) Math.max(0.0, Math.min(duckGain, 1.0));
+		this.duckAttackStep = duckStep(duckAttackMs);
+		this.duckReleaseStep = duckStep(duckReleaseMs);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Starts playing a clip. The returned future is completed by the render
+	 * thread once the last of the clip has been mixed or the voice has been
+	 * stolen so anything chained to it should be quick or use the asynchronous
+	 * variants.
+	 *
+	 * @param  clip Clip to play.
+	 * @param  gain Gain to apply to the clip from 0.0 to 1.0.
+	 * @return      Future completed when the clip has finished.
+	 */
+	public CompletableFuture<Void> play(PcmClip clip, double gain) {
+
+		Voice voice = new Voice(clip, (float) Math.max(0.0, Math.min(gain, 1.0)));
+		pendingVoices.offer(voice);
+		return voice.completion;
+	}
+
+	/**
+	 * Sets the stream of music to mix with the effects.
+	 *
+	 * @param musicSource Source of the music or null for none.
+	 */
+	public void setMusicSource(MusicSource musicSource) {
+		this.musicSource = musicSource;
+	}
+
+	/**
+	 * Sets a buffer to receive a copy of the music as it is mixed, before any gain
+	 * is applied, so the music can be analyzed while it plays. Music that does
+	 * not fit in the buffer is not copied; the mixer never waits for the reader.
+	 *
+	 * @param musicTap Buffer to copy the music to or null to stop copying.
+	 */
+	public void setMusicTap(PcmRingBuffer musicTap) {
+		this.musicTap = musicTap;
+	}
+
+	/**
+	 * Sets the gain applied to the music stream before ducking.
+	 *
+	 * @param gain Gain from 0.0 to 1.0.
+	 */
+	public void setMusicGain(double gain) {
+		this.musicGain = (float) Math.max(0.0, Math.min(gain, 1.0));
+	}
+
+	/**
+	 * Mixes the next period into little endian 16-bit stereo bytes.
+	 *
+	 * @param output Buffer of one period of bytes to render into.
+	 */
+	public void render(byte[] output) {
+
+		long start = System.nanoTime();
+
+		Arrays.fill(mix, 0);
+		acceptPendingVoices();
+		int playing = mixVoices();
+		mixMusic(playing > 0);
+
+		for (int index = 0; index < mix.length; index++) {
+			int sample = Math.max(Short.MIN_VALUE, Math.min(mix[index], Short.MAX_VALUE));
+			output[index * 2] = (byte) sample;
+			output[index * 2 + 1] = (byte) (sample >> 8);
+		}
+
+		activeVoices = playing;
+
+		long elapsed = System.nanoTime() - start;
+		periodsRendered++;
+		totalRenderNanos += elapsed;
+		if (elapsed > maxRenderNanos) {
+			maxRenderNanos = elapsed;
+		}
+	}
+
+	/**
+	 * Completes every playing and pending voice. Only called once the render
+	 * thread has stopped.
+	 */
+	public void clear() {
+
+		for (int slot = 0; slot < voices.length; slot++) {
+			if (voices[slot] != null) {
+				voices[slot].completion.complete(null);
+				voices[slot] = null;
+			}
+		}
+
+		Voice voice;
+		while ((voice = pendingVoices.poll()) != null) {
+			voice.completion.complete(null);
+		}
+
+		activeVoices = 0;
+	}
+
+	public int getActiveVoices() {
+		return activeVoices;
+	}
+
+	public long getVoicesStolen() {
+		return voicesStolen;
+	}
+
+	/**
+	 * Returns how long the most recently started voice waited before it was first
+	 * mixed.
+	 *
+	 * @return Delay in nanoseconds.
+	 */
+	public long getLastStartDelayNanos() {
+		return lastStartDelayNanos;
+	}
+
+	/**
+	 * Returns a summary of the mixer's workload for logging.
+	 *
+	 * @return Summary of the mixer statistics.
+	 */
+	public String getStatistics() {
+
+		long periods = periodsRendered;
+		long averageNanos = periods == 0 ? 0 : totalRenderNanos / periods;
+		long periodNanos = AudioFormats.framesToMicros(periodFrames) * 1000L;
+
+		return "periods=" + periods + " averageRenderUs=" + (averageNanos / 1000) + " maxRenderUs="
+				+ (maxRenderNanos / 1000) + " averageLoadPercent="
+				+ String.format("%.2f", (100.0 * averageNanos) / periodNanos) + " voicesStolen=" + voicesStolen;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Moves newly started voices into voice slots, stealing a slot if they are all
+	 * in use.
+	 */
+	private void acceptPendingVoices() {
+
+		Voice voice;
+		while ((voice = pendingVoices.poll()) != null) {
+
+			int slot = freeSlot();
+			if (slot < 0) {
+				slot = victimSlot();
+				fadeOut(voices[slot]);
+				voices[slot].completion.complete(null);
+				voicesStolen++;
+			}
+
+			voice.sequence = nextSequence++;
+			voices[slot] = voice;
+			lastStartDelayNanos = System.nanoTime() - voice.requestNanos;
+		}
+	}
+
+	/**
+	 * Returns the index of a free voice slot.
+	 *
+	 * @return Index of a free slot or -1 if every slot is in use.
+	 */
+	private int freeSlot() {
+		for (int slot = 0; slot < voices.length; slot++) {
+			if (voices[slot] == null) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the slot of the voice to steal: the quietest voice, or the oldest of
+	 * the quietest if there is a tie.
+	 *
+	 * @return Index of the slot to steal.
+	 */
+	private int victimSlot() {
+
+		int victim = 0;
+		for (int slot = 1; slot < voices.length; slot++) {
+
+			Voice candidate = voices[slot];
+			Voice current = voices[victim];
+
+			if ((candidate.gain < current.gain)
+					|| ((candidate.gain == current.gain) && (candidate.sequence < current.sequence))) {
+				victim = slot;
+			}
+		}
+		return victim;
+	}
+
+	/**
+	 * Mixes the next period of a voice that is being stolen with a linear fade to
+	 * silence so that cutting it off does not click.
+	 *
+	 * @param voice Voice being stolen.
+	 */
+	private void fadeOut(Voice voice) {
+
+		int count = Math.min(mix.length, voice.samples.length - voice.position);
+		float step = voice.gain / periodFrames;
+
+		for (int index = 0; index < count; index++) {
+			float gain = voice.gain - (step * (index / AudioFormats.CHANNELS));
+			mix[index] += (int) (voice.samples[voice.position + index] * gain);
+		}
+	}
+
+	/**
+	 * Adds the next period of every playing voice to the mix, releasing voices
+	 * that have finished.
+	 *
+	 * @return Number of voices that were mixed.
+	 */
+	private int mixVoices() {
+
+		int playing = 0;
+
+		for (int slot = 0; slot < voices.length; slot++) {
+
+			Voice voice = voices[slot];
+			if (voice == null) {
+				continue;
+			}
+
+			playing++;
+
+			int count = Math.min(mix.length, voice.samples.length - voice.position);
+			for (int index = 0; index < count; index++) {
+				mix[index] += (int) (voice.samples[voice.position + index] * voice.gain);
+			}
+
+			voice.position += count;
+			if (voice.position >= voice.samples.length) {
+				voices[slot] = null;
+				voice.completion.complete(null);
+			}
+		}
+
+		return playing;
+	}
+
+	/**
+	 * Adds the next period of music to the mix, moving the duck level toward its
+	 * target across the period.
+	 *
+	 * @param effectsPlaying Flag indicating if any effects are playing.
+	 */
+	private void mixMusic(boolean effectsPlaying) {
+
+		float startLevel = duckLevel;
+		if (effectsPlaying) {
+			duckLevel = Math.max(duckGain, duckLevel - duckAttackStep);
+		} else {
+			duckLevel = Math.min(1.0f, duckLevel + duckReleaseStep);
+		}
+
+		MusicSource source = musicSource;
+		if (source == null) {
+			return;
+		}
+
+		int count = source.read(musicSamples, 0, musicSamples.length);
+
+		PcmRingBuffer tap = musicTap;
+		if ((tap != null) && (count > 0)) {
+			tap.write(musicSamples, 0, count);
+		}
+
+		float gain = musicGain;
+		float levelStep = (duckLevel - startLevel) / periodFrames;
+
+		for (int index = 0; index < count; index++) {
+			float level = startLevel + (levelStep * (index / AudioFormats.CHANNELS));
+			mix[index] += (int) (musicSamples[index] * gain * level);
+		}
+	}
+
+	/**
+	 * Returns the change in duck level per period to move between full level and
+	 * the duck level in a period of time.
+	 *
+	 * @param  millis Time in milliseconds for the full change.
+	 * @return        Change in level per period.
+	 */
+	private float duckStep(int millis) {
+
+		int periods = Math.max(1, AudioFormats.framesForMillis(millis) / periodFrames);
+		return Math.max(1.0f - duckGain, Float.MIN_NORMAL) / periods;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Inner classes.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * A single clip being played.
+	 */
+	private static class Voice {
+
+		private short[] samples;
+		private int position;
+		private float gain;
+		private long sequence;
+		private long requestNanos = System.nanoTime();
+		private CompletableFuture<Void> completion = new CompletableFuture<>();
+
+		private Voice(PcmClip clip, float gain) {
+			this.samples = clip.getSamples();
+			this.gain = gain;
+		}
+	}
+}
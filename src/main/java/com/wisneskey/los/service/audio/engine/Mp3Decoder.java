@@ -0,0 +1,154 @@
+package com.wisneskey.los.service.audio.engine;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import com.wisneskey.los.error.LaissezException;
+
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.JavaLayerException;
+import javazoom.jl.decoder.SampleBuffer;
+
+/**
+ * Decodes MP3 files in-process into clips in the engine's output format. Mono
+ * files are spread to both channels and files at other sample rates are
+ * linearly resampled so that playing a clip never requires any conversion.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class Mp3Decoder {
+
+	/**
+	 * Initial capacity in samples of the decode buffer (about five seconds of
+	 * stereo audio).
+	 */
+	private static final int INITIAL_CAPACITY = AudioFormats.SAMPLE_RATE * AudioFormats.CHANNELS * 5;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Private constructor to disallow instantiation.
+	 */
+	private Mp3Decoder() {
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Static methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Decodes an entire MP3 file into a clip.
+	 *
+	 * @param  name Name to give the clip.
+	 * @param  path Path to the MP3 file.
+	 * @return      Decoded clip in the engine's output format.
+	 */
+	public static PcmClip decode(String name, Path path) {
+
+		short[] samples = new short[INITIAL_CAPACITY];
+		int sampleCount = 0;
+		int channels = 0;
+		int sampleRate = 0;
+
+		try (InputStream input = new BufferedInputStream(Files.newInputStream(path))) {
+
+			Bitstream bitstream = new Bitstream(input);
+			Decoder decoder = new Decoder();
+
+			try {
+				Header header;
+				while ((header = bitstream.readFrame()) != null) {
+
+					SampleBuffer output = (SampleBuffer) decoder.decodeFrame(header, bitstream);
+					channels = decoder.getOutputChannels();
+					sampleRate = decoder.getOutputFrequency();
+
+					int length = output.getBufferLength();
+					if (sampleCount + length > samples.length) {
+						samples = Arrays.copyOf(samples, Math.max(samples.length * 2, sampleCount + length));
+					}
+
+					System.arraycopy(output.getBuffer(), 0, samples, sampleCount, length);
+					sampleCount += length;
+
+					bitstream.closeFrame();
+				}
+			} finally {
+				bitstream.close();
+			}
+
+		} catch (IOException | JavaLayerException e) {
+			throw new LaissezException("Failed to decode MP3: " + path, e);
+		}
+
+		if (sampleCount == 0) {
+			throw new LaissezException("MP3 contained no audio: " + path);
+		}
+
+		return new PcmClip(name, convert(samples, sampleCount, channels, sampleRate));
+	}
+
+	/**
+	 * Converts decoded samples into the engine's channel layout and sample rate.
+	 *
+	 * @param  source      Interleaved decoded samples.
+	 * @param  sampleCount Number of valid samples in the source.
+	 * @param  channels    Number of channels in the source.
+	 * @param  sampleRate  Sample rate of the source in Hz.
+	 * @return             Interleaved stereo samples at the engine's sample rate.
+	 */
+	static short[] convert(short[] source, int sampleCount, int channels, int sampleRate) {
+
+		int sourceFrames = sampleCount / channels;
+
+		if ((channels == AudioFormats.CHANNELS) && (sampleRate == AudioFormats.SAMPLE_RATE)) {
+			return Arrays.copyOf(source, sourceFrames * AudioFormats.CHANNELS);
+		}
+
+		int targetFrames = (int) ((long) sourceFrames * AudioFormats.SAMPLE_RATE / sampleRate);
+		short[] target = new short[targetFrames * AudioFormats.CHANNELS];
+		double step = (double) sampleRate / AudioFormats.SAMPLE_RATE;
+
+		for (int frame = 0; frame < targetFrames; frame++) {
+
+			double position = frame * step;
+			int index = (int) position;
+			int next = Math.min(index + 1, sourceFrames - 1);
+			double fraction = position - index;
+
+			for (int channel = 0; channel < AudioFormats.CHANNELS; channel++) {
+
+				// Mono sources feed both output channels from their only channel.
+				int sourceChannel = Math.min(channel, channels - 1);
+				int a = source[index * channels + sourceChannel];
+				int b = source[next * channels + sourceChannel];
+				target[frame * AudioFormats.CHANNELS + channel] = (short) Math.round(a + (b - a) * fraction);
+			}
+		}
+
+		return target;
+	}
+}
@@ -0,0 +1,156 @@
+package com.wisneskey.los.service.audio.engine;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.wisneskey.los.error.LaissezException;
+
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.BitstreamException;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.JavaLayerException;
+import javazoom.jl.decoder.SampleBuffer;
+
+/**
+ * Decodes an MP3 file a frame at a time into the engine's output format so a
+ * track can be played without decoding all of it first. Frames can be skipped
+ * without being decoded to seek forward quickly.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class Mp3Stream implements AutoCloseable {
+
+	/**
+	 * Path of the file being decoded.
+	 */
+	private Path path;
+
+	/**
+	 * Stream the file is read from.
+	 */
+	private InputStream input;
+
+	/**
+	 * Bitstream splitting the file into frames.
+	 */
+	private Bitstream bitstream;
+
+	/**
+	 * Decoder for the frames.
+	 */
+	private Decoder decoder = new Decoder();
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor opening an MP3 file for decoding.
+	 *
+	 * @param path Path to the MP3 file.
+	 */
+	public Mp3Stream(Path path) {
+
+		this.path = path;
+
+		try {
+			this.input = new BufferedInputStream(Files.newInputStream(path));
+		} catch (IOException e) {
+			throw new LaissezException("Failed to open MP3: " + path, e);
+		}
+
+		this.bitstream = new Bitstream(input);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Decodes the next frame.
+	 *
+	 * @return Interleaved stereo samples at the engine's sample rate or null at
+	 *         the end of the file.
+	 */
+	public short[] nextFrame() {
+
+		try {
+			Header header = bitstream.readFrame();
+			if (header == null) {
+				return null;
+			}
+
+			SampleBuffer output = (SampleBuffer) decoder.decodeFrame(header, bitstream);
+			bitstream.closeFrame();
+
+			return Mp3Decoder.convert(output.getBuffer(), output.getBufferLength(), decoder.getOutputChannels(),
+					decoder.getOutputFrequency());
+
+		} catch (JavaLayerException e) {
+			throw new LaissezException("Failed to decode MP3: " + path, e);
+		}
+	}
+
+	/**
+	 * Skips whole frames without decoding them.
+	 *
+	 * @param  millis Amount of audio to skip in milliseconds.
+	 * @return        Amount of audio actually skipped in milliseconds, which is
+	 *                less than requested if the end of the file was reached.
+	 */
+	public double skip(double millis) {
+
+		double skipped = 0.0;
+
+		try {
+			Header header;
+			while ((skipped < millis) && ((header = bitstream.readFrame()) != null)) {
+				skipped += header.ms_per_frame();
+				bitstream.closeFrame();
+			}
+		} catch (BitstreamException e) {
+			throw new LaissezException("Failed to skip in MP3: " + path, e);
+		}
+
+		return skipped;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// AutoCloseable methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public void close() {
+
+		try {
+			bitstream.close();
+		} catch (BitstreamException e) {
+			// Closing the underlying stream is all that matters.
+		}
+
+		try {
+			input.close();
+		} catch (IOException e) {
+			// Nothing more can be done with a stream that will not close.
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package com.wisneskey.los.service.audio.engine;
+
+/**
+ * Interface for a stream of music fed into the mixer. The mixer pulls one
+ * period of samples at a time from the render thread so implementations must
+ * not block or allocate; anything they cannot supply in time is played as
+ * silence.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public interface MusicSource {
+
+	/**
+	 * Reads interleaved stereo samples in the engine's format.
+	 *
+	 * @param  samples Buffer to read the samples into.
+	 * @param  offset  Offset in the buffer of the first sample.
+	 * @param  length  Number of samples wanted.
+	 * @return         Number of samples read, which may be less than requested.
+	 */
+	int read(short[] samples, int offset, int length);
+}
@@ -0,0 +1,105 @@
+package com.wisneskey.los.service.audio.engine;
+
+/**
+ * Sound clip decoded into the engine's output format: interleaved stereo
+ * signed 16-bit samples at the engine's sample rate. Clips are immutable once
+ * decoded so any number of voices can play the same clip at once.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class PcmClip {
+
+	/**
+	 * Name of the clip used for logging.
+	 */
+	private String name;
+
+	/**
+	 * Interleaved left and right samples of the clip.
+	 */
+	private short[] samples;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a clip from its interleaved stereo samples.
+	 *
+	 * @param name    Name of the clip.
+	 * @param samples Interleaved left and right samples in the engine's format.
+	 */
+	public PcmClip(String name, short[] samples) {
+		this.name = name;
+		this.samples = samples;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Property getters.
+	// ----------------------------------------------------------------------------------------
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the interleaved samples of the clip. The array must not be
+	 * modified.
+	 *
+	 * @return Interleaved left and right samples.
+	 */
+	public short[] getSamples() {
+		return samples;
+	}
+
+	/**
+	 * Returns the length of the clip in frames (one left and one right sample).
+	 *
+	 * @return Number of frames in the clip.
+	 */
+	public int getFrameCount() {
+		return samples.length / AudioFormats.CHANNELS;
+	}
+
+	/**
+	 * Returns the length of the clip.
+	 *
+	 * @return Duration of the clip in milliseconds.
+	 */
+	public long getDurationMs() {
+		return (getFrameCount() * 1000L) / AudioFormats.SAMPLE_RATE;
+	}
+
+	/**
+	 * Returns the amount of memory used by the clip's samples.
+	 *
+	 * @return Size of the samples in bytes.
+	 */
+	public long getSizeBytes() {
+		return (long) samples.length * Short.BYTES;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Object methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public String toString() {
+		return "PcmClip[" + name + ", " + getDurationMs() + "ms]";
+	}
+}
@@ -0,0 +1,188 @@
+package com.wisneskey.los.service.audio.engine;
+
+/**
+ * Lock-free ring buffer of interleaved samples between exactly one producer
+ * thread and one consumer thread. Positions only ever increase so they double
+ * as a count of the samples written and read, which lets the producer work out
+ * exactly which sample the consumer is playing.
+ *
+ * Only the producer writes the write position and only the consumer writes the
+ * read position; each publishes its position through a volatile field after
+ * touching the samples so neither ever sees a partially copied sample. The
+ * producer discards unread samples by recording a position the consumer skips
+ * ahead to on its next read.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class PcmRingBuffer {
+
+	/**
+	 * Storage for the samples; its length is a power of two.
+	 */
+	private short[] buffer;
+
+	/**
+	 * Mask turning a position into an index in the buffer.
+	 */
+	private int mask;
+
+	/**
+	 * Position of the next sample to be written.
+	 */
+	private volatile long writePosition;
+
+	/**
+	 * Position of the next sample to be read.
+	 */
+	private volatile long readPosition;
+
+	/**
+	 * Position the consumer skips ahead to because everything before it was
+	 * discarded.
+	 */
+	private volatile long discardPosition;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a ring buffer. The capacity is rounded up to a power of two.
+	 *
+	 * @param minimumCapacity Minimum number of samples the buffer must hold.
+	 */
+	public PcmRingBuffer(int minimumCapacity) {
+
+		int capacity = Integer.highestOneBit(Math.max(2, minimumCapacity) - 1) << 1;
+		this.buffer = new short[capacity];
+		this.mask = capacity - 1;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Producer methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Writes as many samples as currently fit.
+	 *
+	 * @param  samples Samples to write.
+	 * @param  offset  Index of the first sample to write.
+	 * @param  length  Number of samples to write.
+	 * @return         Number of samples written.
+	 */
+	public int write(short[] samples, int offset, int length) {
+
+		long write = writePosition;
+		int count = (int) Math.min(length, buffer.length - (write - effectiveReadPosition()));
+
+		int index = (int) (write & mask);
+		int firstPart = Math.min(count, buffer.length - index);
+		System.arraycopy(samples, offset, buffer, index, firstPart);
+		System.arraycopy(samples, offset + firstPart, buffer, 0, count - firstPart);
+
+		writePosition = write + count;
+		return count;
+	}
+
+	/**
+	 * Discards every sample written that has not yet been read.
+	 */
+	public void discard() {
+		discardPosition = writePosition;
+	}
+
+	/**
+	 * Returns the number of samples written and not yet read.
+	 *
+	 * @return Number of buffered samples.
+	 */
+	public int getBuffered() {
+		return (int) (writePosition - effectiveReadPosition());
+	}
+
+	/**
+	 * Returns the number of samples that can be written without overwriting
+	 * unread samples.
+	 *
+	 * @return Number of free sample slots.
+	 */
+	public int getFree() {
+		return buffer.length - getBuffered();
+	}
+
+	public long getWritePosition() {
+		return writePosition;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Consumer methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Reads up to the requested number of samples.
+	 *
+	 * @param  samples Buffer to read the samples into.
+	 * @param  offset  Index to store the first sample at.
+	 * @param  length  Maximum number of samples to read.
+	 * @return         Number of samples read.
+	 */
+	public int read(short[] samples, int offset, int length) {
+
+		long read = effectiveReadPosition();
+		int count = (int) Math.min(length, writePosition - read);
+
+		int index = (int) (read & mask);
+		int firstPart = Math.min(count, buffer.length - index);
+		System.arraycopy(buffer, index, samples, offset, firstPart);
+		System.arraycopy(buffer, 0, samples, offset + firstPart, count - firstPart);
+
+		readPosition = read + count;
+		return count;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the position of the next sample the consumer will read, counting
+	 * every sample ever written including those discarded.
+	 *
+	 * @return Read position in samples.
+	 */
+	public long getReadPosition() {
+		return effectiveReadPosition();
+	}
+
+	public int getCapacity() {
+		return buffer.length;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the read position taking any discard into account.
+	 *
+	 * @return Position of the next sample to read.
+	 */
+	private long effectiveReadPosition() {
+		return Math.max(readPosition, discardPosition);
+	}
+}
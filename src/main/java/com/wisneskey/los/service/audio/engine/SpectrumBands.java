@@ -0,0 +1,120 @@
+package com.wisneskey.los.service.audio.engine;
+
+/**
+ * Measures the energy in frequency bands of blocks of audio for driving
+ * effects from what is playing. Each block is windowed and transformed and
+ * the magnitudes of the bins in each band are summed; all of the working
+ * arrays are allocated up front so measuring a block allocates nothing.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class SpectrumBands {
+
+	/**
+	 * Scale for the energy of a band so a windowed sine measures the square of
+	 * its amplitude.
+	 */
+	private static final float HANN_ENERGY_CORRECTION = 2.0f / 3.0f;
+
+	/**
+	 * Transform used to measure the spectrum.
+	 */
+	private Fft fft;
+
+	/**
+	 * Magnitudes of the bins of the last block measured.
+	 */
+	private float[] magnitudes;
+
+	/**
+	 * First and last (exclusive) bin of each band.
+	 */
+	private int[] firstBins;
+	private int[] lastBins;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for measuring bands.
+	 *
+	 * @param blockFrames Number of frames in each block; must be a power of two.
+	 * @param bandEdgesHz Frequencies dividing the bands in ascending order; n + 1
+	 *                      edges define n bands.
+	 */
+	public SpectrumBands(int blockFrames, double... bandEdgesHz) {
+
+		if (bandEdgesHz.length < 2) {
+			throw new IllegalArgumentException("At least one band must be defined.");
+		}
+
+		this.fft = new Fft(blockFrames);
+		this.magnitudes = new float[blockFrames / 2];
+		this.firstBins = new int[bandEdgesHz.length - 1];
+		this.lastBins = new int[bandEdgesHz.length - 1];
+
+		double binHz = (double) AudioFormats.SAMPLE_RATE / blockFrames;
+		for (int band = 0; band < firstBins.length; band++) {
+
+			// Every band gets at least one bin, even where bins are wider than it.
+			firstBins[band] = Math.max(1, Math.min((int) Math.round(bandEdgesHz[band] / binHz), magnitudes.length - 1));
+			lastBins[band] = Math.max(firstBins[band] + 1,
+					Math.min((int) Math.round(bandEdgesHz[band + 1] / binHz), magnitudes.length));
+		}
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Measures the energy in each band of a block of mono samples.
+	 *
+	 * @param block    Samples from -1.0 to 1.0; only the first block size are
+	 *                   used.
+	 * @param energies Receives the energy of each band, scaled so a full scale
+	 *                   sine in a band measures 1.0.
+	 */
+	public void measure(float[] block, float[] energies) {
+
+		fft.magnitudes(block, magnitudes);
+
+		// A Hann windowed full scale sine peaks at a quarter of the block size and
+		// its energy spreads across bins totalling one and a half times the peak's.
+		float scale = 4.0f / fft.getSize();
+
+		for (int band = 0; band < firstBins.length; band++) {
+
+			float energy = 0.0f;
+			for (int bin = firstBins[band]; bin < lastBins[band]; bin++) {
+				float magnitude = magnitudes[bin] * scale;
+				energy += magnitude * magnitude;
+			}
+			energies[band] = energy * HANN_ENERGY_CORRECTION;
+		}
+	}
+
+	public int getBlockFrames() {
+		return fft.getSize();
+	}
+
+	public int getBandCount() {
+		return firstBins.length;
+	}
+}
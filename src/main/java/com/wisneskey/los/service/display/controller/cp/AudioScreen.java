@@ -133,7 +133,7 @@ public class AudioScreen extends AbstractController {
 	// ----------------------------------------------------------------------------------------
 
 	public void playEffect(SoundEffectId effectId) {
-		((AudioService) Kernel.kernel().getService(ServiceId.AUDIO)).playEffect(effectId, false);
+		((AudioService) Kernel.kernel().getService(ServiceId.AUDIO)).playEffect(effectId);
 	}
 
 }
\ No newline at end of file
@@ -120,7 +120,7 @@ public class ChapScreen extends AbstractController {
 		if (audioState.playingCount().get() <= 0) {
 			Button button = (Button) event.getSource();
 			SoundEffectId soundId = (SoundEffectId) button.getUserData();
-			((AudioService) Kernel.kernel().getService(ServiceId.AUDIO)).playEffect(soundId, false);
+			((AudioService) Kernel.kernel().getService(ServiceId.AUDIO)).playEffect(soundId);
 		}
 	}
 
@@ -13,6 +13,7 @@ import com.wisneskey.los.service.remote.RemoteButtonId;
 import com.wisneskey.los.service.script.ScriptId;
 import com.wisneskey.los.state.MusicState;
 
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.fxml.FXML;
@@ -116,6 +117,9 @@ public class MusicScreen extends AbstractController {
 		choicePlaylist.valueProperty().bindBidirectional(musicState.currentPlaylistName());
 		choicePlaylist.valueProperty().addListener(new PlaylistChangedListener());
 
+		// Refresh the playlists and tracks if the library changes.
+		musicState.libraryVersion().addListener((o, oldValue, newValue) -> Platform.runLater(this::refreshLibrary));
+
 		// Bind the volume control.
 		musicVolumeSlider.valueProperty().bindBidirectional(musicState.volume());
 		
@@ -178,6 +182,10 @@ public class MusicScreen extends AbstractController {
 
 		List<Track> tracklist = ((MusicService) Kernel.kernel().getService(ServiceId.MUSIC))
 				.getPlaylistTracks(playlistName);
+		if (tracklist == null) {
+			return;
+		}
+
 		for (Track track : tracklist) {
 
 			Button trackButton = createListButton(track.getTitle());
@@ -187,6 +195,25 @@ public class MusicScreen extends AbstractController {
 		}
 	}
 
+	/**
+	 * Reloads the playlist choices and the displayed tracks after the library has
+	 * changed.
+	 */
+	private void refreshLibrary() {
+
+		MusicState musicState = chairState().getServiceState(ServiceId.MUSIC);
+		String currentPlaylist = musicState.currentPlaylistName().get();
+
+		List<String> playlists = ((MusicService) Kernel.kernel().getService(ServiceId.MUSIC)).getPlaylists();
+		for (String playlist : playlists) {
+			if (!choicePlaylist.getItems().contains(playlist)) {
+				choicePlaylist.getItems().add(playlist);
+			}
+		}
+
+		popuateTrackList(currentPlaylist);
+	}
+
 	/**
 	 * Method invoked to play a track in response to the press of a track's
 	 * button.
@@ -128,7 +128,7 @@ public class GameScreen extends AbstractController {
 		if (knifeOnKingCake()) {
 
 			// Play the sound effect and move the king cake.
-			((AudioService) kernel().getService(ServiceId.AUDIO)).playEffect(SoundEffectId.MISC_KNIFE_BOX, false);
+			((AudioService) kernel().getService(ServiceId.AUDIO)).playEffect(SoundEffectId.MISC_KNIFE_BOX);
 
 			while (knifeOnKingCake()) {
 
@@ -0,0 +1,126 @@
+package com.wisneskey.los.service.geofence;
+
+import java.util.List;
+
+import com.wisneskey.los.service.location.Location;
+import com.wisneskey.los.service.script.ScriptId;
+
+/**
+ * Object representing a geofence defined in a profile. A fence is a polygon if
+ * it has points and otherwise a circle around its center. Either script is
+ * optional.
+ * 
+ * Copyright (C) 2026 Paul Wisneskey
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class Geofence {
+
+	/**
+	 * Name of the fence for display and logging.
+	 */
+	private String name;
+
+	/**
+	 * Center of a circular fence.
+	 */
+	private Location center;
+
+	/**
+	 * Radius in meters of a circular fence.
+	 */
+	private double radius;
+
+	/**
+	 * Vertices of a polygon fence in order around its edge.
+	 */
+	private List<Location> points;
+
+	/**
+	 * Script to run when the chair enters the fence.
+	 */
+	private ScriptId enterScript;
+
+	/**
+	 * Script to run when the chair exits the fence.
+	 */
+	private ScriptId exitScript;
+
+	// ----------------------------------------------------------------------------------------
+	// Property getters/setters.
+	// ----------------------------------------------------------------------------------------
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Location getCenter() {
+		return center;
+	}
+
+	public void setCenter(Location center) {
+		this.center = center;
+	}
+
+	public double getRadius() {
+		return radius;
+	}
+
+	public void setRadius(double radius) {
+		this.radius = radius;
+	}
+
+	public List<Location> getPoints() {
+		return points;
+	}
+
+	public void setPoints(List<Location> points) {
+		this.points = points;
+	}
+
+	public ScriptId getEnterScript() {
+		return enterScript;
+	}
+
+	public void setEnterScript(ScriptId enterScript) {
+		this.enterScript = enterScript;
+	}
+
+	public ScriptId getExitScript() {
+		return exitScript;
+	}
+
+	public void setExitScript(ScriptId exitScript) {
+		this.exitScript = exitScript;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns if the fence is a polygon rather than a circle.
+	 * 
+	 * @return True if the fence has polygon points.
+	 */
+	public boolean isPolygon() {
+		return (points != null) && !points.isEmpty();
+	}
+}
@@ -0,0 +1,354 @@
+package com.wisneskey.los.service.geofence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.wisneskey.los.error.LaissezException;
+import com.wisneskey.los.service.location.Location;
+
+/**
+ * Spatial index of geofences on a uniform grid. Fences are projected onto a
+ * flat plane in meters around a reference point (fine at the scale of a
+ * parade route) and each fence is registered in every grid cell its bounding
+ * box touches, expanded by the exit margin. Testing a fix only examines the
+ * fences registered in the fix's cell, so the cost does not grow with the
+ * total number of fences.
+ * 
+ * Copyright (C) 2026 Paul Wisneskey
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class GeofenceIndex {
+
+	/**
+	 * Approximate number of meters per degree of latitude.
+	 */
+	private static final double METERS_PER_DEGREE = 111320.0;
+
+	/**
+	 * Shared empty cell for locations with no fences.
+	 */
+	private static final int[] NO_FENCES = new int[0];
+
+	/**
+	 * Fences in the index; the position is the fence's index number.
+	 */
+	private List<Geofence> fences;
+
+	/**
+	 * Projected shapes of the fences by index number.
+	 */
+	private Shape[] shapes;
+
+	/**
+	 * Map of grid cell key to the index numbers of the fences in the cell.
+	 */
+	private Map<Long, int[]> cells = new HashMap<>();
+
+	/**
+	 * Size in meters of each grid cell.
+	 */
+	private double cellSize;
+
+	/**
+	 * Latitude of the projection's origin.
+	 */
+	private double originLatitude;
+
+	/**
+	 * Longitude of the projection's origin.
+	 */
+	private double originLongitude;
+
+	/**
+	 * Meters per degree of longitude at the origin.
+	 */
+	private double metersPerDegreeLongitude;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Builds an index for a list of fences.
+	 * 
+	 * @param fences     Fences to index.
+	 * @param cellSize   Size in meters of each grid cell.
+	 * @param exitMargin Distance in meters outside a fence that it must still be
+	 *                     found within so exits can be detected.
+	 */
+	public GeofenceIndex(List<Geofence> fences, double cellSize, double exitMargin) {
+
+		this.fences = new ArrayList<>(fences);
+		this.cellSize = cellSize;
+		this.shapes = new Shape[fences.size()];
+
+		if (fences.isEmpty()) {
+			return;
+		}
+
+		Location origin = fences.get(0).isPolygon() ? fences.get(0).getPoints().get(0) : fences.get(0).getCenter();
+		if (origin == null) {
+			throw new LaissezException("Geofence has no center or points: " + fences.get(0).getName());
+		}
+
+		originLatitude = origin.getLatitude();
+		originLongitude = origin.getLongitude();
+		metersPerDegreeLongitude = METERS_PER_DEGREE * Math.cos(Math.toRadians(originLatitude));
+
+		Map<Long, List<Integer>> cellLists = new HashMap<>();
+		for (int index = 0; index < fences.size(); index++) {
+
+			Shape shape = project(fences.get(index));
+			shapes[index] = shape;
+
+			long minCellX = cell(shape.minX - exitMargin);
+			long maxCellX = cell(shape.maxX + exitMargin);
+			long minCellY = cell(shape.minY - exitMargin);
+			long maxCellY = cell(shape.maxY + exitMargin);
+
+			for (long cellX = minCellX; cellX <= maxCellX; cellX++) {
+				for (long cellY = minCellY; cellY <= maxCellY; cellY++) {
+					cellLists.computeIfAbsent(key(cellX, cellY), k -> new ArrayList<>()).add(index);
+				}
+			}
+		}
+
+		for (Map.Entry<Long, List<Integer>> entry : cellLists.entrySet()) {
+			cells.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+		}
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the number of fences in the index.
+	 * 
+	 * @return Number of fences.
+	 */
+	public int size() {
+		return fences.size();
+	}
+
+	/**
+	 * Returns a fence by its index number.
+	 * 
+	 * @param  index Index number of the fence.
+	 * @return       Fence for the index number.
+	 */
+	public Geofence getFence(int index) {
+		return fences.get(index);
+	}
+
+	/**
+	 * Returns the index numbers of the fences that could be within the exit
+	 * margin of a location. The returned array must not be modified.
+	 * 
+	 * @param  latitude  Latitude of the location.
+	 * @param  longitude Longitude of the location.
+	 * @return           Index numbers of the candidate fences.
+	 */
+	public int[] candidates(double latitude, double longitude) {
+
+		if (fences.isEmpty()) {
+			return NO_FENCES;
+		}
+
+		int[] found = cells.get(key(cell(projectX(longitude)), cell(projectY(latitude))));
+		return found == null ? NO_FENCES : found;
+	}
+
+	/**
+	 * Returns the signed distance from a location to the edge of a fence.
+	 * 
+	 * @param  index     Index number of the fence.
+	 * @param  latitude  Latitude of the location.
+	 * @param  longitude Longitude of the location.
+	 * @return           Distance in meters to the edge of the fence; negative if
+	 *                   the location is inside it.
+	 */
+	public double signedDistance(int index, double latitude, double longitude) {
+		return shapes[index].signedDistance(projectX(longitude), projectY(latitude));
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	private double projectX(double longitude) {
+		return (longitude - originLongitude) * metersPerDegreeLongitude;
+	}
+
+	private double projectY(double latitude) {
+		return (latitude - originLatitude) * METERS_PER_DEGREE;
+	}
+
+	private long cell(double meters) {
+		return (long) Math.floor(meters / cellSize);
+	}
+
+	private static long key(long cellX, long cellY) {
+		return (cellX << 32) ^ (cellY & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Projects a fence onto the plane.
+	 * 
+	 * @param  fence Fence to project.
+	 * @return       Projected shape of the fence.
+	 */
+	private Shape project(Geofence fence) {
+
+		if (fence.isPolygon()) {
+
+			List<Location> points = fence.getPoints();
+			if (points.size() < 3) {
+				throw new LaissezException("Geofence polygon needs at least 3 points: " + fence.getName());
+			}
+
+			double[] xs = new double[points.size()];
+			double[] ys = new double[points.size()];
+			for (int index = 0; index < points.size(); index++) {
+				xs[index] = projectX(points.get(index).getLongitude());
+				ys[index] = projectY(points.get(index).getLatitude());
+			}
+
+			return new PolygonShape(xs, ys);
+		}
+
+		if ((fence.getCenter() == null) || (fence.getRadius() <= 0)) {
+			throw new LaissezException("Geofence circle needs a center and a radius: " + fence.getName());
+		}
+
+		return new CircleShape(projectX(fence.getCenter().getLongitude()), projectY(fence.getCenter().getLatitude()),
+				fence.getRadius());
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Inner classes.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Base class for a fence projected onto the plane.
+	 */
+	private abstract static class Shape {
+
+		protected double minX;
+		protected double maxX;
+		protected double minY;
+		protected double maxY;
+
+		/**
+		 * Returns the signed distance from a point to the edge of the shape.
+		 * 
+		 * @param  x X coordinate of the point in meters.
+		 * @param  y Y coordinate of the point in meters.
+		 * @return   Distance to the edge; negative if inside.
+		 */
+		abstract double signedDistance(double x, double y);
+	}
+
+	/**
+	 * Circular fence.
+	 */
+	private static class CircleShape extends Shape {
+
+		private double centerX;
+		private double centerY;
+		private double radius;
+
+		private CircleShape(double centerX, double centerY, double radius) {
+			this.centerX = centerX;
+			this.centerY = centerY;
+			this.radius = radius;
+
+			minX = centerX - radius;
+			maxX = centerX + radius;
+			minY = centerY - radius;
+			maxY = centerY + radius;
+		}
+
+		@Override
+		double signedDistance(double x, double y) {
+			return Math.hypot(x - centerX, y - centerY) - radius;
+		}
+	}
+
+	/**
+	 * Polygon fence.
+	 */
+	private static class PolygonShape extends Shape {
+
+		private double[] xs;
+		private double[] ys;
+
+		private PolygonShape(double[] xs, double[] ys) {
+			this.xs = xs;
+			this.ys = ys;
+
+			minX = Double.MAX_VALUE;
+			maxX = -Double.MAX_VALUE;
+			minY = Double.MAX_VALUE;
+			maxY = -Double.MAX_VALUE;
+			for (int index = 0; index < xs.length; index++) {
+				minX = Math.min(minX, xs[index]);
+				maxX = Math.max(maxX, xs[index]);
+				minY = Math.min(minY, ys[index]);
+				maxY = Math.max(maxY, ys[index]);
+			}
+		}
+
+		@Override
+		double signedDistance(double x, double y) {
+
+			boolean inside = false;
+			double nearest = Double.MAX_VALUE;
+
+			for (int index = 0, previous = xs.length - 1; index < xs.length; previous = index++) {
+
+				double x1 = xs[previous];
+				double y1 = ys[previous];
+				double x2 = xs[index];
+				double y2 = ys[index];
+
+				// Ray casting to the right for the inside test.
+				if (((y1 > y) != (y2 > y)) && (x < (x2 - x1) * (y - y1) / (y2 - y1) + x1)) {
+					inside = !inside;
+				}
+
+				nearest = Math.min(nearest, segmentDistance(x, y, x1, y1, x2, y2));
+			}
+
+			return inside ? -nearest : nearest;
+		}
+
+		private static double segmentDistance(double x, double y, double x1, double y1, double x2, double y2) {
+
+			double dx = x2 - x1;
+			double dy = y2 - y1;
+			double lengthSquared = dx * dx + dy * dy;
+
+			double t = lengthSquared == 0 ? 0 : ((x - x1) * dx + (y - y1) * dy) / lengthSquared;
+			t = Math.max(0, Math.min(1, t));
+
+			return Math.hypot(x - (x1 + t * dx), y - (y1 + t * dy));
+		}
+	}
+}
@@ -0,0 +1,291 @@
+package com.wisneskey.los.service.geofence;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.wisneskey.los.kernel.Kernel;
+import com.wisneskey.los.service.AbstractService;
+import com.wisneskey.los.service.ServiceId;
+import com.wisneskey.los.service.location.Location;
+import com.wisneskey.los.service.profile.model.Profile;
+import com.wisneskey.los.service.script.ScriptId;
+import com.wisneskey.los.service.script.ScriptService;
+import com.wisneskey.los.state.GeofenceState;
+import com.wisneskey.los.state.LocationState;
+import com.wisneskey.los.util.PropertyChangeListener;
+
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.util.Pair;
+
+/**
+ * Service for running scripts when the chair enters or exits geofences defined
+ * in the profile. Every new fix is checked against the fences near it using a
+ * grid index. A fence is entered as soon as the chair is inside it but is only
+ * exited once the chair is the hysteresis distance outside it so GPS jitter at
+ * the edge does not repeatedly trigger it.
+ * 
+ * Copyright (C) 2026 Paul Wisneskey
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class GeofenceService extends AbstractService<GeofenceState> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(GeofenceService.class);
+
+	/**
+	 * Internal state object for the geofence service.
+	 */
+	private InternalGeofenceState geofenceState;
+
+	/**
+	 * Spatial index of the fences.
+	 */
+	private GeofenceIndex index;
+
+	/**
+	 * Distance in meters outside a fence the chair must be to exit it.
+	 */
+	private double hysteresis;
+
+	/**
+	 * Index numbers of the fences the chair is inside; only the first
+	 * insideCount entries are used.
+	 */
+	private int[] insideFences;
+
+	/**
+	 * Number of fences the chair is inside.
+	 */
+	private int insideCount;
+
+	/**
+	 * Flags indicating which fences the chair is inside by index number.
+	 */
+	private boolean[] inside;
+
+	/**
+	 * Fix number each fence was last checked on so fences the chair is inside
+	 * but that were not candidates can be found without allocating.
+	 */
+	private long[] checkedOnFix;
+
+	/**
+	 * Number of fixes checked.
+	 */
+	private long fixCount;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Private constructor to require use of static service creation method.
+	 */
+	private GeofenceService() {
+		super(ServiceId.GEOFENCE);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Service methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public GeofenceState getState() {
+		return geofenceState;
+	}
+
+	@Override
+	public void terminate() {
+		LOGGER.trace("Geofence service terminated.");
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Initializes the service from the profile and starts watching the location.
+	 * 
+	 * @param  profile Profile with the fences to watch for.
+	 * @return         Initial state of the service.
+	 */
+	private GeofenceState initialize(Profile profile) {
+
+		List<Geofence> fences = profile.getGeofences() == null ? Collections.emptyList() : profile.getGeofences();
+
+		hysteresis = profile.getGeofenceHysteresis();
+		index = new GeofenceIndex(fences, profile.getGeofenceCellSize(), hysteresis);
+
+		insideFences = new int[fences.size()];
+		inside = new boolean[fences.size()];
+		checkedOnFix = new long[fences.size()];
+
+		geofenceState = new InternalGeofenceState();
+
+		if (fences.isEmpty()) {
+			LOGGER.info("No geofences configured.");
+			return geofenceState;
+		}
+
+		LOGGER.info("Watching {} geofences.", fences.size());
+
+		LocationState locationState = Kernel.kernel().chairState().getServiceState(ServiceId.LOCATION);
+		locationState.location().addListener(new PropertyChangeListener<>(this::checkFix));
+
+		return geofenceState;
+	}
+
+	/**
+	 * Checks a new fix against the fences near it and handles any entries and
+	 * exits. Called on the GPS poller thread.
+	 * 
+	 * @param location Location of the fix.
+	 */
+	private void checkFix(Location location) {
+
+		if (location == null) {
+			// No fix; leave everything as it was until there is one.
+			return;
+		}
+
+		fixCount++;
+		boolean changed = false;
+
+		double latitude = location.getLatitude();
+		double longitude = location.getLongitude();
+
+		for (int fence : index.candidates(latitude, longitude)) {
+
+			checkedOnFix[fence] = fixCount;
+			double distance = index.signedDistance(fence, latitude, longitude);
+
+			if (!inside[fence] && (distance <= 0)) {
+				enter(fence);
+				changed = true;
+			} else if (inside[fence] && (distance > hysteresis)) {
+				exit(fence);
+				changed = true;
+			}
+		}
+
+		// Fences the chair is inside that were not candidates are farther away
+		// than the index's exit margin so the chair has left them.
+		for (int position = insideCount - 1; position >= 0; position--) {
+			int fence = insideFences[position];
+			if (checkedOnFix[fence] != fixCount) {
+				exit(fence);
+				changed = true;
+			}
+		}
+
+		if (changed) {
+			updateState();
+		}
+	}
+
+	private void enter(int fence) {
+
+		inside[fence] = true;
+		insideFences[insideCount++] = fence;
+
+		Geofence geofence = index.getFence(fence);
+		LOGGER.info("Entered geofence: {}", geofence.getName());
+		runScript(geofence.getEnterScript());
+	}
+
+	private void exit(int fence) {
+
+		inside[fence] = false;
+		for (int position = 0; position < insideCount; position++) {
+			if (insideFences[position] == fence) {
+				insideFences[position] = insideFences[--insideCount];
+				break;
+			}
+		}
+
+		Geofence geofence = index.getFence(fence);
+		LOGGER.info("Exited geofence: {}", geofence.getName());
+		runScript(geofence.getExitScript());
+	}
+
+	private void runScript(ScriptId scriptId) {
+
+		if (scriptId != null) {
+			ScriptService scriptService = Kernel.kernel().getService(ServiceId.SCRIPT);
+			scriptService.runScript(scriptId);
+		}
+	}
+
+	private void updateState() {
+
+		Set<String> names = new HashSet<>();
+		for (int position = 0; position < insideCount; position++) {
+			names.add(index.getFence(insideFences[position]).getName());
+		}
+
+		geofenceState.insideFences.set(Collections.unmodifiableSet(names));
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Static service creation methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Creates an instance of the geofence service along with its initial state
+	 * as set from the supplied profile. Must be created after the location
+	 * service.
+	 * 
+	 * @param  profile Profile to use for configuring the geofence service.
+	 * @return         Geofence service instance and its initial state object.
+	 */
+	public static Pair<GeofenceService, GeofenceState> createService(Profile profile) {
+
+		GeofenceService service = new GeofenceService();
+		GeofenceState state = service.initialize(profile);
+		return new Pair<>(service, state);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Inner classes.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Internal state object for the geofence service.
+	 */
+	private static class InternalGeofenceState implements GeofenceState {
+
+		/**
+		 * Names of the fences the chair is inside.
+		 */
+		private ObjectProperty<Set<String>> insideFences = new SimpleObjectProperty<>(Collections.emptySet());
+
+		// ----------------------------------------------------------------------------------------
+		// GeofenceState methods.
+		// ----------------------------------------------------------------------------------------
+
+		@Override
+		public ReadOnlyObjectProperty<Set<String>> insideFences() {
+			return insideFences;
+		}
+	}
+}
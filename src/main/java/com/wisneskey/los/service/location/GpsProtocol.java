@@ -0,0 +1,35 @@
+package com.wisneskey.los.service.location;
+
+/**
+ * Enumerated type defining the protocols the GPS driver can use to receive
+ * navigation data from the GPS board.
+ * 
+ * Copyright (C) 2026 Paul Wisneskey
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public enum GpsProtocol {
+
+	/**
+	 * NMEA text sentences at the receiver's default rate.
+	 */
+	NMEA,
+
+	/**
+	 * UBX binary NAV-PVT messages at the profile's navigation rate.
+	 */
+	UBX;
+}
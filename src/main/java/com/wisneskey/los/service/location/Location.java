@@ -31,6 +31,17 @@ public class Location {
 	private double longitude;
 	private double altitude;
 
+	/**
+	 * Ground speed in meters per second (zero if the GPS did not report one).
+	 */
+	private double speed;
+
+	/**
+	 * Heading of motion in degrees from true north (zero if the GPS did not
+	 * report one).
+	 */
+	private double heading;
+
 	// ----------------------------------------------------------------------------------------
 	// Constructors.
 	// ----------------------------------------------------------------------------------------
@@ -73,13 +84,29 @@ public class Location {
 		this.altitude = altitude;
 	}
 
+	public double getSpeed() {
+		return speed;
+	}
+
+	public void setSpeed(double speed) {
+		this.speed = speed;
+	}
+
+	public double getHeading() {
+		return heading;
+	}
+
+	public void setHeading(double heading) {
+		this.heading = heading;
+	}
+
 	// ----------------------------------------------------------------------------------------
 	// Object methods.
 	// ----------------------------------------------------------------------------------------
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(altitude, latitude, longitude);
+		return Objects.hash(altitude, latitude, longitude, speed, heading);
 	}
 
 	@Override
@@ -93,11 +120,14 @@ public class Location {
 		Location other = (Location) obj;
 		return Double.doubleToLongBits(altitude) == Double.doubleToLongBits(other.altitude)
 				&& Double.doubleToLongBits(latitude) == Double.doubleToLongBits(other.latitude)
-				&& Double.doubleToLongBits(longitude) == Double.doubleToLongBits(other.longitude);
+				&& Double.doubleToLongBits(longitude) == Double.doubleToLongBits(other.longitude)
+				&& Double.doubleToLongBits(speed) == Double.doubleToLongBits(other.speed)
+				&& Double.doubleToLongBits(heading) == Double.doubleToLongBits(other.heading);
 	}
 
 	public String toString() {
-		return "Location[latitude=" + getLatitude() + ", longitude=" + getLongitude() + ", altitude=" + getAltitude() + "]";
+		return "Location[latitude=" + getLatitude() + ", longitude=" + getLongitude() + ", altitude=" + getAltitude()
+				+ ", speed=" + getSpeed() + ", heading=" + getHeading() + "]";
 	}
 
 	// ----------------------------------------------------------------------------------------
@@ -115,4 +145,22 @@ public class Location {
 	public static Location of(double latitude, double longitude, double altitude) {
 		return new Location(latitude, longitude, altitude);
 	}
+
+	/**
+	 * Returns a location object for the given coordinates and velocity.
+	 * 
+	 * @param  latitude  Latitude of location.
+	 * @param  longitude Longitude of location.
+	 * @param  altitude  Altitude of location.
+	 * @param  speed     Ground speed in meters per second.
+	 * @param  heading   Heading of motion in degrees from true north.
+	 * @return           Location object with the specified coordinates and
+	 *                   velocity.
+	 */
+	public static Location of(double latitude, double longitude, double altitude, double speed, double heading) {
+		Location location = new Location(latitude, longitude, altitude);
+		location.setSpeed(speed);
+		location.setHeading(heading);
+		return location;
+	}
 }
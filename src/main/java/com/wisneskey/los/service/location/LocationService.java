@@ -1,5 +1,8 @@
 package com.wisneskey.los.service.location;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -9,6 +12,9 @@ import com.wisneskey.los.service.AbstractService;
 import com.wisneskey.los.service.ServiceId;
 import com.wisneskey.los.service.location.driver.DummyGpsDriver;
 import com.wisneskey.los.service.location.driver.GpsDriver;
+import com.wisneskey.los.service.location.driver.GpsFixListener;
+import com.wisneskey.los.service.location.driver.ReplayGpsDriver;
+import com.wisneskey.los.service.location.driver.SimulatedUbxGpsDriver;
 import com.wisneskey.los.service.location.driver.SparkFunGpsDriver;
 import com.wisneskey.los.service.profile.model.Profile;
 import com.wisneskey.los.state.LocationState;
@@ -48,11 +54,6 @@ public class LocationService extends AbstractService<LocationState> {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(LocationService.class);
 
-	/**
-	 * Interval to poll the GPS driver on.
-	 */
-	private static final long GPS_POLL_INTERVAL_MS = 5000;
-
 	/**
 	 * Internal state object for tracking the location information.
 	 */
@@ -68,6 +69,17 @@ public class LocationService extends AbstractService<LocationState> {
 	 */
 	private DriverPoller driverPoller;
 
+	/**
+	 * Listeners to pass every fix from the GPS to.
+	 */
+	private List<GpsFixListener> fixListeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Flag indicating if the driver reports its fixes itself; if not the poller
+	 * reports each location it polls.
+	 */
+	private boolean driverReportsFixes;
+
 	// ----------------------------------------------------------------------------------------
 	// Constructors.
 	// ----------------------------------------------------------------------------------------
@@ -107,6 +119,17 @@ public class LocationService extends AbstractService<LocationState> {
 	// Public methods.
 	// ----------------------------------------------------------------------------------------
 
+	/**
+	 * Adds a listener to pass every fix from the GPS to. Unlike the location in
+	 * the service state, the fixes are not smoothed, polled or deduplicated and
+	 * each comes with the number of satellites used for it.
+	 * 
+	 * @param listener Listener to add; called on the GPS reader thread.
+	 */
+	public void addFixListener(GpsFixListener listener) {
+		fixListeners.add(listener);
+	}
+
 	// ----------------------------------------------------------------------------------------
 	// Supporting methods.
 	// ----------------------------------------------------------------------------------------
@@ -115,6 +138,23 @@ public class LocationService extends AbstractService<LocationState> {
 		this.gpsDriver = gpsDriver;
 	}
 
+	/**
+	 * Passes a fix to each of the fix listeners.
+	 * 
+	 * @param location        Location of the fix.
+	 * @param satellitesInFix Number of satellites used for the fix.
+	 */
+	private void reportFix(Location location, int satellitesInFix) {
+
+		for (GpsFixListener listener : fixListeners) {
+			try {
+				listener.fixReceived(location, satellitesInFix);
+			} catch (Exception e) {
+				LOGGER.warn("Exception in GPS fix listener.", e);
+			}
+		}
+	}
+
 	/**
 	 * Initializes the service and its relay driver and returns the initial state.
 	 * 
@@ -127,7 +167,8 @@ public class LocationService extends AbstractService<LocationState> {
 			throw new LaissezException("GPS driver not set.");
 		}
 
-		// Let the driver initialize.
+		// Let the driver initialize, reporting its fixes to us as it decodes them.
+		driverReportsFixes = gpsDriver.setFixListener(this::reportFix);
 		gpsDriver.initialize(profile);
 
 		locationState = new InternalLocationState();
@@ -173,7 +214,13 @@ public class LocationService extends AbstractService<LocationState> {
 			service.setGpsDriver(new SparkFunGpsDriver());
 			break;
 		case DEV:
-			service.setGpsDriver(new DummyGpsDriver());
+			if (profile.getGpsReplayPath() != null) {
+				service.setGpsDriver(new ReplayGpsDriver());
+			} else if (profile.getGpsProtocol() == GpsProtocol.UBX) {
+				service.setGpsDriver(new SimulatedUbxGpsDriver());
+			} else {
+				service.setGpsDriver(new DummyGpsDriver());
+			}
 			break;
 		default:
 			throw new LaissezException("Unknown run mode during GPS driver selection: " + runMode);
@@ -216,7 +263,7 @@ public class LocationService extends AbstractService<LocationState> {
 				try {
 					
 					try {
-						Thread.sleep(GPS_POLL_INTERVAL_MS);
+						Thread.sleep(gpsDriver.getPollIntervalMs());
 					} catch (InterruptedException e) {
 						LOGGER.warn("Interrupted duriog driver poller sleep.");
 						Thread.currentThread().interrupt();
@@ -229,6 +276,10 @@ public class LocationService extends AbstractService<LocationState> {
 					locationState.updateLocation(latest);
 					locationState.updateSatellitesInView(gpsDriver.getSatellitesInView());
 					locationState.updateSatellitesInFix(gpsDriver.getSatellitesInFix());
+
+					if (!driverReportsFixes && (latest != null)) {
+						reportFix(latest, gpsDriver.getSatellitesInFix());
+					}
 				} catch (Exception e) {
 					LOGGER.warn("Exception in GPS poller thead; retrying.", e);
 				}
@@ -0,0 +1,139 @@
+package com.wisneskey.los.service.location.driver;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics for how a GPS driver is using the I2C bus when reading from a
+ * u-blox receiver's DDC interface. Updated by the reader thread and safe to read
+ * from any other thread.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class DdcReadStatistics {
+
+	/**
+	 * Number of polls of the bytes available count that found no data.
+	 */
+	private AtomicLong emptyPolls = new AtomicLong();
+
+	/**
+	 * Number of polls that found data and read it.
+	 */
+	private AtomicLong dataPolls = new AtomicLong();
+
+	/**
+	 * Total number of data bytes read from the GPS.
+	 */
+	private AtomicLong bytesRead = new AtomicLong();
+
+	/**
+	 * Total nanoseconds spent in the I2C transactions of polls that read data.
+	 */
+	private AtomicLong dataPollNanos = new AtomicLong();
+
+	/**
+	 * Longest wait in milliseconds before a poll that found data. This is the
+	 * upper bound on how long data sat in the GPS buffer before being read.
+	 */
+	private AtomicLong maxDataWaitMs = new AtomicLong();
+
+	// ----------------------------------------------------------------------------------------
+	// Property getters.
+	// ----------------------------------------------------------------------------------------
+
+	public long getEmptyPolls() {
+		return emptyPolls.get();
+	}
+
+	public long getDataPolls() {
+		return dataPolls.get();
+	}
+
+	public long getBytesRead() {
+		return bytesRead.get();
+	}
+
+	public long getMaxDataWaitMs() {
+		return maxDataWaitMs.get();
+	}
+
+	/**
+	 * Returns the total number of I2C transactions performed. Each poll reads the
+	 * bytes available count and polls that found data also read the data.
+	 *
+	 * @return Number of I2C transactions performed.
+	 */
+	public long getTransactions() {
+		return emptyPolls.get() + (2 * dataPolls.get());
+	}
+
+	/**
+	 * Returns the average number of data bytes read per data transaction.
+	 *
+	 * @return Average bytes per data read or zero if nothing read yet.
+	 */
+	public double getAverageBytesPerRead() {
+		long polls = dataPolls.get();
+		return polls == 0 ? 0.0 : (double) bytesRead.get() / polls;
+	}
+
+	/**
+	 * Returns the average time in microseconds of a poll that read data.
+	 *
+	 * @return Average microseconds for a poll that read data.
+	 */
+	public double getAverageDataPollMicros() {
+		long polls = dataPolls.get();
+		return polls == 0 ? 0.0 : dataPollNanos.get() / (polls * 1000.0);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Object methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public String toString() {
+		return "DdcReadStatistics[emptyPolls=" + getEmptyPolls() + ", dataPolls=" + getDataPolls() + ", bytesRead="
+				+ getBytesRead() + ", maxDataWaitMs=" + getMaxDataWaitMs() + "]";
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Records a poll that found no data waiting.
+	 */
+	void recordEmptyPoll() {
+		emptyPolls.incrementAndGet();
+	}
+
+	/**
+	 * Records a poll that found and read data.
+	 *
+	 * @param bytes  Number of bytes read.
+	 * @param waitMs Milliseconds waited before the poll.
+	 * @param nanos  Nanoseconds spent in the poll's I2C transactions.
+	 */
+	void recordDataPoll(int bytes, int waitMs, long nanos) {
+		dataPolls.incrementAndGet();
+		bytesRead.addAndGet(bytes);
+		dataPollNanos.addAndGet(nanos);
+		maxDataWaitMs.accumulateAndGet(waitMs, Math::max);
+	}
+}
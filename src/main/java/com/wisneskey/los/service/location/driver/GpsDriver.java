@@ -26,6 +26,11 @@ import com.wisneskey.los.service.profile.model.Profile;
  */
 public interface GpsDriver {
 
+	/**
+	 * Default interval in milliseconds to poll a driver for its location on.
+	 */
+	long DEFAULT_POLL_INTERVAL_MS = 5000;
+
 	/**
 	 * Initialize the GPS driver based on the profile.
 	 * 
@@ -54,4 +59,28 @@ public interface GpsDriver {
 	 * @return Number of satellites last reported as in view by GPS.
 	 */
 	int getSatellitesInView();
+
+	/**
+	 * Returns how often the driver should be polled for its location. Drivers
+	 * that produce new locations faster than the default should return how often
+	 * they do so it can be tracked smoothly.
+	 * 
+	 * @return Interval in milliseconds to poll the driver on.
+	 */
+	default long getPollIntervalMs() {
+		return DEFAULT_POLL_INTERVAL_MS;
+	}
+
+	/**
+	 * Sets the listener to pass every fix to as the driver decodes it. Must be
+	 * called before the driver is initialized. Drivers that only produce a
+	 * location when polled do not report fixes and return false so the poller
+	 * reports the polled locations instead.
+	 * 
+	 * @param  listener Listener to pass the fixes to.
+	 * @return          True if the driver reports its fixes to the listener.
+	 */
+	default boolean setFixListener(GpsFixListener listener) {
+		return false;
+	}
 }
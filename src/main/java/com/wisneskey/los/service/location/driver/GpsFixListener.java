@@ -0,0 +1,38 @@
+package com.wisneskey.los.service.location.driver;
+
+import com.wisneskey.los.service.location.Location;
+
+/**
+ * Listener called by a GPS driver with every fix it decodes, as it is decoded
+ * and before any smoothing is applied to it.
+ * 
+ * Copyright (C) 2026 Paul Wisneskey
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+@FunctionalInterface
+public interface GpsFixListener {
+
+	/**
+	 * Called on the driver's reader thread with a new fix. Implementations must
+	 * return quickly so the driver does not fall behind the GPS. Drivers only
+	 * call it for valid fixes so the location is never null.
+	 * 
+	 * @param location        Location of the fix; never null.
+	 * @param satellitesInFix Number of satellites used for the fix.
+	 */
+	void fixReceived(Location location, int satellitesInFix);
+}
@@ -0,0 +1,495 @@
+package com.wisneskey.los.service.location.driver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.wisneskey.los.error.LaissezException;
+import com.wisneskey.los.service.location.Location;
+import com.wisneskey.los.service.profile.model.Profile;
+import com.wisneskey.los.service.track.TrackRecord;
+import com.wisneskey.los.service.track.TrackSegment;
+import com.wisneskey.los.service.track.TrackSegmentReader;
+
+import net.sf.marineapi.nmea.parser.SentenceFactory;
+import net.sf.marineapi.nmea.sentence.GGASentence;
+import net.sf.marineapi.nmea.sentence.RMCSentence;
+import net.sf.marineapi.nmea.sentence.Sentence;
+import net.sf.marineapi.nmea.sentence.SentenceValidator;
+import net.sf.marineapi.nmea.util.GpsFixQuality;
+import net.sf.marineapi.nmea.util.Position;
+import net.sf.marineapi.nmea.util.Time;
+
+/**
+ * GPS driver for development that replays a recorded track in place of a GPS
+ * board. The track can be an NMEA log (GGA sentences give the position and
+ * timing, RMC sentences the speed and heading), a binary track segment from
+ * the track service or a directory of segments. Fixes are published on the
+ * recorded schedule scaled by the replay speed using absolute deadlines so
+ * timing errors do not accumulate over a long replay.
+ * 
+ * Copyright (C) 2026 Paul Wisneskey
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class ReplayGpsDriver implements GpsDriver {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReplayGpsDriver.class);
+
+	/**
+	 * Minimum replay speed multiplier.
+	 */
+	public static final double MIN_SPEED = 1.0;
+
+	/**
+	 * Maximum replay speed multiplier.
+	 */
+	public static final double MAX_SPEED = 100.0;
+
+	/**
+	 * Shortest interval to have the location service poll the driver on.
+	 */
+	private static final long MIN_POLL_INTERVAL_MS = 10;
+
+	/**
+	 * Number of milliseconds in a day for handling NMEA times that wrap at
+	 * midnight.
+	 */
+	private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+	/**
+	 * Knots to meters per second conversion factor.
+	 */
+	private static final double KNOTS_TO_MPS = 0.514444;
+
+	/**
+	 * Path of the track being replayed.
+	 */
+	private Path trackPath;
+
+	/**
+	 * Multiple of real time to replay at.
+	 */
+	private double speed;
+
+	/**
+	 * Flag indicating if the replay starts over at the end of the track.
+	 */
+	private boolean loop;
+
+	/**
+	 * Times of the fixes in milliseconds relative to the first one.
+	 */
+	private long[] times;
+
+	/**
+	 * Locations of the fixes (null where the recording had no fix).
+	 */
+	private Location[] locations;
+
+	/**
+	 * Number of satellites used for each fix.
+	 */
+	private int[] satellites;
+
+	/**
+	 * Interval for the location service to poll the driver on.
+	 */
+	private long pollIntervalMs = DEFAULT_POLL_INTERVAL_MS;
+
+	/**
+	 * Latest location replayed.
+	 */
+	private AtomicReference<Location> currentLocation = new AtomicReference<>();
+
+	/**
+	 * Number of satellites for the latest fix replayed.
+	 */
+	private AtomicInteger currentSatellites = new AtomicInteger(0);
+
+	/**
+	 * Number of fixes published since the replay started.
+	 */
+	private AtomicLong fixesReplayed = new AtomicLong();
+
+	/**
+	 * Largest amount a fix was published after its scheduled time.
+	 */
+	private AtomicLong maxLatenessNanos = new AtomicLong();
+
+	/**
+	 * Listener to report each fix to as it is produced; null if none is set.
+	 */
+	private volatile GpsFixListener fixListener;
+
+	// ----------------------------------------------------------------------------------------
+	// GpsDriver methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public void initialize(Profile profile) {
+
+		if (profile.getGpsReplayPath() == null) {
+			throw new LaissezException("No GPS track set to replay.");
+		}
+
+		trackPath = Paths.get(profile.getGpsReplayPath());
+		speed = Math.max(MIN_SPEED, Math.min(profile.getGpsReplaySpeed(), MAX_SPEED));
+		loop = profile.getGpsReplayLoop();
+
+		try {
+			loadTrack();
+		} catch (IOException e) {
+			throw new LaissezException("Failed to load GPS track to replay: " + trackPath, e);
+		}
+
+		if (times.length == 0) {
+			throw new LaissezException("GPS track to replay has no fixes: " + trackPath);
+		}
+
+		pollIntervalMs = calculatePollInterval();
+
+		LOGGER.info("Replaying GPS track: path={} fixes={} duration={}s speed={}x loop={}", trackPath, times.length,
+				times[times.length - 1] / 1000.0, speed, loop);
+
+		new TrackReplayer().start();
+	}
+
+	@Override
+	public Location getCurrentLocation() {
+		return currentLocation.get();
+	}
+
+	@Override
+	public int getSatellitesInFix() {
+		return currentSatellites.get();
+	}
+
+	@Override
+	public int getSatellitesInView() {
+		return currentSatellites.get();
+	}
+
+	@Override
+	public long getPollIntervalMs() {
+		return pollIntervalMs;
+	}
+
+	@Override
+	public boolean setFixListener(GpsFixListener listener) {
+		this.fixListener = listener;
+		return true;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the number of fixes published since the replay started.
+	 * 
+	 * @return Number of fixes replayed.
+	 */
+	public long getFixesReplayed() {
+		return fixesReplayed.get();
+	}
+
+	/**
+	 * Returns the most a fix has been published after its scheduled time.
+	 * 
+	 * @return Maximum lateness in microseconds.
+	 */
+	public long getMaxLatenessMicros() {
+		return maxLatenessNanos.get() / 1000;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Calculates the typical interval between fixes at the replay speed so the
+	 * location service sees every fix.
+	 *
+	 * @return Interval in milliseconds to poll the driver on.
+	 */
+	private long calculatePollInterval() {
+
+		if (times.length < 2) {
+			return DEFAULT_POLL_INTERVAL_MS;
+		}
+
+		long[] intervals = new long[times.length - 1];
+		for (int index = 1; index < times.length; index++) {
+			intervals[index - 1] = times[index] - times[index - 1];
+		}
+		Arrays.sort(intervals);
+
+		long median = (long) (intervals[intervals.length / 2] / speed);
+		return Math.max(MIN_POLL_INTERVAL_MS, Math.min(median, DEFAULT_POLL_INTERVAL_MS));
+	}
+
+	/**
+	 * Loads the fixes from the track, detecting if it is binary or NMEA.
+	 * 
+	 * @throws IOException If the track could not be read.
+	 */
+	private void loadTrack() throws IOException {
+
+		List<TrackRecord> records = new ArrayList<>();
+
+		if (Files.isDirectory(trackPath)) {
+			for (Path segment : TrackSegment.listSegments(trackPath)) {
+				TrackSegmentReader.read(segment, Long.MIN_VALUE, Long.MAX_VALUE, records);
+			}
+		} else if (isTrackSegment(trackPath)) {
+			TrackSegmentReader.read(trackPath, Long.MIN_VALUE, Long.MAX_VALUE, records);
+		} else {
+			loadNmeaLog();
+			return;
+		}
+
+		int count = records.size();
+		times = new long[count];
+		locations = new Location[count];
+		satellites = new int[count];
+
+		for (int index = 0; index < count; index++) {
+			TrackRecord record = records.get(index);
+			times[index] = record.getTimestamp() - records.get(0).getTimestamp();
+			locations[index] = record.toLocation();
+			satellites[index] = record.getSatellites();
+		}
+	}
+
+	/**
+	 * Loads the fixes from an NMEA log. Anything before the $ on a line (e.g. a
+	 * log message prefix) is ignored as are lines that are not valid sentences.
+	 * 
+	 * @throws IOException If the log could not be read.
+	 */
+	private void loadNmeaLog() throws IOException {
+
+		SentenceFactory factory = SentenceFactory.getInstance();
+
+		List<Long> fixTimes = new ArrayList<>();
+		List<Location> fixLocations = new ArrayList<>();
+		List<Integer> fixSatellites = new ArrayList<>();
+
+		double lastSpeed = 0.0;
+		double lastHeading = 0.0;
+		long firstTime = -1;
+		long lastTime = -1;
+		long dayOffset = 0;
+
+		try (BufferedReader reader = Files.newBufferedReader(trackPath, StandardCharsets.US_ASCII)) {
+
+			String line;
+			while ((line = reader.readLine()) != null) {
+
+				int start = line.indexOf('$');
+				if (start < 0) {
+					continue;
+				}
+
+				String text = line.substring(start).trim();
+				if (!SentenceValidator.isValid(text)) {
+					continue;
+				}
+
+				try {
+					Sentence sentence = factory.createParser(text);
+
+					if (sentence instanceof RMCSentence) {
+
+						// RMC comes before GGA in each epoch so hold on to its velocity
+						// for the position that follows.
+						RMCSentence rmc = (RMCSentence) sentence;
+						lastSpeed = rmc.getSpeed() * KNOTS_TO_MPS;
+						lastHeading = rmc.getCourse();
+
+					} else if (sentence instanceof GGASentence) {
+
+						GGASentence gga = (GGASentence) sentence;
+						long time = timeOfDay(gga.getTime()) + dayOffset;
+						if ((lastTime >= 0) && (time < lastTime - (DAY_MS / 2))) {
+							// Recording ran past midnight.
+							dayOffset += DAY_MS;
+							time += DAY_MS;
+						}
+
+						if (firstTime < 0) {
+							firstTime = time;
+						}
+						lastTime = time;
+
+						Location location = null;
+						if (gga.getFixQuality() != GpsFixQuality.INVALID) {
+							Position position = gga.getPosition();
+							location = Location.of(position.getLatitude(), position.getLongitude(),
+									position.getAltitude(), lastSpeed, lastHeading);
+						}
+
+						fixTimes.add(time - firstTime);
+						fixLocations.add(location);
+						fixSatellites.add(location == null ? 0 : gga.getSatelliteCount());
+					}
+				} catch (Exception e) {
+					// Sentences with missing fields (e.g. before a fix) are skipped.
+					LOGGER.trace("Skipping NMEA sentence: {}", text);
+				}
+			}
+		}
+
+		int count = fixTimes.size();
+		times = new long[count];
+		locations = fixLocations.toArray(new Location[count]);
+		satellites = new int[count];
+
+		for (int index = 0; index < count; index++) {
+			times[index] = fixTimes.get(index);
+			satellites[index] = fixSatellites.get(index);
+		}
+	}
+
+	/**
+	 * Returns if a file is a binary track segment.
+	 * 
+	 * @param  path        Path of the file.
+	 * @return             True if the file starts with the track segment magic
+	 *                     number.
+	 * @throws IOException If the file could not be read.
+	 */
+	private static boolean isTrackSegment(Path path) throws IOException {
+
+		byte[] header = new byte[Integer.BYTES];
+		try (InputStream input = Files.newInputStream(path)) {
+			if (input.readNBytes(header, 0, header.length) < header.length) {
+				return false;
+			}
+		}
+
+		return ByteBuffer.wrap(header).order(TrackSegment.BYTE_ORDER).getInt() == TrackSegment.MAGIC;
+	}
+
+	/**
+	 * Converts an NMEA time to milliseconds since midnight.
+	 * 
+	 * @param  time NMEA time.
+	 * @return      Milliseconds since midnight.
+	 */
+	private static long timeOfDay(Time time) {
+		return ((time.getHour() * 60L + time.getMinutes()) * 60L * 1000L) + Math.round(time.getSeconds() * 1000.0);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Inner classes.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Thread that publishes the fixes on their scaled schedule.
+	 */
+	private class TrackReplayer extends Thread {
+
+		// ----------------------------------------------------------------------------------------
+		// Constructors.
+		// ----------------------------------------------------------------------------------------
+
+		private TrackReplayer() {
+			setName("gpsTrackReplayer");
+			setDaemon(true);
+		}
+
+		// ----------------------------------------------------------------------------------------
+		// Thread methods.
+		// ----------------------------------------------------------------------------------------
+
+		@Override
+		public void run() {
+
+			LOGGER.info("GPS track replay thread started.");
+
+			// Gap to leave between the end of one pass and the start of the next.
+			long loopGapNanos = pollIntervalMs * 1_000_000L;
+
+			long passStart = System.nanoTime();
+			int pass = 1;
+
+			while (!isInterrupted()) {
+
+				long passMaxLateness = 0;
+
+				for (int index = 0; index < times.length; index++) {
+
+					long due = passStart + (long) ((times[index] * 1_000_000L) / speed);
+
+					// Park until the deadline; parking can wake early so loop until
+					// it has actually passed.
+					long wait;
+					while (((wait = due - System.nanoTime()) > 0) && !isInterrupted()) {
+						LockSupport.parkNanos(wait);
+					}
+
+					if (isInterrupted()) {
+						break;
+					}
+
+					long lateness = System.nanoTime() - due;
+					passMaxLateness = Math.max(passMaxLateness, lateness);
+
+					currentLocation.set(locations[index]);
+					currentSatellites.set(satellites[index]);
+					fixesReplayed.incrementAndGet();
+
+					// Samples recorded without a fix have no location to report.
+					GpsFixListener listener = fixListener;
+					if ((listener != null) && (locations[index] != null)) {
+						listener.fixReceived(locations[index], satellites[index]);
+					}
+				}
+
+				maxLatenessNanos.accumulateAndGet(passMaxLateness, Math::max);
+				LOGGER.info("GPS track replay pass {} complete: maxLateness={}us", pass, passMaxLateness / 1000);
+
+				if (!loop) {
+					break;
+				}
+
+				// Schedule the next pass from the last deadline rather than now so the
+				// pass length stays exact.
+				passStart += (long) ((times[times.length - 1] * 1_000_000L) / speed) + loopGapNanos;
+				pass++;
+			}
+
+			LOGGER.info("GPS track replay thread shutdown.");
+		}
+	}
+}
@@ -0,0 +1,290 @@
+package com.wisneskey.los.service.location.driver;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.wisneskey.los.error.LaissezException;
+import com.wisneskey.los.service.location.Location;
+import com.wisneskey.los.service.location.driver.ubx.NavPvtMessage;
+import com.wisneskey.los.service.location.driver.ubx.UbxFrameParser;
+import com.wisneskey.los.service.location.driver.ubx.UbxProtocol;
+import com.wisneskey.los.service.profile.model.Profile;
+
+/**
+ * GPS driver for development that simulates the byte stream of a receiver
+ * sending UBX NAV-PVT messages. The simulated receiver drives in a circle
+ * around the profile's starting location at the profile's navigation rate and
+ * its frames are split into arbitrary chunks, as they would be by DDC reads,
+ * and decoded through the same parser and decoder as the real driver.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class SimulatedUbxGpsDriver implements GpsDriver {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SimulatedUbxGpsDriver.class);
+
+	/**
+	 * Radius in meters of the circle the simulated receiver drives.
+	 */
+	private static final double CIRCLE_RADIUS_M = 50.0;
+
+	/**
+	 * Ground speed in meters per second of the simulated receiver.
+	 */
+	private static final double SPEED_MPS = 3.0;
+
+	/**
+	 * Number of satellites the simulated receiver reports.
+	 */
+	private static final int SATELLITES = 12;
+
+	/**
+	 * Approximate number of meters per degree of latitude.
+	 */
+	private static final double METERS_PER_DEGREE = 111320.0;
+
+	/**
+	 * Largest chunk of the byte stream fed to the parser at once.
+	 */
+	private static final int MAX_CHUNK_BYTES = 32;
+
+	/**
+	 * Flag indicating if the simulated receiver has a fix.
+	 */
+	private volatile boolean hasFix = true;
+
+	/**
+	 * Center of the circle being driven.
+	 */
+	private Location center;
+
+	/**
+	 * Milliseconds between navigation solutions.
+	 */
+	private long intervalMs;
+
+	/**
+	 * Latest location decoded from the stream or null if no fix.
+	 */
+	private AtomicReference<Location> currentLocation = new AtomicReference<>();
+
+	/**
+	 * Number of satellites in the latest decoded solution.
+	 */
+	private AtomicInteger satellites = new AtomicInteger(0);
+
+	/**
+	 * Parser for the simulated stream.
+	 */
+	private UbxFrameParser parser = new UbxFrameParser(this::processUbxFrame);
+
+	/**
+	 * Reusable decoder for NAV-PVT messages.
+	 */
+	private NavPvtMessage navPvt = new NavPvtMessage();
+
+	/**
+	 * Listener to report each fix to as it is produced; null if none is set.
+	 */
+	private volatile GpsFixListener fixListener;
+
+	// ----------------------------------------------------------------------------------------
+	// Property getters/setters.
+	// ----------------------------------------------------------------------------------------
+
+	public boolean getHasFix() {
+		return hasFix;
+	}
+
+	public void setHasFix(boolean hasFix) {
+		this.hasFix = hasFix;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// GpsDriver methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public void initialize(Profile profile) {
+
+		center = profile.getPresetLocations().get(profile.getDefaultLocation());
+		if (center == null) {
+			throw new LaissezException("Starting location not found.");
+		}
+
+		int rate = Math.max(UbxProtocol.MIN_NAVIGATION_RATE,
+				Math.min(profile.getGpsNavigationRate(), UbxProtocol.MAX_NAVIGATION_RATE));
+		intervalMs = 1000L / rate;
+
+		LOGGER.info("Simulating UBX GPS at {} Hz around {}.", rate, center);
+
+		new StreamSimulator().start();
+	}
+
+	@Override
+	public Location getCurrentLocation() {
+		return currentLocation.get();
+	}
+
+	@Override
+	public int getSatellitesInFix() {
+		return satellites.get();
+	}
+
+	@Override
+	public int getSatellitesInView() {
+		return satellites.get();
+	}
+
+	@Override
+	public long getPollIntervalMs() {
+		return intervalMs;
+	}
+
+	@Override
+	public boolean setFixListener(GpsFixListener listener) {
+		this.fixListener = listener;
+		return true;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Processes a complete UBX frame from the simulated stream.
+	 *
+	 * @param messageClass Class of the message.
+	 * @param messageId    Id of the message.
+	 * @param payload      Payload of the message.
+	 */
+	private void processUbxFrame(int messageClass, int messageId, ByteBuffer payload) {
+
+		if ((messageClass != UbxProtocol.CLASS_NAV) || (messageId != UbxProtocol.ID_NAV_PVT)
+				|| !navPvt.wrap(payload)) {
+			return;
+		}
+
+		satellites.set(navPvt.getSatelliteCount());
+
+		if (navPvt.hasFix()) {
+			Location fix = Location.of(navPvt.getLatitude(), navPvt.getLongitude(), navPvt.getAltitude(),
+					navPvt.getSpeed(), navPvt.getHeading());
+			currentLocation.set(fix);
+
+			GpsFixListener listener = fixListener;
+			if (listener != null) {
+				listener.fixReceived(fix, navPvt.getSatelliteCount());
+			}
+		} else {
+			currentLocation.set(null);
+		}
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Inner classes.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Thread that generates the simulated NAV-PVT stream at the navigation rate.
+	 */
+	private class StreamSimulator extends Thread {
+
+		/**
+		 * Buffer the payload of each simulated message is written into.
+		 */
+		private ByteBuffer payload = ByteBuffer.allocate(NavPvtMessage.PAYLOAD_LENGTH)
+				.order(ByteOrder.LITTLE_ENDIAN);
+
+		/**
+		 * Source of the chunk sizes the stream is split into.
+		 */
+		private Random random = new Random();
+
+		// ----------------------------------------------------------------------------------------
+		// Constructors.
+		// ----------------------------------------------------------------------------------------
+
+		private StreamSimulator() {
+			setName("simulatedUbxGps");
+			setDaemon(true);
+		}
+
+		// ----------------------------------------------------------------------------------------
+		// Thread methods.
+		// ----------------------------------------------------------------------------------------
+
+		@Override
+		public void run() {
+
+			LOGGER.info("Simulated UBX GPS thread started.");
+
+			double metersPerDegreeLongitude = METERS_PER_DEGREE * Math.cos(Math.toRadians(center.getLatitude()));
+			double radiansPerSolution = (SPEED_MPS / CIRCLE_RADIUS_M) * (intervalMs / 1000.0);
+			double angle = 0.0;
+			long timeOfWeek = 0;
+
+			while (!isInterrupted()) {
+
+				// Drive clockwise from due north of the center so the heading of
+				// motion is a quarter turn ahead of the angle.
+				double latitude = center.getLatitude() + (CIRCLE_RADIUS_M * Math.cos(angle)) / METERS_PER_DEGREE;
+				double longitude = center.getLongitude() + (CIRCLE_RADIUS_M * Math.sin(angle)) / metersPerDegreeLongitude;
+				double heading = (Math.toDegrees(angle) + 90.0) % 360.0;
+
+				NavPvtMessage.writePayload(payload, timeOfWeek, hasFix, SATELLITES, latitude, longitude,
+						center.getAltitude(), SPEED_MPS, heading);
+				feed(UbxProtocol.createFrame(UbxProtocol.CLASS_NAV, UbxProtocol.ID_NAV_PVT, payload.array()));
+
+				angle = (angle + radiansPerSolution) % (2.0 * Math.PI);
+				timeOfWeek += intervalMs;
+
+				try {
+					Thread.sleep(intervalMs);
+				} catch (InterruptedException e) {
+					LOGGER.warn("Interrupted during simulated GPS sleep.");
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+
+			LOGGER.info("Simulated UBX GPS thread shutdown.");
+		}
+
+		/**
+		 * Feeds a frame to the parser in randomly sized chunks.
+		 *
+		 * @param frame Bytes of the frame.
+		 */
+		private void feed(byte[] frame) {
+
+			int offset = 0;
+			while (offset < frame.length) {
+				int length = Math.min(1 + random.nextInt(MAX_CHUNK_BYTES), frame.length - offset);
+				parser.accept(frame, offset, length);
+				offset += length;
+			}
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package com.wisneskey.los.service.location.driver;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -12,7 +13,11 @@ import com.pi4j.io.i2c.I2CConfig;
 import com.pi4j.io.i2c.I2CProvider;
 import com.wisneskey.los.error.LaissezException;
 import com.wisneskey.los.kernel.Kernel;
+import com.wisneskey.los.service.location.GpsProtocol;
 import com.wisneskey.los.service.location.Location;
+import com.wisneskey.los.service.location.driver.ubx.NavPvtMessage;
+import com.wisneskey.los.service.location.driver.ubx.UbxFrameParser;
+import com.wisneskey.los.service.location.driver.ubx.UbxProtocol;
 import com.wisneskey.los.service.profile.model.Profile;
 
 import net.sf.marineapi.nmea.parser.DataNotAvailableException;
@@ -23,7 +28,9 @@ import net.sf.marineapi.nmea.util.GpsFixQuality;
 import net.sf.marineapi.nmea.util.Position;
 
 /**
- * GPS driver for getting data from the SparkFun GPS board.
+ * GPS driver for getting data from the SparkFun GPS board. The board can either
+ * be left sending its default NMEA sentences or be configured to send UBX
+ * NAV-PVT messages at a higher navigation rate.
  * 
  * Copyright (C) 2026 Paul Wisneskey
  * 
@@ -47,11 +54,39 @@ public class SparkFunGpsDriver implements GpsDriver {
 	private static final Logger LOGGER = LoggerFactory.getLogger(SparkFunGpsDriver.class);
 
 	/**
-	 * Number of milliseconds to sleep before trying another if an empty read is
-	 * detected from the GPS. This is set to be slightly shorter than the
-	 * reporting interval of the GPS.
+	 * Minimum number of milliseconds to wait between polls of the bytes available
+	 * count. Used right after data was read since the GPS usually emits a burst of
+	 * sentences together.
 	 */
-	private static final int GPS_SLEEP_MS = 800;
+	static final int MIN_POLL_BACKOFF_MS = 10;
+
+	/**
+	 * Maximum number of milliseconds to wait between polls of the bytes available
+	 * count. This bounds the latency added to a new fix once the GPS goes quiet
+	 * between its reporting intervals.
+	 */
+	static final int MAX_POLL_BACKOFF_MS = 160;
+
+	/**
+	 * DDC register holding the high byte of the number of bytes waiting in the
+	 * GPS output buffer (the low byte follows in register 0xFE).
+	 */
+	private static final int DDC_BYTES_AVAILABLE_REGISTER = 0xFD;
+
+	/**
+	 * DDC register for reading the GPS output data stream.
+	 */
+	private static final int DDC_DATA_STREAM_REGISTER = 0xFF;
+
+	/**
+	 * Value of the bytes available count if the GPS is not ready to report it.
+	 */
+	private static final int DDC_COUNT_NOT_READY = 0xFFFF;
+
+	/**
+	 * Maximum number of bytes to read in a single I2C transaction.
+	 */
+	private static final int MAX_READ_BYTES = 255;
 
 	/**
 	 * Number of milliseconds to sleep before trying again if an exception occurs during a read.
@@ -74,11 +109,37 @@ public class SparkFunGpsDriver implements GpsDriver {
 	 */
 	private static final int I2C_ADDRESS = 0x42;
 
+	/**
+	 * Number of milliseconds to wait after sending the configuration before
+	 * reading so the receiver can apply it.
+	 */
+	private static final int UBX_CONFIGURE_SLEEP_MS = 100;
+
 	/**
 	 * I2C connection to the board.
 	 */
 	private I2C board;
 
+	/**
+	 * Protocol being used to receive data from the board.
+	 */
+	private GpsProtocol protocol = GpsProtocol.NMEA;
+
+	/**
+	 * Milliseconds between navigation solutions when using the UBX protocol.
+	 */
+	private long ubxIntervalMs = DEFAULT_POLL_INTERVAL_MS;
+
+	/**
+	 * Parser for UBX frames when using the UBX protocol.
+	 */
+	private UbxFrameParser ubxParser = new UbxFrameParser(this::processUbxFrame);
+
+	/**
+	 * Reusable decoder for NAV-PVT messages.
+	 */
+	private NavPvtMessage navPvt = new NavPvtMessage();
+
 	/**
 	 * Flag indicating if we have a fix from the last GPS sample.
 	 */
@@ -109,6 +170,62 @@ public class SparkFunGpsDriver implements GpsDriver {
 	 */
 	private AtomicInteger satellitesInView = new AtomicInteger(0);
 
+	/**
+	 * Statistics on the I2C bus usage of the reader.
+	 */
+	private DdcReadStatistics readStatistics = new DdcReadStatistics();
+
+	/**
+	 * Buffer for reading the bytes available count from the GPS.
+	 */
+	private byte[] countBuffer = new byte[2];
+
+	/**
+	 * Buffer for reading data from the GPS.
+	 */
+	private byte[] readBuffer = new byte[MAX_READ_BYTES];
+
+	/**
+	 * Partial line that has been read from the GPS.
+	 */
+	private StringBuilder line = new StringBuilder();
+
+	/**
+	 * Current number of milliseconds to wait before the next poll of the GPS.
+	 */
+	private int pollBackoffMs = MIN_POLL_BACKOFF_MS;
+
+	/**
+	 * Number of milliseconds the last poll told the reader to wait.
+	 */
+	private int lastWaitMs = 0;
+
+	/**
+	 * Listener to report each fix to as it is decoded; null if none is set.
+	 */
+	private volatile GpsFixListener fixListener;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a driver that connects to the board through the Pi4J
+	 * context when initialized.
+	 */
+	public SparkFunGpsDriver() {
+	}
+
+	/**
+	 * Constructor for a driver that uses an already created I2C connection (e.g.
+	 * a simulated board for measuring the reader's bus usage).
+	 *
+	 * @param board I2C connection to the GPS board.
+	 */
+	SparkFunGpsDriver(I2C board) {
+		this.board = board;
+	}
+
 	// ----------------------------------------------------------------------------------------
 	// GpsDriver methods.
 	// ----------------------------------------------------------------------------------------
@@ -118,19 +235,27 @@ public class SparkFunGpsDriver implements GpsDriver {
 
 		LOGGER.debug("Initializing SparkFun GPS board driver...");
 
-		if (LOGGER.isTraceEnabled()) {
-			LOGGER.trace("Board I2C address: {}", Integer.toHexString(I2C_ADDRESS));
-		}
+		if (board == null) {
 
-		Context pi4jContext = Kernel.kernel().getPi4jContext();
-		I2CProvider i2cProvider = pi4jContext.provider("linuxfs-i2c");
+			if (LOGGER.isTraceEnabled()) {
+				LOGGER.trace("Board I2C address: {}", Integer.toHexString(I2C_ADDRESS));
+			}
 
-		I2CConfig i2cConfig = I2C.newConfigBuilder(pi4jContext).id("gpsBoard").bus(I2C_BUS).device(I2C_ADDRESS).build();
+			Context pi4jContext = Kernel.kernel().getPi4jContext();
+			I2CProvider i2cProvider = pi4jContext.provider("linuxfs-i2c");
 
-		try {
-			board = i2cProvider.create(i2cConfig);
-		} catch (Exception e) {
-			throw new LaissezException("Failed to create I2C connection to GPS board.", e);
+			I2CConfig i2cConfig = I2C.newConfigBuilder(pi4jContext).id("gpsBoard").bus(I2C_BUS).device(I2C_ADDRESS)
+					.build();
+
+			try {
+				board = i2cProvider.create(i2cConfig);
+			} catch (Exception e) {
+				throw new LaissezException("Failed to create I2C connection to GPS board.", e);
+			}
+		}
+
+		if (profile.getGpsProtocol() == GpsProtocol.UBX) {
+			configureUbx(profile.getGpsNavigationRate());
 		}
 
 		new GpsReader().start();
@@ -152,26 +277,302 @@ public class SparkFunGpsDriver implements GpsDriver {
 		return satellitesInView.get();
 	}
 
+	@Override
+	public long getPollIntervalMs() {
+		return protocol == GpsProtocol.UBX ? ubxIntervalMs : DEFAULT_POLL_INTERVAL_MS;
+	}
+
+	@Override
+	public boolean setFixListener(GpsFixListener listener) {
+		this.fixListener = listener;
+		return true;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the statistics on how the reader has been using the I2C bus.
+	 * 
+	 * @return Statistics for the DDC reads from the GPS board.
+	 */
+	public DdcReadStatistics getReadStatistics() {
+		return readStatistics;
+	}
+
 	// ----------------------------------------------------------------------------------------
 	// Supporting methods.
 	// ----------------------------------------------------------------------------------------
 
+	/**
+	 * Configures the receiver to stop sending NMEA sentences on the DDC port and
+	 * instead send a NAV-PVT message for every navigation solution at the
+	 * requested rate.
+	 * 
+	 * @param navigationRate Navigation rate in Hz.
+	 */
+	private void configureUbx(int navigationRate) {
+
+		LOGGER.info("Configuring GPS board for UBX NAV-PVT at {} Hz.", navigationRate);
+
+		try {
+			board.write(UbxProtocol.createDdcPortConfig(I2C_ADDRESS));
+			board.write(UbxProtocol.createNavPvtMessageConfig());
+			board.write(UbxProtocol.createNavigationRateConfig(navigationRate));
+
+			Thread.sleep(UBX_CONFIGURE_SLEEP_MS);
+
+		} catch (InterruptedException e) {
+			LOGGER.warn("Interrupted waiting for GPS board configuration.");
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			throw new LaissezException("Failed to configure GPS board for UBX protocol.", e);
+		}
+
+		protocol = GpsProtocol.UBX;
+		ubxIntervalMs = 1000L / Math.max(UbxProtocol.MIN_NAVIGATION_RATE,
+				Math.min(navigationRate, UbxProtocol.MAX_NAVIGATION_RATE));
+	}
+
+	/**
+	 * Performs a single poll of the GPS board: reads the number of bytes waiting
+	 * in its DDC output buffer and, if there are any, reads exactly that many
+	 * (up to the maximum transaction size) and processes them. Returns how long
+	 * the caller should wait before polling again; the wait doubles on each empty
+	 * poll up to a maximum and drops back to the minimum as soon as data shows
+	 * up.
+	 * 
+	 * @return Number of milliseconds to wait before the next poll.
+	 */
+	int pollBoard() {
+
+		long pollStart = System.nanoTime();
+
+		// Read the high and low byte of the available count in one transaction.
+		board.readRegister(DDC_BYTES_AVAILABLE_REGISTER, countBuffer, 0, 2);
+		int available = ((countBuffer[0] & 0xFF) << 8) | (countBuffer[1] & 0xFF);
+
+		if ((available == 0) || (available == DDC_COUNT_NOT_READY)) {
+
+			readStatistics.recordEmptyPoll();
+			lastWaitMs = pollBackoffMs;
+			pollBackoffMs = Math.min(pollBackoffMs * 2, MAX_POLL_BACKOFF_MS);
+			return lastWaitMs;
+		}
+
+		int readLength = Math.min(available, MAX_READ_BYTES);
+		int bytesRead = board.readRegister(DDC_DATA_STREAM_REGISTER, readBuffer, 0, readLength);
+
+		readStatistics.recordDataPoll(bytesRead, lastWaitMs, System.nanoTime() - pollStart);
+
+		if (bytesRead > 0) {
+			if (protocol == GpsProtocol.UBX) {
+				ubxParser.accept(readBuffer, 0, bytesRead);
+			} else {
+				processBytes(readBuffer, bytesRead);
+			}
+		}
+
+		// If there is more waiting than we could read in one transaction, poll
+		// again right away; otherwise start the backoff over.
+		pollBackoffMs = MIN_POLL_BACKOFF_MS;
+		lastWaitMs = available > readLength ? 0 : MIN_POLL_BACKOFF_MS;
+		return lastWaitMs;
+	}
+
+	/**
+	 * Splits bytes read from the GPS into NMEA lines and processes each complete
+	 * line.
+	 * 
+	 * @param buffer Buffer containing the bytes read.
+	 * @param length Number of bytes in the buffer to process.
+	 */
+	private void processBytes(byte[] buffer, int length) {
+
+		for (int i = 0; i < length; i++) {
+
+			byte current = buffer[i];
+
+			if (current == 0x0a || current < 0) {
+				// Ignore linefeeds and negative bytes
+				continue;
+			}
+
+			// Stop and build line at a carriage return or a $
+			if (current == 0x0d || ((current == '$') && (line.length() > 0))) {
+
+				// We have a carriage return so if the line is non-empty, submit
+				// it.
+				if (line.length() > 0) {
+
+					LOGGER.debug("Found carriage return or $; processing: line={}", line);
+					processGpsLine(line.toString());
+
+					// Start a new line.
+					line.setLength(0);
+
+					// If we processed a line due to a $ we need to start next line
+					// with it.
+					if (current == '$') {
+						line.append('$');
+					}
+				}
+			} else {
+				// Append character read to our buffer.
+				line.append((char) current);
+			}
+		}
+	}
+
+	/**
+	 * Processes a complete UBX frame from the GPS. Only NAV-PVT messages carry
+	 * data; acknowledgements of the configuration are just logged.
+	 * 
+	 * @param messageClass Class of the message.
+	 * @param messageId    Id of the message.
+	 * @param payload      Payload of the message.
+	 */
+	private void processUbxFrame(int messageClass, int messageId, ByteBuffer payload) {
+
+		if ((messageClass == UbxProtocol.CLASS_NAV) && (messageId == UbxProtocol.ID_NAV_PVT)) {
+
+			if (!navPvt.wrap(payload)) {
+				LOGGER.debug("Ignoring short NAV-PVT message: length={}", payload.limit());
+				return;
+			}
+
+			LOGGER.debug("GPS NAV-PVT: fixType={} numSatellites={}", navPvt.getFixType(),
+					navPvt.getSatelliteCount());
+
+			// NAV-PVT only reports the satellites used in the solution.
+			satellitesInFix.set(navPvt.getSatelliteCount());
+			satellitesInView.set(navPvt.getSatelliteCount());
+
+			if (navPvt.hasFix()) {
+				Location fix = Location.of(navPvt.getLatitude(), navPvt.getLongitude(), navPvt.getAltitude(),
+						navPvt.getSpeed(), navPvt.getHeading());
+				updateSampleHistory(fix);
+				reportFix(fix, navPvt.getSatelliteCount());
+			} else {
+				updateSampleHistory(null);
+			}
+
+		} else if (messageClass == UbxProtocol.CLASS_ACK) {
+
+			if (messageId == UbxProtocol.ID_ACK_NAK) {
+				LOGGER.warn("GPS board rejected configuration message: id={}", payload.get(1) & 0xFF);
+			}
+
+		} else {
+			LOGGER.trace("GPS: Ignoring UBX message class={} id={}", messageClass, messageId);
+		}
+	}
+
+	/**
+	 * Receives a line from the GPS reader thread.
+	 * 
+	 * @param line Line from the GPS to process.
+	 */
+	private void processGpsLine(String line) {
+
+		if (line.startsWith("$GNGGA")) {
+			// Pull out position reports.
+			processPositionLine(line);
+		} else if (line.startsWith("$GPGSV")) {
+			// Capture details from the System Fix Data
+			processSatellitesInViewLine(line);
+		} else {
+			LOGGER.trace("GPS: Ignoring {}", line);
+		}
+	}
+
+	/**
+	 * Process a GNGGA position line from the GPS.
+	 * 
+	 * @param line Line to process.
+	 */
+	private void processPositionLine(String line) {
+
+		try {
+			SentenceFactory sf = SentenceFactory.getInstance();
+			GGASentence gsa = (GGASentence) sf.createParser(line);
+
+			LOGGER.debug("GPS Location: {} quality={} numSatellites={}", gsa.getPosition(), gsa.getFixQuality(),
+					gsa.getSatelliteCount());
+			satellitesInFix.set(gsa.getSatelliteCount());
+			if (gsa.getFixQuality() != GpsFixQuality.INVALID) {
+				Location fix = locationFrom(gsa);
+				updateSampleHistory(fix);
+				reportFix(fix, gsa.getSatelliteCount());
+			} else {
+				updateSampleHistory(null);
+			}
+
+		} catch (DataNotAvailableException e) {
+
+			// GPS is online but not returning a location yet.
+			LOGGER.debug("Data not available error from GPS.");
+			updateSampleHistory(null);
+
+		} catch (Exception e) {
+			// This line is occasionally corrupt and we just ignore it if so.
+			// It would be nice to figure out why at some point.
+		}
+	}
+
+	/**
+	 * Process a GNGSV satellites in view line from the GPS.
+	 * 
+	 * @param line Line to process.
+	 */
+	private void processSatellitesInViewLine(String line) {
+
+		try {
+			SentenceFactory sf = SentenceFactory.getInstance();
+			GSVSentence gsv = (GSVSentence) sf.createParser(line);
+
+			LOGGER.debug("GPS Satellite: inView={}", gsv.getSatelliteCount());
+			satellitesInView.set(gsv.getSatelliteCount());
+
+		} catch (DataNotAvailableException e) {
+
+			// GPS is online but not returning data yet.
+			LOGGER.debug("Data not available error from GPS.");
+
+		} catch (Exception e) {
+			// This line is occasionally corrupt and we just ignore it if so.
+			// It would be nice to figure out why at some point.
+		}
+	}
+
+
+	/**
+	 * Reports a fix to the fix listener, if there is one.
+	 * 
+	 * @param fix        Location of the fix.
+	 * @param satellites Number of satellites used for the fix.
+	 */
+	private void reportFix(Location fix, int satellites) {
+
+		GpsFixListener listener = fixListener;
+		if (listener != null) {
+			listener.fixReceived(fix, satellites);
+		}
+	}
+
 	/**
 	 * Processes the latest sample and updates the sample history as appropriate
 	 * based on the sample and fix status in it.
 	 * 
-	 * @param latestSample Latest sample from the GPS hardware.
+	 * @param latestSample Location of the latest sample from the GPS hardware or
+	 *                       null if the GPS does not have a fix.
 	 */
-	private void updateSampleHistory(GGASentence latestSample, boolean dataUnavailableError) {
+	private void updateSampleHistory(Location latestSample) {
 
 		synchronized (sampleLock) {
 
-			boolean latestHasFix;
-			if (dataUnavailableError) {
-				latestHasFix = false;
-			} else {
-				latestHasFix = latestSample.getFixQuality() != GpsFixQuality.INVALID;
-			}
+			boolean latestHasFix = latestSample != null;
 
 			if (latestHasFix != haveFix) {
 
@@ -182,7 +583,7 @@ public class SparkFunGpsDriver implements GpsDriver {
 
 					// For the first fix, we will the history with its location.
 					sampleIndex = 0;
-					Arrays.fill(sampleHistory, locationFrom(latestSample));
+					Arrays.fill(sampleHistory, latestSample);
 
 					haveFix = true;
 
@@ -203,7 +604,7 @@ public class SparkFunGpsDriver implements GpsDriver {
 					LOGGER.debug("Received new fix data: updating history.");
 
 					// Added latest fix to history.
-					sampleHistory[sampleIndex] = locationFrom(latestSample);
+					sampleHistory[sampleIndex] = latestSample;
 
 					// Increment our index but roll over for the circular buffer.
 					sampleIndex = (sampleIndex + 1) % SMOOTHING_SAMPLES;
@@ -241,10 +642,15 @@ public class SparkFunGpsDriver implements GpsDriver {
 				totalAltitude += sample.getAltitude();
 			}
 
+			// Speed and heading are not smoothed since they should respond right away.
+			Location latest = sampleHistory[(sampleIndex + SMOOTHING_SAMPLES - 1) % SMOOTHING_SAMPLES];
+
 			return Location.of(//
 					totalLatitude / SMOOTHING_SAMPLES, //
 					totalLongitude / SMOOTHING_SAMPLES, //
-					totalAltitude / SMOOTHING_SAMPLES);
+					totalAltitude / SMOOTHING_SAMPLES, //
+					latest.getSpeed(), //
+					latest.getHeading());
 		}
 	}
 
@@ -265,8 +671,8 @@ public class SparkFunGpsDriver implements GpsDriver {
 	// ----------------------------------------------------------------------------------------
 
 	/**
-	 * Thread for polling the GPS unit for data via I2C and invoking the process
-	 * line callback when there is a whole line read.
+	 * Thread for polling the GPS unit for data via I2C and processing the lines
+	 * that are read.
 	 */
 	private class GpsReader extends Thread {
 
@@ -288,69 +694,24 @@ public class SparkFunGpsDriver implements GpsDriver {
 
 			LOGGER.info("GPS reader thread started.");
 
-			StringBuilder line = new StringBuilder();
-			byte[] buffer = new byte[255];
-
 			while (!isInterrupted()) {
 
 				try {
-					// Fill with garbage byte
-					Arrays.fill(buffer, (byte) 0x0a);
-
-					// Read up to the maximum packet size.
-					board.read(buffer);
-					int linefeedCount = 0;
-					for (int i = 0; i < 255; i++) {
-
-						byte current = buffer[i];
-
-						if (current == 0x0a || current < 0) {
-							// Ignore linefeeds and negative bytes
-							linefeedCount += 1;
-							continue;
-						}
-
-						// Stop and build line at a carriage return or a $
-						if (current == 0x0d || ((current == '$') && (line.length() > 0))) {
-
-							// We have a carriage return so if the line is non-empty, submit
-							// it.
-							if (line.length() > 0) {
-
-								LOGGER.debug("Found carriage return or $; processing: line={}", line);
-								processGpsLine(line.toString());
-
-								// Start a new line.
-								line.setLength(0);
-
-								// If we processed a line due to a $ we need to start next line
-								// with it.
-								if (current == '$') {
-									line.append('$');
-								}
-							}
-						} else {
-							// Append character read to our buffer.
-							line.append((char) current);
-						}
+					int waitMs = pollBoard();
+					if (waitMs > 0) {
+						Thread.sleep(waitMs);
 					}
-
-					if (linefeedCount >= 255) {
-						// There was no data in last read so sleep for a while.
-						try {
-							LOGGER.trace("Empty response from GPS module: sleeping...");
-							Thread.sleep(GPS_SLEEP_MS);
-						} catch (InterruptedException e) {
-							LOGGER.warn("Interrupted during GPS sleep.");
-							Thread.currentThread().interrupt();
-							break;
-						}
-					}
-				}
-				catch (Exception e) {
+				} catch (InterruptedException e) {
+					LOGGER.warn("Interrupted during GPS poll wait.");
+					Thread.currentThread().interrupt();
+					break;
+				} catch (Exception e) {
 					LOGGER.warn("Exception during GPS read; reset and retrying in 5 seconds.", e);
 					line.setLength(0);
-					
+					ubxParser.reset();
+					pollBackoffMs = MIN_POLL_BACKOFF_MS;
+					lastWaitMs = 0;
+
 					try {
 						Thread.sleep(GPS_RESET_SLEEP_MS);
 					} catch (InterruptedException ie) {
@@ -358,82 +719,10 @@ public class SparkFunGpsDriver implements GpsDriver {
 						Thread.currentThread().interrupt();
 						break;
 					}
-
 				}
 			}
 
 			LOGGER.info("GPS reader thread shutdown.");
 		}
-
-		/**
-		 * Receives a line from the GPS reader thread.
-		 * 
-		 * @param line Line from the GPS to process.
-		 */
-		private void processGpsLine(String line) {
-
-			if (line.startsWith("$GNGGA")) {
-				// Pull out position reports.
-				processPositionLine(line);
-			} else if (line.startsWith("$GPGSV")) {
-				// Capture details from the System Fix Data
-				processSatellitesInViewLine(line);
-			} else {
-				LOGGER.trace("GPS: Ignoring {}", line);
-			}
-		}
-
-		/**
-		 * Process a GNGGA position line from the GPS.
-		 * 
-		 * @param line Line to process.
-		 */
-		private void processPositionLine(String line) {
-
-			try {
-				SentenceFactory sf = SentenceFactory.getInstance();
-				GGASentence gsa = (GGASentence) sf.createParser(line);
-
-				LOGGER.debug("GPS Location: {} quality={} numSatellites={}", gsa.getPosition(), gsa.getFixQuality(),
-						gsa.getSatelliteCount());
-				updateSampleHistory(gsa, false);
-				satellitesInFix.set(gsa.getSatelliteCount());
-
-			} catch (DataNotAvailableException e) {
-
-				// GPS is online but not returning a location yet.
-				LOGGER.debug("Data not available error from GPS.");
-				updateSampleHistory(null, true);
-
-			} catch (Exception e) {
-				// This line is occasionally corrupt and we just ignore it if so.
-				// It would be nice to figure out why at some point.
-			}
-		}
-
-		/**
-		 * Process a GNGSV satellites in view line from the GPS.
-		 * 
-		 * @param line Line to process.
-		 */
-		private void processSatellitesInViewLine(String line) {
-
-			try {
-				SentenceFactory sf = SentenceFactory.getInstance();
-				GSVSentence gsv = (GSVSentence) sf.createParser(line);
-
-				LOGGER.debug("GPS Satellite: inView={}", gsv.getSatelliteCount());
-				satellitesInView.set(gsv.getSatelliteCount());
-
-			} catch (DataNotAvailableException e) {
-
-				// GPS is online but not returning data yet.
-				LOGGER.debug("Data not available error from GPS.");
-
-			} catch (Exception e) {
-				// This line is occasionally corrupt and we just ignore it if so.
-				// It would be nice to figure out why at some point.
-			}
-		}
 	}
 }
@@ -0,0 +1,182 @@
+package com.wisneskey.los.service.location.driver.ubx;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decoder for the payload of a UBX NAV-PVT (position, velocity and time
+ * solution) message. The decoder wraps the payload buffer and reads fields
+ * directly from it when requested so a single instance can be reused for every
+ * message without copying or allocating.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class NavPvtMessage {
+
+	/**
+	 * Length of the NAV-PVT payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 92;
+
+	/**
+	 * Fix type for a 3D fix.
+	 */
+	public static final int FIX_TYPE_3D = 3;
+
+	// Offsets of the fields in the payload.
+	static final int OFFSET_ITOW = 0;
+	static final int OFFSET_FIX_TYPE = 20;
+	static final int OFFSET_FLAGS = 21;
+	static final int OFFSET_NUM_SV = 23;
+	static final int OFFSET_LONGITUDE = 24;
+	static final int OFFSET_LATITUDE = 28;
+	static final int OFFSET_HEIGHT_MSL = 36;
+	static final int OFFSET_GROUND_SPEED = 60;
+	static final int OFFSET_HEADING = 64;
+
+	/**
+	 * Flag bit indicating the fix is valid.
+	 */
+	static final int FLAG_GNSS_FIX_OK = 0x01;
+
+	/**
+	 * Scale of the latitude and longitude fields.
+	 */
+	static final double DEGREES_SCALE = 1e-7;
+
+	/**
+	 * Scale of the heading field.
+	 */
+	static final double HEADING_SCALE = 1e-5;
+
+	/**
+	 * Payload being decoded.
+	 */
+	private ByteBuffer payload;
+
+	// ----------------------------------------------------------------------------------------
+	// Static methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Writes the fields of a NAV-PVT payload into a buffer. Fields not covered by
+	 * the parameters are zeroed. Used to simulate the receiver.
+	 *
+	 * @param payload     Little endian buffer of at least the payload length.
+	 * @param timeOfWeek  GPS time of week in milliseconds.
+	 * @param fix         True if the solution is a valid 3D fix.
+	 * @param satellites  Number of satellites used in the solution.
+	 * @param latitude    Latitude in degrees.
+	 * @param longitude   Longitude in degrees.
+	 * @param altitude    Height above mean sea level in meters.
+	 * @param speed       Ground speed in meters per second.
+	 * @param heading     Heading of motion in degrees from true north.
+	 */
+	public static void writePayload(ByteBuffer payload, long timeOfWeek, boolean fix, int satellites, double latitude,
+			double longitude, double altitude, double speed, double heading) {
+
+		for (int index = 0; index < PAYLOAD_LENGTH; index++) {
+			payload.put(index, (byte) 0);
+		}
+
+		payload.putInt(OFFSET_ITOW, (int) timeOfWeek);
+		payload.put(OFFSET_FIX_TYPE, (byte) (fix ? FIX_TYPE_3D : 0));
+		payload.put(OFFSET_FLAGS, (byte) (fix ? FLAG_GNSS_FIX_OK : 0));
+		payload.put(OFFSET_NUM_SV, (byte) satellites);
+		payload.putInt(OFFSET_LONGITUDE, (int) Math.round(longitude / DEGREES_SCALE));
+		payload.putInt(OFFSET_LATITUDE, (int) Math.round(latitude / DEGREES_SCALE));
+		payload.putInt(OFFSET_HEIGHT_MSL, (int) Math.round(altitude * 1000.0));
+		payload.putInt(OFFSET_GROUND_SPEED, (int) Math.round(speed * 1000.0));
+		payload.putInt(OFFSET_HEADING, (int) Math.round(heading / HEADING_SCALE));
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Points the decoder at a new payload.
+	 *
+	 * @param  payload Little endian payload of a NAV-PVT message.
+	 * @return         True if the payload is long enough to be decoded.
+	 */
+	public boolean wrap(ByteBuffer payload) {
+		this.payload = payload;
+		return payload.limit() >= PAYLOAD_LENGTH;
+	}
+
+	/**
+	 * Returns the GPS time of week of the solution.
+	 *
+	 * @return Time of week in milliseconds.
+	 */
+	public long getTimeOfWeekMs() {
+		return payload.getInt(OFFSET_ITOW) & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Returns if the solution is a valid fix good enough to use.
+	 *
+	 * @return True if the solution has a valid fix.
+	 */
+	public boolean hasFix() {
+		return (payload.get(OFFSET_FLAGS) & FLAG_GNSS_FIX_OK) != 0 && getFixType() >= 2;
+	}
+
+	public int getFixType() {
+		return payload.get(OFFSET_FIX_TYPE) & 0xFF;
+	}
+
+	public int getSatelliteCount() {
+		return payload.get(OFFSET_NUM_SV) & 0xFF;
+	}
+
+	public double getLatitude() {
+		return payload.getInt(OFFSET_LATITUDE) * DEGREES_SCALE;
+	}
+
+	public double getLongitude() {
+		return payload.getInt(OFFSET_LONGITUDE) * DEGREES_SCALE;
+	}
+
+	/**
+	 * Returns the height above mean sea level.
+	 *
+	 * @return Altitude in meters.
+	 */
+	public double getAltitude() {
+		return payload.getInt(OFFSET_HEIGHT_MSL) / 1000.0;
+	}
+
+	/**
+	 * Returns the ground speed.
+	 *
+	 * @return Speed in meters per second.
+	 */
+	public double getSpeed() {
+		return payload.getInt(OFFSET_GROUND_SPEED) / 1000.0;
+	}
+
+	/**
+	 * Returns the heading of motion.
+	 *
+	 * @return Heading in degrees from true north.
+	 */
+	public double getHeading() {
+		return payload.getInt(OFFSET_HEADING) * HEADING_SCALE;
+	}
+}
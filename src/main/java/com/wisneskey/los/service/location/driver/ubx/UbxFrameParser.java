@@ -0,0 +1,240 @@
+package com.wisneskey.los.service.location.driver.ubx;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Incremental parser that finds UBX frames in a byte stream. Bytes can be fed in
+ * chunks of any size and frames may span chunks. Each frame's payload is
+ * collected in a single preallocated buffer and handed to the frame handler as a
+ * little endian byte buffer view so messages can be decoded in place without
+ * copying or allocating. Anything that is not part of a valid frame (e.g. NMEA
+ * text sent before the receiver switched protocols) is skipped.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class UbxFrameParser {
+
+	/**
+	 * Largest payload the parser will accept; larger frames are skipped.
+	 */
+	private static final int MAX_PAYLOAD_LENGTH = 512;
+
+	/**
+	 * Handler to pass each valid frame to.
+	 */
+	private FrameHandler handler;
+
+	/**
+	 * Buffer the payload of the current frame is collected in.
+	 */
+	private byte[] payload = new byte[MAX_PAYLOAD_LENGTH];
+
+	/**
+	 * Little endian view of the payload buffer handed to the frame handler.
+	 */
+	private ByteBuffer payloadView = ByteBuffer.wrap(payload).order(ByteOrder.LITTLE_ENDIAN);
+
+	/**
+	 * Current position in the frame being parsed.
+	 */
+	private ParseState state = ParseState.SYNC_1;
+
+	private int messageClass;
+	private int messageId;
+	private int payloadLength;
+	private int payloadIndex;
+	private int checksumA;
+	private int checksumB;
+
+	/**
+	 * Number of frames dropped because their checksum did not match.
+	 */
+	private long checksumErrors;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a parser that passes valid frames to a handler.
+	 *
+	 * @param handler Handler to receive the valid frames.
+	 */
+	public UbxFrameParser(FrameHandler handler) {
+		this.handler = handler;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Feeds bytes from the stream to the parser. The handler is called for each
+	 * frame completed by these bytes.
+	 *
+	 * @param buffer Buffer containing the bytes.
+	 * @param offset Offset in the buffer of the first byte.
+	 * @param length Number of bytes to feed.
+	 */
+	public void accept(byte[] buffer, int offset, int length) {
+
+		for (int index = offset; index < offset + length; index++) {
+			accept(buffer[index] & 0xFF);
+		}
+	}
+
+	/**
+	 * Returns the number of frames dropped because of a checksum mismatch.
+	 *
+	 * @return Number of frames with bad checksums.
+	 */
+	public long getChecksumErrors() {
+		return checksumErrors;
+	}
+
+	/**
+	 * Discards any partially parsed frame.
+	 */
+	public void reset() {
+		state = ParseState.SYNC_1;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Advances the parser by a single byte.
+	 *
+	 * @param value Unsigned value of the byte.
+	 */
+	private void accept(int value) {
+
+		switch (state) {
+		case SYNC_1:
+			if (value == UbxProtocol.SYNC_CHAR_1) {
+				state = ParseState.SYNC_2;
+			}
+			break;
+		case SYNC_2:
+			if (value == UbxProtocol.SYNC_CHAR_2) {
+				checksumA = 0;
+				checksumB = 0;
+				state = ParseState.CLASS;
+			} else {
+				state = value == UbxProtocol.SYNC_CHAR_1 ? ParseState.SYNC_2 : ParseState.SYNC_1;
+			}
+			break;
+		case CLASS:
+			updateChecksum(value);
+			messageClass = value;
+			state = ParseState.ID;
+			break;
+		case ID:
+			updateChecksum(value);
+			messageId = value;
+			state = ParseState.LENGTH_LOW;
+			break;
+		case LENGTH_LOW:
+			updateChecksum(value);
+			payloadLength = value;
+			state = ParseState.LENGTH_HIGH;
+			break;
+		case LENGTH_HIGH:
+			updateChecksum(value);
+			payloadLength |= value << 8;
+			payloadIndex = 0;
+			if (payloadLength > MAX_PAYLOAD_LENGTH) {
+				state = ParseState.SYNC_1;
+			} else {
+				state = payloadLength == 0 ? ParseState.CHECKSUM_A : ParseState.PAYLOAD;
+			}
+			break;
+		case PAYLOAD:
+			updateChecksum(value);
+			payload[payloadIndex++] = (byte) value;
+			if (payloadIndex == payloadLength) {
+				state = ParseState.CHECKSUM_A;
+			}
+			break;
+		case CHECKSUM_A:
+			if (value == checksumA) {
+				state = ParseState.CHECKSUM_B;
+			} else {
+				checksumErrors++;
+				state = ParseState.SYNC_1;
+			}
+			break;
+		case CHECKSUM_B:
+			state = ParseState.SYNC_1;
+			if (value == checksumB) {
+				payloadView.limit(payloadLength).position(0);
+				handler.frameReceived(messageClass, messageId, payloadView);
+			} else {
+				checksumErrors++;
+			}
+			break;
+		}
+	}
+
+	/**
+	 * Adds a byte to the running 8-bit Fletcher checksum.
+	 *
+	 * @param value Unsigned value of the byte.
+	 */
+	private void updateChecksum(int value) {
+		checksumA = (checksumA + value) & 0xFF;
+		checksumB = (checksumB + checksumA) & 0xFF;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Inner classes.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Interface for receiving the frames found by the parser.
+	 */
+	public interface FrameHandler {
+
+		/**
+		 * Called for each frame with a valid checksum. The payload buffer is only
+		 * valid for the duration of the call.
+		 *
+		 * @param messageClass Class of the message.
+		 * @param messageId    Id of the message.
+		 * @param payload      Little endian view of the payload.
+		 */
+		void frameReceived(int messageClass, int messageId, ByteBuffer payload);
+	}
+
+	/**
+	 * Enumerated type for the parts of a frame the parser can be expecting.
+	 */
+	private enum ParseState {
+		SYNC_1,
+		SYNC_2,
+		CLASS,
+		ID,
+		LENGTH_LOW,
+		LENGTH_HIGH,
+		PAYLOAD,
+		CHECKSUM_A,
+		CHECKSUM_B
+	}
+}
@@ -0,0 +1,217 @@
+package com.wisneskey.los.service.location.driver.ubx;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Constants and frame builders for the u-blox UBX binary protocol used to
+ * configure the receiver and to receive navigation solutions from it.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class UbxProtocol {
+
+	/**
+	 * First sync character of a UBX frame.
+	 */
+	public static final int SYNC_CHAR_1 = 0xB5;
+
+	/**
+	 * Second sync character of a UBX frame.
+	 */
+	public static final int SYNC_CHAR_2 = 0x62;
+
+	/**
+	 * Number of bytes in a frame in addition to its payload (sync characters,
+	 * class, id, length and checksum).
+	 */
+	public static final int FRAME_OVERHEAD = 8;
+
+	/**
+	 * Navigation result message class.
+	 */
+	public static final int CLASS_NAV = 0x01;
+
+	/**
+	 * Acknowledgement message class.
+	 */
+	public static final int CLASS_ACK = 0x05;
+
+	/**
+	 * Configuration message class.
+	 */
+	public static final int CLASS_CFG = 0x06;
+
+	/**
+	 * Id of the position, velocity and time solution message.
+	 */
+	public static final int ID_NAV_PVT = 0x07;
+
+	/**
+	 * Id of a negative acknowledgement.
+	 */
+	public static final int ID_ACK_NAK = 0x00;
+
+	/**
+	 * Id of a positive acknowledgement.
+	 */
+	public static final int ID_ACK_ACK = 0x01;
+
+	/**
+	 * Id of the port configuration message.
+	 */
+	public static final int ID_CFG_PRT = 0x00;
+
+	/**
+	 * Id of the message rate configuration message.
+	 */
+	public static final int ID_CFG_MSG = 0x01;
+
+	/**
+	 * Id of the navigation rate configuration message.
+	 */
+	public static final int ID_CFG_RATE = 0x08;
+
+	/**
+	 * Id of the DDC (I2C) port on the receiver.
+	 */
+	private static final int PORT_DDC = 0;
+
+	/**
+	 * Protocol mask bit for UBX.
+	 */
+	private static final int PROTOCOL_UBX = 0x01;
+
+	/**
+	 * Protocol mask bit for NMEA.
+	 */
+	private static final int PROTOCOL_NMEA = 0x02;
+
+	/**
+	 * Minimum supported navigation rate in Hz.
+	 */
+	public static final int MIN_NAVIGATION_RATE = 1;
+
+	/**
+	 * Maximum supported navigation rate in Hz.
+	 */
+	public static final int MAX_NAVIGATION_RATE = 10;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Private constructor to disallow instantiation.
+	 */
+	private UbxProtocol() {
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Static methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Creates a complete UBX frame for a message including the sync characters,
+	 * header and checksum.
+	 *
+	 * @param  messageClass Class of the message.
+	 * @param  messageId    Id of the message.
+	 * @param  payload      Payload of the message.
+	 * @return              Bytes of the complete frame.
+	 */
+	public static byte[] createFrame(int messageClass, int messageId, byte[] payload) {
+
+		byte[] frame = new byte[payload.length + FRAME_OVERHEAD];
+		frame[0] = (byte) SYNC_CHAR_1;
+		frame[1] = (byte) SYNC_CHAR_2;
+		frame[2] = (byte) messageClass;
+		frame[3] = (byte) messageId;
+		frame[4] = (byte) (payload.length & 0xFF);
+		frame[5] = (byte) ((payload.length >> 8) & 0xFF);
+		System.arraycopy(payload, 0, frame, 6, payload.length);
+
+		// Checksum covers everything from the class through the payload.
+		int checksumA = 0;
+		int checksumB = 0;
+		for (int index = 2; index < frame.length - 2; index++) {
+			checksumA = (checksumA + (frame[index] & 0xFF)) & 0xFF;
+			checksumB = (checksumB + checksumA) & 0xFF;
+		}
+
+		frame[frame.length - 2] = (byte) checksumA;
+		frame[frame.length - 1] = (byte) checksumB;
+		return frame;
+	}
+
+	/**
+	 * Creates a CFG-PRT frame that configures the DDC port to accept both
+	 * protocols as input but only output UBX so the receiver stops sending NMEA
+	 * text.
+	 *
+	 * @param  i2cAddress I2C address of the receiver.
+	 * @return            Bytes of the frame.
+	 */
+	public static byte[] createDdcPortConfig(int i2cAddress) {
+
+		ByteBuffer payload = ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN);
+		payload.put(0, (byte) PORT_DDC);
+		payload.putInt(4, i2cAddress << 1);
+		payload.putShort(12, (short) (PROTOCOL_UBX | PROTOCOL_NMEA));
+		payload.putShort(14, (short) PROTOCOL_UBX);
+
+		return createFrame(CLASS_CFG, ID_CFG_PRT, payload.array());
+	}
+
+	/**
+	 * Creates a CFG-MSG frame that enables a NAV-PVT message for every navigation
+	 * solution on the DDC port.
+	 *
+	 * @return Bytes of the frame.
+	 */
+	public static byte[] createNavPvtMessageConfig() {
+
+		// Payload is the message class and id followed by its rate on each of the
+		// six ports; only the DDC port gets the message.
+		byte[] payload = new byte[8];
+		payload[0] = (byte) CLASS_NAV;
+		payload[1] = (byte) ID_NAV_PVT;
+		payload[2 + PORT_DDC] = 1;
+
+		return createFrame(CLASS_CFG, ID_CFG_MSG, payload);
+	}
+
+	/**
+	 * Creates a CFG-RATE frame setting how often the receiver calculates a
+	 * navigation solution.
+	 *
+	 * @param  rateHz Navigation rate in Hz (clamped to the supported range).
+	 * @return        Bytes of the frame.
+	 */
+	public static byte[] createNavigationRateConfig(int rateHz) {
+
+		int clampedRate = Math.max(MIN_NAVIGATION_RATE, Math.min(rateHz, MAX_NAVIGATION_RATE));
+
+		ByteBuffer payload = ByteBuffer.allocate(6).order(ByteOrder.LITTLE_ENDIAN);
+		payload.putShort(0, (short) (1000 / clampedRate));
+		payload.putShort(2, (short) 1);
+		payload.putShort(4, (short) 1);
+
+		return createFrame(CLASS_CFG, ID_CFG_RATE, payload.array());
+	}
+}
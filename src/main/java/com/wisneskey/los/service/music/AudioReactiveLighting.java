@@ -0,0 +1,485 @@
+package com.wisneskey.los.service.music;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.wisneskey.los.kernel.Kernel;
+import com.wisneskey.los.service.ServiceId;
+import com.wisneskey.los.service.audio.engine.AudioEngine;
+import com.wisneskey.los.service.audio.engine.AudioFormats;
+import com.wisneskey.los.service.audio.engine.PcmRingBuffer;
+import com.wisneskey.los.service.audio.engine.SpectrumBands;
+import com.wisneskey.los.service.profile.model.Profile;
+import com.wisneskey.los.state.LightingState;
+
+import javafx.application.Platform;
+
+/**
+ * Thread that makes the lighting react to the music as it plays. The mixer
+ * copies the music it mixes into a tap buffer; this thread measures the bass
+ * and the rest of the spectrum of the most recent audio many times a second
+ * and maps them onto the lighting: bass hits flash the brightness up to the
+ * level it is set to and the overall energy raises the intensity above its
+ * setting. The audio is analyzed as it is heard rather than when it is mixed
+ * by delaying by the output latency, less a lead for the lighting
+ * controller's own latency. Changes are sent to the controller at a limited
+ * rate since every change is a request to it. The lighting values are bound to
+ * the controls of the lighting screen so they are only read and changed on the
+ * JavaFX application thread; this thread posts the levels it measures there.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public final class AudioReactiveLighting extends Thread {
+
+	/**
+	 * Logger for the reactive lighting.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(AudioReactiveLighting.class);
+
+	/**
+	 * Number of frames in each analyzed block (about 46ms, giving 21.5Hz bins so
+	 * the bass band spans several of them).
+	 */
+	private static final int BLOCK_FRAMES = 2048;
+
+	/**
+	 * Number of frames of recent music kept for analysis; covers a block plus the
+	 * output latency.
+	 */
+	private static final int HISTORY_FRAMES = 16384;
+
+	/**
+	 * Frequencies dividing the bass band from the rest of the spectrum.
+	 */
+	private static final double[] BAND_EDGES_HZ = { 40.0, 150.0, 8000.0 };
+	private static final int BASS_BAND = 0;
+	private static final int UPPER_BAND = 1;
+
+	/**
+	 * Bass a hit must exceed as a multiple of its recent average.
+	 */
+	private static final float HIT_RATIO = 1.6f;
+
+	/**
+	 * Bass energy below which nothing counts as a hit.
+	 */
+	private static final float HIT_FLOOR = 0.0005f;
+
+	/**
+	 * Time constants in milliseconds of the bass average, the decay of a flash
+	 * and the decay of the energy peak used to scale the intensity.
+	 */
+	private static final double BASS_AVERAGE_MS = 400.0;
+	private static final double FLASH_DECAY_MS = 150.0;
+	private static final double PEAK_DECAY_MS = 5000.0;
+
+	/**
+	 * Fraction of its setting the brightness drops to between bass hits.
+	 */
+	private static final float DIM_LEVEL = 0.5f;
+
+	/**
+	 * Smallest change in a lighting value worth sending to the controller.
+	 */
+	private static final int MIN_CHANGE = 3;
+
+	/**
+	 * Time in milliseconds without music after which the lighting is returned to
+	 * its settings.
+	 */
+	private static final long RELEASE_MS = 500;
+
+	/**
+	 * Engine playing the music.
+	 */
+	private AudioEngine engine;
+
+	/**
+	 * Buffer the mixer copies the music into.
+	 */
+	private PcmRingBuffer tap;
+
+	/**
+	 * Measures the bands of each block.
+	 */
+	private SpectrumBands bands = new SpectrumBands(BLOCK_FRAMES, BAND_EDGES_HZ);
+
+	/**
+	 * Time in milliseconds between analyses.
+	 */
+	private long analysisIntervalMs;
+
+	/**
+	 * Shortest time in nanoseconds between updates sent to the lighting.
+	 */
+	private long updateIntervalNanos;
+
+	/**
+	 * Time in milliseconds to show the music ahead of it being heard.
+	 */
+	private long leadMs;
+
+	/**
+	 * Samples read from the tap.
+	 */
+	private short[] tapSamples = new short[4096];
+
+	/**
+	 * Recent music mixed to mono, as a circular buffer.
+	 */
+	private float[] history = new float[HISTORY_FRAMES];
+
+	/**
+	 * Total number of frames added to the history.
+	 */
+	private long historyFrames;
+
+	/**
+	 * Block being analyzed and the energies measured in it.
+	 */
+	private float[] block = new float[BLOCK_FRAMES];
+	private float[] energies = new float[BAND_EDGES_HZ.length - 1];
+
+	/**
+	 * State of the lighting, looked up once the lighting service is running.
+	 */
+	private LightingState lightingState;
+
+	/**
+	 * Flag indicating if the lighting is currently being driven.
+	 */
+	private boolean active;
+
+	/**
+	 * Flag indicating if the lighting values are being modulated. Only used on
+	 * the JavaFX application thread.
+	 */
+	private boolean driving;
+
+	/**
+	 * Brightness and intensity set by the user, which the music modulates. Only
+	 * used on the JavaFX application thread.
+	 */
+	private int baseBrightness;
+	private int baseIntensity;
+
+	/**
+	 * Brightness and intensity last sent to the lighting. Only used on the
+	 * JavaFX application thread.
+	 */
+	private int sentBrightness;
+	private int sentIntensity;
+
+	/**
+	 * Running average of the bass energy, level of the current flash from 0.0 to
+	 * 1.0 and the decaying peak of the overall energy.
+	 */
+	private float bassAverage;
+	private float flash;
+	private float energyPeak;
+
+	/**
+	 * Times in nanoseconds of the last analysis, the last update posted and the
+	 * last music received.
+	 */
+	private long lastAnalysisNanos;
+	private long lastUpdateNanos;
+	private long lastMusicNanos;
+
+	private volatile long analyses;
+	private volatile long totalAnalysisNanos;
+	private volatile long maxAnalysisNanos;
+	private volatile long updatesSent;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for the reactive lighting.
+	 *
+	 * @param engine  Engine playing the music.
+	 * @param profile Profile with the analysis and update rates.
+	 */
+	public AudioReactiveLighting(AudioEngine engine, Profile profile) {
+
+		this.engine = engine;
+		this.tap = new PcmRingBuffer(HISTORY_FRAMES * AudioFormats.CHANNELS);
+		this.analysisIntervalMs = Math.max(1, 1000 / Math.max(1, profile.getReactiveLightingAnalysisHz()));
+		this.updateIntervalNanos = 1000000000L / Math.max(1, profile.getReactiveLightingUpdateHz());
+		this.leadMs = profile.getMusicLightingLeadMs();
+
+		setName("musicReactive");
+		setDaemon(true);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Stops the reactive lighting and disconnects it from the mixer. The
+	 * lighting is left as it is since its service may already be stopped.
+	 */
+	public void shutdown() {
+
+		engine.getMixer().setMusicTap(null);
+		interrupt();
+	}
+
+	/**
+	 * Returns a summary of the analysis workload for logging.
+	 *
+	 * @return Summary of the reactive lighting statistics.
+	 */
+	public String getStatistics() {
+
+		long count = analyses;
+		long averageNanos = count == 0 ? 0 : totalAnalysisNanos / count;
+
+		return "analyses=" + count + " averageAnalysisUs=" + (averageNanos / 1000) + " maxAnalysisUs="
+				+ (maxAnalysisNanos / 1000) + " averageLoadPercent="
+				+ String.format("%.2f", (100.0 * averageNanos) / (analysisIntervalMs * 1000000L)) + " updatesSent="
+				+ updatesSent;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Thread methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public void run() {
+
+		engine.getMixer().setMusicTap(tap);
+		lastAnalysisNanos = System.nanoTime();
+
+		while (!isInterrupted()) {
+
+			try {
+				step();
+			} catch (RuntimeException e) {
+				LOGGER.warn("Failed to drive the lighting from the music.", e);
+			}
+
+			try {
+				Thread.sleep(analysisIntervalMs);
+			} catch (InterruptedException e) {
+				// Interrupted to shut down.
+				return;
+			}
+		}
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Takes in the music mixed since the last step, analyzes the block being
+	 * heard and updates the lighting.
+	 */
+	private void step() {
+
+		long now = System.nanoTime();
+		float elapsedMs = (now - lastAnalysisNanos) / 1000000.0f;
+		lastAnalysisNanos = now;
+
+		if (drainTap() > 0) {
+			lastMusicNanos = now;
+		} else if ((now - lastMusicNanos) / 1000000L > RELEASE_MS) {
+			release();
+			return;
+		}
+
+		if (lightingState == null) {
+			lightingState = Kernel.kernel().chairState().getServiceState(ServiceId.LIGHTING);
+			if (lightingState == null) {
+				return;
+			}
+		}
+
+		int delayFrames = AudioFormats
+				.framesForMillis(Math.max(0, engine.getOutputLatencyMicros() / 1000.0 - leadMs));
+		delayFrames = Math.min(delayFrames, HISTORY_FRAMES - BLOCK_FRAMES);
+		if (historyFrames < BLOCK_FRAMES + delayFrames) {
+			return;
+		}
+
+		long start = System.nanoTime();
+		copyBlock(historyFrames - delayFrames - BLOCK_FRAMES);
+		bands.measure(block, energies);
+		long analysisNanos = System.nanoTime() - start;
+
+		analyses++;
+		totalAnalysisNanos += analysisNanos;
+		if (analysisNanos > maxAnalysisNanos) {
+			maxAnalysisNanos = analysisNanos;
+		}
+
+		float bass = energies[BASS_BAND];
+		float energy = bass + energies[UPPER_BAND];
+
+		// A hit is a jump in the bass well above its recent level.
+		if ((bass > HIT_FLOOR) && (bass > bassAverage * HIT_RATIO)) {
+			flash = 1.0f;
+		} else {
+			flash *= (float) Math.exp(-elapsedMs / FLASH_DECAY_MS);
+		}
+		bassAverage += (bass - bassAverage) * (float) (1.0 - Math.exp(-elapsedMs / BASS_AVERAGE_MS));
+
+		// Scale the energy to the loudest recent music so quiet tracks still move.
+		energyPeak = Math.max(energy, energyPeak * (float) Math.exp(-elapsedMs / PEAK_DECAY_MS));
+		float level = energyPeak > 0.0f ? energy / energyPeak : 0.0f;
+
+		if (!active) {
+			active = true;
+		} else if (now - lastUpdateNanos < updateIntervalNanos) {
+			return;
+		}
+
+		lastUpdateNanos = now;
+		float brightnessLevel = DIM_LEVEL + (1.0f - DIM_LEVEL) * flash;
+		Platform.runLater(() -> update(brightnessLevel, level));
+	}
+
+	/**
+	 * Moves everything in the tap into the history.
+	 *
+	 * @return Number of frames moved.
+	 */
+	private int drainTap() {
+
+		int total = 0;
+		int count;
+
+		while ((count = tap.read(tapSamples, 0, tapSamples.length)) > 0) {
+
+			for (int index = 0; index + AudioFormats.CHANNELS <= count; index += AudioFormats.CHANNELS) {
+				history[(int) (historyFrames % HISTORY_FRAMES)] = (tapSamples[index] + tapSamples[index + 1])
+						/ 65536.0f;
+				historyFrames++;
+			}
+			total += count / AudioFormats.CHANNELS;
+		}
+		return total;
+	}
+
+	/**
+	 * Copies a block out of the history.
+	 *
+	 * @param firstFrame Number of the first frame of the block.
+	 */
+	private void copyBlock(long firstFrame) {
+
+		int start = (int) (firstFrame % HISTORY_FRAMES);
+		int firstPart = Math.min(BLOCK_FRAMES, HISTORY_FRAMES - start);
+
+		System.arraycopy(history, start, block, 0, firstPart);
+		System.arraycopy(history, 0, block, firstPart, BLOCK_FRAMES - firstPart);
+	}
+
+	/**
+	 * Returns the lighting to its settings once the music has stopped.
+	 */
+	private void release() {
+
+		if (!active) {
+			return;
+		}
+
+		Platform.runLater(this::restore);
+		active = false;
+		flash = 0.0f;
+		bassAverage = 0.0f;
+		energyPeak = 0.0f;
+	}
+
+	/**
+	 * Sends new lighting values if they have changed enough. Values changed by
+	 * something other than this (such as the user) become the new settings the
+	 * music modulates. Called on the JavaFX application thread.
+	 *
+	 * @param brightnessLevel Fraction of its setting to show the brightness at.
+	 * @param intensityLevel  Fraction of the way from its setting to full to
+	 *                          show the intensity at.
+	 */
+	private void update(float brightnessLevel, float intensityLevel) {
+
+		if (!driving) {
+			baseBrightness = lightingState.brightness().get();
+			baseIntensity = lightingState.intensity().get();
+			sentBrightness = baseBrightness;
+			sentIntensity = baseIntensity;
+			driving = true;
+		}
+
+		int currentBrightness = lightingState.brightness().get();
+		if (currentBrightness != sentBrightness) {
+			baseBrightness = currentBrightness;
+			sentBrightness = currentBrightness;
+			return;
+		}
+
+		int currentIntensity = lightingState.intensity().get();
+		if (currentIntensity != sentIntensity) {
+			baseIntensity = currentIntensity;
+			sentIntensity = currentIntensity;
+			return;
+		}
+
+		int brightness = Math.round(baseBrightness * brightnessLevel);
+		int intensity = Math.round(baseIntensity + (255 - baseIntensity) * intensityLevel);
+
+		boolean sent = false;
+		if (Math.abs(brightness - sentBrightness) >= MIN_CHANGE) {
+			sentBrightness = brightness;
+			lightingState.brightness().set(brightness);
+			sent = true;
+		}
+		if (Math.abs(intensity - sentIntensity) >= MIN_CHANGE) {
+			sentIntensity = intensity;
+			lightingState.intensity().set(intensity);
+			sent = true;
+		}
+
+		if (sent) {
+			updatesSent++;
+		}
+	}
+
+	/**
+	 * Returns the lighting values to their settings, leaving any the user has
+	 * changed in the meantime as they are. Called on the JavaFX application
+	 * thread.
+	 */
+	private void restore() {
+
+		if (!driving) {
+			return;
+		}
+
+		if (lightingState.brightness().get() == sentBrightness) {
+			lightingState.brightness().set(baseBrightness);
+		}
+		if (lightingState.intensity().get() == sentIntensity) {
+			lightingState.intensity().set(baseIntensity);
+		}
+		driving = false;
+		updatesSent++;
+	}
+}
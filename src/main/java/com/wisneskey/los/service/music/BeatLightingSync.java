@@ -0,0 +1,326 @@
+package com.wisneskey.los.service.music;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.wisneskey.los.kernel.Kernel;
+import com.wisneskey.los.service.ServiceId;
+import com.wisneskey.los.state.LightingState;
+
+import javafx.application.Platform;
+
+/**
+ * Thread that drives the lighting from the beat grid of the playing track.
+ * When a track starts the lighting speed is set from its tempo, and while it
+ * plays the intensity is raised on every downbeat and restored on the beat
+ * after it. Everything is taken from the track's cached analysis so nothing
+ * is measured while the track plays; the thread only compares the playback
+ * position against the beat times and sleeps until the next beat is due. The
+ * lighting values are bound to the controls of the lighting screen so they are
+ * changed on the JavaFX application thread.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public final class BeatLightingSync extends Thread {
+
+	/**
+	 * Logger for the sync.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(BeatLightingSync.class);
+
+	/**
+	 * Time in milliseconds to wait between checks when no analyzed track is
+	 * playing.
+	 */
+	private static final long IDLE_WAIT_MS = 100;
+
+	/**
+	 * Longest time in milliseconds to sleep while a track plays so seeks and
+	 * pauses are noticed promptly.
+	 */
+	private static final long MAX_WAIT_MS = 50;
+
+	/**
+	 * Beats found more than this many milliseconds late (after a seek or a stall)
+	 * are skipped rather than fired out of time.
+	 */
+	private static final long STALE_BEAT_MS = 150;
+
+	/**
+	 * Number of beats in each bar; the first of each is accented.
+	 */
+	private static final int BEATS_PER_BAR = 4;
+
+	/**
+	 * Amount the intensity is raised on a downbeat.
+	 */
+	private static final int DOWNBEAT_PULSE = 48;
+
+	/**
+	 * Range of tempos mapped onto the lighting speed and the speeds they map to.
+	 */
+	private static final double SLOW_BPM = 60.0;
+	private static final double FAST_BPM = 180.0;
+	private static final int SLOW_SPEED = 64;
+	private static final int FAST_SPEED = 255;
+
+	/**
+	 * Service playing the music.
+	 */
+	private MusicService musicService;
+
+	/**
+	 * Time in milliseconds beats are sent ahead of being heard to cover the
+	 * latency of the lighting controller.
+	 */
+	private long leadMs;
+
+	/**
+	 * Flag indicating if the intensity is pulsed on downbeats.
+	 */
+	private boolean pulseDownbeats;
+
+	/**
+	 * State of the lighting, looked up once the lighting service is running.
+	 */
+	private LightingState lightingState;
+
+	/**
+	 * Id of the track being synced to or null if none.
+	 */
+	private String trackId;
+
+	/**
+	 * Analysis of the track being synced to.
+	 */
+	private TrackAnalysis analysis;
+
+	/**
+	 * Index of the last beat passed or -1 if none has been.
+	 */
+	private int lastBeat = -1;
+
+	/**
+	 * Flag indicating if a pulse has been started and not yet ended.
+	 */
+	private boolean pulsing;
+
+	/**
+	 * Intensity set for the current downbeat or -1 if no pulse is showing. Only
+	 * used on the JavaFX application thread.
+	 */
+	private int pulseIntensity = -1;
+
+	/**
+	 * Intensity to restore when the pulse ends. Only used on the JavaFX
+	 * application thread.
+	 */
+	private int baseIntensity;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for the sync.
+	 *
+	 * @param musicService   Service playing the music.
+	 * @param leadMs         Time in milliseconds to send beats ahead of the music.
+	 * @param pulseDownbeats Flag indicating if the intensity should be pulsed on
+	 *                         downbeats.
+	 */
+	public BeatLightingSync(MusicService musicService, long leadMs, boolean pulseDownbeats) {
+
+		this.musicService = musicService;
+		this.leadMs = leadMs;
+		this.pulseDownbeats = pulseDownbeats;
+
+		setName("musicBeatSync");
+		setDaemon(true);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Thread methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public void run() {
+
+		while (!isInterrupted()) {
+
+			long waitMs;
+			try {
+				waitMs = step();
+			} catch (RuntimeException e) {
+				LOGGER.warn("Failed to sync lighting to the music.", e);
+				waitMs = IDLE_WAIT_MS;
+			}
+
+			try {
+				Thread.sleep(waitMs);
+			} catch (InterruptedException e) {
+				// Interrupted to shut down.
+				return;
+			}
+		}
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Fires any beat that has come due and works out how long to wait for the
+	 * next one.
+	 *
+	 * @return Time in milliseconds to wait before checking again.
+	 */
+	private long step() {
+
+		if (lightingState == null) {
+			lightingState = Kernel.kernel().chairState().getServiceState(ServiceId.LIGHTING);
+		}
+
+		String currentTrackId = musicService.getState().currentTrackId().get();
+		long positionMicros = musicService.getTrackPositionMicros();
+
+		if ((lightingState == null) || (currentTrackId == null) || (positionMicros < 0)) {
+			endPulse();
+			trackId = null;
+			return IDLE_WAIT_MS;
+		}
+
+		if (!currentTrackId.equals(trackId)) {
+
+			// The analysis may still be running; keep checking until it is there.
+			TrackAnalysis trackAnalysis = musicService.getTrackAnalysis(currentTrackId);
+			if (trackAnalysis == null) {
+				return IDLE_WAIT_MS;
+			}
+
+			endPulse();
+			trackId = currentTrackId;
+			analysis = trackAnalysis;
+			lastBeat = -1;
+
+			if (!Double.isNaN(analysis.getBpm())) {
+				int speed = speedForTempo(analysis.getBpm());
+				Platform.runLater(() -> lightingState.speed().set(speed));
+			}
+		}
+
+		int[] beats = analysis.getBeatTimesMs();
+		if (beats.length == 0) {
+			return IDLE_WAIT_MS;
+		}
+
+		long timeMs = positionMicros / 1000 + leadMs;
+		int nextBeat = analysis.findBeat(timeMs + 1);
+		int dueBeat = nextBeat - 1;
+
+		if (dueBeat != lastBeat) {
+
+			// Only beats moving forward are shown; a seek backward just resets.
+			if ((dueBeat > lastBeat) && (timeMs - beats[dueBeat] <= STALE_BEAT_MS)) {
+				showBeat(dueBeat);
+			} else {
+				endPulse();
+			}
+			lastBeat = dueBeat;
+		}
+
+		if (nextBeat == beats.length) {
+			return IDLE_WAIT_MS;
+		}
+		return Math.max(1, Math.min(beats[nextBeat] - timeMs, MAX_WAIT_MS));
+	}
+
+	/**
+	 * Shows a beat on the lighting: any pulse from the previous beat is ended
+	 * and a new one is started if the beat is a downbeat.
+	 *
+	 * @param beat Index of the beat.
+	 */
+	private void showBeat(int beat) {
+
+		endPulse();
+
+		if (pulseDownbeats && (beat % BEATS_PER_BAR == 0)) {
+			pulsing = true;
+			Platform.runLater(this::startPulse);
+		}
+	}
+
+	/**
+	 * Ends the pulse of the last downbeat, if one was started.
+	 */
+	private void endPulse() {
+
+		if (!pulsing) {
+			return;
+		}
+
+		pulsing = false;
+		Platform.runLater(this::restoreIntensity);
+	}
+
+	/**
+	 * Raises the intensity for a downbeat. Called on the JavaFX application
+	 * thread.
+	 */
+	private void startPulse() {
+
+		baseIntensity = lightingState.intensity().get();
+		pulseIntensity = Math.min(255, baseIntensity + DOWNBEAT_PULSE);
+		if (pulseIntensity != baseIntensity) {
+			lightingState.intensity().set(pulseIntensity);
+		} else {
+			pulseIntensity = -1;
+		}
+	}
+
+	/**
+	 * Restores the intensity from before a pulse unless it was changed by
+	 * something else (such as the user) in the meantime. Called on the JavaFX
+	 * application thread.
+	 */
+	private void restoreIntensity() {
+
+		if (pulseIntensity < 0) {
+			return;
+		}
+
+		if (lightingState.intensity().get() == pulseIntensity) {
+			lightingState.intensity().set(baseIntensity);
+		}
+		pulseIntensity = -1;
+	}
+
+	/**
+	 * Maps a tempo onto the lighting speed so faster tracks animate faster.
+	 *
+	 * @param  bpm Tempo in beats per minute.
+	 * @return     Lighting speed from 0 to 255.
+	 */
+	private static int speedForTempo(double bpm) {
+
+		double fraction = (bpm - SLOW_BPM) / (FAST_BPM - SLOW_BPM);
+		int speed = (int) Math.round(SLOW_SPEED + fraction * (FAST_SPEED - SLOW_SPEED));
+		return Math.max(0, Math.min(speed, 255));
+	}
+}
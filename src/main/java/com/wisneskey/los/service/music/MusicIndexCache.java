@@ -0,0 +1,402 @@
+package com.wisneskey.los.service.music;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache of the tag data read from music files. Entries are keyed by
+ * the file's path and are only reused while the file's size and modification
+ * time are unchanged, so only new or modified files have to be parsed at boot.
+ * Files without usable tags are cached too so they are not parsed again on
+ * every boot. The analysis of each file's audio is cached along with its tags
+ * once it has been done.
+ *
+ * The cache is stored as a small binary file that is replaced atomically when
+ * saved; a missing, truncated or unrecognized file just results in an empty
+ * cache.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class MusicIndexCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MusicIndexCache.class);
+
+	/**
+	 * Magic number identifying a cache file ("LMIX").
+	 */
+	private static final int MAGIC = 0x4C4D4958;
+
+	/**
+	 * Version of the cache file format.
+	 */
+	private static final int VERSION = 3;
+
+	/**
+	 * Oldest version of the cache file format that can still be read. Analyses
+	 * from versions before the current one are dropped so the tracks are
+	 * analyzed again with everything the current analysis measures.
+	 */
+	private static final int MIN_VERSION = 1;
+
+	/**
+	 * Path of the cache file or null if the cache is not persisted.
+	 */
+	private Path cachePath;
+
+	/**
+	 * Map of file paths to their entries.
+	 */
+	private Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Flag indicating if the entries have changed since they were loaded.
+	 */
+	private volatile boolean modified;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a cache stored in a file.
+	 *
+	 * @param cachePath Path of the cache file or null to not persist the cache.
+	 */
+	public MusicIndexCache(Path cachePath) {
+		this.cachePath = cachePath;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Loads the entries from the cache file if it exists.
+	 */
+	public void load() {
+
+		if ((cachePath == null) || !Files.exists(cachePath)) {
+			return;
+		}
+
+		Map<String, Entry> loaded = new HashMap<>();
+
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(cachePath)))) {
+
+			int version;
+			if ((input.readInt() != MAGIC) || ((version = input.readInt()) < MIN_VERSION) || (version > VERSION)) {
+				LOGGER.warn("Ignoring music index cache with unknown format: {}", cachePath);
+				return;
+			}
+
+			int count = input.readInt();
+			for (int index = 0; index < count; index++) {
+
+				String path = input.readUTF();
+				long size = input.readLong();
+				long modifiedTime = input.readLong();
+				boolean tagged = input.readBoolean();
+				String artist = readOptionalString(input);
+				String title = readOptionalString(input);
+
+				Entry entry = new Entry(size, modifiedTime, tagged, artist, title);
+				if ((version >= 2) && input.readBoolean()) {
+					TrackAnalysis analysis = readAnalysis(input, version);
+					if (version == VERSION) {
+						entry.analysis = analysis;
+					}
+				}
+
+				loaded.put(path, entry);
+			}
+
+		} catch (IOException e) {
+			LOGGER.warn("Failed to read music index cache; ignoring it: {}", e.toString());
+			return;
+		}
+
+		entries.putAll(loaded);
+		LOGGER.info("Loaded {} entries from music index cache.", loaded.size());
+	}
+
+	/**
+	 * Writes the entries to the cache file if they have changed.
+	 */
+	public synchronized void save() {
+
+		if ((cachePath == null) || !modified) {
+			return;
+		}
+
+		Path tempPath = cachePath.resolveSibling(cachePath.getFileName() + ".tmp");
+
+		try {
+			if (cachePath.getParent() != null) {
+				Files.createDirectories(cachePath.getParent());
+			}
+
+			try (DataOutputStream output = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+
+				Map<String, Entry> snapshot = new HashMap<>(entries);
+
+				output.writeInt(MAGIC);
+				output.writeInt(VERSION);
+				output.writeInt(snapshot.size());
+
+				for (Map.Entry<String, Entry> mapEntry : snapshot.entrySet()) {
+
+					Entry entry = mapEntry.getValue();
+					output.writeUTF(mapEntry.getKey());
+					output.writeLong(entry.size);
+					output.writeLong(entry.modifiedTime);
+					output.writeBoolean(entry.tagged);
+					writeOptionalString(output, entry.artist);
+					writeOptionalString(output, entry.title);
+
+					output.writeBoolean(entry.analysis != null);
+					if (entry.analysis != null) {
+						writeAnalysis(output, entry.analysis);
+					}
+				}
+			}
+
+			Files.move(tempPath, cachePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			modified = false;
+
+		} catch (IOException e) {
+			LOGGER.warn("Failed to write music index cache: {}", e.toString());
+		}
+	}
+
+	/**
+	 * Returns the cached entry for a file if it is still valid.
+	 *
+	 * @param  path         Canonical path of the file.
+	 * @param  size         Current size of the file in bytes.
+	 * @param  modifiedTime Current modification time of the file in milliseconds.
+	 * @return              Cached entry or null if there is none or the file has
+	 *                      changed.
+	 */
+	public Entry lookup(String path, long size, long modifiedTime) {
+
+		Entry entry = entries.get(path);
+		if ((entry == null) || (entry.size != size) || (entry.modifiedTime != modifiedTime)) {
+			return null;
+		}
+		return entry;
+	}
+
+	/**
+	 * Records the tag data read from a file.
+	 *
+	 * @param path         Canonical path of the file.
+	 * @param size         Size of the file in bytes.
+	 * @param modifiedTime Modification time of the file in milliseconds.
+	 * @param tagged       Flag indicating if the file had usable tags.
+	 * @param artist       Artist read from the tags (may be null).
+	 * @param title        Title read from the tags (may be null).
+	 */
+	public void update(String path, long size, long modifiedTime, boolean tagged, String artist, String title) {
+
+		entries.put(path, new Entry(size, modifiedTime, tagged, artist, title));
+		modified = true;
+	}
+
+	/**
+	 * Records the analysis of a file's audio if the file has not changed since
+	 * its tags were recorded.
+	 *
+	 * @param path         Canonical path of the file.
+	 * @param size         Size of the file in bytes when it was analyzed.
+	 * @param modifiedTime Modification time of the file in milliseconds when it
+	 *                       was analyzed.
+	 * @param analysis     Analysis of the file.
+	 */
+	public void updateAnalysis(String path, long size, long modifiedTime, TrackAnalysis analysis) {
+
+		Entry entry = lookup(path, size, modifiedTime);
+		if (entry != null) {
+			entry.analysis = analysis;
+			modified = true;
+		}
+	}
+
+	/**
+	 * Removes the entry for a file that no longer exists.
+	 *
+	 * @param path Canonical path of the file.
+	 */
+	public void remove(String path) {
+		if (entries.remove(path) != null) {
+			modified = true;
+		}
+	}
+
+	/**
+	 * Removes the entries for every file not in a set of paths, dropping files
+	 * that have been deleted or are no longer in a playlist.
+	 *
+	 * @param paths Canonical paths of the files to keep.
+	 */
+	public void retain(Set<String> paths) {
+		if (entries.keySet().retainAll(paths)) {
+			modified = true;
+		}
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Writes a string that may be null.
+	 *
+	 * @param  output      Stream to write to.
+	 * @param  value       String to write or null.
+	 * @throws IOException If the string could not be written.
+	 */
+	private static void writeOptionalString(DataOutputStream output, String value) throws IOException {
+		output.writeBoolean(value != null);
+		if (value != null) {
+			output.writeUTF(value);
+		}
+	}
+
+	/**
+	 * Writes the analysis of a file.
+	 *
+	 * @param  output      Stream to write to.
+	 * @param  analysis    Analysis to write.
+	 * @throws IOException If the analysis could not be written.
+	 */
+	private static void writeAnalysis(DataOutputStream output, TrackAnalysis analysis) throws IOException {
+
+		output.writeDouble(analysis.getLoudness());
+		output.writeDouble(analysis.getPeak());
+		output.writeDouble(analysis.getBpm());
+
+		int[] beats = analysis.getBeatTimesMs();
+		output.writeInt(beats.length);
+
+		for (int beat : beats) {
+			output.writeInt(beat);
+		}
+	}
+
+	/**
+	 * Reads an analysis written by {@link #writeAnalysis} or an older version.
+	 *
+	 * @param  input       Stream to read from.
+	 * @param  version     Version of the cache file.
+	 * @return             Analysis that was written.
+	 * @throws IOException If the analysis could not be read.
+	 */
+	private static TrackAnalysis readAnalysis(DataInputStream input, int version) throws IOException {
+
+		double loudness = input.readDouble();
+		double peak = input.readDouble();
+		if (version < 3) {
+			return new TrackAnalysis(loudness, peak, Double.NaN, new int[0]);
+		}
+
+		double bpm = input.readDouble();
+		int[] beats = new int[input.readInt()];
+
+		for (int index = 0; index < beats.length; index++) {
+			beats[index] = input.readInt();
+		}
+
+		return new TrackAnalysis(loudness, peak, bpm, beats);
+	}
+
+	/**
+	 * Reads a string written by {@link #writeOptionalString}.
+	 *
+	 * @param  input       Stream to read from.
+	 * @return             String that was written or null.
+	 * @throws IOException If the string could not be read.
+	 */
+	private static String readOptionalString(DataInputStream input) throws IOException {
+		return input.readBoolean() ? input.readUTF() : null;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Inner classes.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Cached tag data for a single file.
+	 */
+	public static class Entry {
+
+		private long size;
+		private long modifiedTime;
+		private boolean tagged;
+		private String artist;
+		private String title;
+		private volatile TrackAnalysis analysis;
+
+		private Entry(long size, long modifiedTime, boolean tagged, String artist, String title) {
+			this.size = size;
+			this.modifiedTime = modifiedTime;
+			this.tagged = tagged;
+			this.artist = artist;
+			this.title = title;
+		}
+
+		/**
+		 * Returns if the file had usable tags when it was read.
+		 *
+		 * @return True if the tags were read.
+		 */
+		public boolean isTagged() {
+			return tagged;
+		}
+
+		public String getArtist() {
+			return artist;
+		}
+
+		public String getTitle() {
+			return title;
+		}
+
+		/**
+		 * Returns the analysis of the file's audio.
+		 *
+		 * @return Analysis or null if the file has not been analyzed.
+		 */
+		public TrackAnalysis getAnalysis() {
+			return analysis;
+		}
+	}
+}
@@ -3,15 +3,34 @@ package com.wisneskey.los.service.music;
 import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,13 +42,23 @@ import com.wisneskey.los.error.LaissezException;
 import com.wisneskey.los.kernel.Kernel;
 import com.wisneskey.los.service.AbstractService;
 import com.wisneskey.los.service.ServiceId;
+import com.wisneskey.los.service.audio.AudioService;
+import com.wisneskey.los.service.audio.engine.AudioEngine;
+import com.wisneskey.los.service.music.player.MusicPlayer;
+import com.wisneskey.los.service.music.player.RemotePlayer;
+import com.wisneskey.los.service.music.player.StreamingPlayer;
 import com.wisneskey.los.service.profile.model.Profile;
 import com.wisneskey.los.state.MusicState;
+import com.wisneskey.los.util.PropertyChangeListener;
 
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
 import javafx.beans.property.ReadOnlyStringProperty;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
@@ -60,29 +89,31 @@ public class MusicService extends AbstractService<MusicState> {
 	private static final Logger LOGGER = LoggerFactory.getLogger(MusicService.class);
 
 	/**
-	 * Minimum supported volume.
+	 * Extension a file must end with to be considered a track.
 	 */
-	private static final double MIN_VOLUME = 0.0d;
+	private static final String MP3_FILE_EXTENSION = ".mp3";
 
 	/**
-	 * Maximum supported volume.
+	 * Order tracks are listed in within a playlist: alphabetically by title.
 	 */
-	private static final double MAX_VOLUME = 11.0d;
+	private static final Comparator<InternalTrack> TRACK_ORDER = Comparator.comparing(InternalTrack::getTitle,
+			Comparator.nullsLast(Comparator.naturalOrder()));
 
 	/**
-	 * Maximum allowed scaled factor for mpg123.
+	 * Time in milliseconds a playlist directory must be quiet before its changes
+	 * are indexed, so files still being copied are not indexed half written.
 	 */
-	private static final double MAX_SCALE_FACTOR = 32768;
+	private static final long LIBRARY_QUIET_MS = 2000;
 
 	/**
-	 * Base of exponential use for emphasizing lower volume scale factors.
+	 * Time in milliseconds between updates of the track position in the state.
 	 */
-	private static final double SCALE_FACTOR_BASE = 1.6d;
+	private static final long POSITION_UPDATE_MS = 100;
 
 	/**
-	 * Extension a file must end with to be considered a track.
+	 * Number of track analyses completed between saves of the index cache.
 	 */
-	private static final String MP3_FILE_EXTENSION = ".mp3";
+	private static final int ANALYSIS_SAVE_INTERVAL = 25;
 
 	/**
 	 * Object for the state of the music service.
@@ -90,14 +121,33 @@ public class MusicService extends AbstractService<MusicState> {
 	private InternalMusicState musicState;
 
 	/**
-	 * Map of playlist name to the tracks they contain.
+	 * Current snapshot of the playlists and their tracks. Snapshots are never
+	 * modified; the library watcher swaps in a new snapshot when the playlist
+	 * directories change so readers (including the UI) never need to lock.
+	 */
+	private volatile Library library = new Library(Collections.emptyMap());
+
+	/**
+	 * Map of playlist names to the canonical directories they are indexed from.
+	 */
+	private Map<String, Path> playlistDirectories = new HashMap<>();
+
+	/**
+	 * Map of playlist names to the number to use in the id of the next track added
+	 * to them. Only used during initialization and by the library watcher.
+	 */
+	private Map<String, Integer> nextTrackNumbers = new HashMap<>();
+
+	/**
+	 * Cache of the data read from the tracks.
 	 */
-	private Map<String, List<InternalTrack>> playlistMap;
+	private MusicIndexCache indexCache;
 
 	/**
-	 * Map of track ids to tracks for all tracks in all playlists.
+	 * Thread watching the playlist directories for changes or null if the
+	 * directories are not being watched.
 	 */
-	private Map<String, InternalTrack> trackMap;
+	private LibraryWatcher libraryWatcher;
 
 	/**
 	 * Atomic boolean used to monitor if something is currently playing.
@@ -105,13 +155,61 @@ public class MusicService extends AbstractService<MusicState> {
 	private AtomicBoolean playing = new AtomicBoolean(false);
 
 	/**
-	 * Thread being used to run the external player.
+	 * Player used to play the tracks.
+	 */
+	private MusicPlayer player;
+
+	/**
+	 * Analyzer measuring the tracks in the background or null if tracks are not
+	 * analyzed.
+	 */
+	private TrackAnalyzer trackAnalyzer;
+
+	/**
+	 * Number of track analyses queued and not yet finished.
+	 */
+	private AtomicInteger pendingAnalyses = new AtomicInteger();
+
+	/**
+	 * Number of track analyses finished since the index cache was saved.
 	 */
-	private PlayerThread playerThread;
+	private AtomicInteger unsavedAnalyses = new AtomicInteger();
+
+	/**
+	 * Flag indicating if track loudness is normalized.
+	 */
+	private boolean loudnessNormalization;
+
+	/**
+	 * Loudness in LUFS that tracks are normalized to.
+	 */
+	private double loudnessTargetLufs;
+
+	/**
+	 * Thread publishing the playback position to the state.
+	 */
+	private PositionUpdater positionUpdater;
+
+	/**
+	 * Thread driving the lighting from the beats of the playing track or null if
+	 * the lighting is not synced to the music.
+	 */
+	private BeatLightingSync beatLightingSync;
+
+	/**
+	 * Thread making the lighting react to the music as it plays or null if the
+	 * lighting does not react to it.
+	 */
+	private AudioReactiveLighting audioReactiveLighting;
+
+	/**
+	 * Id of the track picked to play after the current one or null if none.
+	 */
+	private String nextTrackId;
 
 	/**
 	 * Lock object used to ensure only one caller at a time is working with the
-	 * player thread.
+	 * player.
 	 */
 	private Object playerLock = new Object();
 
@@ -147,7 +245,7 @@ public class MusicService extends AbstractService<MusicState> {
 	 */
 	public List<String> getPlaylists() {
 
-		return new ArrayList<>(playlistMap.keySet());
+		return new ArrayList<>(library.playlistMap.keySet());
 	}
 
 	/**
@@ -160,7 +258,7 @@ public class MusicService extends AbstractService<MusicState> {
 	 */
 	public List<Track> getPlaylistTracks(String playlistName) {
 
-		List<InternalTrack> playlistTracks = playlistMap.get(playlistName);
+		List<InternalTrack> playlistTracks = library.playlistMap.get(playlistName);
 		return playlistTracks == null ? null : Collections.unmodifiableList(playlistTracks);
 	}
 
@@ -171,7 +269,7 @@ public class MusicService extends AbstractService<MusicState> {
 	 */
 	public void playTrack(String trackId) {
 
-		InternalTrack track = trackMap.get(trackId);
+		InternalTrack track = library.trackMap.get(trackId);
 		if (track == null) {
 			LOGGER.error("Attempt to play an unknown track with id {}", trackId);
 			return;
@@ -179,13 +277,7 @@ public class MusicService extends AbstractService<MusicState> {
 
 		synchronized (playerLock) {
 
-			if (playing.get()) {
-				// If a track is already playing, stop it so that we can start another
-				// one.
-				LOGGER.info("Stopping current track that is playing...");
-				playerThread.killProcess(false);
-			}
-
+			// Loading the track replaces any track that is already playing.
 			playing.set(true);
 			musicState.currentTrackId.set(track.getTrackId());
 			musicState.currentTrackArtist.set(track.getArtist());
@@ -195,13 +287,17 @@ public class MusicService extends AbstractService<MusicState> {
 				Kernel.kernel().message("Playing '" + track.getTitle() + "'\n");
 			}
 
-			// Get the scale factor to use for setting the volume of the MP3 playback.
-			int scaleFactor = getScaleFactor(musicState.volume().get());
+			player.play(track.getTrackPath(), getTrackGain(track));
 
-			// Do the actual launching of the external player in its own thread so
-			// that we do not block the caller.
-			playerThread = new PlayerThread(track.getTrackPath(), scaleFactor);
-			playerThread.start();
+			// Pick the track to follow this one now so the player can prepare it.
+			nextTrackId = null;
+			if (musicState.autoPlay().getValue().booleanValue()) {
+				nextTrackId = pickNextTrackAtRandom(track.getTrackId());
+				InternalTrack nextTrack = nextTrackId == null ? null : library.trackMap.get(nextTrackId);
+				if (nextTrack != null) {
+					player.preload(nextTrack.getTrackPath(), getTrackGain(nextTrack));
+				}
+			}
 		}
 	}
 
@@ -213,9 +309,10 @@ public class MusicService extends AbstractService<MusicState> {
 		synchronized (playerLock) {
 
 			if (playing.get()) {
-				// Stop the current track. If auto play was enabled, a new track will be
-				// started.
-				playerThread.killProcess(true);
+				// Stop the current track and treat it as complete. If auto play is
+				// enabled, a new track will be started.
+				player.stop();
+				reportTrackCompletion();
 			} else {
 
 				// Just pick a track to play at random since nothing was playing.
@@ -234,9 +331,10 @@ public class MusicService extends AbstractService<MusicState> {
 
 		synchronized (playerLock) {
 			if (playing.get()) {
-				playerThread.killProcess(false);
+				player.stop();
 				playing.set(false);
-				LOGGER.info("Player thread process killed.");
+				nextTrackId = null;
+				LOGGER.info("Player stopped.");
 			}
 
 			musicState.currentTrackId.set(null);
@@ -245,6 +343,58 @@ public class MusicService extends AbstractService<MusicState> {
 		}
 	}
 
+	/**
+	 * Pauses or resumes the track that is playing.
+	 * 
+	 * @param paused True to pause the track or false to resume it.
+	 */
+	public void setPaused(boolean paused) {
+
+		synchronized (playerLock) {
+			if (playing.get()) {
+				player.setPaused(paused);
+			}
+		}
+	}
+
+	/**
+	 * Moves the playback position of the track that is playing.
+	 * 
+	 * @param seconds Position in seconds from the start of the track.
+	 */
+	public void seek(double seconds) {
+
+		synchronized (playerLock) {
+			if (playing.get()) {
+				player.seek(seconds);
+			}
+		}
+	}
+
+	/**
+	 * Returns the exact playback position of the track being heard, for
+	 * synchronizing with the music.
+	 * 
+	 * @return Position in microseconds from the start of the track or -1 if no
+	 *         track is playing.
+	 */
+	public long getTrackPositionMicros() {
+		return player.getPositionMicros();
+	}
+
+	/**
+	 * Returns the analysis of a track's loudness, tempo and beats.
+	 * 
+	 * @param  trackId Id of the track.
+	 * @return         Analysis of the track or null if the track is unknown or
+	 *                 has not been analyzed yet.
+	 */
+	public TrackAnalysis getTrackAnalysis(String trackId) {
+
+		InternalTrack track = library.trackMap.get(trackId);
+		return track == null ? null : track.getAnalysis();
+	}
+
 	// ----------------------------------------------------------------------------------------
 	// Service methods.
 	// ----------------------------------------------------------------------------------------
@@ -256,6 +406,34 @@ public class MusicService extends AbstractService<MusicState> {
 
 	@Override
 	public void terminate() {
+
+		if (libraryWatcher != null) {
+			libraryWatcher.shutdown();
+		}
+
+		if (positionUpdater != null) {
+			positionUpdater.interrupt();
+		}
+
+		if (beatLightingSync != null) {
+			beatLightingSync.interrupt();
+		}
+
+		if (audioReactiveLighting != null) {
+			audioReactiveLighting.shutdown();
+			LOGGER.info("Reactive lighting statistics: {}", audioReactiveLighting.getStatistics());
+		}
+
+		// Keep whatever analysis has been done for the next boot.
+		if (trackAnalyzer != null) {
+			trackAnalyzer.shutdown();
+			indexCache.save();
+		}
+
+		if (player != null) {
+			player.shutdown();
+		}
+
 		LOGGER.trace("Music service terminated.");
 	}
 
@@ -264,50 +442,38 @@ public class MusicService extends AbstractService<MusicState> {
 	// ----------------------------------------------------------------------------------------
 
 	/**
-	 * Returns the scale factor for playing a MP3 track at the configured volume
-	 * using mpg123's -f parameter.
-	 * 
-	 * @param  volume Volume to calculate gain adjustment for.
-	 * @return        Gain adjustment to be applied to sound clip to reduce its
-	 *                volume.
+	 * Method invoked when the current track has completed, either by the player
+	 * when it plays to the end or when skipping to the next track.
 	 */
-	private int getScaleFactor(int volume) {
-
-		double volumeDouble = volume;
+	private void reportTrackCompletion() {
 
-		// Make sure volume is in allowed range.
-		volumeDouble = Math.max(MIN_VOLUME, volumeDouble);
-		volumeDouble = Math.min(volumeDouble, MAX_VOLUME);
-
-		// Use a exponential scale to emphasize scale factor at lower volumes.
-		volumeDouble = Math.pow(SCALE_FACTOR_BASE, volumeDouble);
-		double scaledMax = Math.pow(SCALE_FACTOR_BASE, MAX_VOLUME);
-
-		return (int) Math.round(MAX_SCALE_FACTOR * (volumeDouble / scaledMax));
-	}
+		synchronized (playerLock) {
 
-	/**
-	 * Method invoked by the player thread to report its external process has
-	 * completed.
-	 */
-	private void reportProcessCompletion() {
+			LOGGER.info("Player reporting track completion.");
+			playing.set(false);
 
-		LOGGER.info("Player thread reporting process completion.");
-		playing.set(false);
-		playerThread = null;
+			String previousTrackId = musicState.currentTrackId.get();
 
-		String previousTrackId = musicState.currentTrackId.get();
+			musicState.currentTrackId.set(null);
+			musicState.currentTrackArtist.set(null);
+			musicState.currentTrackName.set(null);
 
-		musicState.currentTrackId.set(null);
-		musicState.currentTrackArtist.set(null);
-		musicState.currentTrackName.set(null);
+			// If shuffle play is enabled, we need to play another track at random,
+			// preferring the one already picked and prepared if it still exists.
+			if (musicState.autoPlay().getValue().booleanValue()) {
 
-		// If shuffle play is enabled, we need to play another track at random.
-		if (musicState.autoPlay().getValue().booleanValue()) {
+				String followingTrackId = nextTrackId;
+				if ((followingTrackId == null) || !library.trackMap.containsKey(followingTrackId)) {
+					followingTrackId = pickNextTrackAtRandom(previousTrackId);
+				}
 
-			String nextTrackId = pickNextTrackAtRandom(previousTrackId);
-			if (nextTrackId != null) {
-				playTrack(nextTrackId);
+				if (followingTrackId != null) {
+					playTrack(followingTrackId);
+				}
+			} else {
+				// Make sure a player that moved on to a prepared track by itself
+				// does not keep playing it.
+				player.stop();
 			}
 		}
 	}
@@ -325,8 +491,8 @@ public class MusicService extends AbstractService<MusicState> {
 		String currentPlaylist = musicState.currentPlaylistName.get();
 
 		if (currentPlaylist != null) {
-			List<InternalTrack> tracks = playlistMap.get(currentPlaylist);
-			if (tracks.size() > 1) {
+			List<InternalTrack> tracks = library.playlistMap.get(currentPlaylist);
+			if ((tracks != null) && (tracks.size() > 1)) {
 
 				while (Objects.equals(nextTrackId, lastTrackId)) {
 					int trackIndex = random.nextInt(tracks.size());
@@ -366,15 +532,60 @@ public class MusicService extends AbstractService<MusicState> {
 		this.playerCommand = profile.getPlayerCommand();
 
 		// Check and load all playlists.
+		String cachePath = profile.getMusicIndexCachePath();
+		indexCache = new MusicIndexCache(cachePath == null ? null : Paths.get(cachePath));
 		loadPlaylists(profile.getPlaylists());
 
 		musicState = new InternalMusicState(profile.getMusicVolume());
 
+		// Analyze any tracks that have not been analyzed before in the background.
+		loudnessNormalization = profile.getLoudnessNormalization();
+		loudnessTargetLufs = profile.getLoudnessTargetLufs();
+		if (profile.getTrackAnalysisThreads() > 0) {
+			trackAnalyzer = new TrackAnalyzer(profile.getTrackAnalysisThreads());
+			analyzeTracks(library.trackMap.values());
+		}
+
+		// Start the player and have volume changes apply to the playing track.
+		player = createPlayer(profile);
+		player.start(this::reportTrackCompletion, profile.getMusicVolume());
+		musicState.volume().addListener(new PropertyChangeListener<>(v -> player.setVolume(v.intValue())));
+
+		positionUpdater = new PositionUpdater();
+		positionUpdater.start();
+
+		// Reacting to the music needs it to be mixed in process by the audio engine.
+		if (profile.getReactiveLighting() && (player instanceof StreamingPlayer)) {
+			AudioEngine engine = ((AudioService) Kernel.kernel().getService(ServiceId.AUDIO)).getAudioEngine();
+			audioReactiveLighting = new AudioReactiveLighting(engine, profile);
+			audioReactiveLighting.start();
+		}
+
+		// Beats come from the track analyses so there is nothing to sync without them.
+		// The reactive lighting drives the intensity itself so the beats only set the
+		// speed when it is running.
+		if (profile.getMusicLightingSync() && (trackAnalyzer != null)) {
+			beatLightingSync = new BeatLightingSync(this, profile.getMusicLightingLeadMs(),
+					audioReactiveLighting == null);
+			beatLightingSync.start();
+		}
+
+		Map<String, List<InternalTrack>> playlistMap = library.playlistMap;
 		if (!playlistMap.isEmpty()) {
 			String playlistName = playlistMap.keySet().iterator().next();
 			musicState.currentPlaylistName.set(playlistName);
 		}
 
+		// Watch for tracks being added, changed or removed.
+		if (profile.getWatchPlaylists() && !playlistDirectories.isEmpty()) {
+			try {
+				libraryWatcher = new LibraryWatcher();
+				libraryWatcher.start();
+			} catch (IOException e) {
+				LOGGER.warn("Failed to watch playlist directories; library will only update at boot.", e);
+			}
+		}
+
 		musicState.currentTrackId.set(null);
 		musicState.currentTrackArtist.set(null);
 		musicState.currentTrackName.set(null);
@@ -382,9 +593,100 @@ public class MusicService extends AbstractService<MusicState> {
 		return musicState;
 	}
 
+	/**
+	 * Returns the gain to play a track with to normalize its loudness.
+	 * 
+	 * @param  track Track to get the gain for.
+	 * @return       Linear gain or 1.0 if the track has not been analyzed or
+	 *               normalization is off.
+	 */
+	private double getTrackGain(InternalTrack track) {
+
+		TrackAnalysis analysis = track.getAnalysis();
+		if (!loudnessNormalization || (analysis == null)) {
+			return 1.0;
+		}
+		return analysis.getGain(loudnessTargetLufs);
+	}
+
+	/**
+	 * Queues the tracks that have not been analyzed yet for analysis. As each
+	 * analysis finishes it is attached to its track and recorded in the index
+	 * cache, which is saved periodically so progress is not lost if the chair
+	 * is switched off.
+	 * 
+	 * @param tracks Tracks to analyze if needed.
+	 */
+	private void analyzeTracks(Collection<InternalTrack> tracks) {
+
+		if (trackAnalyzer == null) {
+			return;
+		}
+
+		for (InternalTrack track : tracks) {
+
+			if (track.getAnalysis() != null) {
+				continue;
+			}
+
+			String trackPath = track.getTrackPath();
+			File trackFile = new File(trackPath);
+			long size = trackFile.length();
+			long modifiedTime = trackFile.lastModified();
+
+			pendingAnalyses.incrementAndGet();
+			trackAnalyzer.submit(trackFile.toPath()).whenComplete((analysis, error) -> {
+
+				if (analysis != null) {
+					track.setAnalysis(analysis);
+					indexCache.updateAnalysis(trackPath, size, modifiedTime, analysis);
+					LOGGER.debug("Analyzed track {}: {}", trackPath, analysis);
+				} else {
+					LOGGER.warn("Failed to analyze track {}: {}", trackPath, error.toString());
+				}
+
+				boolean finished = pendingAnalyses.decrementAndGet() == 0;
+				if (finished || (unsavedAnalyses.incrementAndGet() >= ANALYSIS_SAVE_INTERVAL)) {
+					unsavedAnalyses.set(0);
+					indexCache.save();
+				}
+
+				if (finished) {
+					LOGGER.info("Track analysis finished.");
+				}
+			});
+		}
+
+		LOGGER.info("Tracks queued for analysis: {}", pendingAnalyses.get());
+	}
+
+	/**
+	 * Creates the player for the tracks: the in-process streaming player if it is
+	 * enabled and the audio engine is running, otherwise the external player.
+	 * 
+	 * @param  profile Profile with the music settings.
+	 * @return         Player to use.
+	 */
+	private MusicPlayer createPlayer(Profile profile) {
+
+		if (profile.getStreamingMusic()) {
+
+			AudioEngine engine = ((AudioService) Kernel.kernel().getService(ServiceId.AUDIO)).getAudioEngine();
+			if (engine != null) {
+				return new StreamingPlayer(engine, profile);
+			}
+
+			LOGGER.warn("Audio engine not running; music will be played by the external player.");
+		}
+
+		return new RemotePlayer(playerCommand);
+	}
+
 	/**
 	 * Validates and loads the configured playlists in the profile and sets up the
 	 * internal playlist structures.
+	 * 
+	 * @param profilePlaylists Map of playlist names to their directories.
 	 */
 	private void loadPlaylists(Map<String, String> profilePlaylists) {
 
@@ -392,13 +694,20 @@ public class MusicService extends AbstractService<MusicState> {
 
 			// No playlists configured.
 			LOGGER.warn("No playlists configured in profile.");
-			this.playlistMap = Collections.emptyMap();
-			this.trackMap = Collections.emptyMap();
 			return;
 		}
 
-		playlistMap = new HashMap<>(profilePlaylists.size());
-		trackMap = new HashMap<>();
+		Map<String, List<InternalTrack>> playlistMap = new LinkedHashMap<>(profilePlaylists.size());
+
+		long start = System.nanoTime();
+		indexCache.load();
+
+		IndexStatistics statistics = new IndexStatistics();
+		ExecutorService parser = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+			Thread thread = new Thread(r, "musicIndexer");
+			thread.setDaemon(true);
+			return thread;
+		});
 
 		// Now index the tracks for each playlist
 		for (Map.Entry<String, String> playlistEntry : profilePlaylists.entrySet()) {
@@ -406,29 +715,47 @@ public class MusicService extends AbstractService<MusicState> {
 			String playlistName = playlistEntry.getKey();
 			String playlistDirectory = playlistEntry.getValue();
 
-			List<InternalTrack> playlistTracks = indexPlaylistTracks(playlistName, playlistDirectory);
+			List<InternalTrack> playlistTracks;
+			try {
+				playlistTracks = indexPlaylistTracks(playlistName, playlistDirectory, parser, statistics);
+			} catch (LaissezException e) {
+				parser.shutdownNow();
+				throw e;
+			}
+
 			if (playlistTracks.isEmpty()) {
 				LOGGER.warn("Playlist {} has no tracks; ignoring it.", playlistName);
 			} else {
 
-				// Sort the tracks alphabetically by title.
-				Collections.sort(playlistTracks, Comparator.comparing(InternalTrack::getTitle));
-
-				// Register the playlist.
+				// Sort the tracks alphabetically by title and register the playlist.
+				Collections.sort(playlistTracks, TRACK_ORDER);
 				playlistMap.put(playlistName, playlistTracks);
-
-				// Register all of its songs in the master track map.
-				playlistTracks.stream().forEach(t -> trackMap.put(t.getTrackId(), t));
 			}
 		}
+
+		parser.shutdown();
+		indexCache.retain(statistics.paths);
+		indexCache.save();
+
+		library = new Library(playlistMap);
+
+		LOGGER.info("Music indexed: tracks={} reused={} parsed={} failed={} ms={}", library.trackMap.size(),
+				statistics.reused, statistics.parsed, statistics.failed, (System.nanoTime() - start) / 1_000_000);
 	}
 
 	/**
-	 * Indexes all MP3's in the music directory as tracks.
+	 * Indexes all MP3's in the music directory as tracks. Tracks whose files are
+	 * unchanged since they were cached reuse the cached data; the rest are parsed
+	 * in parallel.
 	 * 
-	 * @param musicDir Directory to index MP3's in.
+	 * @param  playlistName      Name of the playlist.
+	 * @param  playlistDirectory Directory to index MP3's in.
+	 * @param  parser            Executor to parse the uncached tracks with.
+	 * @param  statistics        Statistics to add the indexing counts to.
+	 * @return                   List of tracks in the playlist.
 	 */
-	private List<InternalTrack> indexPlaylistTracks(String playlistName, String playlistDirectory) {
+	private List<InternalTrack> indexPlaylistTracks(String playlistName, String playlistDirectory,
+			ExecutorService parser, IndexStatistics statistics) {
 
 		// Expand any leading tilda to be the user's home directory. This assumes
 		// that the playlist directory is not under another user.
@@ -441,31 +768,181 @@ public class MusicService extends AbstractService<MusicState> {
 		}
 
 		List<InternalTrack> playlistTracks = new ArrayList<>();
+		List<InternalTrack> parsedTracks = new ArrayList<>();
+		List<Future<Boolean>> parseResults = new ArrayList<>();
+
 		try {
+			playlistDirectories.put(playlistName, scanDirectory.getCanonicalFile().toPath());
+
 			int trackIndexNumber = 0;
 			for (File trackFile : scanDirectory.listFiles(new Mp3FileFilter())) {
 
 				String trackId = "Track:" + playlistName + ":" + trackIndexNumber++;
 				String trackPath = trackFile.getCanonicalPath();
+				long size = trackFile.length();
+				long modifiedTime = trackFile.lastModified();
 
 				InternalTrack track = new InternalTrack(trackId, trackPath);
-				boolean success = readTrackData(track);
+				statistics.paths.add(trackPath);
+
+				MusicIndexCache.Entry entry = indexCache.lookup(trackPath, size, modifiedTime);
+				if (entry != null) {
+					statistics.reused++;
+					if (entry.isTagged()) {
+						track.setArtist(entry.getArtist());
+						track.setTitle(entry.getTitle());
+						track.setAnalysis(entry.getAnalysis());
+						playlistTracks.add(track);
+					} else {
+						statistics.failed++;
+					}
+					continue;
+				}
+
+				parsedTracks.add(track);
+				parseResults.add(parser.submit(() -> {
+					boolean success = readTrackData(track);
+					indexCache.update(trackPath, size, modifiedTime, success, track.getArtist(), track.getTitle());
+					return success;
+				}));
+			}
+
+			nextTrackNumbers.put(playlistName, trackIndexNumber);
+
+			for (int index = 0; index < parsedTracks.size(); index++) {
 
-				if (success) {
-					playlistTracks.add(track);
+				statistics.parsed++;
+				if (parseResults.get(index).get().booleanValue()) {
+					playlistTracks.add(parsedTracks.get(index));
 				} else {
-					LOGGER.warn("Failed to read data for track: {}", trackPath);
+					statistics.failed++;
+					LOGGER.warn("Failed to read data for track: {}", parsedTracks.get(index).getTrackPath());
 				}
-
 			}
-		} catch (IOException e) {
+
+		} catch (IOException | ExecutionException e) {
 			throw new LaissezException("Failed to index music tracks.", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new LaissezException("Interrupted while indexing music tracks.", e);
 		}
 
 		LOGGER.info("Indexed {} tracks.", playlistTracks.size());
 		return playlistTracks;
 	}
 
+	/**
+	 * Applies changes to files in playlist directories by building a new library
+	 * snapshot from the current one and swapping it in. Tracks that are unchanged
+	 * are carried over as is, changed tracks keep their ids and tracks for files
+	 * that no longer exist are removed. Called only by the library watcher.
+	 * 
+	 * @param changes Map of playlist names to the paths of the files that changed.
+	 */
+	private void applyLibraryChanges(Map<String, Set<Path>> changes) {
+
+		long start = System.nanoTime();
+		int added = 0;
+		int removed = 0;
+
+		Map<String, List<InternalTrack>> playlistMap = new LinkedHashMap<>(library.playlistMap);
+		List<InternalTrack> addedTracks = new ArrayList<>();
+
+		for (Map.Entry<String, Set<Path>> change : changes.entrySet()) {
+
+			String playlistName = change.getKey();
+			List<InternalTrack> tracks = new ArrayList<>(
+					playlistMap.getOrDefault(playlistName, Collections.emptyList()));
+
+			for (Path path : change.getValue()) {
+
+				String trackPath = path.toString();
+
+				// Drop any existing track for the file, keeping its id for a
+				// replacement.
+				String trackId = null;
+				for (Iterator<InternalTrack> iterator = tracks.iterator(); iterator.hasNext();) {
+					InternalTrack track = iterator.next();
+					if (track.getTrackPath().equals(trackPath)) {
+						trackId = track.getTrackId();
+						iterator.remove();
+						removed++;
+					}
+				}
+
+				File trackFile = path.toFile();
+				if (!trackFile.isFile() || !trackPath.endsWith(MP3_FILE_EXTENSION)) {
+					indexCache.remove(trackPath);
+					continue;
+				}
+
+				if (trackId == null) {
+					int trackNumber = nextTrackNumbers.getOrDefault(playlistName, 0);
+					nextTrackNumbers.put(playlistName, trackNumber + 1);
+					trackId = "Track:" + playlistName + ":" + trackNumber;
+				}
+
+				InternalTrack track = indexTrackFile(trackId, trackFile);
+				if (track != null) {
+					tracks.add(track);
+					addedTracks.add(track);
+					added++;
+				}
+			}
+
+			if (tracks.isEmpty()) {
+				playlistMap.remove(playlistName);
+			} else {
+				Collections.sort(tracks, TRACK_ORDER);
+				playlistMap.put(playlistName, tracks);
+			}
+		}
+
+		library = new Library(playlistMap);
+		indexCache.save();
+
+		LOGGER.info("Music library updated: playlists={} added={} removed={} tracks={} ms={}", changes.keySet(),
+				added, removed, library.trackMap.size(), (System.nanoTime() - start) / 1_000_000);
+
+		musicState.libraryVersion.set(musicState.libraryVersion.get() + 1);
+
+		analyzeTracks(addedTracks);
+	}
+
+	/**
+	 * Indexes a single track file using the index cache if the file is
+	 * unchanged.
+	 * 
+	 * @param  trackId   Id to give the track.
+	 * @param  trackFile File for the track.
+	 * @return           Indexed track or null if its data could not be read.
+	 */
+	private InternalTrack indexTrackFile(String trackId, File trackFile) {
+
+		String trackPath = trackFile.getPath();
+		long size = trackFile.length();
+		long modifiedTime = trackFile.lastModified();
+
+		InternalTrack track = new InternalTrack(trackId, trackPath);
+
+		MusicIndexCache.Entry entry = indexCache.lookup(trackPath, size, modifiedTime);
+		if (entry != null) {
+			track.setArtist(entry.getArtist());
+			track.setTitle(entry.getTitle());
+			track.setAnalysis(entry.getAnalysis());
+			return entry.isTagged() ? track : null;
+		}
+
+		boolean success = readTrackData(track);
+		indexCache.update(trackPath, size, modifiedTime, success, track.getArtist(), track.getTitle());
+
+		if (!success) {
+			LOGGER.warn("Failed to read data for track: {}", trackPath);
+			return null;
+		}
+		return track;
+	}
+
 	/**
 	 * Reads the header data for a track's mp3 to get the artist and title of the
 	 * track.
@@ -526,68 +1003,6 @@ public class MusicService extends AbstractService<MusicState> {
 	// Inner classes.
 	// ----------------------------------------------------------------------------------------
 
-	private class PlayerThread extends Thread {
-
-		private String trackPath;
-		private int scaleFactor;
-
-		private Process playerProcess;
-		private boolean notifyWhenDone = true;
-
-		private PlayerThread(String trackPath, int scaleFactor) {
-			this.trackPath = trackPath;
-			this.scaleFactor = scaleFactor;
-
-			setName("ExternalMp3PlayerThread");
-		}
-
-		@Override
-		public void run() {
-
-			try {
-				LOGGER.info("Attempting to play track: scaleFactor={} path={}", scaleFactor, trackPath);
-				ProcessBuilder processBuilder = new ProcessBuilder(//
-						playerCommand, //
-						//"-o", //
-						//"alsa:hw:2,0", //
-						"-q", //
-						"-f", //
-						String.valueOf(scaleFactor), //
-						trackPath);
-				playerProcess = processBuilder.start();
-
-				// Wait for the process to complete.
-				int returnCode = playerProcess.waitFor();
-
-				LOGGER.info("External player completed: rc={}", returnCode);
-
-				if (returnCode != 0) {
-					LOGGER.warn("MP3 player exited with non-zero return of {}", returnCode);
-				}
-			} catch (InterruptedException e) {
-				LOGGER.warn("Interrupted during MP3 playback.");
-				this.interrupt();
-			} catch (Exception e) {
-				LOGGER.warn("Exception during playing of MP3.", e);
-			}
-
-			// Report completion no matter what.
-			if (notifyWhenDone) {
-				reportProcessCompletion();
-			}
-		}
-
-		public void killProcess(boolean notifyWhenDone) {
-			this.notifyWhenDone = notifyWhenDone;
-			playerProcess.destroy();
-			try {
-				playerProcess.waitFor();
-			} catch (InterruptedException e) {
-				interrupt();
-			}
-		}
-	}
-
 	/**
 	 * Internal state object for the Music service.
 	 */
@@ -599,6 +1014,8 @@ public class MusicService extends AbstractService<MusicState> {
 		private StringProperty currentTrackArtist = new SimpleStringProperty();
 		private StringProperty currentTrackName = new SimpleStringProperty();
 		private BooleanProperty autoPlay = new SimpleBooleanProperty(true);
+		private IntegerProperty libraryVersion = new SimpleIntegerProperty(0);
+		private DoubleProperty trackPosition = new SimpleDoubleProperty(0);
 
 		// ----------------------------------------------------------------------------------------
 		// Constructors.
@@ -641,6 +1058,16 @@ public class MusicService extends AbstractService<MusicState> {
 		public IntegerProperty volume() {
 			return volume;
 		}
+
+		@Override
+		public ReadOnlyIntegerProperty libraryVersion() {
+			return libraryVersion;
+		}
+
+		@Override
+		public ReadOnlyDoubleProperty trackPosition() {
+			return trackPosition;
+		}
 	}
 
 	/**
@@ -654,6 +1081,7 @@ public class MusicService extends AbstractService<MusicState> {
 
 		private String artist;
 		private String title;
+		private volatile TrackAnalysis analysis;
 
 		// ----------------------------------------------------------------------------------------
 		// Constructors
@@ -698,6 +1126,230 @@ public class MusicService extends AbstractService<MusicState> {
 		private void setTitle(String title) {
 			this.title = title;
 		}
+
+		private TrackAnalysis getAnalysis() {
+			return analysis;
+		}
+
+		private void setAnalysis(TrackAnalysis analysis) {
+			this.analysis = analysis;
+		}
+	}
+
+	/**
+	 * Immutable snapshot of the playlists and their tracks.
+	 */
+	private static class Library {
+
+		private Map<String, List<InternalTrack>> playlistMap;
+		private Map<String, InternalTrack> trackMap;
+
+		// ----------------------------------------------------------------------------------------
+		// Constructors.
+		// ----------------------------------------------------------------------------------------
+
+		private Library(Map<String, List<InternalTrack>> playlists) {
+
+			Map<String, List<InternalTrack>> playlistCopy = new LinkedHashMap<>(playlists.size());
+			Map<String, InternalTrack> trackCopy = new HashMap<>();
+
+			for (Map.Entry<String, List<InternalTrack>> playlist : playlists.entrySet()) {
+				playlistCopy.put(playlist.getKey(), Collections.unmodifiableList(new ArrayList<>(playlist.getValue())));
+				playlist.getValue().stream().forEach(t -> trackCopy.put(t.getTrackId(), t));
+			}
+
+			this.playlistMap = Collections.unmodifiableMap(playlistCopy);
+			this.trackMap = Collections.unmodifiableMap(trackCopy);
+		}
+	}
+
+	/**
+	 * Thread that watches the playlist directories and applies the changes to the
+	 * library once a directory has been quiet for a while. If the watch service
+	 * loses events the whole directory is compared against the library instead.
+	 */
+	private class LibraryWatcher extends Thread {
+
+		/**
+		 * Service delivering the directory events.
+		 */
+		private WatchService watchService;
+
+		/**
+		 * Map of watch keys to the names of the playlists they are for.
+		 */
+		private Map<WatchKey, String> playlistKeys = new HashMap<>();
+
+		/**
+		 * Map of playlist names to the paths that have changed and not been applied.
+		 */
+		private Map<String, Set<Path>> pendingChanges = new HashMap<>();
+
+		// ----------------------------------------------------------------------------------------
+		// Constructors.
+		// ----------------------------------------------------------------------------------------
+
+		private LibraryWatcher() throws IOException {
+
+			setName("musicLibraryWatcher");
+			setDaemon(true);
+
+			watchService = FileSystems.getDefault().newWatchService();
+			for (Map.Entry<String, Path> directory : playlistDirectories.entrySet()) {
+				WatchKey key = directory.getValue().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+				playlistKeys.put(key, directory.getKey());
+			}
+		}
+
+		// ----------------------------------------------------------------------------------------
+		// Thread methods.
+		// ----------------------------------------------------------------------------------------
+
+		@Override
+		public void run() {
+
+			LOGGER.info("Music library watcher started: directories={}", playlistDirectories.values());
+
+			try {
+				while (!isInterrupted()) {
+
+					// Wait for the first change and then keep collecting until the
+					// directories have been quiet long enough.
+					WatchKey key = watchService.take();
+					while (key != null) {
+						collectEvents(key);
+						key = watchService.poll(LIBRARY_QUIET_MS, TimeUnit.MILLISECONDS);
+					}
+
+					if (!pendingChanges.isEmpty()) {
+						applyLibraryChanges(pendingChanges);
+						pendingChanges = new HashMap<>();
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ClosedWatchServiceException e) {
+				// Service was closed for shutdown.
+			} catch (Exception e) {
+				LOGGER.error("Music library watcher failed; library will no longer update.", e);
+			}
+
+			LOGGER.info("Music library watcher shutdown.");
+		}
+
+		// ----------------------------------------------------------------------------------------
+		// Supporting methods.
+		// ----------------------------------------------------------------------------------------
+
+		/**
+		 * Stops watching the directories.
+		 */
+		private void shutdown() {
+
+			interrupt();
+			try {
+				watchService.close();
+			} catch (IOException e) {
+				LOGGER.warn("Failed to close music library watch service.", e);
+			}
+		}
+
+		/**
+		 * Records the paths changed by the events on a watch key.
+		 * 
+		 * @param key Key with events to collect.
+		 */
+		private void collectEvents(WatchKey key) {
+
+			String playlistName = playlistKeys.get(key);
+			Path directory = playlistDirectories.get(playlistName);
+			Set<Path> changedPaths = pendingChanges.computeIfAbsent(playlistName, k -> new HashSet<>());
+
+			for (WatchEvent<?> event : key.pollEvents()) {
+
+				if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+					addAllPaths(playlistName, directory, changedPaths);
+				} else {
+					changedPaths.add(directory.resolve((Path) event.context()));
+				}
+			}
+
+			if (!key.reset()) {
+				LOGGER.warn("Playlist directory {} is no longer accessible.", directory);
+				playlistKeys.remove(key);
+				addAllPaths(playlistName, directory, changedPaths);
+			}
+		}
+
+		/**
+		 * Adds every MP3 in a playlist directory along with every track currently in
+		 * the playlist so the directory is fully compared against the library.
+		 * 
+		 * @param playlistName Name of the playlist.
+		 * @param directory    Directory of the playlist.
+		 * @param changedPaths Set to add the paths to.
+		 */
+		private void addAllPaths(String playlistName, Path directory, Set<Path> changedPaths) {
+
+			File[] files = directory.toFile().listFiles(new Mp3FileFilter());
+			if (files != null) {
+				for (File file : files) {
+					changedPaths.add(file.toPath());
+				}
+			}
+
+			for (InternalTrack track : library.playlistMap.getOrDefault(playlistName, Collections.emptyList())) {
+				changedPaths.add(Paths.get(track.getTrackPath()));
+			}
+		}
+	}
+
+	/**
+	 * Thread that periodically copies the player's position into the state.
+	 */
+	private class PositionUpdater extends Thread {
+
+		// ----------------------------------------------------------------------------------------
+		// Constructors.
+		// ----------------------------------------------------------------------------------------
+
+		private PositionUpdater() {
+			setName("musicPosition");
+			setDaemon(true);
+		}
+
+		// ----------------------------------------------------------------------------------------
+		// Thread methods.
+		// ----------------------------------------------------------------------------------------
+
+		@Override
+		public void run() {
+
+			while (!isInterrupted()) {
+
+				long positionMicros = player.getPositionMicros();
+				musicState.trackPosition.set(positionMicros < 0 ? 0.0 : positionMicros / 1000000.0);
+
+				try {
+					Thread.sleep(POSITION_UPDATE_MS);
+				} catch (InterruptedException e) {
+					// Interrupted to shut down.
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Counts of how tracks were indexed.
+	 */
+	private static class IndexStatistics {
+
+		private Set<String> paths = new HashSet<>();
+		private int reused;
+		private int parsed;
+		private int failed;
 	}
 
 	/**
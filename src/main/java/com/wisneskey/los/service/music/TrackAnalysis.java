@@ -0,0 +1,140 @@
+package com.wisneskey.los.service.music;
+
+import java.util.Arrays;
+
+/**
+ * Results of analyzing the audio of a track: its loudness and its tempo and
+ * beats. Tracks are analyzed once in the background after they are indexed
+ * and the results are kept in the music index cache so nothing has to be
+ * measured while the track is playing.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class TrackAnalysis {
+
+	/**
+	 * Most a quiet track will be boosted by in decibels.
+	 */
+	private static final double MAX_BOOST_DB = 12.0;
+
+	/**
+	 * Integrated loudness of the track in LUFS or NaN if it could not be
+	 * measured.
+	 */
+	private double loudness;
+
+	/**
+	 * Sample peak of the track from 0.0 to 1.0.
+	 */
+	private double peak;
+
+	/**
+	 * Tempo of the track in beats per minute or NaN if none was found.
+	 */
+	private double bpm;
+
+	/**
+	 * Time of each beat in milliseconds from the start of the track.
+	 */
+	private int[] beatTimesMs;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for the results of an analysis.
+	 *
+	 * @param loudness    Integrated loudness in LUFS or NaN if not measurable.
+	 * @param peak        Sample peak from 0.0 to 1.0.
+	 * @param bpm         Tempo in beats per minute or NaN if none was found.
+	 * @param beatTimesMs Time of each beat in milliseconds.
+	 */
+	public TrackAnalysis(double loudness, double peak, double bpm, int[] beatTimesMs) {
+		this.loudness = loudness;
+		this.peak = peak;
+		this.bpm = bpm;
+		this.beatTimesMs = beatTimesMs;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	public double getLoudness() {
+		return loudness;
+	}
+
+	public double getPeak() {
+		return peak;
+	}
+
+	public double getBpm() {
+		return bpm;
+	}
+
+	/**
+	 * Returns the beat grid of the track.
+	 *
+	 * @return Time of each beat in milliseconds from the start of the track; empty
+	 *         if no beats were found.
+	 */
+	public int[] getBeatTimesMs() {
+		return beatTimesMs;
+	}
+
+	/**
+	 * Returns the index of the first beat at or after a time.
+	 *
+	 * @param  timeMs Time in milliseconds from the start of the track.
+	 * @return        Index of the beat or the number of beats if there is none.
+	 */
+	public int findBeat(long timeMs) {
+
+		int index = Arrays.binarySearch(beatTimesMs, (int) Math.min(timeMs, Integer.MAX_VALUE));
+		return index >= 0 ? index : -(index + 1);
+	}
+
+	/**
+	 * Returns the gain that brings the track to a target loudness. Quiet tracks
+	 * are only boosted as far as their peak allows without clipping.
+	 *
+	 * @param  targetLoudness Loudness to normalize to in LUFS.
+	 * @return                Linear gain to apply to the track.
+	 */
+	public double getGain(double targetLoudness) {
+
+		if (Double.isNaN(loudness)) {
+			return 1.0;
+		}
+
+		double gainDb = Math.min(targetLoudness - loudness, MAX_BOOST_DB);
+		double gain = Math.pow(10.0, gainDb / 20.0);
+
+		if (peak > 0.0) {
+			gain = Math.min(gain, 1.0 / peak);
+		}
+		return gain;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("loudness=%.1fLUFS peak=%.3f bpm=%.1f beats=%d", loudness, peak, bpm,
+				beatTimesMs.length);
+	}
+}
@@ -0,0 +1,116 @@
+package com.wisneskey.los.service.music;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.wisneskey.los.error.LaissezException;
+import com.wisneskey.los.service.audio.engine.BeatDetector;
+import com.wisneskey.los.service.audio.engine.LoudnessMeter;
+import com.wisneskey.los.service.audio.engine.Mp3Stream;
+
+/**
+ * Analyzes the audio of tracks in the background. Each track is decoded once
+ * and measured on a small pool of minimum priority threads so the analysis
+ * never competes with playback or the user interface.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class TrackAnalyzer {
+
+	/**
+	 * Threads running the analyses.
+	 */
+	private ExecutorService executor;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for an analyzer.
+	 *
+	 * @param threads Number of tracks to analyze at once.
+	 */
+	public TrackAnalyzer(int threads) {
+
+		executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+			Thread thread = new Thread(r, "musicAnalyzer");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Queues a track to be analyzed.
+	 *
+	 * @param  trackPath Path to the track's MP3.
+	 * @return           Future completed with the analysis or exceptionally if
+	 *                   the track could not be decoded.
+	 */
+	public CompletableFuture<TrackAnalysis> submit(Path trackPath) {
+		return CompletableFuture.supplyAsync(() -> analyze(trackPath), executor);
+	}
+
+	/**
+	 * Stops the analyses, abandoning any that are queued.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Static methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Decodes a track and measures its loudness and beats in a single pass.
+	 *
+	 * @param  trackPath Path to the track's MP3.
+	 * @return           Analysis of the track.
+	 */
+	public static TrackAnalysis analyze(Path trackPath) {
+
+		LoudnessMeter loudnessMeter = new LoudnessMeter();
+		BeatDetector beatDetector = new BeatDetector();
+
+		try (Mp3Stream stream = new Mp3Stream(trackPath)) {
+
+			short[] frame;
+			while ((frame = stream.nextFrame()) != null) {
+
+				if (Thread.currentThread().isInterrupted()) {
+					throw new LaissezException("Interrupted analyzing track: " + trackPath);
+				}
+				loudnessMeter.process(frame, frame.length);
+				beatDetector.process(frame, frame.length);
+			}
+		}
+
+		beatDetector.analyze();
+
+		return new TrackAnalysis(loudnessMeter.getIntegratedLoudness(), loudnessMeter.getPeak(), beatDetector.getBpm(),
+				beatDetector.getBeatTimesMs());
+	}
+}
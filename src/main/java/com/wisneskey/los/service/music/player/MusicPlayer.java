@@ -0,0 +1,128 @@
+package com.wisneskey.los.service.music.player;
+
+/**
+ * Interface for the player used by the music service to play tracks. A player
+ * plays one track at a time and reports when a track finishes on its own so
+ * the music service can move on to the next one.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public interface MusicPlayer {
+
+	/**
+	 * Maximum supported volume.
+	 */
+	int MAX_VOLUME = 11;
+
+	/**
+	 * Base of exponential use for emphasizing lower volume gains.
+	 */
+	double GAIN_BASE = 1.6d;
+
+	/**
+	 * Returns the gain to play music with at a volume. An exponential scale is
+	 * used so that the steps at lower volumes are finer.
+	 *
+	 * @param  volume Volume from 0 to 11.
+	 * @return        Gain from 0.0 to 1.0.
+	 */
+	static double gain(int volume) {
+		int clamped = Math.max(0, Math.min(volume, MAX_VOLUME));
+		return Math.pow(GAIN_BASE, clamped) / Math.pow(GAIN_BASE, MAX_VOLUME);
+	}
+
+	/**
+	 * Starts the player.
+	 *
+	 * @param listener Listener to notify when tracks complete.
+	 * @param volume   Initial volume from 0 to 11.
+	 */
+	void start(CompletionListener listener, int volume);
+
+	/**
+	 * Starts playing a track, replacing any track that is playing.
+	 *
+	 * @param trackPath Path to the track's MP3.
+	 * @param trackGain Gain that normalizes the track's loudness, applied on top
+	 *                    of the volume.
+	 */
+	void play(String trackPath, double trackGain);
+
+	/**
+	 * Hints which track will be played after the current one so the player can
+	 * prepare it ahead of time.
+	 *
+	 * @param trackPath Path to the next track's MP3 or null if not known.
+	 * @param trackGain Gain that normalizes the next track's loudness.
+	 */
+	void preload(String trackPath, double trackGain);
+
+	/**
+	 * Stops the current track without reporting it as completed.
+	 */
+	void stop();
+
+	/**
+	 * Pauses or resumes the current track.
+	 *
+	 * @param paused True to pause or false to resume.
+	 */
+	void setPaused(boolean paused);
+
+	/**
+	 * Moves the playback position of the current track.
+	 *
+	 * @param seconds Position in seconds from the start of the track.
+	 */
+	void seek(double seconds);
+
+	/**
+	 * Changes the volume, taking effect on the track that is playing.
+	 *
+	 * @param volume Volume from 0 to 11.
+	 */
+	void setVolume(int volume);
+
+	/**
+	 * Returns the playback position of the current track as it is being heard.
+	 *
+	 * @return Position in microseconds from the start of the track or -1 if
+	 *         nothing is playing.
+	 */
+	long getPositionMicros();
+
+	/**
+	 * Stops the player and releases its resources.
+	 */
+	void shutdown();
+
+	// ----------------------------------------------------------------------------------------
+	// Inner classes.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Interface for being notified when a track finishes on its own.
+	 */
+	interface CompletionListener {
+
+		/**
+		 * Called when the current track has played to its end.
+		 */
+		void trackCompleted();
+	}
+}
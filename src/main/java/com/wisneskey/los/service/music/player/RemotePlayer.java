@@ -0,0 +1,552 @@
+package com.wisneskey.los.service.music.player;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.wisneskey.los.error.LaissezException;
+
+/**
+ * Music player that keeps a single external player process running in remote
+ * control mode (mpg123's -R mode) for the life of the chair. Tracks are loaded,
+ * paused, seeked and have their volume changed by writing commands to the
+ * process's input and the end of each track is read back from its output, so
+ * switching tracks never waits for a new process to start and volume changes
+ * apply to the track that is playing.
+ *
+ * The remote protocol has no queue, so the next track is prepared by reading
+ * its file ahead of time into the operating system's cache while the current
+ * track plays; loading it at the end of the current track then does not wait
+ * on the SD card.
+ *
+ * Any program that speaks the same protocol can be used as the player, which
+ * allows a scripted stand-in to be used for development and testing.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class RemotePlayer implements MusicPlayer {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RemotePlayer.class);
+
+	/**
+	 * Flag enabling the player's remote control mode.
+	 */
+	private static final String REMOTE_FLAG = "-R";
+
+	/**
+	 * Prefix of the response reporting a track has started.
+	 */
+	private static final String RESPONSE_STARTED = "@S";
+
+	/**
+	 * Response reporting playback has stopped.
+	 */
+	private static final String RESPONSE_STOPPED = "@P 0";
+
+	/**
+	 * Prefix of an error response.
+	 */
+	private static final String RESPONSE_ERROR = "@E";
+
+	/**
+	 * Prefix of the response sent when the player is ready.
+	 */
+	private static final String RESPONSE_READY = "@R";
+
+	/**
+	 * Time in milliseconds to wait before restarting a player process that died.
+	 */
+	private static final long RESTART_DELAY_MS = 1000;
+
+	/**
+	 * Size of the buffer used to read ahead the next track.
+	 */
+	private static final int PRELOAD_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Command used to start the player process.
+	 */
+	private List<String> command;
+
+	/**
+	 * Listener to notify when tracks complete.
+	 */
+	private CompletionListener listener;
+
+	/**
+	 * Player process currently running.
+	 */
+	private Process process;
+
+	/**
+	 * Writer for commands to the player process.
+	 */
+	private PrintWriter commandWriter;
+
+	/**
+	 * Lock held while starting the process or writing commands to it.
+	 */
+	private Object commandLock = new Object();
+
+	/**
+	 * Executor that reads ahead the next track.
+	 */
+	private ExecutorService preloader;
+
+	/**
+	 * Path of the track playing or null if nothing is playing.
+	 */
+	private volatile String currentTrack;
+
+	/**
+	 * Number of loads sent that the player has not yet started. Stops reported
+	 * while a load is outstanding belong to the previous track.
+	 */
+	private volatile int pendingLoads;
+
+	/**
+	 * Flag indicating the next stop reported is one that was requested.
+	 */
+	private volatile boolean stopRequested;
+
+	/**
+	 * Flag indicating if the current track is paused.
+	 */
+	private boolean paused;
+
+	/**
+	 * Position of the current track in microseconds when the playback clock was
+	 * last started or stopped.
+	 */
+	private long positionBaseMicros;
+
+	/**
+	 * Time in nanoseconds the playback clock was started or 0 if it is stopped.
+	 */
+	private long positionStartNanos;
+
+	/**
+	 * Current volume from 0 to 11.
+	 */
+	private volatile int volume;
+
+	/**
+	 * Loudness normalizing gain of the current track.
+	 */
+	private volatile double trackGain = 1.0;
+
+	/**
+	 * Flag indicating the player should be kept running.
+	 */
+	private volatile boolean running;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a player run by an external command.
+	 *
+	 * @param playerCommand Path to the player executable.
+	 */
+	public RemotePlayer(String playerCommand) {
+		this.command = Arrays.asList(playerCommand, REMOTE_FLAG);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// MusicPlayer methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public void start(CompletionListener listener, int volume) {
+
+		this.listener = listener;
+		this.volume = volume;
+		this.running = true;
+
+		preloader = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "musicPreloader");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		synchronized (commandLock) {
+			launch();
+		}
+	}
+
+	@Override
+	public void play(String trackPath, double trackGain) {
+
+		synchronized (commandLock) {
+			pendingLoads++;
+			stopRequested = false;
+			paused = false;
+			currentTrack = trackPath;
+
+			if (this.trackGain != trackGain) {
+				this.trackGain = trackGain;
+				sendVolume();
+			}
+			send("LOAD " + trackPath);
+		}
+	}
+
+	@Override
+	public void preload(String trackPath, double trackGain) {
+
+		if (trackPath == null) {
+			return;
+		}
+
+		preloader.execute(() -> {
+			byte[] buffer = new byte[PRELOAD_BUFFER_SIZE];
+			try (InputStream input = Files.newInputStream(Paths.get(trackPath))) {
+				while (input.read(buffer) >= 0) {
+					// Reading is enough to pull the file into the cache.
+				}
+				LOGGER.debug("Preloaded next track: {}", trackPath);
+			} catch (IOException e) {
+				LOGGER.warn("Failed to preload next track {}: {}", trackPath, e.toString());
+			}
+		});
+	}
+
+	@Override
+	public void stop() {
+
+		synchronized (commandLock) {
+			if (currentTrack != null) {
+				currentTrack = null;
+				stopRequested = true;
+				send("STOP");
+			}
+		}
+	}
+
+	@Override
+	public void setPaused(boolean paused) {
+
+		synchronized (commandLock) {
+			// The player's pause command toggles so only send it on a change.
+			if ((currentTrack != null) && (this.paused != paused)) {
+				this.paused = paused;
+				send("PAUSE");
+
+				if (paused) {
+					positionBaseMicros = elapsedMicros();
+					positionStartNanos = 0;
+				} else {
+					positionStartNanos = System.nanoTime();
+				}
+			}
+		}
+	}
+
+	@Override
+	public void seek(double seconds) {
+
+		synchronized (commandLock) {
+			if (currentTrack != null) {
+				send(String.format(Locale.ROOT, "JUMP %.2fs", Math.max(0.0, seconds)));
+				positionBaseMicros = (long) (Math.max(0.0, seconds) * 1000000.0);
+				positionStartNanos = paused ? 0 : System.nanoTime();
+			}
+		}
+	}
+
+	@Override
+	public void setVolume(int volume) {
+
+		synchronized (commandLock) {
+			this.volume = volume;
+			sendVolume();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The player process does not report its position while silenced so it is
+	 * estimated from the time since the track started, allowing for pauses and
+	 * seeks.
+	 */
+	@Override
+	public long getPositionMicros() {
+
+		synchronized (commandLock) {
+			if ((currentTrack == null) || (pendingLoads > 0)) {
+				return -1;
+			}
+			return elapsedMicros();
+		}
+	}
+
+	@Override
+	public void shutdown() {
+
+		running = false;
+		preloader.shutdownNow();
+
+		synchronized (commandLock) {
+			if (process == null) {
+				return;
+			}
+
+			send("QUIT");
+			try {
+				if (!process.waitFor(1, TimeUnit.SECONDS)) {
+					process.destroy();
+				}
+			} catch (InterruptedException e) {
+				LOGGER.warn("Interrupted waiting for player process to quit.");
+				process.destroy();
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		LOGGER.info("Remote player shutdown.");
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Starts the player process and the thread reading its responses. Must be
+	 * called holding the command lock.
+	 */
+	private void launch() {
+
+		try {
+			process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		} catch (IOException e) {
+			throw new LaissezException("Failed to start remote player: " + command, e);
+		}
+
+		commandWriter = new PrintWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8),
+				true);
+		pendingLoads = 0;
+		stopRequested = false;
+
+		new ResponseReader(process).start();
+
+		// Turn off the per-frame progress reports and set the volume.
+		send("SILENCE");
+		sendVolume();
+
+		LOGGER.info("Remote player started: command={} pid={}", command, process.pid());
+	}
+
+	/**
+	 * Returns the estimated position of the current track. Must be called holding
+	 * the command lock.
+	 *
+	 * @return Position in microseconds.
+	 */
+	private long elapsedMicros() {
+		if (positionStartNanos == 0) {
+			return positionBaseMicros;
+		}
+		return positionBaseMicros + ((System.nanoTime() - positionStartNanos) / 1000L);
+	}
+
+	/**
+	 * Sends the current volume combined with the track's gain to the player. Must
+	 * be called holding the command lock.
+	 */
+	private void sendVolume() {
+		send(String.format(Locale.ROOT, "VOLUME %.1f", MusicPlayer.gain(volume) * trackGain * 100.0));
+	}
+
+	/**
+	 * Sends a command to the player. Must be called holding the command lock.
+	 *
+	 * @param commandLine Command to send.
+	 */
+	private void send(String commandLine) {
+
+		LOGGER.debug("Remote player command: {}", commandLine);
+		commandWriter.println(commandLine);
+		if (commandWriter.checkError()) {
+			LOGGER.warn("Failed to send command to remote player: {}", commandLine);
+		}
+	}
+
+	/**
+	 * Handles a response line from the player.
+	 *
+	 * @param line Response from the player.
+	 */
+	private void handleResponse(String line) {
+
+		if (line.startsWith(RESPONSE_STARTED)) {
+
+			synchronized (commandLock) {
+				pendingLoads = Math.max(0, pendingLoads - 1);
+				positionBaseMicros = 0;
+				positionStartNanos = System.nanoTime();
+			}
+
+		} else if (line.equals(RESPONSE_STOPPED)) {
+
+			String completedTrack;
+			synchronized (commandLock) {
+				if ((pendingLoads > 0) || stopRequested) {
+					stopRequested = false;
+					return;
+				}
+				completedTrack = currentTrack;
+				currentTrack = null;
+			}
+
+			if (completedTrack != null) {
+				LOGGER.info("Remote player completed track: {}", completedTrack);
+				listener.trackCompleted();
+			}
+
+		} else if (line.startsWith(RESPONSE_ERROR)) {
+
+			LOGGER.warn("Remote player error: {}", line);
+
+			// An error while a load is outstanding means the track could not be
+			// played so treat it as complete to move on.
+			boolean failedLoad;
+			synchronized (commandLock) {
+				failedLoad = pendingLoads > 0;
+				if (failedLoad) {
+					pendingLoads--;
+					currentTrack = null;
+				}
+			}
+
+			if (failedLoad) {
+				listener.trackCompleted();
+			}
+
+		} else if (line.startsWith(RESPONSE_READY)) {
+			LOGGER.info("Remote player ready: {}", line);
+		} else {
+			LOGGER.trace("Remote player: {}", line);
+		}
+	}
+
+	/**
+	 * Restarts the player process after it has died. If a track was playing it is
+	 * reported as complete so the music service moves on.
+	 *
+	 * @param deadProcess Process that died.
+	 */
+	private void handleProcessExit(Process deadProcess) {
+
+		String interruptedTrack;
+		synchronized (commandLock) {
+			if (!running || (deadProcess != process)) {
+				return;
+			}
+
+			LOGGER.warn("Remote player process exited unexpectedly; restarting it.");
+
+			interruptedTrack = currentTrack;
+			currentTrack = null;
+
+			try {
+				Thread.sleep(RESTART_DELAY_MS);
+				launch();
+			} catch (InterruptedException e) {
+				LOGGER.warn("Interrupted waiting to restart remote player.");
+				Thread.currentThread().interrupt();
+				return;
+			} catch (LaissezException e) {
+				LOGGER.error("Failed to restart remote player.", e);
+				return;
+			}
+		}
+
+		if (interruptedTrack != null) {
+			listener.trackCompleted();
+		}
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Inner classes.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Thread that reads the responses from a player process until it exits.
+	 */
+	private class ResponseReader extends Thread {
+
+		/**
+		 * Process to read the responses of.
+		 */
+		private Process readProcess;
+
+		// ----------------------------------------------------------------------------------------
+		// Constructors.
+		// ----------------------------------------------------------------------------------------
+
+		private ResponseReader(Process readProcess) {
+			this.readProcess = readProcess;
+
+			setName("remotePlayerReader");
+			setDaemon(true);
+		}
+
+		// ----------------------------------------------------------------------------------------
+		// Thread methods.
+		// ----------------------------------------------------------------------------------------
+
+		@Override
+		public void run() {
+
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(readProcess.getInputStream(), StandardCharsets.UTF_8))) {
+
+				String line;
+				while ((line = reader.readLine()) != null) {
+					try {
+						handleResponse(line.trim());
+					} catch (Exception e) {
+						LOGGER.error("Exception handling remote player response: " + line, e);
+					}
+				}
+
+			} catch (IOException e) {
+				LOGGER.warn("Failed reading from remote player: {}", e.toString());
+			}
+
+			handleProcessExit(readProcess);
+		}
+	}
+}
@@ -0,0 +1,752 @@
+package com.wisneskey.los.service.music.player;
+
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.wisneskey.los.error.LaissezException;
+import com.wisneskey.los.service.audio.engine.AudioEngine;
+import com.wisneskey.los.service.audio.engine.AudioFormats;
+import com.wisneskey.los.service.audio.engine.Mixer;
+import com.wisneskey.los.service.audio.engine.Mp3Stream;
+import com.wisneskey.los.service.audio.engine.PcmRingBuffer;
+import com.wisneskey.los.service.profile.model.Profile;
+
+/**
+ * Music player that decodes tracks in process and streams them through the
+ * audio engine's mixer. A decoder thread keeps a lock-free ring buffer a short
+ * way ahead of the output and the render thread drains it, so there is no
+ * process to start between tracks and the exact sample being played is always
+ * known.
+ *
+ * The decoder holds back the last few seconds it has decoded of each track.
+ * When it reaches the end of a track and the next track is known, the held back
+ * audio is faded out while the start of the next track is faded in; without a
+ * next track it is simply released to the output. The next track starts on the
+ * sample after the previous one either way.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class StreamingPlayer implements MusicPlayer {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StreamingPlayer.class);
+
+	/**
+	 * Largest number of samples a single decoded frame can produce (an 1152
+	 * sample frame at 8kHz resampled to 44.1kHz stereo with room to spare).
+	 */
+	private static final int MAX_FRAME_SAMPLES = 16384;
+
+	/**
+	 * Time in milliseconds the decoder waits for a command when it has nothing to
+	 * decode.
+	 */
+	private static final long IDLE_WAIT_MS = 5;
+
+	/**
+	 * Mixer the music is played through.
+	 */
+	private Mixer mixer;
+
+	/**
+	 * Time in microseconds between a sample being mixed and it being heard.
+	 */
+	private long outputLatencyMicros;
+
+	/**
+	 * Ring buffer between the decoder and the render thread.
+	 */
+	private PcmRingBuffer ring;
+
+	/**
+	 * Number of samples the decoder keeps in the ring ahead of the output.
+	 */
+	private int decodeAheadSamples;
+
+	/**
+	 * Number of samples of each track held back for crossfading.
+	 */
+	private int crossfadeSamples;
+
+	/**
+	 * Commands waiting to be run on the decoder thread.
+	 */
+	private BlockingQueue<Runnable> commands = new LinkedBlockingQueue<>();
+
+	/**
+	 * Thread decoding the tracks.
+	 */
+	private DecoderThread decoderThread;
+
+	/**
+	 * Listener to notify when tracks complete.
+	 */
+	private CompletionListener listener;
+
+	/**
+	 * Track playing at the output or null if nothing is playing.
+	 */
+	private volatile Segment activeSegment;
+
+	/**
+	 * Path of a track the player moved on to by itself that the music service has
+	 * not yet asked to play.
+	 */
+	private volatile String advancedTrack;
+
+	/**
+	 * Flag indicating if the output is paused.
+	 */
+	private volatile boolean paused;
+
+	/**
+	 * Flag indicating if the decoder has a track open, used to tell underruns
+	 * from the end of the music.
+	 */
+	private volatile boolean streaming;
+
+	/**
+	 * Number of periods the decoder failed to fill in time.
+	 */
+	private volatile long underruns;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a player streaming through an audio engine.
+	 *
+	 * @param engine  Audio engine to play the music through.
+	 * @param profile Profile with the music streaming settings.
+	 */
+	public StreamingPlayer(AudioEngine engine, Profile profile) {
+
+		this.mixer = engine.getMixer();
+		this.outputLatencyMicros = engine.getOutputLatencyMicros();
+
+		this.decodeAheadSamples = samplesForMillis(profile.getMusicDecodeAheadMs());
+		this.crossfadeSamples = samplesForMillis(profile.getMusicCrossfadeMs());
+
+		// The ring must at least hold the look-ahead plus a frame being written.
+		this.ring = new PcmRingBuffer(
+				Math.max(samplesForMillis(profile.getMusicRingBufferMs()), decodeAheadSamples + MAX_FRAME_SAMPLES));
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// MusicPlayer methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public void start(CompletionListener listener, int volume) {
+
+		this.listener = listener;
+
+		decoderThread = new DecoderThread();
+		decoderThread.start();
+
+		mixer.setMusicGain(MusicPlayer.gain(volume));
+		mixer.setMusicSource(this::readMusic);
+
+		LOGGER.info("Streaming player started: ringMs={} decodeAheadMs={} crossfadeMs={}",
+				millisForSamples(ring.getCapacity()), millisForSamples(decodeAheadSamples),
+				millisForSamples(crossfadeSamples));
+	}
+
+	@Override
+	public void play(String trackPath, double trackGain) {
+
+		// The music service asks for the track the player already moved on to when
+		// it is told the previous one completed; it is already playing.
+		String advanced = advancedTrack;
+		advancedTrack = null;
+		if (trackPath.equals(advanced)) {
+			return;
+		}
+
+		paused = false;
+		commands.offer(() -> decoderThread.startTrack(trackPath, trackGain));
+	}
+
+	@Override
+	public void preload(String trackPath, double trackGain) {
+		commands.offer(() -> {
+			decoderThread.nextTrack = trackPath;
+			decoderThread.nextTrackGain = (float) trackGain;
+		});
+	}
+
+	@Override
+	public void stop() {
+
+		advancedTrack = null;
+		paused = false;
+		commands.offer(() -> decoderThread.stopTrack());
+	}
+
+	@Override
+	public void setPaused(boolean paused) {
+		this.paused = paused;
+	}
+
+	@Override
+	public void seek(double seconds) {
+		commands.offer(() -> decoderThread.seekTrack(Math.max(0.0, seconds)));
+	}
+
+	@Override
+	public void setVolume(int volume) {
+		mixer.setMusicGain(MusicPlayer.gain(volume));
+	}
+
+	@Override
+	public long getPositionMicros() {
+
+		Segment segment = activeSegment;
+		if (segment == null) {
+			return -1;
+		}
+
+		long frames = (ring.getReadPosition() - segment.start) / AudioFormats.CHANNELS;
+		return Math.max(0, segment.offsetMicros + AudioFormats.framesToMicros(frames) - outputLatencyMicros);
+	}
+
+	@Override
+	public void shutdown() {
+
+		mixer.setMusicSource(null);
+
+		if (decoderThread != null) {
+			decoderThread.interrupt();
+			try {
+				decoderThread.join(1000);
+			} catch (InterruptedException e) {
+				LOGGER.warn("Interrupted waiting for music decoder thread to stop.");
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		LOGGER.info("Streaming player shutdown: underruns={}", underruns);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Supplies the mixer with the next samples of music. Called on the render
+	 * thread so it must not block or allocate.
+	 *
+	 * @param  samples Buffer to read the samples into.
+	 * @param  offset  Index to store the first sample at.
+	 * @param  length  Number of samples wanted.
+	 * @return         Number of samples supplied.
+	 */
+	private int readMusic(short[] samples, int offset, int length) {
+
+		if (paused) {
+			return 0;
+		}
+
+		int count = ring.read(samples, offset, length);
+
+		// Running short once a track has started playing means the decoder fell
+		// behind; at the start of a track it is just still filling the ring.
+		Segment segment = activeSegment;
+		if ((count < length) && streaming && (segment != null) && (ring.getReadPosition() > segment.start + count)) {
+			underruns++;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of interleaved samples in a length of time.
+	 *
+	 * @param  millis Time in milliseconds.
+	 * @return        Number of samples.
+	 */
+	private static int samplesForMillis(int millis) {
+		return AudioFormats.framesForMillis(Math.max(0, millis)) * AudioFormats.CHANNELS;
+	}
+
+	/**
+	 * Returns the length of time a number of interleaved samples plays for.
+	 *
+	 * @param  samples Number of samples.
+	 * @return         Time in milliseconds.
+	 */
+	private static long millisForSamples(int samples) {
+		return AudioFormats.framesToMicros(samples / AudioFormats.CHANNELS) / 1000L;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Inner classes.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * A track's place in the stream of samples written to the ring.
+	 */
+	private static class Segment {
+
+		/**
+		 * Ring position of the track's first sample.
+		 */
+		private long start;
+
+		/**
+		 * Path of the track or null for the end of the music.
+		 */
+		private String path;
+
+		/**
+		 * Position in the track of its first sample in microseconds.
+		 */
+		private long offsetMicros;
+
+		/**
+		 * Loudness normalizing gain of the track.
+		 */
+		private float gain;
+
+		private Segment(long start, String path, long offsetMicros, float gain) {
+			this.start = start;
+			this.path = path;
+			this.offsetMicros = offsetMicros;
+			this.gain = gain;
+		}
+	}
+
+	/**
+	 * Thread that decodes the tracks into the ring, runs the commands from the
+	 * music service and reports when the output reaches the start of each track.
+	 * All of the fields of the thread are only used on the thread itself.
+	 */
+	private class DecoderThread extends Thread {
+
+		/**
+		 * Decoded samples held back from the ring so the end of the track can be
+		 * faded into the next one.
+		 */
+		private PcmRingBuffer heldBack = new PcmRingBuffer(crossfadeSamples + MAX_FRAME_SAMPLES);
+
+		/**
+		 * Buffer used to move samples from the held back buffer to the ring.
+		 */
+		private short[] transfer = new short[4096];
+
+		/**
+		 * Stream of the track being decoded or null if there is none.
+		 */
+		private Mp3Stream stream;
+
+		/**
+		 * Path of the track being decoded.
+		 */
+		private String streamPath;
+
+		/**
+		 * Loudness normalizing gain applied to the track being decoded.
+		 */
+		private float streamGain = 1.0f;
+
+		/**
+		 * Number of samples decoded from the track so far.
+		 */
+		private long streamSamples;
+
+		/**
+		 * Path of the track to play after the current one or null if not known.
+		 */
+		private String nextTrack;
+
+		/**
+		 * Loudness normalizing gain of the next track.
+		 */
+		private float nextTrackGain = 1.0f;
+
+		/**
+		 * Tail of the previous track being faded out or null if no crossfade is in
+		 * progress.
+		 */
+		private short[] fadeOut;
+
+		/**
+		 * Index of the next sample of the tail to fade out.
+		 */
+		private int fadeIndex;
+
+		/**
+		 * Tracks that have been written to the ring but not yet reached by the
+		 * output, in order.
+		 */
+		private Deque<Segment> upcoming = new ArrayDeque<>();
+
+		// ----------------------------------------------------------------------------------------
+		// Constructors.
+		// ----------------------------------------------------------------------------------------
+
+		private DecoderThread() {
+			setName("musicDecoder");
+			setDaemon(true);
+			setPriority(Thread.NORM_PRIORITY + 2);
+		}
+
+		// ----------------------------------------------------------------------------------------
+		// Thread methods.
+		// ----------------------------------------------------------------------------------------
+
+		@Override
+		public void run() {
+
+			LOGGER.info("Music decoder thread started.");
+
+			try {
+				while (!isInterrupted()) {
+
+					Runnable command = commands.poll();
+					if (command != null) {
+						command.run();
+					} else if (!decodeStep()) {
+						command = commands.poll(IDLE_WAIT_MS, TimeUnit.MILLISECONDS);
+						if (command != null) {
+							command.run();
+						}
+					}
+
+					reportReachedSegments();
+				}
+			} catch (InterruptedException e) {
+				// Interrupted to shut down.
+			}
+
+			closeStream();
+			LOGGER.info("Music decoder thread shutdown.");
+		}
+
+		// ----------------------------------------------------------------------------------------
+		// Command methods.
+		// ----------------------------------------------------------------------------------------
+
+		/**
+		 * Replaces whatever is playing with the start of a track.
+		 *
+		 * @param path Path of the track to play.
+		 */
+		private void startTrack(String path, double gain) {
+
+			clear();
+			streamGain = (float) gain;
+			openTrack(path, 0);
+		}
+
+		/**
+		 * Stops the music at once.
+		 */
+		private void stopTrack() {
+
+			clear();
+			activeSegment = null;
+		}
+
+		/**
+		 * Restarts the track playing at the output from a new position.
+		 *
+		 * @param seconds Position in seconds from the start of the track.
+		 */
+		private void seekTrack(double seconds) {
+
+			Segment segment = activeSegment;
+			if ((segment == null) || (segment.path == null)) {
+				return;
+			}
+
+			// A track already queued behind this one has to be queued again.
+			Segment queued = upcoming.peekFirst();
+			if ((queued != null) && (queued.path != null)) {
+				nextTrack = queued.path;
+				nextTrackGain = queued.gain;
+			}
+
+			clear();
+			streamGain = segment.gain;
+			openTrack(segment.path, seconds * 1000.0);
+		}
+
+		// ----------------------------------------------------------------------------------------
+		// Supporting methods.
+		// ----------------------------------------------------------------------------------------
+
+		/**
+		 * Opens a track and makes it the one playing from the current end of the
+		 * ring. A track that cannot be opened is reported as complete right away.
+		 *
+		 * @param path   Path of the track.
+		 * @param millis Position in the track to start from in milliseconds.
+		 */
+		private void openTrack(String path, double millis) {
+
+			long offsetMicros = 0;
+
+			try {
+				stream = new Mp3Stream(Paths.get(path));
+				if (millis > 0) {
+					offsetMicros = (long) (stream.skip(millis) * 1000.0);
+				}
+			} catch (LaissezException e) {
+				LOGGER.warn("Failed to open track {}: {}", path, e.toString());
+				closeStream();
+				upcoming.addLast(new Segment(ring.getWritePosition(), null, 0, 1.0f));
+				return;
+			}
+
+			streamPath = path;
+			streamSamples = 0;
+			streaming = true;
+			activeSegment = new Segment(ring.getWritePosition(), path, offsetMicros, streamGain);
+		}
+
+		/**
+		 * Decodes the next frame if the ring or the held back audio needs more and
+		 * moves what can be released into the ring.
+		 *
+		 * @return True if there was work to do or false if the decoder can wait.
+		 */
+		private boolean decodeStep() {
+
+			boolean needed = (stream != null) && (heldBack.getFree() >= MAX_FRAME_SAMPLES)
+					&& ((ring.getBuffered() < decodeAheadSamples) || (heldBack.getBuffered() < crossfadeSamples));
+
+			if (needed) {
+
+				short[] frame;
+				try {
+					frame = stream.nextFrame();
+				} catch (LaissezException e) {
+					LOGGER.warn("Failed decoding track {}; ending it: {}", streamPath, e.toString());
+					frame = null;
+				}
+
+				if (frame != null) {
+					streamSamples += frame.length;
+					applyGain(frame);
+					mixFadeOut(frame, frame.length);
+					heldBack.write(frame, 0, frame.length);
+				} else {
+					endOfTrack();
+				}
+			}
+
+			return releaseHeldBack() || needed;
+		}
+
+		/**
+		 * Applies the track's loudness normalizing gain to a frame.
+		 *
+		 * @param frame Samples to scale in place.
+		 */
+		private void applyGain(short[] frame) {
+
+			if (streamGain == 1.0f) {
+				return;
+			}
+
+			for (int index = 0; index < frame.length; index++) {
+				int scaled = Math.round(frame[index] * streamGain);
+				frame[index] = (short) Math.max(Short.MIN_VALUE, Math.min(scaled, Short.MAX_VALUE));
+			}
+		}
+
+		/**
+		 * Mixes the tail of the previous track into the start of a frame of the
+		 * next one with equal power curves.
+		 *
+		 * @param frame  Samples of the next track.
+		 * @param length Number of samples to mix into.
+		 */
+		private void mixFadeOut(short[] frame, int length) {
+
+			if (fadeOut == null) {
+				return;
+			}
+
+			int count = Math.min(length, fadeOut.length - fadeIndex);
+			for (int index = 0; index < count; index += AudioFormats.CHANNELS) {
+
+				double progress = (double) (fadeIndex + index) / fadeOut.length;
+				double gainIn = Math.sin(progress * Math.PI / 2.0);
+				double gainOut = Math.cos(progress * Math.PI / 2.0);
+
+				for (int channel = 0; channel < AudioFormats.CHANNELS; channel++) {
+					int mixed = (int) (frame[index + channel] * gainIn + fadeOut[fadeIndex + index + channel] * gainOut);
+					frame[index + channel] = (short) Math.max(Short.MIN_VALUE, Math.min(mixed, Short.MAX_VALUE));
+				}
+			}
+
+			fadeIndex += count;
+			if (fadeIndex >= fadeOut.length) {
+				fadeOut = null;
+			}
+		}
+
+		/**
+		 * Handles reaching the end of the track being decoded by crossfading into
+		 * the next track if there is one or letting the music end if not.
+		 */
+		private void endOfTrack() {
+
+			long trackSamples = streamSamples;
+			closeStream();
+
+			// Finish any crossfade still going on because this track was shorter
+			// than the crossfade.
+			if (fadeOut != null) {
+				short[] remainder = new short[fadeOut.length - fadeIndex];
+				mixFadeOut(remainder, remainder.length);
+				heldBack.write(remainder, 0, remainder.length);
+			}
+
+			String path = nextTrack;
+			nextTrack = null;
+
+			Mp3Stream nextStream = null;
+			if (path != null) {
+				try {
+					nextStream = new Mp3Stream(Paths.get(path));
+				} catch (LaissezException e) {
+					LOGGER.warn("Failed to open next track {}: {}", path, e.toString());
+				}
+			}
+
+			if (nextStream == null) {
+				// The music ends after the held back audio has played.
+				streaming = false;
+				upcoming.addLast(new Segment(ring.getWritePosition() + heldBack.getBuffered(), null, 0, 1.0f));
+				return;
+			}
+
+			// The held back audio becomes the tail faded under the next track, but
+			// no more than half of a short track is faded. If crossfading is off
+			// nothing is held back and the next track just starts on the following
+			// sample.
+			int heldLength = heldBack.getBuffered();
+			int tailLength = (int) Math.min(heldLength, (trackSamples / 2) & ~1L);
+			long start = ring.getWritePosition() + (heldLength - tailLength);
+
+			if (tailLength > 0) {
+				short[] held = new short[heldLength];
+				heldBack.read(held, 0, heldLength);
+				heldBack.write(held, 0, heldLength - tailLength);
+
+				fadeOut = Arrays.copyOfRange(held, heldLength - tailLength, heldLength);
+				fadeIndex = 0;
+			}
+
+			stream = nextStream;
+			streamPath = path;
+			streamGain = nextTrackGain;
+			streamSamples = 0;
+			streaming = true;
+			upcoming.addLast(new Segment(start, path, 0, streamGain));
+		}
+
+		/**
+		 * Moves held back samples into the ring. Everything beyond the crossfade
+		 * length is released and, if the ring is running low, some of the
+		 * crossfade as well so a track starts playing without waiting for its
+		 * crossfade to be decoded.
+		 *
+		 * @return True if any samples were moved.
+		 */
+		private boolean releaseHeldBack() {
+
+			int holdBack = stream == null ? 0 : crossfadeSamples;
+			int count = heldBack.getBuffered() - holdBack;
+			if (ring.getBuffered() < decodeAheadSamples / 2) {
+				count = Math.max(count, decodeAheadSamples - ring.getBuffered());
+			}
+			count = Math.min(count, Math.min(heldBack.getBuffered(), ring.getFree()));
+
+			int moved = 0;
+			while (moved < count) {
+				int length = heldBack.read(transfer, 0, Math.min(transfer.length, count - moved));
+				ring.write(transfer, 0, length);
+				moved += length;
+			}
+
+			return moved > 0;
+		}
+
+		/**
+		 * Makes the next track active once the output has reached its first sample
+		 * and tells the music service the previous track completed.
+		 */
+		private void reportReachedSegments() {
+
+			long readPosition = ring.getReadPosition();
+
+			Segment segment;
+			while (((segment = upcoming.peekFirst()) != null) && (readPosition >= segment.start)) {
+
+				upcoming.removeFirst();
+
+				if (segment.path == null) {
+					streaming = false;
+					activeSegment = null;
+				} else {
+					advancedTrack = segment.path;
+					activeSegment = segment;
+				}
+
+				LOGGER.info("Streaming player reached {}.", segment.path == null ? "end of music" : segment.path);
+				listener.trackCompleted();
+			}
+		}
+
+		/**
+		 * Drops everything decoded but not yet heard.
+		 */
+		private void clear() {
+
+			closeStream();
+			ring.discard();
+			heldBack.discard();
+			fadeOut = null;
+			upcoming.clear();
+			streaming = false;
+		}
+
+		/**
+		 * Closes the stream being decoded if there is one.
+		 */
+		private void closeStream() {
+
+			if (stream != null) {
+				stream.close();
+				stream = null;
+				streamPath = null;
+			}
+		}
+	}
+}
@@ -1,10 +1,13 @@
 package com.wisneskey.los.service.profile.model;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import com.wisneskey.los.kernel.RunMode;
 import com.wisneskey.los.service.display.DisplayStyle;
+import com.wisneskey.los.service.geofence.Geofence;
+import com.wisneskey.los.service.location.GpsProtocol;
 import com.wisneskey.los.service.location.Location;
 import com.wisneskey.los.service.script.ScriptId;
 
@@ -53,6 +56,46 @@ public class Profile {
 	 * Default volume for the audio service when in chap mode.
 	 */
 	private static final int DEFAULT_CHAP_MODE_VOLUME = 3;
+
+	/**
+	 * Default to playing sound effects with the in-process audio engine.
+	 */
+	private static final boolean DEFAULT_IN_PROCESS_AUDIO = true;
+
+	/**
+	 * Default output latency in milliseconds for the in-process audio engine.
+	 */
+	private static final int DEFAULT_AUDIO_LATENCY_MS = 8;
+
+	/**
+	 * Default memory budget in mebibytes for decoded sound effects.
+	 */
+	private static final int DEFAULT_SOUND_EFFECT_CACHE_MB = 64;
+
+	/**
+	 * Default to booting even if some sound effects fail their preflight check.
+	 */
+	private static final boolean DEFAULT_REQUIRE_SOUND_EFFECTS = false;
+
+	/**
+	 * Default maximum number of sound effects that can play at once.
+	 */
+	private static final int DEFAULT_MAX_VOICES = 8;
+
+	/**
+	 * Default level music is reduced to while sound effects play.
+	 */
+	private static final double DEFAULT_MUSIC_DUCK_GAIN = 0.35;
+
+	/**
+	 * Default time in milliseconds to duck the music when an effect starts.
+	 */
+	private static final int DEFAULT_MUSIC_DUCK_ATTACK_MS = 30;
+
+	/**
+	 * Default time in milliseconds to restore the music after effects finish.
+	 */
+	private static final int DEFAULT_MUSIC_DUCK_RELEASE_MS = 500;
 	
 	// ----------------------------------------------------------------------------------------
 	// Display service defaults.
@@ -101,6 +144,27 @@ public class Profile {
 	 */
 	private static final boolean DEFAULT_MAP_ONLINE = true;
 
+	/**
+	 * Default protocol for receiving data from the GPS board.
+	 */
+	private static final GpsProtocol DEFAULT_GPS_PROTOCOL = GpsProtocol.NMEA;
+
+	/**
+	 * Default navigation rate in Hz for the GPS board when using the UBX protocol.
+	 */
+	private static final int DEFAULT_GPS_NAVIGATION_RATE = 5;
+
+	/**
+	 * Default speed multiplier for replaying a recorded GPS track.
+	 */
+	private static final double DEFAULT_GPS_REPLAY_SPEED = 1.0;
+
+	/**
+	 * Default value for flag indicating a replayed GPS track starts over when it
+	 * reaches the end.
+	 */
+	private static final boolean DEFAULT_GPS_REPLAY_LOOP = true;
+
 	// ----------------------------------------------------------------------------------------
 	// Map service defaults.
 	// ----------------------------------------------------------------------------------------
@@ -118,7 +182,106 @@ public class Profile {
 	 * Default value for MP3 playback.
 	 */
 	private static final int DEFAULT_MUSIC_VOLUME = 4;
+
+	/**
+	 * Default location for the music index cache file.
+	 */
+	private static final String DEFAULT_MUSIC_INDEX_CACHE_PATH = "./.music_index";
+
+	/**
+	 * Default to watching the playlist directories for changes.
+	 */
+	private static final boolean DEFAULT_WATCH_PLAYLISTS = true;
+
+	/**
+	 * Default to streaming music through the in-process audio engine.
+	 */
+	private static final boolean DEFAULT_STREAMING_MUSIC = true;
+
+	/**
+	 * Default length of the crossfade between tracks in milliseconds.
+	 */
+	private static final int DEFAULT_MUSIC_CROSSFADE_MS = 3000;
+
+	/**
+	 * Default size of the decoded music ring buffer in milliseconds.
+	 */
+	private static final int DEFAULT_MUSIC_RING_BUFFER_MS = 1000;
+
+	/**
+	 * Default amount of music to keep decoded ahead of the output in
+	 * milliseconds.
+	 */
+	private static final int DEFAULT_MUSIC_DECODE_AHEAD_MS = 250;
+
+	/**
+	 * Default number of tracks analyzed at once in the background.
+	 */
+	private static final int DEFAULT_TRACK_ANALYSIS_THREADS = 1;
+
+	/**
+	 * Default to normalizing the loudness of tracks.
+	 */
+	private static final boolean DEFAULT_LOUDNESS_NORMALIZATION = true;
+
+	/**
+	 * Default loudness tracks are normalized to (the ReplayGain 2.0 reference
+	 * level).
+	 */
+	private static final double DEFAULT_LOUDNESS_TARGET_LUFS = -18.0;
+
+	/**
+	 * Default to driving the lighting from the beats of the playing track.
+	 */
+	private static final boolean DEFAULT_MUSIC_LIGHTING_SYNC = true;
+
+	/**
+	 * Default time in milliseconds beats are sent to the lighting ahead of being
+	 * heard.
+	 */
+	private static final int DEFAULT_MUSIC_LIGHTING_LEAD_MS = 40;
+
+	/**
+	 * Default to not having the lighting react to the music as it plays.
+	 */
+	private static final boolean DEFAULT_REACTIVE_LIGHTING = false;
+
+	/**
+	 * Default number of times a second the playing music is analyzed for the
+	 * reactive lighting.
+	 */
+	private static final int DEFAULT_REACTIVE_LIGHTING_ANALYSIS_HZ = 40;
+
+	/**
+	 * Default limit on the number of times a second the reactive lighting
+	 * updates the lighting controller.
+	 */
+	private static final int DEFAULT_REACTIVE_LIGHTING_UPDATE_HZ = 15;
 	
+	// ----------------------------------------------------------------------------------------
+	// Track service defaults.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Default size in bytes of each GPS track segment file.
+	 */
+	private static final int DEFAULT_TRACK_SEGMENT_SIZE = 1024 * 1024;
+
+	// ----------------------------------------------------------------------------------------
+	// Geofence service defaults.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Default distance in meters the chair must be outside a geofence before it
+	 * is considered to have left it.
+	 */
+	private static final double DEFAULT_GEOFENCE_HYSTERESIS = 10.0;
+
+	/**
+	 * Default size in meters of the cells of the geofence index grid.
+	 */
+	private static final double DEFAULT_GEOFENCE_CELL_SIZE = 100.0;
+
 	// ----------------------------------------------------------------------------------------
 	// General settings.
 	// ----------------------------------------------------------------------------------------
@@ -143,6 +306,22 @@ public class Profile {
 	 */
 	private ScriptId bootScript = DEFAULT_BOOT_SCRIPT;
 
+	/**
+	 * Directory of scripts that override the built in ones and are reloaded when
+	 * they change.
+	 */
+	private String scriptDir;
+
+	/**
+	 * Directory of cue lists choreographed to tracks.
+	 */
+	private String cueDir;
+
+	/**
+	 * File to write a trace of the scripts that ran to at shutdown.
+	 */
+	private String scriptTraceFile;
+
 	// ----------------------------------------------------------------------------------------
 	// Audio service settings.
 	// ----------------------------------------------------------------------------------------
@@ -161,6 +340,47 @@ public class Profile {
 	 * Directory the MP3s for sound effects are in.
 	 */
 	private String soundEffectDir;
+
+	/**
+	 * Flag indicating if sound effects are played by the in-process audio engine
+	 * instead of the external player.
+	 */
+	private boolean inProcessAudio = DEFAULT_IN_PROCESS_AUDIO;
+
+	/**
+	 * Output latency in milliseconds for the in-process audio engine.
+	 */
+	private int audioLatencyMs = DEFAULT_AUDIO_LATENCY_MS;
+
+	/**
+	 * Memory budget in mebibytes for decoded sound effects.
+	 */
+	private int soundEffectCacheMb = DEFAULT_SOUND_EFFECT_CACHE_MB;
+
+	/**
+	 * Flag indicating if a sound effect failing its preflight check stops boot.
+	 */
+	private boolean requireSoundEffects = DEFAULT_REQUIRE_SOUND_EFFECTS;
+
+	/**
+	 * Maximum number of sound effects that can play at once.
+	 */
+	private int maxVoices = DEFAULT_MAX_VOICES;
+
+	/**
+	 * Level from 0.0 to 1.0 music is reduced to while sound effects play.
+	 */
+	private double musicDuckGain = DEFAULT_MUSIC_DUCK_GAIN;
+
+	/**
+	 * Time in milliseconds to duck the music when an effect starts.
+	 */
+	private int musicDuckAttackMs = DEFAULT_MUSIC_DUCK_ATTACK_MS;
+
+	/**
+	 * Time in milliseconds to restore the music after effects finish.
+	 */
+	private int musicDuckReleaseMs = DEFAULT_MUSIC_DUCK_RELEASE_MS;
 	
 
 	// ----------------------------------------------------------------------------------------
@@ -227,6 +447,32 @@ public class Profile {
 	 */
 	private String defaultLocation;
 
+	/**
+	 * Protocol to use for receiving data from the GPS board.
+	 */
+	private GpsProtocol gpsProtocol = DEFAULT_GPS_PROTOCOL;
+
+	/**
+	 * Navigation rate in Hz for the GPS board when using the UBX protocol.
+	 */
+	private int gpsNavigationRate = DEFAULT_GPS_NAVIGATION_RATE;
+
+	/**
+	 * Recorded NMEA log, binary track segment or directory of track segments to
+	 * replay in place of a GPS board (development only).
+	 */
+	private String gpsReplayPath;
+
+	/**
+	 * Multiple of real time to replay the recorded GPS track at.
+	 */
+	private double gpsReplaySpeed = DEFAULT_GPS_REPLAY_SPEED;
+
+	/**
+	 * Flag indicating if a replayed GPS track starts over when it reaches the end.
+	 */
+	private boolean gpsReplayLoop = DEFAULT_GPS_REPLAY_LOOP;
+
 	// ----------------------------------------------------------------------------------------
 	// Map service settings.
 	// ----------------------------------------------------------------------------------------
@@ -274,7 +520,113 @@ public class Profile {
 	 * Volume for MP3 playblack.
 	 */
 	private int musicVolume = DEFAULT_MUSIC_VOLUME;
+
+	/**
+	 * Path of the file the music index is cached in.
+	 */
+	private String musicIndexCachePath = DEFAULT_MUSIC_INDEX_CACHE_PATH;
+
+	/**
+	 * Flag indicating if the playlist directories are watched for changes.
+	 */
+	private boolean watchPlaylists = DEFAULT_WATCH_PLAYLISTS;
+
+	/**
+	 * Flag indicating if music is decoded and streamed in process when the audio
+	 * engine is available.
+	 */
+	private boolean streamingMusic = DEFAULT_STREAMING_MUSIC;
+
+	/**
+	 * Length of the crossfade between tracks in milliseconds (0 for none).
+	 */
+	private int musicCrossfadeMs = DEFAULT_MUSIC_CROSSFADE_MS;
+
+	/**
+	 * Size of the decoded music ring buffer in milliseconds.
+	 */
+	private int musicRingBufferMs = DEFAULT_MUSIC_RING_BUFFER_MS;
+
+	/**
+	 * Amount of music kept decoded ahead of the output in milliseconds.
+	 */
+	private int musicDecodeAheadMs = DEFAULT_MUSIC_DECODE_AHEAD_MS;
+
+	/**
+	 * Number of tracks analyzed at once in the background (0 to not analyze).
+	 */
+	private int trackAnalysisThreads = DEFAULT_TRACK_ANALYSIS_THREADS;
+
+	/**
+	 * Flag indicating if track loudness is normalized.
+	 */
+	private boolean loudnessNormalization = DEFAULT_LOUDNESS_NORMALIZATION;
+
+	/**
+	 * Loudness in LUFS that tracks are normalized to.
+	 */
+	private double loudnessTargetLufs = DEFAULT_LOUDNESS_TARGET_LUFS;
+
+	/**
+	 * Flag indicating if the lighting is driven from the beats of the music.
+	 */
+	private boolean musicLightingSync = DEFAULT_MUSIC_LIGHTING_SYNC;
+
+	/**
+	 * Time in milliseconds beats are sent to the lighting ahead of being heard.
+	 */
+	private int musicLightingLeadMs = DEFAULT_MUSIC_LIGHTING_LEAD_MS;
+
+	/**
+	 * Flag indicating if the lighting reacts to the music as it plays.
+	 */
+	private boolean reactiveLighting = DEFAULT_REACTIVE_LIGHTING;
+
+	/**
+	 * Number of times a second the playing music is analyzed.
+	 */
+	private int reactiveLightingAnalysisHz = DEFAULT_REACTIVE_LIGHTING_ANALYSIS_HZ;
+
+	/**
+	 * Most times a second the reactive lighting updates the controller.
+	 */
+	private int reactiveLightingUpdateHz = DEFAULT_REACTIVE_LIGHTING_UPDATE_HZ;
 	
+	// ----------------------------------------------------------------------------------------
+	// Track service settings.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Directory to record GPS tracks in; no tracks are recorded if not set.
+	 */
+	private String trackStorePath;
+
+	/**
+	 * Size in bytes a GPS track segment file can grow to before a new one is
+	 * started.
+	 */
+	private int trackSegmentSize = DEFAULT_TRACK_SEGMENT_SIZE;
+
+	// ----------------------------------------------------------------------------------------
+	// Geofence service settings.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Geofences that trigger scripts when the chair enters or exits them.
+	 */
+	private List<Geofence> geofences;
+
+	/**
+	 * Distance in meters the chair must be outside a geofence before it is
+	 * considered to have left it.
+	 */
+	private double geofenceHysteresis = DEFAULT_GEOFENCE_HYSTERESIS;
+
+	/**
+	 * Size in meters of the cells of the geofence index grid.
+	 */
+	private double geofenceCellSize = DEFAULT_GEOFENCE_CELL_SIZE;
+
 	// ----------------------------------------------------------------------------------------
 	// General property getters.
 	// ----------------------------------------------------------------------------------------
@@ -315,6 +667,37 @@ public class Profile {
 		return bootScript;
 	}
 
+	/**
+	 * Returns the directory of scripts to use in place of the built in ones. A
+	 * script found in the directory overrides the built in script with the same
+	 * name and is recompiled whenever the file changes.
+	 * 
+	 * @return Path to the script directory or null if only the built in scripts
+	 *         are used.
+	 */
+	public String getScriptDir() {
+		return scriptDir;
+	}
+
+	/**
+	 * Returns the directory of cue lists to fire as their tracks play.
+	 * 
+	 * @return Path to the cue directory or null if no cues are run.
+	 */
+	public String getCueDir() {
+		return cueDir;
+	}
+
+	/**
+	 * Returns the file the script profiler's trace is written to at shutdown.
+	 * Setting it turns on profiling of every script step from boot.
+	 * 
+	 * @return Path to the trace file or null if scripts are not profiled.
+	 */
+	public String getScriptTraceFile() {
+		return scriptTraceFile;
+	}
+
 	// ----------------------------------------------------------------------------------------
 	// Audio service property getters.
 	// ----------------------------------------------------------------------------------------
@@ -344,6 +727,84 @@ public class Profile {
 	public String getSoundEffectDir() {
 		return soundEffectDir;
 	}
+
+	/**
+	 * Returns if sound effects should be played by the in-process audio engine.
+	 * The external player is still used if the engine can not be started.
+	 * 
+	 * @return True if the in-process audio engine should be used.
+	 */
+	public boolean getInProcessAudio() {
+		return inProcessAudio;
+	}
+
+	/**
+	 * Returns the output latency for the in-process audio engine. Lower values
+	 * start sounds sooner but risk audible dropouts if the render thread is late.
+	 * 
+	 * @return Output latency in milliseconds.
+	 */
+	public int getAudioLatencyMs() {
+		return audioLatencyMs;
+	}
+
+	/**
+	 * Returns the memory budget for sound effects decoded by the in-process audio
+	 * engine. Least recently played effects are evicted when it is exceeded.
+	 * 
+	 * @return Memory budget in mebibytes.
+	 */
+	public int getSoundEffectCacheMb() {
+		return soundEffectCacheMb;
+	}
+
+	/**
+	 * Returns if boot should fail when a sound effect is missing or does not
+	 * decode. Failures are always logged at boot either way.
+	 * 
+	 * @return True if every sound effect must pass its preflight check.
+	 */
+	public boolean getRequireSoundEffects() {
+		return requireSoundEffects;
+	}
+
+	/**
+	 * Returns the maximum number of sound effects the in-process audio engine
+	 * plays at once. Starting another effect steals the quietest, oldest voice.
+	 * 
+	 * @return Maximum number of voices.
+	 */
+	public int getMaxVoices() {
+		return maxVoices;
+	}
+
+	/**
+	 * Returns the level music mixed by the in-process audio engine is reduced to
+	 * while sound effects play.
+	 * 
+	 * @return Duck level from 0.0 (silent) to 1.0 (no ducking).
+	 */
+	public double getMusicDuckGain() {
+		return musicDuckGain;
+	}
+
+	/**
+	 * Returns how quickly music is ducked when a sound effect starts.
+	 * 
+	 * @return Duck attack time in milliseconds.
+	 */
+	public int getMusicDuckAttackMs() {
+		return musicDuckAttackMs;
+	}
+
+	/**
+	 * Returns how quickly music is restored after sound effects finish.
+	 * 
+	 * @return Duck release time in milliseconds.
+	 */
+	public int getMusicDuckReleaseMs() {
+		return musicDuckReleaseMs;
+	}
 	
 	// ----------------------------------------------------------------------------------------
 	// Display service property getters.
@@ -449,6 +910,55 @@ public class Profile {
 		return defaultLocation;
 	}
 
+	/**
+	 * Returns the protocol the GPS driver should use with the GPS board.
+	 * 
+	 * @return Protocol for receiving GPS data.
+	 */
+	public GpsProtocol getGpsProtocol() {
+		return gpsProtocol;
+	}
+
+	/**
+	 * Returns how many navigation solutions per second the GPS board should
+	 * calculate when using the UBX protocol.
+	 * 
+	 * @return Navigation rate in Hz.
+	 */
+	public int getGpsNavigationRate() {
+		return gpsNavigationRate;
+	}
+
+	/**
+	 * Returns the recorded GPS track to replay in development mode.
+	 * 
+	 * @return Path to an NMEA log, track segment or directory of track segments;
+	 *         null if no track should be replayed.
+	 */
+	public String getGpsReplayPath() {
+		return gpsReplayPath;
+	}
+
+	/**
+	 * Returns how many times faster than real time to replay the GPS track.
+	 * 
+	 * @return Replay speed multiplier.
+	 */
+	public double getGpsReplaySpeed() {
+		return gpsReplaySpeed;
+	}
+
+	/**
+	 * Returns if the replayed GPS track should start over when it reaches the
+	 * end.
+	 * 
+	 * @return True if the replay should loop; false if it should stop at the
+	 *         last fix.
+	 */
+	public boolean getGpsReplayLoop() {
+		return gpsReplayLoop;
+	}
+
 	// ----------------------------------------------------------------------------------------
 	// Map service property getters.
 	// ----------------------------------------------------------------------------------------
@@ -525,4 +1035,200 @@ public class Profile {
 	public int getMusicVolume() {
 		return musicVolume;
 	}
+
+	/**
+	 * Returns the path of the file the tag data read from music tracks is cached
+	 * in so that unchanged tracks do not have to be parsed at every boot.
+	 * 
+	 * @return Path to the music index cache or null if it should not be cached.
+	 */
+	public String getMusicIndexCachePath() {
+		return musicIndexCachePath;
+	}
+
+	/**
+	 * Returns if the playlist directories should be watched so tracks added,
+	 * changed or removed while the chair is running are picked up.
+	 * 
+	 * @return True if the playlist directories should be watched.
+	 */
+	public boolean getWatchPlaylists() {
+		return watchPlaylists;
+	}
+
+	/**
+	 * Returns if music should be decoded and streamed through the in-process
+	 * audio engine instead of played by the external player.
+	 * 
+	 * @return True if music should be streamed in process.
+	 */
+	public boolean getStreamingMusic() {
+		return streamingMusic;
+	}
+
+	/**
+	 * Returns the length of the crossfade between tracks.
+	 * 
+	 * @return Crossfade length in milliseconds or 0 for none.
+	 */
+	public int getMusicCrossfadeMs() {
+		return musicCrossfadeMs;
+	}
+
+	/**
+	 * Returns the size of the ring buffer holding decoded music waiting for the
+	 * output. A larger ring rides out longer decoder stalls.
+	 * 
+	 * @return Ring buffer size in milliseconds.
+	 */
+	public int getMusicRingBufferMs() {
+		return musicRingBufferMs;
+	}
+
+	/**
+	 * Returns how much music the decoder keeps ready ahead of the output. Lower
+	 * values make seeks and track changes audible sooner at the cost of less
+	 * protection against the decoder falling behind.
+	 * 
+	 * @return Decode look-ahead in milliseconds.
+	 */
+	public int getMusicDecodeAheadMs() {
+		return musicDecodeAheadMs;
+	}
+
+	/**
+	 * Returns how many tracks are analyzed at once in the background after they
+	 * are indexed. The analysis threads run at minimum priority.
+	 * 
+	 * @return Number of analysis threads or 0 to not analyze tracks.
+	 */
+	public int getTrackAnalysisThreads() {
+		return trackAnalysisThreads;
+	}
+
+	/**
+	 * Returns if tracks should be played at a common loudness using their
+	 * analyzed gains.
+	 * 
+	 * @return True if track loudness should be normalized.
+	 */
+	public boolean getLoudnessNormalization() {
+		return loudnessNormalization;
+	}
+
+	/**
+	 * Returns the loudness tracks are normalized to.
+	 * 
+	 * @return Target loudness in LUFS.
+	 */
+	public double getLoudnessTargetLufs() {
+		return loudnessTargetLufs;
+	}
+
+	/**
+	 * Returns if the lighting speed should follow the tempo of the playing track
+	 * and its intensity pulse on the downbeats. Requires track analysis.
+	 * 
+	 * @return True if the lighting should be synced to the music.
+	 */
+	public boolean getMusicLightingSync() {
+		return musicLightingSync;
+	}
+
+	/**
+	 * Returns how far ahead of the music beats are sent to the lighting to make
+	 * up for the controller's latency.
+	 * 
+	 * @return Lead time in milliseconds.
+	 */
+	public int getMusicLightingLeadMs() {
+		return musicLightingLeadMs;
+	}
+
+	/**
+	 * Returns if the lighting should react to the music as it plays, flashing
+	 * the brightness on bass hits and raising the intensity with the energy of
+	 * the music. Only available when music is streamed through the audio engine.
+	 * 
+	 * @return True if the lighting should react to the music.
+	 */
+	public boolean getReactiveLighting() {
+		return reactiveLighting;
+	}
+
+	/**
+	 * Returns how many times a second the playing music is analyzed for the
+	 * reactive lighting.
+	 * 
+	 * @return Analysis rate in hertz.
+	 */
+	public int getReactiveLightingAnalysisHz() {
+		return reactiveLightingAnalysisHz;
+	}
+
+	/**
+	 * Returns the most times a second the reactive lighting sends changes to the
+	 * lighting controller.
+	 * 
+	 * @return Update rate limit in hertz.
+	 */
+	public int getReactiveLightingUpdateHz() {
+		return reactiveLightingUpdateHz;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Track service property getters.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the directory to record GPS tracks in.
+	 * 
+	 * @return Path to the track store directory or null if tracks should not be
+	 *         recorded.
+	 */
+	public String getTrackStorePath() {
+		return trackStorePath;
+	}
+
+	/**
+	 * Returns the size a track segment file can grow to before rolling over to a
+	 * new segment.
+	 * 
+	 * @return Size of each track segment file in bytes.
+	 */
+	public int getTrackSegmentSize() {
+		return trackSegmentSize;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Geofence service property getters.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the geofences that trigger scripts.
+	 * 
+	 * @return List of geofences or null if there are none.
+	 */
+	public List<Geofence> getGeofences() {
+		return geofences;
+	}
+
+	/**
+	 * Returns how far outside a geofence the chair must be before it has left it.
+	 * Keeps GPS jitter at the edge of a fence from repeatedly triggering it.
+	 * 
+	 * @return Exit hysteresis in meters.
+	 */
+	public double getGeofenceHysteresis() {
+		return geofenceHysteresis;
+	}
+
+	/**
+	 * Returns the size of the cells of the geofence index grid.
+	 * 
+	 * @return Cell size in meters.
+	 */
+	public double getGeofenceCellSize() {
+		return geofenceCellSize;
+	}
 }
\ No newline at end of file
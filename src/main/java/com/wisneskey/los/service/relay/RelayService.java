@@ -118,7 +118,7 @@ public class RelayService extends AbstractService<RelayState> {
 		} else {
 			// We just use a thread for this since we do not expect many relays to be
 			// running simultaneously.
-			Thread relayThread = new TimedRelayThread(relayId, duration);
+			Thread relayThread = new TimedRelayThread(relayId, duration, true);
 
 			relayThread.start();
 			if (waitForCompletion) {
@@ -145,6 +145,32 @@ public class RelayService extends AbstractService<RelayState> {
 		relayState.updateState(relayId, false);
 	}
 
+	/**
+	 * Sets several relays at once so the relays on each board change together
+	 * with a single write. Relays given a duration are turned off again once it
+	 * has passed.
+	 * 
+	 * @param states    Map of relay ids to true to turn the relay on or false to
+	 *                    turn it off.
+	 * @param durations Map of the relays being turned on to how long they should
+	 *                    stay on; relays not in the map stay on.
+	 */
+	public void apply(Map<RelayId, Boolean> states, Map<RelayId, Duration> durations) {
+
+		LOGGER.info("Relays set: {}", states);
+
+		relayDriver.apply(states);
+		for (Map.Entry<RelayId, Boolean> entry : states.entrySet()) {
+
+			Duration duration = entry.getValue() ? durations.get(entry.getKey()) : null;
+			if (duration == null) {
+				relayState.updateState(entry.getKey(), entry.getValue());
+			} else {
+				new TimedRelayThread(entry.getKey(), duration, false).start();
+			}
+		}
+	}
+
 	// ----------------------------------------------------------------------------------------
 	// Supporting methods.
 	// ----------------------------------------------------------------------------------------
@@ -255,26 +281,31 @@ public class RelayService extends AbstractService<RelayState> {
 	}
 
 	/**
-	 * Thread that energizes a relay for a given duration.
+	 * Thread that energizes a relay for a given duration, or just turns it off
+	 * again for a relay that was turned on as part of a batch.
 	 */
 	private class TimedRelayThread extends Thread {
 
 		private RelayId relayId;
 		private Duration duration;
+		private boolean turnOn;
 
-		private TimedRelayThread(RelayId relayId, Duration duration) {
+		private TimedRelayThread(RelayId relayId, Duration duration, boolean turnOn) {
 
 			setDaemon(true);
 
 			this.relayId = relayId;
 			this.duration = duration;
+			this.turnOn = turnOn;
 		}
 
 		@Override
 		public void run() {
 
 			LOGGER.info("Timed relay on for {} ms: {}", duration.toMillis(), relayId);
-			RelayService.this.relayDriver.turnOn(relayId);
+			if (turnOn) {
+				RelayService.this.relayDriver.turnOn(relayId);
+			}
 
 			try {
 				Thread.sleep(duration.toMillis());
@@ -132,10 +132,51 @@ public class KridaRelayDriver implements RelayDriver {
 		board.write((byte) newState);
 	}
 
+	@Override
+	public void apply(Map<RelayId, Boolean> states) {
+
+		applyToBoard(boardA, states);
+		applyToBoard(boardB, states);
+	}
+
 	// ----------------------------------------------------------------------------------------
 	// Supporting methods.
 	// ----------------------------------------------------------------------------------------
 
+	/**
+	 * Sets the relays of a board with a single read and write.
+	 * 
+	 * @param board  Board connector to set the relays of.
+	 * @param states Map of relay ids to the state to set them to; relays on other
+	 *                 boards are ignored.
+	 */
+	private void applyToBoard(I2C board, Map<RelayId, Boolean> states) {
+
+		// The relays are active low so turning one on clears its bit.
+		int enableMask = 0;
+		int disableMask = 0;
+		for (Map.Entry<RelayId, Boolean> entry : states.entrySet()) {
+			if (getBoard(entry.getKey()) == board) {
+				if (entry.getValue()) {
+					enableMask |= getMask(entry.getKey());
+				} else {
+					disableMask |= getMask(entry.getKey());
+				}
+			}
+		}
+
+		if ((enableMask | disableMask) == 0) {
+			return;
+		}
+
+		int state = board.read();
+		int newState = (state & (0xFF ^ enableMask)) | disableMask;
+
+		LOGGER.debug("Setting relays: oldState={} enableMask={} disableMask={} newState={}", state, enableMask,
+				disableMask, newState);
+		board.write((byte) newState);
+	}
+
 	/**
 	 * Get the appropriate board connector for the relay id.
 	 */
@@ -48,4 +48,22 @@ public interface RelayDriver {
 	 * @param relayid Id of the relay to turn off.
 	 */
 	void turnOff(RelayId relayid);
+
+	/**
+	 * Sets several relays at once. Drivers that can should change all the relays
+	 * on a board with a single write.
+	 * 
+	 * @param states Map of relay ids to true to turn the relay on or false to
+	 *                 turn it off.
+	 */
+	default void apply(Map<RelayId, Boolean> states) {
+
+		for (Map.Entry<RelayId, Boolean> entry : states.entrySet()) {
+			if (entry.getValue()) {
+				turnOn(entry.getKey());
+			} else {
+				turnOff(entry.getKey());
+			}
+		}
+	}
 }
@@ -0,0 +1,445 @@
+package com.wisneskey.los.service.script;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javafx.beans.property.IntegerProperty;
+
+/**
+ * Dispatcher that queues the requests to run scripts and starts them on the
+ * scheduler once the resources they need are free, preempting lower priority
+ * runs when it can.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+class ScriptDispatcher {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ScriptDispatcher.class);
+
+	/**
+	 * Number of threads performing script steps.
+	 */
+	private static final int SCHEDULER_THREADS = 4;
+
+	/**
+	 * Most script requests that can wait in the queue.
+	 */
+	private static final int MAX_QUEUED = 16;
+
+	/**
+	 * Longest time in milliseconds a run waits for the runs it preempted to undo
+	 * their commands before starting anyway.
+	 */
+	private static final long MAX_SETTLE_MS = 250;
+
+	/**
+	 * Properties of the script state updated with the number of queued and
+	 * running scripts.
+	 */
+	private IntegerProperty queuedProperty;
+	private IntegerProperty runningProperty;
+
+	/**
+	 * Runs of the scripts that are running. Guarded by the dispatcher.
+	 */
+	private List<ScriptRun> running = new ArrayList<>();
+
+	/**
+	 * Requests waiting for the resources they need, highest priority first and
+	 * then in the order they were made. Guarded by the dispatcher.
+	 */
+	private List<ScriptRequest> queue = new ArrayList<>();
+
+	/**
+	 * Flags used to repeat dispatching when a run finishes during a dispatch.
+	 */
+	private boolean dispatching;
+	private boolean dispatchAgain;
+
+	/**
+	 * Sequence number given to the next request.
+	 */
+	private long nextSequence;
+
+	/**
+	 * Scheduler performing the steps of the scripts at their deadlines.
+	 */
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Profiler recording the steps of the scripts or null if profiling is off.
+	 */
+	private volatile ScriptProfiler profiler;
+
+	/**
+	 * Number given to the next run for its row in the profiler's timeline.
+	 */
+	private AtomicInteger nextLane = new AtomicInteger();
+
+	private long requests;
+	private long coalesced;
+	private long dropped;
+	private long preempted;
+	private long started;
+	private long totalWaitNanos;
+	private long maxWaitNanos;
+	private long parallels;
+	private long parallelTimeouts;
+	private long maxBranchSkewNanos;
+	private long cancelled;
+	private long compensations;
+	private long maxCancelNanos;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a dispatcher with its own scheduler.
+	 *
+	 * @param queuedProperty  Property to keep set to the number of queued scripts.
+	 * @param runningProperty Property to keep set to the number of running
+	 *                          scripts.
+	 */
+	ScriptDispatcher(IntegerProperty queuedProperty, IntegerProperty runningProperty) {
+
+		this.queuedProperty = queuedProperty;
+		this.runningProperty = runningProperty;
+
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(SCHEDULER_THREADS, r -> {
+			Thread thread = new Thread(r, "scriptRunner");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.setRemoveOnCancelPolicy(true);
+		scheduler = executor;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Queues a request to run a compiled script and starts it if it can run. A
+	 * request for a script that is already waiting is merged with the waiting
+	 * request.
+	 *
+	 * @param  plan Plan of the script to run.
+	 * @return      Handle to follow or cancel the script with, shared with the
+	 *              waiting request if merged, or null if the queue is full.
+	 */
+	public synchronized ScriptHandle submit(ScriptPlan plan) {
+
+		ScriptId scriptId = plan.getScriptId();
+		requests++;
+
+		for (ScriptRequest request : queue) {
+			if (request.getScriptId() == scriptId) {
+				LOGGER.info("Script already queued; merged request: {}", scriptId);
+				coalesced++;
+				return request.getHandle();
+			}
+		}
+
+		if (queue.size() >= MAX_QUEUED) {
+			LOGGER.warn("Script queue full; did not run script: {}", scriptId);
+			dropped++;
+			return null;
+		}
+
+		LOGGER.info("Running script: {}", scriptId);
+
+		ScriptRequest request = new ScriptRequest(plan, nextSequence++, new ScriptHandle(this, scriptId));
+		queue.add(request);
+		queue.sort(null);
+		dispatch();
+
+		return request.getHandle();
+	}
+
+	/**
+	 * Cancels the request or run of a script for its handle. A cancelled run
+	 * keeps its resources until it has undone its commands.
+	 *
+	 * @param handle Handle of the script to cancel.
+	 */
+	public synchronized void cancel(ScriptHandle handle) {
+
+		Iterator<ScriptRequest> iterator = queue.iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().getHandle() == handle) {
+				LOGGER.info("Queued script cancelled: {}", handle.getScriptId());
+				cancelled++;
+				iterator.remove();
+				queuedProperty.set(queue.size());
+				handle.complete(false);
+				return;
+			}
+		}
+
+		for (ScriptRun run : running) {
+			if (run.getHandle() == handle) {
+				LOGGER.info("Script cancelled: {}", handle.getScriptId());
+				cancelled++;
+				run.cancel(true);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Turns recording the steps of scripts on or off.
+	 *
+	 * @param profiler Profiler to record the steps with or null to stop
+	 *                   recording.
+	 */
+	public void setProfiler(ScriptProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	/**
+	 * Returns the profiler recording the steps of the scripts.
+	 *
+	 * @return Profiler or null if profiling is off.
+	 */
+	public ScriptProfiler getProfiler() {
+		return profiler;
+	}
+
+	/**
+	 * Returns the scheduler the runs perform their steps on.
+	 *
+	 * @return Scheduler for the script steps.
+	 */
+	public ScheduledExecutorService getScheduler() {
+		return scheduler;
+	}
+
+	/**
+	 * Returns the number for the row of a new run in the profiler's timeline.
+	 *
+	 * @return Lane number for the run.
+	 */
+	public int nextLane() {
+		return nextLane.incrementAndGet();
+	}
+
+	/**
+	 * Drops the queued requests, cancels the running scripts undoing their
+	 * commands and stops the scheduler once a step being performed finishes.
+	 */
+	public void shutdown() {
+
+		List<ScriptRun> runs;
+		synchronized (this) {
+			for (ScriptRequest request : queue) {
+				request.getHandle().complete(false);
+			}
+			queue.clear();
+			runs = new ArrayList<>(running);
+		}
+
+		for (ScriptRun run : runs) {
+			run.cancel(true);
+		}
+
+		// Let a step that is being performed finish.
+		scheduler.shutdownNow();
+		try {
+			if (!scheduler.awaitTermination(1, TimeUnit.SECONDS)) {
+				LOGGER.warn("Script step still running at termination.");
+			}
+		} catch (InterruptedException e) {
+			LOGGER.warn("Interrupted waiting for script scheduler to terminate.");
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Returns a summary of the script scheduling for logging.
+	 *
+	 * @return Summary of the scheduling statistics.
+	 */
+	public synchronized String getStatistics() {
+
+		return "requests=" + requests + " started=" + started + " coalesced=" + coalesced + " dropped=" + dropped
+				+ " preempted=" + preempted + " running=" + running.size() + " queued=" + queue.size()
+				+ " averageWaitMs=" + (started == 0 ? 0 : totalWaitNanos / started / 1_000_000) + " maxWaitMs="
+				+ (maxWaitNanos / 1_000_000) + " parallels=" + parallels + " parallelTimeouts=" + parallelTimeouts
+				+ " maxBranchSkewUs=" + (maxBranchSkewNanos / 1000) + " cancelled=" + cancelled + " compensations="
+				+ compensations + " maxCancelUs=" + (maxCancelNanos / 1000);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Called when a run finishes or is cancelled to free its resources for the
+	 * waiting requests.
+	 *
+	 * @param run Run that finished.
+	 */
+	synchronized void runFinished(ScriptRun run) {
+
+		running.remove(run);
+		dispatch();
+	}
+
+	/**
+	 * Records the compensations performed for a cancelled run.
+	 *
+	 * @param count       Number of compensating commands performed.
+	 * @param cancelNanos Time from the run being cancelled to its compensations
+	 *                      being done.
+	 */
+	synchronized void runCompensated(int count, long cancelNanos) {
+
+		compensations += count;
+		maxCancelNanos = Math.max(maxCancelNanos, cancelNanos);
+	}
+
+	/**
+	 * Records the timing of a parallel command once its branches have joined.
+	 *
+	 * @param skewNanos Spread between the first and last branch starting.
+	 * @param timedOut  Flag indicating if the join timed out.
+	 */
+	synchronized void parallelJoined(long skewNanos, boolean timedOut) {
+
+		parallels++;
+		if (timedOut) {
+			parallelTimeouts++;
+		}
+		maxBranchSkewNanos = Math.max(maxBranchSkewNanos, skewNanos);
+	}
+
+	/**
+	 * Starts every queued request that can run. Requests are considered highest
+	 * priority first; the resources of a request that has to keep waiting are
+	 * reserved so a later request cannot take them first and starve it.
+	 */
+	private synchronized void dispatch() {
+
+		// A preempted run finishing calls back in here; just repeat once done.
+		if (dispatching) {
+			dispatchAgain = true;
+			return;
+		}
+
+		dispatching = true;
+		try {
+			do {
+				dispatchAgain = false;
+				dispatchQueue();
+			} while (dispatchAgain);
+		} finally {
+			dispatching = false;
+		}
+	}
+
+	/**
+	 * Makes a single pass over the queue, starting the requests that can run.
+	 */
+	private void dispatchQueue() {
+
+		Set<ScriptResource> reserved = EnumSet.noneOf(ScriptResource.class);
+
+		Iterator<ScriptRequest> iterator = queue.iterator();
+		while (iterator.hasNext()) {
+
+			ScriptRequest request = iterator.next();
+			if (!Collections.disjoint(request.getResources(), reserved)) {
+				reserved.addAll(request.getResources());
+				continue;
+			}
+
+			List<ScriptRun> conflicts = new ArrayList<>();
+			boolean preemptable = true;
+			// A script never runs alongside another run of itself and never replaces
+			// it either; a repeated request waits for the run to finish.
+			for (ScriptRun run : running) {
+				if ((run.getScriptId() == request.getScriptId())
+						|| !Collections.disjoint(request.getResources(), run.getResources())) {
+					conflicts.add(run);
+					preemptable &= (run.getScriptId() != request.getScriptId())
+							&& request.getPriority().preempts(run.getPriority());
+				}
+			}
+
+			if (!conflicts.isEmpty() && !preemptable) {
+				reserved.addAll(request.getResources());
+				continue;
+			}
+
+			List<CompletableFuture<Void>> settling = new ArrayList<>();
+			for (ScriptRun run : conflicts) {
+				// A run already cancelled is only still here until it settles.
+				if (!run.isCancelled()) {
+					LOGGER.info("Script {} preempted by {}.", run.getScriptId(), request.getScriptId());
+					preempted++;
+					run.cancel(true);
+				}
+				running.remove(run);
+				settling.add(run.settled());
+			}
+
+			iterator.remove();
+			startRun(request, CompletableFuture.allOf(settling.toArray(new CompletableFuture<?>[0])));
+		}
+
+		queuedProperty.set(queue.size());
+		runningProperty.set(running.size());
+	}
+
+	/**
+	 * Starts running a request taken from the queue. The run holds its resources
+	 * right away but only performs its first step once the runs it preempted
+	 * have undone their commands, usually at once unless one was in the middle
+	 * of a step.
+	 *
+	 * @param request  Request to start.
+	 * @param settling Future completed once the preempted runs have settled.
+	 */
+	private void startRun(ScriptRequest request, CompletableFuture<Void> settling) {
+
+		long waitNanos = System.nanoTime() - request.getRequestNanos();
+		started++;
+		totalWaitNanos += waitNanos;
+		maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+
+		LOGGER.debug("Starting script: id={} waitMs={} running={} queued={}", request.getScriptId(),
+				waitNanos / 1_000_000, running.size(), queue.size());
+
+		ScriptRun run = new ScriptRun(this, request);
+		running.add(run);
+		settling.completeOnTimeout(null, MAX_SETTLE_MS, TimeUnit.MILLISECONDS).thenRun(run::start);
+	}
+}
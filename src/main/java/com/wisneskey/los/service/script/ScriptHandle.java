@@ -0,0 +1,93 @@
+package com.wisneskey.los.service.script;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handle to a request to run a script, returned by the script service so the
+ * caller can follow the run or cancel it. Cancelling stops the script before its
+ * next step, or removes it from the queue if it has not started, and undoes the
+ * changes made by the commands it has already performed.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class ScriptHandle {
+
+	/**
+	 * Dispatcher running the script.
+	 */
+	private ScriptDispatcher dispatcher;
+
+	/**
+	 * Id of the script requested.
+	 */
+	private ScriptId scriptId;
+
+	/**
+	 * Future completed with true if the script ran to its end or false if it was
+	 * cancelled, preempted or failed.
+	 */
+	private CompletableFuture<Boolean> completion = new CompletableFuture<>();
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	ScriptHandle(ScriptDispatcher dispatcher, ScriptId scriptId) {
+		this.dispatcher = dispatcher;
+		this.scriptId = scriptId;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	public ScriptId getScriptId() {
+		return scriptId;
+	}
+
+	/**
+	 * Cancels the script. A step being performed when the script is cancelled is
+	 * allowed to finish first. Does nothing if the script is already done.
+	 */
+	public void cancel() {
+		dispatcher.cancel(this);
+	}
+
+	/**
+	 * Returns a future for the end of the script. A cancelled script ends once
+	 * the changes it made have been undone.
+	 *
+	 * @return Future completed with true if the script ran to its end or false if
+	 *         it was cancelled, preempted or failed.
+	 */
+	public CompletableFuture<Boolean> getCompletion() {
+		return completion;
+	}
+
+	public boolean isDone() {
+		return completion.isDone();
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	void complete(boolean ranToEnd) {
+		completion.complete(ranToEnd);
+	}
+}
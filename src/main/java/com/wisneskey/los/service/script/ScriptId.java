@@ -22,34 +22,34 @@ package com.wisneskey.los.service.script;
  */
 public enum ScriptId {
 
-	ABOUT_SCREEN_OPEN("About screen: open", "AboutScreen-Open"),
-	ABOUT_SCREEN_CLOSE("About screen: close", "AboutScreen-Close"),
-	AUDIO_SCREEN_OPEN("Audio screen: open", "AudioScreen-Open"),
-	AUDIO_SCREEN_CLOSE("Audio screen: close", "AudioScreen-Close"),
-	BAR_LOWER("Bar: Lower", "Bar-Lower"),
-	BAR_RAISE("Bar: Raise", "Bar-Raise"),
-	BOOT_CHAIR("Boot sequence: chair", "Boot-Chair"),
-	BOOT_DEV("Boot sequence: development", "Boot-DEV"),
-	CHAP_SCREEN_OPEN("Chap screen: open", "ChapScreen-Open"),
-	CHAP_SCREEN_CLOSE("Chap screen: close", "ChapScreen-Close"),
-	EFFECT_SCREEN_OPEN("Effect screen: open", "EffectScreen-Open"),
-	EFFECT_SCREEN_CLOSE("Effect screen: close", "EffectScreen-Close"),
-	GAME_SCREEN_OPEN("Game screen: open", "GameScreen-Open"),
-	LIGHTING_SCREEN_OPEN("Lighting screen: open", "LightingScreen-Open"),
-	LIGHTING_SCREEN_CLOSE("Lighting screen: close", "LightingScreen-Close"),
-	MUSIC_SCREEN_OPEN("Music screen: open", "MusicScreen-Open"),
-	MUSIC_SCREEN_CLOSE("Music screen: close", "MusicScreen-Close"),
-	REMOTE_LOCK("Remote: lock chair", "Remote-Lock"),
-	REMOTE_UNLOCK("Remote: unlock chair", "Remote-Unlock"),
-	SECURITY_LOCK("Security screen: open", "Security-Lock"),
-	SECURITY_UNLOCK("Security screen: PIN correct", "Security-Unlock"),
-	SECURITY_UNLOCK_FAILED("Security screen: PIN invalid", "Security-UnlockFailed"),
-	SCRIPT_SCREEN_OPEN("Script screen: open", "ScriptScreen-Open"),
-	SCRIPT_SCREEN_CLOSE("Script screen: close", "ScriptScreen-Close"),
-	SKETCH_OPEN("Sketch: open", "Sketch-Open"),
-	SYSTEM_SCREEN_OPEN("System screen: open", "SystemScreen-Open"),
-	SYSTEM_SCREEN_CLOSE("System screen: close", "SystemScreen-Close"),
-	SYSTEM_EXIT("System screen: exit OS", "System-Exit");
+	ABOUT_SCREEN_OPEN("About screen: open", "AboutScreen-Open", ScriptPriority.NORMAL),
+	ABOUT_SCREEN_CLOSE("About screen: close", "AboutScreen-Close", ScriptPriority.NORMAL),
+	AUDIO_SCREEN_OPEN("Audio screen: open", "AudioScreen-Open", ScriptPriority.NORMAL),
+	AUDIO_SCREEN_CLOSE("Audio screen: close", "AudioScreen-Close", ScriptPriority.NORMAL),
+	BAR_LOWER("Bar: Lower", "Bar-Lower", ScriptPriority.HIGH),
+	BAR_RAISE("Bar: Raise", "Bar-Raise", ScriptPriority.HIGH),
+	BOOT_CHAIR("Boot sequence: chair", "Boot-Chair", ScriptPriority.CRITICAL),
+	BOOT_DEV("Boot sequence: development", "Boot-DEV", ScriptPriority.CRITICAL),
+	CHAP_SCREEN_OPEN("Chap screen: open", "ChapScreen-Open", ScriptPriority.NORMAL),
+	CHAP_SCREEN_CLOSE("Chap screen: close", "ChapScreen-Close", ScriptPriority.NORMAL),
+	EFFECT_SCREEN_OPEN("Effect screen: open", "EffectScreen-Open", ScriptPriority.NORMAL),
+	EFFECT_SCREEN_CLOSE("Effect screen: close", "EffectScreen-Close", ScriptPriority.NORMAL),
+	GAME_SCREEN_OPEN("Game screen: open", "GameScreen-Open", ScriptPriority.NORMAL),
+	LIGHTING_SCREEN_OPEN("Lighting screen: open", "LightingScreen-Open", ScriptPriority.NORMAL),
+	LIGHTING_SCREEN_CLOSE("Lighting screen: close", "LightingScreen-Close", ScriptPriority.NORMAL),
+	MUSIC_SCREEN_OPEN("Music screen: open", "MusicScreen-Open", ScriptPriority.NORMAL),
+	MUSIC_SCREEN_CLOSE("Music screen: close", "MusicScreen-Close", ScriptPriority.NORMAL),
+	REMOTE_LOCK("Remote: lock chair", "Remote-Lock", ScriptPriority.HIGH),
+	REMOTE_UNLOCK("Remote: unlock chair", "Remote-Unlock", ScriptPriority.HIGH),
+	SECURITY_LOCK("Security screen: open", "Security-Lock", ScriptPriority.HIGH),
+	SECURITY_UNLOCK("Security screen: PIN correct", "Security-Unlock", ScriptPriority.HIGH),
+	SECURITY_UNLOCK_FAILED("Security screen: PIN invalid", "Security-UnlockFailed", ScriptPriority.HIGH),
+	SCRIPT_SCREEN_OPEN("Script screen: open", "ScriptScreen-Open", ScriptPriority.NORMAL),
+	SCRIPT_SCREEN_CLOSE("Script screen: close", "ScriptScreen-Close", ScriptPriority.NORMAL),
+	SKETCH_OPEN("Sketch: open", "Sketch-Open", ScriptPriority.NORMAL),
+	SYSTEM_SCREEN_OPEN("System screen: open", "SystemScreen-Open", ScriptPriority.NORMAL),
+	SYSTEM_SCREEN_CLOSE("System screen: close", "SystemScreen-Close", ScriptPriority.NORMAL),
+	SYSTEM_EXIT("System screen: exit OS", "System-Exit", ScriptPriority.CRITICAL);
 	;
 
 	// ----------------------------------------------------------------------------------------
@@ -66,13 +66,19 @@ public enum ScriptId {
 	 */
 	private String name;
 
+	/**
+	 * Priority the script runs at.
+	 */
+	private ScriptPriority priority;
+
 	// ----------------------------------------------------------------------------------------
 	// Constructors.
 	// ----------------------------------------------------------------------------------------
 
-	private ScriptId(String description, String name) {
+	private ScriptId(String description, String name, ScriptPriority priority) {
 		this.description = description;
 		this.name = name;
+		this.priority = priority;
 	}
 
 	// ----------------------------------------------------------------------------------------
@@ -86,4 +92,8 @@ public enum ScriptId {
 	public String getName() {
 		return name;
 	}
+
+	public ScriptPriority getPriority() {
+		return priority;
+	}
 }
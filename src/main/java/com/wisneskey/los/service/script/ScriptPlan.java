@@ -0,0 +1,179 @@
+package com.wisneskey.los.service.script;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import com.wisneskey.los.service.script.command.Batch;
+import com.wisneskey.los.service.script.command.ScriptCommand;
+
+/**
+ * Compiled form of a script that is ready to run. Compiling checks every
+ * command of the script, works out the resources the script needs and how
+ * long it nominally takes, so none of that is done when the script runs and a mistake in a script is found when the chair boots. Adjacent relay
+ * and lighting commands are merged into batches so they reach the hardware
+ * together. A plan is never changed once compiled.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class ScriptPlan {
+
+	/**
+	 * Number of nanoseconds in a second.
+	 */
+	private static final double NANOSECONDS_PER_SECOND = 1_000_000_000.0;
+
+	/**
+	 * Id of the script the plan was compiled from.
+	 */
+	private ScriptId scriptId;
+
+	/**
+	 * Name of the script for display.
+	 */
+	private String name;
+
+	/**
+	 * Commands of the script in the order they run.
+	 */
+	private List<ScriptCommand> commands;
+
+	/**
+	 * Resources touched by the commands of the script.
+	 */
+	private Set<ScriptResource> resources;
+
+	/**
+	 * Nominal time the whole script takes.
+	 */
+	private long durationNanos;
+
+	/**
+	 * Number of commands of the script saved by merging them into batches.
+	 */
+	private int mergedCount;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	private ScriptPlan(ScriptId scriptId, String name, List<ScriptCommand> commands, Set<ScriptResource> resources,
+			long durationNanos, int mergedCount) {
+
+		this.scriptId = scriptId;
+		this.name = name;
+		this.commands = commands;
+		this.resources = resources;
+		this.durationNanos = durationNanos;
+		this.mergedCount = mergedCount;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	public ScriptId getScriptId() {
+		return scriptId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public List<ScriptCommand> getCommands() {
+		return commands;
+	}
+
+	public Set<ScriptResource> getResources() {
+		return resources;
+	}
+
+	/**
+	 * Returns the nominal time the script takes to run. Commands whose time
+	 * varies (such as sound effects that are waited on) count as taking no time.
+	 *
+	 * @return Duration in nanoseconds.
+	 */
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	/**
+	 * Returns how many fewer commands the plan has than its script because
+	 * adjacent relay and lighting commands were merged into batches.
+	 *
+	 * @return Number of commands saved.
+	 */
+	public int getMergedCount() {
+		return mergedCount;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Static methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Compiles a script into a plan.
+	 *
+	 * @param  scriptId Id of the script.
+	 * @param  script   Script loaded from its JSON.
+	 * @param  errors   List to add a description of each problem found to.
+	 * @return          Plan for the script or null if any problems were found.
+	 */
+	public static ScriptPlan compile(ScriptId scriptId, Script script, List<String> errors) {
+
+		int errorCount = errors.size();
+
+		List<ScriptCommand> commands = script.getCommands() == null ? Collections.emptyList() : script.getCommands();
+		for (int index = 0; index < commands.size(); index++) {
+
+			ScriptCommand command = commands.get(index);
+			if (command == null) {
+				errors.add(scriptId + " command " + (index + 1) + ": missing command.");
+				continue;
+			}
+
+			List<String> commandErrors = new ArrayList<>();
+			command.validate(commandErrors);
+			for (String error : commandErrors) {
+				errors.add(scriptId + " command " + (index + 1) + " (" + command.getClass().getSimpleName() + "): " + error);
+			}
+		}
+
+		if (errors.size() > errorCount) {
+			return null;
+		}
+
+		// Hardware commands that happen at the same moment are applied together.
+		List<ScriptCommand> merged = Batch.merge(commands);
+
+		Set<ScriptResource> resources = EnumSet.noneOf(ScriptResource.class);
+		long durationNanos = 0;
+
+		for (ScriptCommand command : merged) {
+			resources.addAll(command.getResources());
+			durationNanos += (long) ((command.getNominalSeconds() + command.getPostCommandPause())
+					* NANOSECONDS_PER_SECOND);
+		}
+
+		return new ScriptPlan(scriptId, script.getName(), Collections.unmodifiableList(merged),
+				Collections.unmodifiableSet(resources), durationNanos, commands.size() - merged.size());
+	}
+}
@@ -0,0 +1,58 @@
+package com.wisneskey.los.service.script;
+
+/**
+ * Enumerated type defining the priorities scripts run at. A script that needs
+ * a resource held by running scripts of lower priority preempts them; one
+ * that needs a resource held by a script of the same or higher priority waits
+ * in the queue for it, except that user interface scripts replace each other
+ * so changing screens never waits for the last screen's script to finish.
+ * 
+ * Copyright (C) 2026 Paul Wisneskey
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public enum ScriptPriority {
+
+	/**
+	 * Screen changes and other user interface scripts. The newest one wins.
+	 */
+	NORMAL,
+
+	/**
+	 * Scripts moving the chair or responding to security events.
+	 */
+	HIGH,
+
+	/**
+	 * Boot and shutdown sequences which must never be cut short.
+	 */
+	CRITICAL;
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Checks if a script of this priority may preempt a running script of
+	 * another priority.
+	 * 
+	 * @param  running Priority of the running script.
+	 * @return         True if the running script should be cancelled.
+	 */
+	public boolean preempts(ScriptPriority running) {
+		return (compareTo(running) > 0) || ((this == NORMAL) && (running == NORMAL));
+	}
+}
@@ -0,0 +1,273 @@
+package com.wisneskey.los.service.script;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.wisneskey.los.error.LaissezException;
+import com.wisneskey.los.util.JsonUtils;
+
+/**
+ * Records the timing of every step of the scripts that run into a ring buffer
+ * for viewing on a timeline. Each step records when it was due, when it
+ * started, how long the command took and how much of that was spent off the
+ * CPU (waiting on hardware or locks); each run records its whole span. The
+ * buffer can be exported as Chrome trace event JSON for chrome://tracing or
+ * Perfetto, where every run is a row of its own.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class ScriptProfiler {
+
+	/**
+	 * Bean used to measure the CPU time of the threads performing steps.
+	 */
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	/**
+	 * Flag indicating if the CPU time of a thread can be measured.
+	 */
+	private static final boolean CPU_TIME_SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported();
+
+	/**
+	 * Kinds of events recorded.
+	 */
+	private static final byte STEP = 0;
+	private static final byte RUN = 1;
+
+	/**
+	 * Time events are measured from, from System.nanoTime().
+	 */
+	private long epochNanos = System.nanoTime();
+
+	/**
+	 * Columns of the ring buffer of events.
+	 */
+	private byte[] kinds;
+	private int[] lanes;
+	private String[] laneNames;
+	private ScriptId[] scriptIds;
+	private Object[] subjects;
+	private int[] stages;
+	private long[] dueNanos;
+	private long[] startNanos;
+	private long[] endNanos;
+	private long[] cpuNanos;
+
+	/**
+	 * Index the next event is written at and the number of events recorded.
+	 */
+	private int next;
+	private long recorded;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a profiler.
+	 *
+	 * @param capacity Number of events kept; older events are overwritten.
+	 */
+	public ScriptProfiler(int capacity) {
+
+		kinds = new byte[capacity];
+		lanes = new int[capacity];
+		laneNames = new String[capacity];
+		scriptIds = new ScriptId[capacity];
+		subjects = new Object[capacity];
+		stages = new int[capacity];
+		dueNanos = new long[capacity];
+		startNanos = new long[capacity];
+		endNanos = new long[capacity];
+		cpuNanos = new long[capacity];
+
+		if (CPU_TIME_SUPPORTED && !THREADS.isThreadCpuTimeEnabled()) {
+			THREADS.setThreadCpuTimeEnabled(true);
+		}
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the CPU time used so far by the calling thread.
+	 *
+	 * @return CPU time in nanoseconds or -1 if it can not be measured.
+	 */
+	public long threadCpuNanos() {
+		return CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : -1;
+	}
+
+	/**
+	 * Records a step of a script.
+	 *
+	 * @param lane      Row of the run performing the step.
+	 * @param laneName  Name to show for the row.
+	 * @param scriptId  Id of the script.
+	 * @param command   Command performed; only described when exported.
+	 * @param stage     Stage of the command.
+	 * @param due       Deadline of the step.
+	 * @param start     Time the step started.
+	 * @param end       Time the step ended.
+	 * @param cpu       CPU time used by the step or -1 if not known.
+	 */
+	public synchronized void recordStep(int lane, String laneName, ScriptId scriptId, Object command, int stage,
+			long due, long start, long end, long cpu) {
+		record(STEP, lane, laneName, scriptId, command, stage, due, start, end, cpu);
+	}
+
+	/**
+	 * Records the span of a run of a script.
+	 *
+	 * @param lane      Row of the run.
+	 * @param laneName  Name to show for the row.
+	 * @param scriptId  Id of the script.
+	 * @param cancelled Flag indicating if the run was cancelled.
+	 * @param start     Time the run started.
+	 * @param end       Time the run ended.
+	 */
+	public synchronized void recordRun(int lane, String laneName, ScriptId scriptId, boolean cancelled, long start,
+			long end) {
+		record(RUN, lane, laneName, scriptId, cancelled, 0, start, start, end, -1);
+	}
+
+	/**
+	 * Returns the buffered events as Chrome trace event JSON. Only the rows with
+	 * events still in the buffer are named.
+	 *
+	 * @return JSON for the trace.
+	 */
+	public String toTraceJson() {
+
+		List<Map<String, Object>> events = new ArrayList<>();
+		Map<Integer, String> names = new LinkedHashMap<>();
+
+		synchronized (this) {
+
+			int count = (int) Math.min(recorded, kinds.length);
+			int first = recorded > kinds.length ? next : 0;
+			for (int offset = 0; offset < count; offset++) {
+
+				int index = (first + offset) % kinds.length;
+				names.putIfAbsent(lanes[index], laneNames[index]);
+
+				Map<String, Object> args = new LinkedHashMap<>();
+				args.put("script", scriptIds[index].name());
+
+				Map<String, Object> event;
+				if (kinds[index] == RUN) {
+					event = event(scriptIds[index].name(), "X", lanes[index]);
+					event.put("cat", "run");
+					args.put("cancelled", subjects[index]);
+				} else {
+					event = event(subjects[index].getClass().getSimpleName(), "X", lanes[index]);
+					event.put("cat", "step");
+					args.put("command", String.valueOf(subjects[index]));
+					args.put("stage", stages[index]);
+					args.put("lateUs", (startNanos[index] - dueNanos[index]) / 1000);
+					if (cpuNanos[index] >= 0) {
+						args.put("cpuUs", cpuNanos[index] / 1000);
+						args.put("blockedUs", Math.max(0, endNanos[index] - startNanos[index] - cpuNanos[index]) / 1000);
+					}
+				}
+
+				event.put("ts", (startNanos[index] - epochNanos) / 1000.0);
+				event.put("dur", (endNanos[index] - startNanos[index]) / 1000.0);
+				event.put("args", args);
+				events.add(event);
+			}
+		}
+
+		List<Map<String, Object>> laneEvents = new ArrayList<>(names.size());
+		for (Map.Entry<Integer, String> lane : names.entrySet()) {
+			Map<String, Object> event = event("thread_name", "M", lane.getKey());
+			event.put("args", Map.of("name", lane.getValue()));
+			laneEvents.add(event);
+		}
+		events.addAll(0, laneEvents);
+
+		Map<String, Object> trace = new LinkedHashMap<>();
+		trace.put("traceEvents", events);
+		trace.put("displayTimeUnit", "ms");
+		return JsonUtils.toJSONString(trace);
+	}
+
+	/**
+	 * Writes the buffered events to a file as Chrome trace event JSON.
+	 *
+	 * @param path Path of the file to write.
+	 */
+	public void export(Path path) {
+
+		try {
+			Files.writeString(path, toTraceJson());
+		} catch (IOException e) {
+			throw new LaissezException("Failed to write script trace: " + path, e);
+		}
+	}
+
+	/**
+	 * Returns the number of events recorded since the profiler was created,
+	 * including any that have been overwritten.
+	 *
+	 * @return Number of events recorded.
+	 */
+	public synchronized long getRecorded() {
+		return recorded;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	private void record(byte kind, int lane, String laneName, ScriptId scriptId, Object subject, int stage, long due,
+			long start, long end, long cpu) {
+
+		kinds[next] = kind;
+		lanes[next] = lane;
+		laneNames[next] = laneName;
+		scriptIds[next] = scriptId;
+		subjects[next] = subject;
+		stages[next] = stage;
+		dueNanos[next] = due;
+		startNanos[next] = start;
+		endNanos[next] = end;
+		cpuNanos[next] = cpu;
+
+		next = (next + 1) % kinds.length;
+		recorded++;
+	}
+
+	private static Map<String, Object> event(String name, String phase, int lane) {
+
+		Map<String, Object> event = new LinkedHashMap<>();
+		event.put("name", name);
+		event.put("ph", phase);
+		event.put("pid", 1);
+		event.put("tid", lane);
+		return event;
+	}
+}
@@ -0,0 +1,92 @@
+package com.wisneskey.los.service.script;
+
+import java.util.Set;
+
+/**
+ * Request to run a script waiting in the queue of the script dispatcher.
+ * Requests order highest priority first and then in the order they were made.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+class ScriptRequest implements Comparable<ScriptRequest> {
+
+	private ScriptId scriptId;
+	private ScriptPlan plan;
+	private ScriptPriority priority;
+	private Set<ScriptResource> resources;
+	private ScriptHandle handle;
+	private long sequence;
+	private long requestNanos = System.nanoTime();
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	ScriptRequest(ScriptPlan plan, long sequence, ScriptHandle handle) {
+		this.scriptId = plan.getScriptId();
+		this.plan = plan;
+		this.priority = scriptId.getPriority();
+		this.resources = plan.getResources();
+		this.handle = handle;
+		this.sequence = sequence;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	public ScriptId getScriptId() {
+		return scriptId;
+	}
+
+	public ScriptPlan getPlan() {
+		return plan;
+	}
+
+	public ScriptPriority getPriority() {
+		return priority;
+	}
+
+	public Set<ScriptResource> getResources() {
+		return resources;
+	}
+
+	public ScriptHandle getHandle() {
+		return handle;
+	}
+
+	/**
+	 * Returns the time the request was made, from System.nanoTime().
+	 *
+	 * @return Time of the request.
+	 */
+	public long getRequestNanos() {
+		return requestNanos;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Comparable methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public int compareTo(ScriptRequest other) {
+
+		int byPriority = other.priority.compareTo(priority);
+		return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+	}
+}
@@ -0,0 +1,52 @@
+package com.wisneskey.los.service.script;
+
+/**
+ * Enumerated type defining the parts of the chair that script commands
+ * control. Scripts whose commands touch any of the same resources conflict
+ * and do not run at the same time. Sound effects and messages are mixed and
+ * interleaved rather than replaced so they are not resources.
+ * 
+ * Copyright (C) 2026 Paul Wisneskey
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public enum ScriptResource {
+
+	/**
+	 * The music player.
+	 */
+	AUDIO,
+
+	/**
+	 * The chair and bar states.
+	 */
+	CHAIR,
+
+	/**
+	 * The lighting effect and its settings.
+	 */
+	LIGHTING,
+
+	/**
+	 * The relays.
+	 */
+	RELAYS,
+
+	/**
+	 * The scenes shown on the displays.
+	 */
+	SCENES;
+}
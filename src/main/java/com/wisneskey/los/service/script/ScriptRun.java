@@ -0,0 +1,654 @@
+package com.wisneskey.los.service.script;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.wisneskey.los.service.script.command.Parallel;
+import com.wisneskey.los.service.script.command.ScriptCommand;
+
+/**
+ * Run of a script on the scheduler. Every step of the script (each command,
+ * or each stage of a command that waits) has an absolute deadline measured
+ * from the start of the run, so the time spent performing commands does not
+ * pile up into drift across a long script. A step that starts late is
+ * reported and the steps after it keep their deadlines. A parallel command
+ * forks a branch run for each of its commands; branches share the deadline
+ * of the fork and complete a future instead of releasing resources. A
+ * cancelled run stops before its next step and performs the compensations of
+ * the commands it has performed so it does not leave the hardware half
+ * changed.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+class ScriptRun implements Runnable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ScriptRun.class);
+	private static final Logger RUNNER_LOGGER = LoggerFactory.getLogger("ScriptRunner");
+
+	/**
+	 * Number of nanoseconds in a second.
+	 */
+	private static final double NANOSECONDS_PER_SECOND = 1_000_000_000.0;
+
+	/**
+	 * Steps starting later than this after their deadline (a frame at 60fps) are
+	 * reported as late.
+	 */
+	private static final long LATE_STEP_NANOS = 17_000_000L;
+
+	/**
+	 * Dispatcher that started the run and schedules its steps.
+	 */
+	private ScriptDispatcher dispatcher;
+
+	private ScriptId scriptId;
+	private ScriptPlan plan;
+	private List<ScriptCommand> commands;
+	private ScriptPriority priority;
+	private Set<ScriptResource> resources;
+
+	/**
+	 * Handle of the request the run is for or null for a branch.
+	 */
+	private ScriptHandle handle;
+
+	/**
+	 * Run that forked this one if it is a branch of a parallel command or null
+	 * if it is running a script.
+	 */
+	private ScriptRun parent;
+
+	/**
+	 * Branches forked by the run that have not finished.
+	 */
+	private List<ScriptRun> branches = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Future completed when the run finishes.
+	 */
+	private CompletableFuture<Void> completion = new CompletableFuture<>();
+
+	/**
+	 * Time the first step of the run started, from System.nanoTime(), or zero
+	 * if it has not.
+	 */
+	private long firstStepNanos;
+
+	/**
+	 * Index of the command to perform next and its stage.
+	 */
+	private int commandIndex;
+	private int stage;
+
+	/**
+	 * Time the run started and the deadline of the next step, from
+	 * System.nanoTime().
+	 */
+	private long startNanos;
+	private long deadlineNanos;
+
+	/**
+	 * Next step waiting on the scheduler.
+	 */
+	private volatile ScheduledFuture<?> pendingStep;
+
+	/**
+	 * Flags indicating if the run has been cancelled, if its commands should be
+	 * undone when cancelled, if it failed or if it has finished.
+	 */
+	private volatile boolean cancelled;
+	private volatile boolean undo;
+	private volatile boolean failed;
+	private AtomicBoolean finished = new AtomicBoolean(false);
+
+	/**
+	 * Number of steps and joins of the run being performed. The step or join
+	 * of a parallel command can overlap the next step, which is scheduled by
+	 * the join on the thread of the last branch to finish. A run cancelled
+	 * while any are in progress leaves the compensations to the last of them
+	 * so they are never performed before the changes of a step.
+	 */
+	private AtomicInteger active = new AtomicInteger();
+
+	/**
+	 * Compensations for the commands performed so far, oldest first, and a flag
+	 * set once they have been performed.
+	 */
+	private List<ScriptCommand> compensations = new CopyOnWriteArrayList<>();
+	private AtomicBoolean compensated = new AtomicBoolean(false);
+
+	/**
+	 * Future completed once a cancelled run will change nothing more.
+	 */
+	private CompletableFuture<Void> settled = new CompletableFuture<>();
+
+	/**
+	 * Time the run was cancelled, from System.nanoTime().
+	 */
+	private long cancelNanos;
+
+	private int steps;
+	private int lateSteps;
+	private long totalLatenessNanos;
+	private long maxLatenessNanos;
+
+	/**
+	 * Row of the run in the profiler's timeline and the name shown for it.
+	 */
+	private int lane;
+	private String laneName;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for the run of a request taken from the queue.
+	 *
+	 * @param dispatcher Dispatcher starting the run.
+	 * @param request    Request to run.
+	 */
+	ScriptRun(ScriptDispatcher dispatcher, ScriptRequest request) {
+		this.dispatcher = dispatcher;
+		this.scriptId = request.getScriptId();
+		this.plan = request.getPlan();
+		this.commands = plan.getCommands();
+		this.priority = request.getPriority();
+		this.resources = request.getResources();
+		this.handle = request.getHandle();
+		this.lane = dispatcher.nextLane();
+		this.laneName = scriptId.name();
+	}
+
+	/**
+	 * Constructor for a branch forked by a parallel command.
+	 *
+	 * @param parent  Run performing the parallel command.
+	 * @param command Command for the branch to perform.
+	 */
+	private ScriptRun(ScriptRun parent, ScriptCommand command) {
+		this.dispatcher = parent.dispatcher;
+		this.scriptId = parent.scriptId;
+		this.plan = parent.plan;
+		this.commands = Collections.singletonList(command);
+		this.priority = parent.priority;
+		this.resources = parent.resources;
+		this.parent = parent;
+		this.lane = dispatcher.nextLane();
+		this.laneName = scriptId.name() + " branch";
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	public ScriptId getScriptId() {
+		return scriptId;
+	}
+
+	public ScriptPriority getPriority() {
+		return priority;
+	}
+
+	public Set<ScriptResource> getResources() {
+		return resources;
+	}
+
+	public ScriptHandle getHandle() {
+		return handle;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Schedules the first step of the script to run right away.
+	 */
+	void start() {
+
+		RUNNER_LOGGER.trace("Script run started...");
+
+		startNanos = System.nanoTime();
+		deadlineNanos = startNanos;
+		schedule();
+	}
+
+	/**
+	 * Schedules the first step of a branch at the deadline of the fork.
+	 * 
+	 * @param forkNanos Deadline of the parallel command forking the branch.
+	 */
+	private void startBranch(long forkNanos) {
+
+		startNanos = forkNanos;
+		deadlineNanos = forkNanos;
+		schedule();
+	}
+
+	/**
+	 * Stops the run before its next step. A step already being performed is
+	 * left to finish, so a run stops within the time of one step.
+	 * 
+	 * @param undo Flag indicating if the commands performed should be undone.
+	 */
+	void cancel(boolean undo) {
+
+		// Locked against a join taking over the compensations of its branches.
+		synchronized (this) {
+			if (cancelled) {
+				return;
+			}
+
+			cancelNanos = System.nanoTime();
+			this.undo = undo;
+			cancelled = true;
+		}
+
+		ScheduledFuture<?> step = pendingStep;
+		if (step != null) {
+			step.cancel(false);
+		}
+		for (ScriptRun branch : branches) {
+			branch.cancel(undo);
+		}
+
+		// A step or join being performed compensates once it is done.
+		if (!undo) {
+			settled.complete(null);
+		} else if (active.get() == 0) {
+			compensate();
+		}
+		finish();
+	}
+
+	/**
+	 * Returns a future for a cancelled run and its branches having undone their
+	 * commands, after which the hardware is free for another script.
+	 * 
+	 * @return Future completed once the run has settled.
+	 */
+	CompletableFuture<Void> settled() {
+
+		List<CompletableFuture<Void>> parts = new ArrayList<>();
+		parts.add(settled);
+		for (ScriptRun branch : branches) {
+			parts.add(branch.settled());
+		}
+		return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0]));
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Runnable methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public void run() {
+
+		// Counted before checking for cancellation so that a cancel either stops
+		// the step or sees it and leaves the compensations to it.
+		active.incrementAndGet();
+		try {
+			step();
+		} finally {
+			release();
+		}
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Ends a step or join, performing the compensations if the run was
+	 * cancelled while it was the last one in progress.
+	 */
+	private void release() {
+
+		if ((active.decrementAndGet() == 0) && cancelled && undo) {
+			compensate();
+		}
+	}
+
+	/**
+	 * Performs the next step of the run.
+	 */
+	private void step() {
+
+		if (cancelled) {
+			return;
+		}
+
+		// The pause after the last command has passed.
+		if (commandIndex >= commands.size()) {
+			finish();
+			return;
+		}
+
+		long nowNanos = System.nanoTime();
+		if (firstStepNanos == 0) {
+			firstStepNanos = nowNanos;
+		}
+
+		long latenessNanos = Math.max(0, nowNanos - deadlineNanos);
+		recordLateness(latenessNanos);
+
+		ScriptCommand command = commands.get(commandIndex);
+		if (stage == 0) {
+			LOGGER.debug("Performing command: {}", command);
+		}
+
+		if (latenessNanos > LATE_STEP_NANOS) {
+			RUNNER_LOGGER.warn("Script step late: script={} command={} stage={} lateMs={}", plan.getName(),
+					command, stage, latenessNanos / 1_000_000);
+		} else {
+			RUNNER_LOGGER.trace("Script step: command={} stage={} lateUs={}", command, stage, latenessNanos / 1000);
+		}
+
+		if (command instanceof Parallel) {
+			fork((Parallel) command);
+			return;
+		}
+
+		// The profiler is read once so it can be switched while the step runs.
+		ScriptProfiler activeProfiler = dispatcher.getProfiler();
+		long cpuNanos = activeProfiler == null ? 0 : activeProfiler.threadCpuNanos();
+
+		ScriptCommand compensation = null;
+		double waitSeconds;
+		try {
+			// Taken first so it can capture the state the command changes.
+			if (stage == 0) {
+				compensation = command.getCompensation();
+			}
+			waitSeconds = command.performStage(stage);
+		} catch (Exception e) {
+			LOGGER.error("Error during command execution: aborting", e);
+			failed = true;
+			finish();
+			return;
+		} finally {
+			if (activeProfiler != null) {
+				long endCpuNanos = activeProfiler.threadCpuNanos();
+				activeProfiler.recordStep(lane, laneName, scriptId, command, stage, deadlineNanos, nowNanos,
+						System.nanoTime(), cpuNanos < 0 ? -1 : endCpuNanos - cpuNanos);
+			}
+		}
+
+		if (compensation != null) {
+			compensations.add(compensation);
+		}
+
+		if (waitSeconds >= 0.0) {
+			stage++;
+			deadlineNanos += (long) (waitSeconds * NANOSECONDS_PER_SECOND);
+		} else {
+			stage = 0;
+			commandIndex++;
+			deadlineNanos += (long) (command.getPostCommandPause() * NANOSECONDS_PER_SECOND);
+		}
+
+		schedule();
+	}
+
+	/**
+	 * Forks a branch for each command of a parallel command and resumes the run
+	 * once they have all finished or the command's timeout has passed.
+	 * 
+	 * @param parallel Parallel command to perform.
+	 */
+	private void fork(Parallel parallel) {
+
+		long forkNanos = deadlineNanos;
+		long forkedAtNanos = System.nanoTime();
+
+		List<ScriptRun> forked = new ArrayList<>();
+		if (parallel.getCommands() != null) {
+			for (ScriptCommand command : parallel.getCommands()) {
+				forked.add(new ScriptRun(this, command));
+			}
+		}
+
+		CompletableFuture<Void> join = CompletableFuture
+				.allOf(forked.stream().map(branch -> branch.completion).toArray(CompletableFuture<?>[]::new));
+		if (parallel.getTimeout() != null) {
+			join = join.orTimeout((long) (parallel.getTimeout() * NANOSECONDS_PER_SECOND), TimeUnit.NANOSECONDS);
+		}
+
+		branches.addAll(forked);
+		for (ScriptRun branch : forked) {
+			branch.startBranch(forkNanos);
+		}
+
+		join.whenComplete((result, error) -> joined(parallel, forked, forkNanos, forkedAtNanos, error != null));
+	}
+
+	/**
+	 * Resumes the run after a parallel command. The next deadline follows from
+	 * the scheduled end of the slowest branch, not from when the join was
+	 * noticed, so the branches do not add drift to the script. Branches still
+	 * running when the command times out are cancelled and undo their commands,
+	 * and the run fails if any of its branches did.
+	 * 
+	 * @param parallel  Parallel command that was performed.
+	 * @param forked    Branches forked for the command.
+	 * @param forkNanos Deadline the branches were forked at.
+	 * @param forkedAt  Time the branches were actually forked.
+	 * @param timedOut  Flag indicating if the branches did not all finish in
+	 *                    time.
+	 */
+	private void joined(Parallel parallel, List<ScriptRun> forked, long forkNanos, long forkedAt,
+			boolean timedOut) {
+
+		active.incrementAndGet();
+		try {
+			resume(parallel, forked, forkNanos, forkedAt, timedOut);
+		} finally {
+			release();
+		}
+	}
+
+	/**
+	 * Performs the join of a parallel command for {@link #joined}, which counts
+	 * it as in progress.
+	 */
+	private void resume(Parallel parallel, List<ScriptRun> forked, long forkNanos, long forkedAt,
+			boolean timedOut) {
+
+		long endNanos = forkNanos;
+		long firstStart = Long.MAX_VALUE;
+		long lastStart = Long.MIN_VALUE;
+
+		// The finished branches hand their compensations over to the run, unless
+		// it has been cancelled and they undo themselves.
+		synchronized (this) {
+
+			if (cancelled) {
+				return;
+			}
+
+			for (ScriptRun branch : forked) {
+				if (branch.firstStepNanos != 0) {
+					firstStart = Math.min(firstStart, branch.firstStepNanos);
+					lastStart = Math.max(lastStart, branch.firstStepNanos);
+				}
+				if (branch.completion.isDone()) {
+					endNanos = Math.max(endNanos, branch.deadlineNanos);
+					compensations.addAll(branch.compensations);
+					branches.remove(branch);
+				}
+			}
+		}
+
+		long skewNanos = firstStart <= lastStart ? lastStart - firstStart : 0;
+		if (timedOut) {
+			endNanos = forkNanos + (long) (parallel.getTimeout() * NANOSECONDS_PER_SECOND);
+			RUNNER_LOGGER.warn("Parallel command timed out: script={} unfinished={}", plan.getName(),
+					forked.stream().filter(branch -> !branch.completion.isDone()).count());
+
+			// Kept as branches until they have settled so a cancel of the run
+			// still waits for their undo.
+			for (ScriptRun branch : forked) {
+				if (!branch.completion.isDone()) {
+					branch.cancel(true);
+					branch.settled().thenRun(() -> branches.remove(branch));
+				}
+			}
+		}
+
+		RUNNER_LOGGER.debug("Parallel command joined: branches={} startSkewUs={} firstLateUs={} ms={} timedOut={}",
+				forked.size(), skewNanos / 1000, firstStart == Long.MAX_VALUE ? 0 : (firstStart - forkNanos) / 1000,
+				(System.nanoTime() - forkNanos) / 1_000_000, timedOut);
+		dispatcher.parallelJoined(skewNanos, timedOut);
+
+		ScriptProfiler activeProfiler = dispatcher.getProfiler();
+		if (activeProfiler != null) {
+			activeProfiler.recordStep(lane, laneName, scriptId, parallel, 0, forkNanos, forkedAt, System.nanoTime(), -1);
+		}
+
+		if (forked.stream().anyMatch(branch -> branch.failed)) {
+			LOGGER.error("Parallel command branch failed: aborting script {}", plan.getName());
+			failed = true;
+			finish();
+			return;
+		}
+
+		stage = 0;
+		commandIndex++;
+		deadlineNanos = endNanos + (long) (parallel.getPostCommandPause() * NANOSECONDS_PER_SECOND);
+		schedule();
+	}
+
+	/**
+	 * Schedules the next step at its deadline, or right away if the deadline has
+	 * already passed.
+	 */
+	private void schedule() {
+
+		if (cancelled) {
+			return;
+		}
+
+		try {
+			pendingStep = dispatcher.getScheduler().schedule(this, deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+		} catch (RejectedExecutionException e) {
+			// The service is terminating.
+			finish();
+		}
+	}
+
+	/**
+	 * Performs the compensations of the commands performed by a cancelled run,
+	 * newest first. Only ever done once.
+	 */
+	private void compensate() {
+
+		if (!compensated.compareAndSet(false, true)) {
+			return;
+		}
+
+		for (int index = compensations.size() - 1; index >= 0; index--) {
+			ScriptCommand compensation = compensations.get(index);
+			try {
+				compensation.performStage(0);
+			} catch (Exception e) {
+				LOGGER.error("Error undoing command of cancelled script: {}", compensation, e);
+			}
+		}
+
+		RUNNER_LOGGER.debug("Script compensated: id={} compensations={} cancelUs={}", scriptId,
+				compensations.size(), (System.nanoTime() - cancelNanos) / 1000);
+		dispatcher.runCompensated(compensations.size(), System.nanoTime() - cancelNanos);
+		settled.complete(null);
+	}
+
+	private void recordLateness(long latenessNanos) {
+
+		steps++;
+		totalLatenessNanos += latenessNanos;
+		if (latenessNanos > maxLatenessNanos) {
+			maxLatenessNanos = latenessNanos;
+		}
+		if (latenessNanos > LATE_STEP_NANOS) {
+			lateSteps++;
+		}
+	}
+
+	/**
+	 * Reports how closely the run kept to its schedule and lets the service know
+	 * the script is no longer running.
+	 */
+	private void finish() {
+
+		if (!finished.compareAndSet(false, true)) {
+			return;
+		}
+
+		// Branches still running after a timed out join end with the run.
+		for (ScriptRun branch : branches) {
+			branch.cancel(false);
+		}
+
+		ScriptProfiler activeProfiler = dispatcher.getProfiler();
+		if (activeProfiler != null) {
+			activeProfiler.recordRun(lane, laneName, scriptId, cancelled, startNanos, System.nanoTime());
+		}
+
+		if (parent != null) {
+			completion.complete(null);
+			return;
+		}
+
+		RUNNER_LOGGER.info(
+				"Script finished: id={} cancelled={} steps={} lateSteps={} averageLateUs={} maxLateUs={} ms={} nominalMs={}",
+				scriptId, cancelled, steps, lateSteps, steps == 0 ? 0 : totalLatenessNanos / steps / 1000,
+				maxLatenessNanos / 1000, (System.nanoTime() - startNanos) / 1_000_000,
+				plan.getDurationNanos() / 1_000_000);
+
+		// Let the dispatcher know we are done running the script. A cancelled run
+		// keeps its resources until it has undone its commands so a script
+		// waiting for them can not have its first steps reverted.
+		if (cancelled) {
+			settled().thenRun(this::releaseResources);
+		} else {
+			releaseResources();
+		}
+	}
+
+	/**
+	 * Frees the resources of a finished run and completes its handle.
+	 */
+	private void releaseResources() {
+
+		dispatcher.runFinished(this);
+		completion.complete(null);
+		handle.complete(!cancelled && !failed);
+	}
+}
@@ -1,8 +1,13 @@
 package com.wisneskey.los.service.script;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.EnumMap;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,14 +15,19 @@ import org.slf4j.LoggerFactory;
 import com.wisneskey.los.error.LaissezException;
 import com.wisneskey.los.service.AbstractService;
 import com.wisneskey.los.service.ServiceId;
-import com.wisneskey.los.service.script.command.ScriptCommand;
+import com.wisneskey.los.service.profile.model.Profile;
+import com.wisneskey.los.service.script.cue.CueRunner;
 import com.wisneskey.los.state.ScriptState;
 import com.wisneskey.los.util.JsonUtils;
 
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.util.Pair;
 
 /**
  * Service for running basic scripts to orchestrate the chair's other services.
+ * The service loads and compiles the scripts and hands the requests to run
+ * them to its dispatcher, which queues them and runs them on its scheduler.
  * 
  * Copyright (C) 2026 Paul Wisneskey
  * 
@@ -39,17 +49,21 @@ import javafx.util.Pair;
 public class ScriptService extends AbstractService<ScriptState> {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ScriptService.class);
-	private static final Logger RUNNER_LOGGER = LoggerFactory.getLogger("ScriptRunner");
 
 	/**
-	 * Number of milliseconds in a second.
+	 * Base path for where audio clips are saved in the resources.
 	 */
-	private static final double MILLISECONDS_PER_SECOND = 1000.0;
+	private static final String SCRIPT_RESOURCE_BASE = "/script/";
 
 	/**
-	 * Base path for where audio clips are saved in the resources.
+	 * Extension of script files.
 	 */
-	private static final String SCRIPT_RESOURCE_BASE = "/script/";
+	static final String SCRIPT_EXTENSION = ".json";
+
+	/**
+	 * Number of events the profiler keeps.
+	 */
+	private static final int PROFILER_CAPACITY = 16384;
 
 	/**
 	 * Object for the state of the script service.
@@ -57,19 +71,40 @@ public class ScriptService extends AbstractService<ScriptState> {
 	private InternalScriptState scriptState;
 
 	/**
-	 * Boolean to indicate if a script is already running.
+	 * Dispatcher queueing and running the requested scripts.
 	 */
-	private AtomicBoolean scriptRunning = new AtomicBoolean(false);
+	private ScriptDispatcher dispatcher;
 
 	/**
-	 * Thread that is running a script or null if no script running.
+	 * Map of script id to its compiled plan. Guarded by the service; a reloaded
+	 * script replaces its plan while runs of the old plan carry on with it.
 	 */
-	private ScriptRunnerThread runner;
+	private EnumMap<ScriptId, ScriptPlan> scriptCache = new EnumMap<>(ScriptId.class);
 
 	/**
-	 * Map of script id to its loaded script.
+	 * Directory of scripts overriding the built in ones or null if there is none.
 	 */
-	private EnumMap<ScriptId, Script> scriptCache = new EnumMap<>(ScriptId.class);
+	private Path scriptDir;
+
+	/**
+	 * Thread watching the script directory for changes or null if it is not being
+	 * watched.
+	 */
+	private ScriptWatcher scriptWatcher;
+
+	/**
+	 * Thread firing the cues choreographed to the playing track or null if there
+	 * are no cue lists.
+	 */
+	private CueRunner cueRunner;
+
+	/**
+	 * File the profile's trace is written to at shutdown or null if none.
+	 */
+	private Path traceFile;
+
+	private long reloads;
+	private long reloadFailures;
 
 	// ----------------------------------------------------------------------------------------
 	// Constructors.
@@ -93,17 +128,25 @@ public class ScriptService extends AbstractService<ScriptState> {
 
 	@Override
 	public void terminate() {
-		if (scriptRunning.get()) {
 
-			runner.interrupt();
+		if (scriptWatcher != null) {
+			scriptWatcher.shutdown();
+		}
+		if (cueRunner != null) {
+			cueRunner.shutdown();
+		}
+
+		dispatcher.shutdown();
+
+		LOGGER.info("Script statistics: {}", getStatistics());
+
+		if (traceFile != null) {
 			try {
-				runner.join();
-			} catch (InterruptedException e) {
-				LOGGER.warn("Interrupted waiting for script runner thread to terminate.");
-				Thread.currentThread().interrupt();
+				exportTrace(traceFile);
+			} catch (LaissezException e) {
+				LOGGER.warn("Failed to export script trace.", e);
 			}
 		}
-
 		LOGGER.trace("Script service terminated.");
 	}
 
@@ -112,64 +155,235 @@ public class ScriptService extends AbstractService<ScriptState> {
 	// ----------------------------------------------------------------------------------------
 
 	/**
-	 * Runs the script for the specified script id.
+	 * Runs the script for the specified script id. The script starts right away
+	 * if none of the resources it needs are held by running scripts. Otherwise
+	 * it preempts the scripts holding them if their priority allows, or waits in
+	 * the queue until they finish. A request for a script that is already
+	 * waiting is merged with the waiting request.
 	 * 
-	 * @param scriptId
+	 * @param  scriptId Id of the script to run.
+	 * @return          Handle to follow or cancel the script with, shared with
+	 *                  the waiting request if merged, or null if the script was
+	 *                  not run.
 	 */
-	public synchronized void runScript(ScriptId scriptId) {
+	public ScriptHandle runScript(ScriptId scriptId) {
 
-		// Set the script as running and launch a script runner thread to execute
-		// it.
-		if (!scriptRunning.compareAndExchangeAcquire(false, true)) {
+		// Get the compiled script. If we get back a null here, we can assume the
+		// script was not found or failed to load.
+		ScriptPlan plan;
+		synchronized (this) {
+			plan = scriptCache.get(scriptId);
+		}
+		if (plan == null) {
+			LOGGER.trace("No script returned from cache; not running script.");
+			return null;
+		}
 
-			LOGGER.info("Running script: {}", scriptId);
+		return dispatcher.submit(plan);
+	}
 
-			// Load the script. If we get back a null here, we can assume the script
-			// was
-			// not found or failed to load.
-			Script script = scriptCache.get(scriptId);
-			if (script == null) {
-				LOGGER.trace("No script returned from cache; not running script.");
-				return;
-			}
+	/**
+	 * Returns a summary of the script scheduling and reloading for logging.
+	 * 
+	 * @return Summary of the script statistics.
+	 */
+	public String getStatistics() {
 
-			runner = new ScriptRunnerThread(script);
-			runner.start();
-		} else {
-			LOGGER.warn("Script already running; did not run new script.");
+		String reloadStatistics;
+		synchronized (this) {
+			reloadStatistics = " reloads=" + reloads + " reloadFailures=" + reloadFailures;
+		}
+		return dispatcher.getStatistics() + reloadStatistics;
+	}
+
+	/**
+	 * Turns recording the steps of scripts on or off. Turning it on starts a new
+	 * recording.
+	 * 
+	 * @param enabled Flag indicating if steps should be recorded.
+	 */
+	public void setProfiling(boolean enabled) {
+
+		dispatcher.setProfiler(enabled ? new ScriptProfiler(PROFILER_CAPACITY) : null);
+		LOGGER.info("Script profiling {}.", enabled ? "started" : "stopped");
+	}
+
+	/**
+	 * Writes the steps recorded by the profiler as Chrome trace event JSON, which
+	 * can be loaded in chrome://tracing or Perfetto to see the scripts on a
+	 * timeline.
+	 * 
+	 * @param path Path of the file to write.
+	 */
+	public void exportTrace(Path path) {
+
+		ScriptProfiler activeProfiler = dispatcher.getProfiler();
+		if (activeProfiler == null) {
+			LOGGER.warn("Script profiling is off; no trace to export.");
+			return;
 		}
+
+		activeProfiler.export(path);
+		LOGGER.info("Script trace exported: path={} events={}", path, activeProfiler.getRecorded());
 	}
 
 	// ----------------------------------------------------------------------------------------
 	// Supporting methods.
 	// ----------------------------------------------------------------------------------------
 
+	/**
+	 * Loads and compiles a script again after its file in the script directory
+	 * has changed. The new plan replaces the old one only if it compiles; a
+	 * script whose file was removed goes back to the built in version.
+	 * 
+	 * @param scriptId Id of the script to reload.
+	 */
+	void reloadScript(ScriptId scriptId) {
+
+		long start = System.nanoTime();
+
+		List<String> errors = new ArrayList<>();
+		ScriptPlan plan = loadPlan(scriptId, errors);
+
+		synchronized (this) {
+			if (plan == null) {
+				reloadFailures++;
+			} else {
+				scriptCache.put(scriptId, plan);
+				reloads++;
+			}
+		}
+
+		if (plan == null) {
+			for (String error : errors) {
+				LOGGER.error("Invalid script: {}", error);
+			}
+			LOGGER.warn("Script {} not reloaded; keeping the previous version.", scriptId);
+		} else {
+			LOGGER.info("Script reloaded: id={} source={} commands={} nominalMs={} ms={}", scriptId,
+					getScriptPath(scriptId) == null ? "built in" : scriptDir, plan.getCommands().size(),
+					plan.getDurationNanos() / 1_000_000, (System.nanoTime() - start) / 1_000_000);
+		}
+	}
+
+	/**
+	 * Loads a script, from the script directory if it has a file for it and
+	 * otherwise from the resources, and compiles it.
+	 * 
+	 * @param  scriptId Id of the script to load.
+	 * @param  errors   List to add a description of each problem found to.
+	 * @return          Plan for the script or null if it failed to load or
+	 *                  compile.
+	 */
+	private ScriptPlan loadPlan(ScriptId scriptId, List<String> errors) {
+
+		Script script;
+		Path scriptPath = getScriptPath(scriptId);
+		try (InputStream inputStream = scriptPath != null ? Files.newInputStream(scriptPath)
+				: this.getClass().getResourceAsStream(SCRIPT_RESOURCE_BASE + scriptId.getName() + SCRIPT_EXTENSION)) {
+			script = JsonUtils.toObject(inputStream, Script.class);
+		} catch (Exception e) {
+			errors.add(scriptId + ": failed to load: " + e.getMessage());
+			return null;
+		}
+
+		return ScriptPlan.compile(scriptId, script, errors);
+	}
+
+	/**
+	 * Returns the file in the script directory for a script.
+	 * 
+	 * @param  scriptId Id of the script.
+	 * @return          Path to the script's file or null if the directory does not
+	 *                  have one.
+	 */
+	private Path getScriptPath(ScriptId scriptId) {
+
+		if (scriptDir == null) {
+			return null;
+		}
+
+		Path scriptPath = scriptDir.resolve(scriptId.getName() + SCRIPT_EXTENSION);
+		return Files.isRegularFile(scriptPath) ? scriptPath : null;
+	}
+
 	/**
 	 * Creates the initial state of the service using the supplied profile for
 	 * configuration.
 	 * 
-	 * @return Configured state object for the service.
+	 * @param  profile Profile to use for configuring initial state of the script
+	 *                   service.
+	 * @return         Configured state object for the service.
 	 */
-	private ScriptState createInitialState() {
+	private ScriptState createInitialState(Profile profile) {
+
+		if (profile.getScriptDir() != null) {
+			scriptDir = Paths.get(profile.getScriptDir());
+			if (!Files.isDirectory(scriptDir)) {
+				LOGGER.warn("Script directory {} does not exist; using built in scripts.", scriptDir);
+				scriptDir = null;
+			}
+		}
 
-		// Load all scripts and store them in the cache.
+		// Load and compile all scripts and store them in the cache.
 		LOGGER.info("Loading {} scripts...", ScriptId.values().length);
+		long start = System.nanoTime();
 
+		List<String> errors = new ArrayList<>();
+		int commandCount = 0;
+		int mergedCount = 0;
 		for (ScriptId scriptId : ScriptId.values()) {
 
+			ScriptPlan plan = loadPlan(scriptId, errors);
+			if (plan != null) {
+				scriptCache.put(scriptId, plan);
+				commandCount += plan.getCommands().size();
+				mergedCount += plan.getMergedCount();
+				LOGGER.debug("Compiled script: id={} commands={} resources={} nominalMs={}", scriptId,
+						plan.getCommands().size(), plan.getResources(), plan.getDurationNanos() / 1_000_000);
+			}
+		}
+
+		// Every problem is reported at once so they can all be fixed together.
+		if (!errors.isEmpty()) {
+			for (String error : errors) {
+				LOGGER.error("Invalid script: {}", error);
+			}
+			throw new LaissezException("Failed to compile " + errors.size() + " script problem(s); first: " + errors.get(0));
+		}
+
+		LOGGER.info("Compiled {} scripts: commands={} merged={} ms={}", scriptCache.size(), commandCount, mergedCount,
+				(System.nanoTime() - start) / 1_000_000);
+
+		scriptState = new InternalScriptState();
+		dispatcher = new ScriptDispatcher(scriptState.queued, scriptState.running);
+
+		// Watch for scripts being edited.
+		if (scriptDir != null) {
 			try {
+				scriptWatcher = new ScriptWatcher(this, scriptDir);
+				scriptWatcher.start();
+			} catch (IOException e) {
+				LOGGER.warn("Failed to watch script directory; scripts will only load at boot.", e);
+			}
+		}
 
-				String scriptLocation = SCRIPT_RESOURCE_BASE + scriptId.getName() + ".json";
-				InputStream inputStream = this.getClass().getResourceAsStream(scriptLocation);
-				Script script = JsonUtils.toObject(inputStream, Script.class);
-				scriptCache.put(scriptId, script);
+		if (profile.getScriptTraceFile() != null) {
+			traceFile = Paths.get(profile.getScriptTraceFile());
+			setProfiling(true);
+		}
 
-			} catch (Exception e) {
-				throw new LaissezException("Failed to load script : " + scriptId, e);
+		// Fire the cue lists choreographed to the music.
+		if (profile.getCueDir() != null) {
+			Path cueDir = Paths.get(profile.getCueDir());
+			if (Files.isDirectory(cueDir)) {
+				cueRunner = new CueRunner(cueDir);
+				cueRunner.start();
+			} else {
+				LOGGER.warn("Cue directory {} does not exist; no cues will run.", cueDir);
 			}
 		}
 
-		scriptState = new InternalScriptState();
 		return scriptState;
 	}
 
@@ -185,10 +399,10 @@ public class ScriptService extends AbstractService<ScriptState> {
 	 *                   service.
 	 * @return         Script service instance and its initial state object.
 	 */
-	public static Pair<ScriptService, ScriptState> createService() {
+	public static Pair<ScriptService, ScriptState> createService(Profile profile) {
 
 		ScriptService service = new ScriptService();
-		ScriptState state = service.createInitialState();
+		ScriptState state = service.createInitialState(profile);
 		return new Pair<>(service, state);
 	}
 
@@ -201,50 +415,17 @@ public class ScriptService extends AbstractService<ScriptState> {
 	 */
 	private static class InternalScriptState implements ScriptState {
 
-	}
-
-	/**
-	 * Thread for running a script in the background.
-	 */
-	private class ScriptRunnerThread extends Thread {
-
-		private Script script;
+		private SimpleIntegerProperty queued = new SimpleIntegerProperty();
+		private SimpleIntegerProperty running = new SimpleIntegerProperty();
 
-		public ScriptRunnerThread(Script script) {
-			this.script = script;
+		@Override
+		public ReadOnlyIntegerProperty queuedScripts() {
+			return queued;
 		}
 
 		@Override
-		public void run() {
-
-			RUNNER_LOGGER.trace("Script runner thread started...");
-
-			for (ScriptCommand command : script.getCommands()) {
-
-				LOGGER.debug("Performing command: {}", command);
-
-				try {
-					command.perform();
-				} catch (Exception e) {
-					LOGGER.error("Error during command execution: aborting", e);
-					break;
-				}
-
-				if (command.getPostCommandPause() > 0.0) {
-					try {
-						Thread.sleep((long) (command.getPostCommandPause() * MILLISECONDS_PER_SECOND));
-					} catch (InterruptedException e) {
-						LOGGER.warn("Interrupted while in pause.");
-						Thread.currentThread().interrupt();
-					}
-				}
-			}
-
-			// Let the service know we are done running the script.
-			scriptRunning.set(false);
-			runner = null;
-
-			RUNNER_LOGGER.trace("Script runner thread stopped.");
+		public ReadOnlyIntegerProperty runningScripts() {
+			return running;
 		}
 	}
 }
@@ -0,0 +1,186 @@
+package com.wisneskey.los.service.script;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thread that watches the script directory and has the script service reload
+ * the scripts that change once the directory has been quiet for a while. If the
+ * watch service loses events every script is reloaded instead.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+final class ScriptWatcher extends Thread {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ScriptWatcher.class);
+
+	/**
+	 * Time in milliseconds the script directory must be quiet before changed
+	 * scripts are reloaded, so a file still being saved is not read half written.
+	 */
+	private static final long SCRIPT_QUIET_MS = 250;
+
+	/**
+	 * Service reloading the changed scripts.
+	 */
+	private ScriptService scriptService;
+
+	/**
+	 * Directory being watched.
+	 */
+	private Path scriptDir;
+
+	/**
+	 * Service delivering the directory events.
+	 */
+	private WatchService watchService;
+
+	/**
+	 * Map of script file names to the ids of their scripts.
+	 */
+	private Map<Path, ScriptId> scriptFiles = new HashMap<>();
+
+	/**
+	 * Scripts that have changed and not been reloaded.
+	 */
+	private Set<ScriptId> pendingChanges = EnumSet.noneOf(ScriptId.class);
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a watcher of a script directory.
+	 *
+	 * @param  scriptService Service to reload the changed scripts.
+	 * @param  scriptDir     Directory of the scripts to watch.
+	 * @throws IOException   If the directory can not be watched.
+	 */
+	ScriptWatcher(ScriptService scriptService, Path scriptDir) throws IOException {
+
+		this.scriptService = scriptService;
+		this.scriptDir = scriptDir;
+
+		setName("scriptWatcher");
+		setDaemon(true);
+
+		for (ScriptId scriptId : ScriptId.values()) {
+			scriptFiles.put(Paths.get(scriptId.getName() + ScriptService.SCRIPT_EXTENSION), scriptId);
+		}
+
+		watchService = FileSystems.getDefault().newWatchService();
+		scriptDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+				StandardWatchEventKinds.ENTRY_MODIFY);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Thread methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public void run() {
+
+		LOGGER.info("Script watcher started: directory={}", scriptDir);
+
+		try {
+			while (!isInterrupted()) {
+
+				// Wait for the first change and then keep collecting until the
+				// directory has been quiet long enough.
+				WatchKey key = watchService.take();
+				while (key != null) {
+					collectEvents(key);
+					key = watchService.poll(SCRIPT_QUIET_MS, TimeUnit.MILLISECONDS);
+				}
+
+				for (ScriptId scriptId : pendingChanges) {
+					scriptService.reloadScript(scriptId);
+				}
+				pendingChanges.clear();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ClosedWatchServiceException e) {
+			// Service was closed for shutdown.
+		} catch (Exception e) {
+			LOGGER.error("Script watcher failed; scripts will no longer reload.", e);
+		}
+
+		LOGGER.info("Script watcher shutdown.");
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Stops watching the directory.
+	 */
+	public void shutdown() {
+
+		interrupt();
+		try {
+			watchService.close();
+		} catch (IOException e) {
+			LOGGER.warn("Failed to close script watch service.", e);
+		}
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Records the scripts changed by the events on a watch key.
+	 *
+	 * @param key Key with events to collect.
+	 */
+	private void collectEvents(WatchKey key) {
+
+		for (WatchEvent<?> event : key.pollEvents()) {
+
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				pendingChanges.addAll(scriptFiles.values());
+			} else {
+				ScriptId scriptId = scriptFiles.get((Path) event.context());
+				if (scriptId != null) {
+					pendingChanges.add(scriptId);
+				}
+			}
+		}
+
+		if (!key.reset()) {
+			LOGGER.warn("Script directory {} is no longer accessible.", scriptDir);
+		}
+	}
+}
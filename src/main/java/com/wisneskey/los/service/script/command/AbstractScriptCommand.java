@@ -1,5 +1,7 @@
 package com.wisneskey.los.service.script.command;
 
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,21 +52,38 @@ public abstract class AbstractScriptCommand implements ScriptCommand {
 		this.postCommandPause = postCommandPause;
 	}
 
+	// ----------------------------------------------------------------------------------------
+	// ScriptCommand methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public void validate(List<String> errors) {
+
+		if (postCommandPause < 0.0) {
+			errors.add("Post command pause can not be negative.");
+		}
+	}
+
 	// ----------------------------------------------------------------------------------------
 	// Supporting methods.
 	// ----------------------------------------------------------------------------------------
 
 	/**
-	 * Lets script commands sleep for any fractional number of seconds.
+	 * Lets script commands sleep for any fractional number of seconds. Commands
+	 * should stop what they are doing if the sleep is interrupted since that is
+	 * how a script is stopped when it is not run by the script scheduler.
 	 * 
-	 * @param seconds Number of seconds to sleep.
+	 * @param  seconds Number of seconds to sleep.
+	 * @return         True if the full time was slept or false if interrupted.
 	 */
-	protected void sleepForSeconds(double seconds) {
+	protected boolean sleepForSeconds(double seconds) {
 		try {
 			Thread.sleep((long) (seconds * MILLISECONDS_PER_SECOND));
+			return true;
 		} catch (InterruptedException e) {
 			LOGGER.warn("Interrupted while sleeping.");
 			Thread.currentThread().interrupt();
+			return false;
 		}
 	}
 }
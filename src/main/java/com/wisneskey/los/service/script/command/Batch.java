@@ -0,0 +1,335 @@
+package com.wisneskey.los.service.script.command;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.wisneskey.los.kernel.Kernel;
+import com.wisneskey.los.service.ServiceId;
+import com.wisneskey.los.service.lighting.LightingEffectId;
+import com.wisneskey.los.service.lighting.LightingService;
+import com.wisneskey.los.service.relay.RelayId;
+import com.wisneskey.los.service.relay.RelayService;
+import com.wisneskey.los.service.script.ScriptResource;
+
+import javafx.application.Platform;
+
+/**
+ * Script command to apply a group of relay and lighting commands as a single
+ * change. The relays are set with one write to each relay board and only the
+ * last lighting effect of the group is sent to the controller, so the changes
+ * land together and cost one bus transaction per device instead of one per
+ * command. Adjacent relay and lighting commands are also merged into batches
+ * automatically when a script is compiled.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class Batch extends AbstractScriptCommand {
+
+	/**
+	 * Commands to apply together.
+	 */
+	private List<ScriptCommand> commands;
+
+	// ----------------------------------------------------------------------------------------
+	// Property getters/setters.
+	// ----------------------------------------------------------------------------------------
+
+	public List<ScriptCommand> getCommands() {
+		return commands;
+	}
+
+	public void setCommands(List<ScriptCommand> commands) {
+		this.commands = commands;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// ScriptCommand methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public void perform() {
+
+		double wait = apply();
+		if (wait > 0.0) {
+			sleepForSeconds(wait);
+		}
+	}
+
+	@Override
+	public double performStage(int stage) {
+
+		if (stage > 0) {
+			return COMMAND_COMPLETE;
+		}
+
+		double wait = apply();
+		return wait > 0.0 ? wait : COMMAND_COMPLETE;
+	}
+
+	@Override
+	public void validate(List<String> errors) {
+
+		super.validate(errors);
+		if ((commands == null) || commands.isEmpty()) {
+			errors.add("At least one command is required.");
+			return;
+		}
+
+		for (int index = 0; index < commands.size(); index++) {
+
+			ScriptCommand command = commands.get(index);
+			if (command == null) {
+				errors.add("Command " + (index + 1) + ": missing command.");
+				continue;
+			}
+
+			String prefix = "Command " + (index + 1) + " (" + command.getClass().getSimpleName() + "): ";
+			if (!isBatchable(command)) {
+				errors.add(prefix + "only relayOn, relayOff and runLightingEffect commands can be batched.");
+				continue;
+			}
+			if (command.getPostCommandPause() > 0.0) {
+				errors.add(prefix + "batched commands can not pause; set the pause on the batch.");
+			}
+
+			List<String> commandErrors = new ArrayList<>();
+			command.validate(commandErrors);
+			for (String error : commandErrors) {
+				errors.add(prefix + error);
+			}
+		}
+	}
+
+	/**
+	 * Returns the longest time a timed relay of the batch is waited on.
+	 */
+	@Override
+	public double getNominalSeconds() {
+
+		double seconds = 0.0;
+		if (commands != null) {
+			for (ScriptCommand command : commands) {
+				seconds = Math.max(seconds, command.getNominalSeconds());
+			}
+		}
+		return seconds;
+	}
+
+	@Override
+	public Set<ScriptResource> getResources() {
+
+		Set<ScriptResource> resources = EnumSet.noneOf(ScriptResource.class);
+		if (commands != null) {
+			for (ScriptCommand command : commands) {
+				resources.addAll(command.getResources());
+			}
+		}
+		return resources;
+	}
+
+	/**
+	 * Returns a batch putting the relays and lighting of the batch back the way
+	 * they are before it is applied.
+	 */
+	@Override
+	public ScriptCommand getCompensation() {
+
+		List<ScriptCommand> compensations = new ArrayList<>();
+		if (commands != null) {
+			for (ScriptCommand command : commands) {
+				ScriptCommand compensation = command.getCompensation();
+				if (compensation != null) {
+					compensations.add(compensation);
+				}
+			}
+		}
+
+		if (compensations.isEmpty()) {
+			return null;
+		}
+
+		Batch batch = new Batch();
+		batch.setCommands(compensations);
+		return batch;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Object methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public String toString() {
+		return "Batch[commands=" + commands + "]";
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Collects the final state of every relay and the last lighting effect of the
+	 * batch and applies them.
+	 *
+	 * @return Number of seconds to wait for timed relays that are waited on.
+	 */
+	private double apply() {
+
+		Map<RelayId, Boolean> states = new EnumMap<>(RelayId.class);
+		Map<RelayId, Duration> durations = new EnumMap<>(RelayId.class);
+		LightingEffectId effectId = null;
+		double wait = 0.0;
+
+		for (ScriptCommand command : commands) {
+
+			if (command instanceof RelayOn) {
+
+				RelayOn relayOn = (RelayOn) command;
+				states.put(relayOn.getRelayId(), Boolean.TRUE);
+				if (relayOn.getForSeconds() == null) {
+					durations.remove(relayOn.getRelayId());
+				} else {
+					durations.put(relayOn.getRelayId(),
+							Duration.ofMillis((long) (relayOn.getForSeconds() * MILLISECONDS_PER_SECOND)));
+				}
+				wait = Math.max(wait, relayOn.getNominalSeconds());
+
+			} else if (command instanceof RelayOff) {
+
+				RelayOff relayOff = (RelayOff) command;
+				states.put(relayOff.getRelayId(), Boolean.FALSE);
+				durations.remove(relayOff.getRelayId());
+
+			} else if (command instanceof RunLightingEffect) {
+				effectId = ((RunLightingEffect) command).getEffectId();
+			}
+		}
+
+		if (!states.isEmpty()) {
+			((RelayService) Kernel.kernel().getService(ServiceId.RELAY)).apply(states, durations);
+		}
+
+		if (effectId != null) {
+			LightingEffectId playId = effectId;
+			Platform.runLater(() -> ((LightingService) Kernel.kernel().getService(ServiceId.LIGHTING)).playEffect(playId));
+		}
+
+		return wait;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Static methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Merges each run of adjacent relay and lighting commands that happen at the
+	 * same moment into a batch. A run ends at a command that pauses or is waited
+	 * on, and a relay or the lighting is never changed twice within one batch so
+	 * deliberate pulses are kept. Commands that are not merged are returned as
+	 * they are.
+	 *
+	 * @param  commands Validated commands to merge.
+	 * @return          Commands with the runs replaced by batches.
+	 */
+	public static List<ScriptCommand> merge(List<ScriptCommand> commands) {
+
+		List<ScriptCommand> merged = new ArrayList<>(commands.size());
+		List<ScriptCommand> run = new ArrayList<>();
+		Set<RelayId> relays = EnumSet.noneOf(RelayId.class);
+		boolean lighting = false;
+
+		for (ScriptCommand command : commands) {
+
+			if (!isBatchable(command)) {
+				flush(run, merged);
+				relays.clear();
+				lighting = false;
+				merged.add(command);
+				continue;
+			}
+
+			RelayId relayId = getRelayId(command);
+			boolean repeats = (relayId == null) ? lighting : relays.contains(relayId);
+			if (repeats) {
+				flush(run, merged);
+				relays.clear();
+				lighting = false;
+			}
+
+			run.add(command);
+			if (relayId == null) {
+				lighting = true;
+			} else {
+				relays.add(relayId);
+			}
+
+			// Anything after a pause or a wait does not happen at the same moment.
+			if ((command.getPostCommandPause() > 0.0) || (command.getNominalSeconds() > 0.0)) {
+				flush(run, merged);
+				relays.clear();
+				lighting = false;
+			}
+		}
+
+		flush(run, merged);
+		return merged;
+	}
+
+	private static boolean isBatchable(ScriptCommand command) {
+		return (command instanceof RelayOn) || (command instanceof RelayOff) || (command instanceof RunLightingEffect);
+	}
+
+	private static RelayId getRelayId(ScriptCommand command) {
+
+		if (command instanceof RelayOn) {
+			return ((RelayOn) command).getRelayId();
+		}
+		if (command instanceof RelayOff) {
+			return ((RelayOff) command).getRelayId();
+		}
+		return null;
+	}
+
+	/**
+	 * Adds a run of commands to the merged commands as a batch, or as it is if
+	 * there is only one command in the run.
+	 *
+	 * @param run    Run of commands; cleared once added.
+	 * @param merged Merged commands to add the run to.
+	 */
+	private static void flush(List<ScriptCommand> run, List<ScriptCommand> merged) {
+
+		if (run.size() == 1) {
+			merged.add(run.get(0));
+		} else if (run.size() > 1) {
+
+			// A run ends at a pause so only its last command can have one, which now
+			// follows the whole batch. The commands themselves are left unchanged as
+			// a batch never performs their pauses.
+			Batch batch = new Batch();
+			batch.setCommands(new ArrayList<>(run));
+			batch.setPostCommandPause(run.get(run.size() - 1).getPostCommandPause());
+			merged.add(batch);
+		}
+		run.clear();
+	}
+}
@@ -103,6 +103,23 @@ public class Message extends AbstractScriptCommand {
 	// ScriptCommand methods.
 	// ----------------------------------------------------------------------------------------
 
+	@Override
+	public double performStage(int stage) {
+
+		if (getMessage() != null) {
+			Kernel.kernel().message(getMessage());
+			return COMMAND_COMPLETE;
+		}
+
+		if ((getMessages() == null) || (stage >= messages.size())) {
+			return COMMAND_COMPLETE;
+		}
+
+		// Each message is a stage so the intervals are scheduled rather than slept.
+		Kernel.kernel().message(messages.get(stage));
+		return stage < messages.size() - 1 ? nextInterval() : COMMAND_COMPLETE;
+	}
+
 	@Override
 	public void perform() {
 
@@ -115,15 +132,48 @@ public class Message extends AbstractScriptCommand {
 				Kernel.kernel().message(messages.get(index));
 
 				// Only pause between messages; do not pause after last message.
-				if (index < messages.size() - 1) {
-					double variance = random.doubles(getMessageIntervalVariance() * -1.0, getMessageIntervalVariance())
-							.findFirst().getAsDouble();
-					sleepForSeconds(getMessageInterval() + variance);
+				if ((index < messages.size() - 1) && !sleepForSeconds(nextInterval())) {
+					return;
 				}
 			}
 		}
 	}
 
+	@Override
+	public void validate(List<String> errors) {
+
+		super.validate(errors);
+		if ((singleMessage == null) && ((messages == null) || messages.isEmpty())) {
+			errors.add("A message or list of messages is required.");
+		}
+		if (messageInterval < 0.0) {
+			errors.add("Message interval can not be negative.");
+		}
+		if (messageIntervalVariance < 0.0) {
+			errors.add("Message interval variance can not be negative.");
+		}
+	}
+
+	@Override
+	public double getNominalSeconds() {
+		return (singleMessage == null) && (messages != null) ? Math.max(0, messages.size() - 1) * messageInterval : 0.0;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the time to wait before the next message, randomly varied.
+	 * 
+	 * @return Interval in seconds.
+	 */
+	private double nextInterval() {
+
+		double variance = (random.nextDouble() * 2.0 - 1.0) * getMessageIntervalVariance();
+		return Math.max(0.0, getMessageInterval() + variance);
+	}
+
 	// ----------------------------------------------------------------------------------------
 	// Object methods.
 	// ----------------------------------------------------------------------------------------
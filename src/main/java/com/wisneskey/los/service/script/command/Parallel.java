@@ -0,0 +1,175 @@
+package com.wisneskey.los.service.script.command;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.wisneskey.los.service.script.ScriptResource;
+
+/**
+ * Script command to perform a group of commands at the same moment. When run
+ * by the script scheduler each command is forked as its own branch with the
+ * same deadline and the script continues once every branch has completed or
+ * the optional timeout has passed, so lights, sound and relays can be started
+ * together instead of one command after another.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class Parallel extends AbstractScriptCommand {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(Parallel.class);
+
+	/**
+	 * Commands to perform at the same time.
+	 */
+	private List<ScriptCommand> commands;
+
+	/**
+	 * Optional number of seconds to wait for the commands to complete before
+	 * continuing without them.
+	 */
+	private Double timeout;
+
+	// ----------------------------------------------------------------------------------------
+	// Property getters/setters.
+	// ----------------------------------------------------------------------------------------
+
+	public List<ScriptCommand> getCommands() {
+		return commands;
+	}
+
+	public void setCommands(List<ScriptCommand> commands) {
+		this.commands = commands;
+	}
+
+	public Double getTimeout() {
+		return timeout;
+	}
+
+	public void setTimeout(Double timeout) {
+		this.timeout = timeout;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// ScriptCommand methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Performs the commands on separate threads outside of the script scheduler,
+	 * which forks them as branches of the script run instead.
+	 */
+	@Override
+	public void perform() {
+
+		if ((commands == null) || commands.isEmpty()) {
+			return;
+		}
+
+		CompletableFuture<?>[] branches = new CompletableFuture<?>[commands.size()];
+		for (int index = 0; index < branches.length; index++) {
+			branches[index] = CompletableFuture.runAsync(commands.get(index)::perform);
+		}
+
+		try {
+			if (timeout == null) {
+				CompletableFuture.allOf(branches).get();
+			} else {
+				CompletableFuture.allOf(branches).get((long) (timeout * MILLISECONDS_PER_SECOND), TimeUnit.MILLISECONDS);
+			}
+		} catch (TimeoutException e) {
+			LOGGER.warn("Parallel commands did not complete within {} seconds; continuing.", timeout);
+		} catch (InterruptedException e) {
+			LOGGER.warn("Interrupted waiting for parallel commands.");
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			LOGGER.warn("Exception during parallel commands.", e);
+		}
+	}
+
+	@Override
+	public void validate(List<String> errors) {
+
+		super.validate(errors);
+		if ((commands == null) || commands.isEmpty()) {
+			errors.add("At least one command is required.");
+			return;
+		}
+		if ((timeout != null) && (timeout <= 0.0)) {
+			errors.add("Timeout must be positive.");
+		}
+
+		for (int index = 0; index < commands.size(); index++) {
+
+			ScriptCommand command = commands.get(index);
+			if (command == null) {
+				errors.add("Branch " + (index + 1) + ": missing command.");
+				continue;
+			}
+
+			List<String> branchErrors = new ArrayList<>();
+			command.validate(branchErrors);
+			for (String error : branchErrors) {
+				errors.add("Branch " + (index + 1) + " (" + command.getClass().getSimpleName() + "): " + error);
+			}
+		}
+	}
+
+	/**
+	 * Returns the nominal time of the slowest branch, limited by the timeout.
+	 */
+	@Override
+	public double getNominalSeconds() {
+
+		double seconds = 0.0;
+		if (commands != null) {
+			for (ScriptCommand command : commands) {
+				seconds = Math.max(seconds, command.getNominalSeconds() + command.getPostCommandPause());
+			}
+		}
+		return timeout == null ? seconds : Math.min(seconds, timeout);
+	}
+
+	@Override
+	public Set<ScriptResource> getResources() {
+
+		Set<ScriptResource> resources = EnumSet.noneOf(ScriptResource.class);
+		if (commands != null) {
+			for (ScriptCommand command : commands) {
+				resources.addAll(command.getResources());
+			}
+		}
+		return resources;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Object methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public String toString() {
+		return "Parallel[commands=" + commands + (timeout == null ? "" : ", timeout=" + timeout) + "]";
+	}
+}
@@ -1,5 +1,7 @@
 package com.wisneskey.los.service.script.command;
 
+import java.util.List;
+
 /**
  * Script command to pause a script for a given number of seconds.
  * 
@@ -49,6 +51,25 @@ public class Pause extends AbstractScriptCommand {
 		sleepForSeconds(getSeconds());
 	}
 
+	@Override
+	public double performStage(int stage) {
+		return stage == 0 ? Math.max(0.0, getSeconds()) : COMMAND_COMPLETE;
+	}
+
+	@Override
+	public void validate(List<String> errors) {
+
+		super.validate(errors);
+		if (seconds < 0.0) {
+			errors.add("Seconds to pause can not be negative.");
+		}
+	}
+
+	@Override
+	public double getNominalSeconds() {
+		return seconds;
+	}
+
 	// ----------------------------------------------------------------------------------------
 	// Object methods.
 	// ----------------------------------------------------------------------------------------
@@ -2,6 +2,8 @@ package com.wisneskey.los.service.script.command;
 
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import com.wisneskey.los.kernel.Kernel;
 import com.wisneskey.los.service.ServiceId;
 import com.wisneskey.los.service.audio.AudioService;
+import com.wisneskey.los.service.audio.SoundEffectCatalog;
 import com.wisneskey.los.service.audio.SoundEffectId;
 
 /**
@@ -97,20 +100,79 @@ public class PlaySoundEffect extends AbstractScriptCommand {
 	@Override
 	public void perform() {
 
-		SoundEffectId playId = getEffectId();
+		SoundEffectId playId = selectEffect();
 		if (playId == null) {
-			// No single sound effect specified so pick one at random.
-			if ((effectIds == null) || effectIds.isEmpty()) {
-				LOGGER.warn("No sound effects configured to play.");
-			} else {
-				int randomIndex = random.nextInt(effectIds.size());
-				playId = effectIds.get(randomIndex);
+			return;
+		}
+
+		CompletableFuture<Void> completion = ((AudioService) Kernel.kernel().getService(ServiceId.AUDIO))
+				.playEffect(playId);
+
+		// The effect completes on the schedule of its measured duration so waiting
+		// does not depend on the player exiting.
+		if (waitForCompletion) {
+			try {
+				completion.get();
+			} catch (InterruptedException e) {
+				LOGGER.warn("Interrupted waiting for sound effect to complete.");
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				LOGGER.warn("Exception during playing of sound effect.", e);
 			}
 		}
+	}
+
+	@Override
+	public double performStage(int stage) {
+
+		SoundEffectId playId = stage == 0 ? selectEffect() : null;
+		if (playId == null) {
+			return COMMAND_COMPLETE;
+		}
+
+		AudioService audioService = Kernel.kernel().getService(ServiceId.AUDIO);
+		audioService.playEffect(playId);
+
+		// Wait for the effect on the script's schedule using its measured duration.
+		SoundEffectCatalog.Entry entry = audioService.getEffectInfo(playId);
+		if (!waitForCompletion || (entry == null)) {
+			return COMMAND_COMPLETE;
+		}
+		return entry.getDurationMicros() / 1_000_000.0;
+	}
+
+	@Override
+	public void validate(List<String> errors) {
+
+		super.validate(errors);
+		if ((effectId == null) && ((effectIds == null) || effectIds.isEmpty())) {
+			errors.add("An effect id or list of effect ids is required.");
+		} else if ((effectIds != null) && effectIds.contains(null)) {
+			errors.add("Effect ids can not contain an empty id.");
+		}
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the effect to play: the single effect if one is set, otherwise one
+	 * picked at random from the list.
+	 * 
+	 * @return Id of the effect to play or null if none are configured.
+	 */
+	private SoundEffectId selectEffect() {
+
+		if (getEffectId() != null) {
+			return getEffectId();
+		}
 
-		if (playId != null) {
-			((AudioService) Kernel.kernel().getService(ServiceId.AUDIO)).playEffect(playId, waitForCompletion);
+		if ((effectIds == null) || effectIds.isEmpty()) {
+			LOGGER.warn("No sound effects configured to play.");
+			return null;
 		}
+		return effectIds.get(random.nextInt(effectIds.size()));
 	}
 
 	// ----------------------------------------------------------------------------------------
@@ -1,7 +1,9 @@
 package com.wisneskey.los.service.script.command;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +12,7 @@ import com.wisneskey.los.kernel.Kernel;
 import com.wisneskey.los.service.ServiceId;
 import com.wisneskey.los.service.music.MusicService;
 import com.wisneskey.los.service.music.Track;
+import com.wisneskey.los.service.script.ScriptResource;
 
 /**
  * Script command to play a music track from a designated playlist.
@@ -93,4 +96,21 @@ public class PlayTrack extends AbstractScriptCommand {
 			LOGGER.warn("No track found with the given name; nothing to play.");
 		}
 	}
+
+	@Override
+	public void validate(List<String> errors) {
+
+		super.validate(errors);
+		if (playlistName == null) {
+			errors.add("Playlist name is required.");
+		}
+		if (trackName == null) {
+			errors.add("Track name is required.");
+		}
+	}
+
+	@Override
+	public Set<ScriptResource> getResources() {
+		return EnumSet.of(ScriptResource.AUDIO);
+	}
 }
\ No newline at end of file
@@ -1,5 +1,9 @@
 package com.wisneskey.los.service.script.command;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -7,6 +11,7 @@ import com.wisneskey.los.kernel.Kernel;
 import com.wisneskey.los.service.ServiceId;
 import com.wisneskey.los.service.relay.RelayId;
 import com.wisneskey.los.service.relay.RelayService;
+import com.wisneskey.los.service.script.ScriptResource;
 
 /**
  * Script command to turn a relay off.
@@ -63,4 +68,27 @@ public class RelayOff extends AbstractScriptCommand {
 
 		((RelayService) Kernel.kernel().getService(ServiceId.RELAY)).turnOff(relayId);
 	}
+
+	@Override
+	public void validate(List<String> errors) {
+
+		super.validate(errors);
+		if (relayId == null) {
+			errors.add("Relay id is required.");
+		}
+	}
+
+	@Override
+	public Set<ScriptResource> getResources() {
+		return EnumSet.of(ScriptResource.RELAYS);
+	}
+
+	/**
+	 * Returns a command putting the relay back in the state it is in before it
+	 * is turned off.
+	 */
+	@Override
+	public ScriptCommand getCompensation() {
+		return RelayOn.restoring(relayId);
+	}
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.wisneskey.los.service.script.command;
 
 import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,6 +12,8 @@ import com.wisneskey.los.kernel.Kernel;
 import com.wisneskey.los.service.ServiceId;
 import com.wisneskey.los.service.relay.RelayId;
 import com.wisneskey.los.service.relay.RelayService;
+import com.wisneskey.los.service.script.ScriptResource;
+import com.wisneskey.los.state.RelayState;
 
 /**
  * Script command to turn a relay on, possibly for a given duration.
@@ -98,4 +103,82 @@ public class RelayOn extends AbstractScriptCommand {
 		Duration duration = forSeconds == null ? null : Duration.ofMillis((long) (forSeconds * 1000.0D));
 		((RelayService) Kernel.kernel().getService(ServiceId.RELAY)).turnOn(relayId, duration, waitForCompletion);
 	}
-}
\ No newline at end of file
+
+	@Override
+	public void validate(List<String> errors) {
+
+		super.validate(errors);
+		if (relayId == null) {
+			errors.add("Relay id is required.");
+		}
+		if ((forSeconds != null) && (forSeconds <= 0.0)) {
+			errors.add("Seconds for the relay to be on must be positive.");
+		}
+	}
+
+	@Override
+	public double getNominalSeconds() {
+		return (waitForCompletion && (forSeconds != null)) ? forSeconds : 0.0;
+	}
+
+	@Override
+	public Set<ScriptResource> getResources() {
+		return EnumSet.of(ScriptResource.RELAYS);
+	}
+
+	/**
+	 * Returns a command putting the relay back in the state it is in before it
+	 * is turned on.
+	 */
+	@Override
+	public ScriptCommand getCompensation() {
+		return restoring(relayId);
+	}
+
+	@Override
+	public double performStage(int stage) {
+
+		if (stage > 0) {
+			return COMMAND_COMPLETE;
+		}
+
+		if (relayId == null) {
+			LOGGER.warn("No relay id specified; skipping command.");
+			return COMMAND_COMPLETE;
+		}
+
+		// Let the relay time itself and wait for it on the script's schedule.
+		Duration duration = forSeconds == null ? null : Duration.ofMillis((long) (forSeconds * 1000.0D));
+		((RelayService) Kernel.kernel().getService(ServiceId.RELAY)).turnOn(relayId, duration, false);
+
+		return (waitForCompletion && (forSeconds != null)) ? forSeconds : COMMAND_COMPLETE;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Static methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns a command that puts a relay back in its current state.
+	 *
+	 * @param  relayId Id of the relay.
+	 * @return         Command to restore the relay or null if no relay is given.
+	 */
+	static ScriptCommand restoring(RelayId relayId) {
+
+		if (relayId == null) {
+			return null;
+		}
+
+		RelayState relayState = Kernel.kernel().chairState().getServiceState(ServiceId.RELAY);
+		if (relayState.getState(relayId).get()) {
+			RelayOn relayOn = new RelayOn();
+			relayOn.setRelayId(relayId);
+			return relayOn;
+		}
+
+		RelayOff relayOff = new RelayOff();
+		relayOff.setRelayId(relayId);
+		return relayOff;
+	}
+}
@@ -1,8 +1,12 @@
 package com.wisneskey.los.service.script.command;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 import com.wisneskey.los.kernel.Kernel;
 import com.wisneskey.los.service.ServiceId;
 import com.wisneskey.los.service.lighting.LightingService;
+import com.wisneskey.los.service.script.ScriptResource;
 
 /**
  * Script command to restore the last stored lighting state.
@@ -36,4 +40,9 @@ public class RestoreLightingState extends AbstractScriptCommand {
 		((LightingService) Kernel.kernel().getService(ServiceId.LIGHTING)).restoreState();
 	}
 
+	@Override
+	public Set<ScriptResource> getResources() {
+		return EnumSet.of(ScriptResource.LIGHTING);
+	}
+
 }
@@ -1,5 +1,9 @@
 package com.wisneskey.los.service.script.command;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -7,6 +11,8 @@ import com.wisneskey.los.kernel.Kernel;
 import com.wisneskey.los.service.ServiceId;
 import com.wisneskey.los.service.lighting.LightingEffectId;
 import com.wisneskey.los.service.lighting.LightingService;
+import com.wisneskey.los.service.script.ScriptResource;
+import com.wisneskey.los.state.LightingState;
 
 import javafx.application.Platform;
 
@@ -68,4 +74,35 @@ public class RunLightingEffect extends AbstractScriptCommand {
 			
 		}
 	}
+
+	@Override
+	public void validate(List<String> errors) {
+
+		super.validate(errors);
+		if (effectId == null) {
+			errors.add("Lighting effect id is required.");
+		}
+	}
+
+	@Override
+	public Set<ScriptResource> getResources() {
+		return EnumSet.of(ScriptResource.LIGHTING);
+	}
+
+	/**
+	 * Returns a command going back to the effect playing before this one.
+	 */
+	@Override
+	public ScriptCommand getCompensation() {
+
+		LightingState lightingState = Kernel.kernel().chairState().getServiceState(ServiceId.LIGHTING);
+		LightingEffectId previousId = lightingState.currentEffect().get();
+		if (previousId == null) {
+			return null;
+		}
+
+		RunLightingEffect previous = new RunLightingEffect();
+		previous.setEffectId(previousId);
+		return previous;
+	}
 }
\ No newline at end of file
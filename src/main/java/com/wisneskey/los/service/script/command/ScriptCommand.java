@@ -1,6 +1,11 @@
 package com.wisneskey.los.service.script.command;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
 import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.wisneskey.los.service.script.ScriptResource;
 
 /**
  * Interface for commands that can be run from a script.
@@ -24,7 +29,9 @@ import com.fasterxml.jackson.annotation.JsonSubTypes;
  */
 @JsonSubTypes({
 
+		@JsonSubTypes.Type(value = Batch.class, name = "batch"),
 		@JsonSubTypes.Type(value = Message.class, name = "message"),
+		@JsonSubTypes.Type(value = Parallel.class, name = "parallel"),
 		@JsonSubTypes.Type(value = Pause.class, name = "pause"),
 		@JsonSubTypes.Type(value = PlaySoundEffect.class, name = "playSoundEffect"),
 		@JsonSubTypes.Type(value = PlayTrack.class, name = "playTrack"),
@@ -39,6 +46,11 @@ import com.fasterxml.jackson.annotation.JsonSubTypes;
 		@JsonSubTypes.Type(value = StoreLightingState.class, name = "storeLightingState") })
 public interface ScriptCommand {
 
+	/**
+	 * Value returned by {@link #performStage} when the command is complete.
+	 */
+	double COMMAND_COMPLETE = -1.0;
+
 	/**
 	 * Number of seconds to pause after executing the command.
 	 * 
@@ -50,4 +62,65 @@ public interface ScriptCommand {
 	 * Method called to perform the script command.
 	 */
 	void perform();
+
+	/**
+	 * Performs one stage of the command when it is run by the script scheduler.
+	 * Commands that wait between actions return how long to wait instead of
+	 * sleeping so no thread is held while they wait; the scheduler calls them
+	 * again with the next stage once that time has passed from the stage's
+	 * deadline. Commands that do not wait are performed in a single stage.
+	 * 
+	 * @param  stage Number of the stage to perform, starting from zero.
+	 * @return       Seconds until the next stage is due or
+	 *               {@link #COMMAND_COMPLETE} if the command is complete.
+	 */
+	default double performStage(int stage) {
+		perform();
+		return COMMAND_COMPLETE;
+	}
+
+	/**
+	 * Returns the parts of the chair the command controls, used to keep scripts
+	 * that control the same things from running at the same time.
+	 * 
+	 * @return Set of resources the command touches.
+	 */
+	default Set<ScriptResource> getResources() {
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Checks the settings of the command when its script is compiled so a
+	 * mistake in a script stops the chair from booting instead of being skipped
+	 * with a warning when the script runs.
+	 * 
+	 * @param errors List to add a description of each problem found to.
+	 */
+	default void validate(List<String> errors) {
+	}
+
+	/**
+	 * Returns how long the command nominally takes, not counting the pause after
+	 * it, for planning the timing of a script. Commands whose time is not known
+	 * until they run count as taking no time.
+	 * 
+	 * @return Number of seconds the command takes.
+	 */
+	default double getNominalSeconds() {
+		return 0.0;
+	}
+
+	/**
+	 * Returns a command that undoes the changes made by this command. It is
+	 * called just before the command is performed so it can capture the state
+	 * the command changes. When a run is cancelled the compensations of the
+	 * commands it has already performed are performed newest first, so a
+	 * cancelled script leaves the relays, lighting, bar and displays as it found
+	 * them. Compensations must be safe to perform more than once.
+	 * 
+	 * @return Compensating command or null if there is nothing to undo.
+	 */
+	default ScriptCommand getCompensation() {
+		return null;
+	}
 }
\ No newline at end of file
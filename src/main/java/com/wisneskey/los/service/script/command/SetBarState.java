@@ -1,9 +1,14 @@
 package com.wisneskey.los.service.script.command;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.wisneskey.los.kernel.Kernel;
+import com.wisneskey.los.service.script.ScriptResource;
 import com.wisneskey.los.state.ChairState.BarState;
 
 /**
@@ -58,4 +63,29 @@ public class SetBarState extends AbstractScriptCommand {
 			Kernel.kernel().chairState().barState().set(state);
 		}
 	}
+
+	@Override
+	public void validate(List<String> errors) {
+
+		super.validate(errors);
+		if (state == null) {
+			errors.add("Bar state is required.");
+		}
+	}
+
+	@Override
+	public Set<ScriptResource> getResources() {
+		return EnumSet.of(ScriptResource.CHAIR);
+	}
+
+	/**
+	 * Returns a command going back to the bar state before this one.
+	 */
+	@Override
+	public ScriptCommand getCompensation() {
+
+		SetBarState previous = new SetBarState();
+		previous.setState(Kernel.kernel().chairState().barState().get());
+		return previous;
+	}
 }
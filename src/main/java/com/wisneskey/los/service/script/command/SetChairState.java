@@ -1,6 +1,11 @@
 package com.wisneskey.los.service.script.command;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 import com.wisneskey.los.kernel.Kernel;
+import com.wisneskey.los.service.script.ScriptResource;
 import com.wisneskey.los.state.ChairState.MasterState;
 
 /**
@@ -55,4 +60,18 @@ public class SetChairState extends AbstractScriptCommand {
 	public void perform() {
 		Kernel.kernel().setMasterState(getState());
 	}
+
+	@Override
+	public void validate(List<String> errors) {
+
+		super.validate(errors);
+		if (state == null) {
+			errors.add("Chair state is required.");
+		}
+	}
+
+	@Override
+	public Set<ScriptResource> getResources() {
+		return EnumSet.of(ScriptResource.CHAIR);
+	}
 }
@@ -1,9 +1,16 @@
 package com.wisneskey.los.service.script.command;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 import com.wisneskey.los.kernel.Kernel;
 import com.wisneskey.los.service.ServiceId;
+import com.wisneskey.los.service.display.DisplayId;
 import com.wisneskey.los.service.display.DisplayService;
 import com.wisneskey.los.service.display.SceneId;
+import com.wisneskey.los.service.script.ScriptResource;
+import com.wisneskey.los.state.DisplayState;
 
 import javafx.application.Platform;
 
@@ -56,6 +63,43 @@ public class ShowScene extends AbstractScriptCommand {
 		Platform.runLater(() -> ((DisplayService) Kernel.kernel().getService(ServiceId.DISPLAY)).showScene(sceneId));
 	}
 
+	@Override
+	public void validate(List<String> errors) {
+
+		super.validate(errors);
+		if (sceneId == null) {
+			errors.add("Scene id is required.");
+		}
+	}
+
+	@Override
+	public Set<ScriptResource> getResources() {
+		return EnumSet.of(ScriptResource.SCENES);
+	}
+
+	/**
+	 * Returns a command going back to the scene shown on the display before this
+	 * one.
+	 */
+	@Override
+	public ScriptCommand getCompensation() {
+
+		if (sceneId == null) {
+			return null;
+		}
+
+		DisplayState displayState = Kernel.kernel().chairState().getServiceState(ServiceId.DISPLAY);
+		SceneId previousId = sceneId.getDisplayId() == DisplayId.CP ? displayState.cpScene().get()
+				: displayState.hudScene().get();
+		if (previousId == null) {
+			return null;
+		}
+
+		ShowScene previous = new ShowScene();
+		previous.setSceneId(previousId);
+		return previous;
+	}
+
 	// ----------------------------------------------------------------------------------------
 	// Object methods.
 	// ----------------------------------------------------------------------------------------
@@ -1,9 +1,13 @@
 package com.wisneskey.los.service.script.command;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 import com.wisneskey.los.kernel.Kernel;
 import com.wisneskey.los.service.ServiceId;
 import com.wisneskey.los.service.display.DisplayService;
 import com.wisneskey.los.service.display.SceneId;
+import com.wisneskey.los.service.script.ScriptResource;
 import com.wisneskey.los.util.RunProcess;
 
 import javafx.application.Platform;
@@ -76,4 +80,9 @@ public class Shutdown extends AbstractScriptCommand {
 		// Exit the JavaFX application.
 		Platform.exit();
 	}
+
+	@Override
+	public Set<ScriptResource> getResources() {
+		return EnumSet.allOf(ScriptResource.class);
+	}
 }
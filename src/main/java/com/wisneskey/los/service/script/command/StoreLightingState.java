@@ -1,8 +1,12 @@
 package com.wisneskey.los.service.script.command;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 import com.wisneskey.los.kernel.Kernel;
 import com.wisneskey.los.service.ServiceId;
 import com.wisneskey.los.service.lighting.LightingService;
+import com.wisneskey.los.service.script.ScriptResource;
 
 /**
  * Script command to store the current lighting state so that it may be restored at a
@@ -36,4 +40,9 @@ public class StoreLightingState extends AbstractScriptCommand {
 
 		((LightingService) Kernel.kernel().getService(ServiceId.LIGHTING)).storeCurrentState();
 	}
+
+	@Override
+	public Set<ScriptResource> getResources() {
+		return EnumSet.of(ScriptResource.LIGHTING);
+	}
 }
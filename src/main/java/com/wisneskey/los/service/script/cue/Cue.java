@@ -0,0 +1,81 @@
+package com.wisneskey.los.service.script.cue;
+
+import java.util.List;
+
+import com.wisneskey.los.service.script.command.ScriptCommand;
+
+/**
+ * Commands to perform at a moment in a track, given either as a time from the
+ * start of the track or as one of the beats found by the track's analysis.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class Cue {
+
+	/**
+	 * Seconds from the start of the track the cue fires at.
+	 */
+	private Double at;
+
+	/**
+	 * Index of the beat of the track the cue fires on, counting from zero.
+	 */
+	private Integer beat;
+
+	/**
+	 * Commands to perform when the cue fires.
+	 */
+	private List<ScriptCommand> commands;
+
+	// ----------------------------------------------------------------------------------------
+	// Property getters/setters.
+	// ----------------------------------------------------------------------------------------
+
+	public Double getAt() {
+		return at;
+	}
+
+	public void setAt(Double at) {
+		this.at = at;
+	}
+
+	public Integer getBeat() {
+		return beat;
+	}
+
+	public void setBeat(Integer beat) {
+		this.beat = beat;
+	}
+
+	public List<ScriptCommand> getCommands() {
+		return commands;
+	}
+
+	public void setCommands(List<ScriptCommand> commands) {
+		this.commands = commands;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Object methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public String toString() {
+		return "Cue[" + (at != null ? "at=" + at : "beat=" + beat) + ", commands=" + commands + "]";
+	}
+}
@@ -0,0 +1,83 @@
+package com.wisneskey.los.service.script.cue;
+
+import java.util.List;
+
+/**
+ * List of cues choreographed to a track. The list is bound to the track with
+ * the matching title (and artist, if one is given) whenever that track plays.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class CueList {
+
+	/**
+	 * Name of the cue list for display.
+	 */
+	private String name;
+
+	/**
+	 * Title of the track the cues are for.
+	 */
+	private String trackTitle;
+
+	/**
+	 * Optional artist of the track the cues are for.
+	 */
+	private String trackArtist;
+
+	/**
+	 * Cues to fire as the track plays.
+	 */
+	private List<Cue> cues;
+
+	// ----------------------------------------------------------------------------------------
+	// Property getters/setters.
+	// ----------------------------------------------------------------------------------------
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getTrackTitle() {
+		return trackTitle;
+	}
+
+	public void setTrackTitle(String trackTitle) {
+		this.trackTitle = trackTitle;
+	}
+
+	public String getTrackArtist() {
+		return trackArtist;
+	}
+
+	public void setTrackArtist(String trackArtist) {
+		this.trackArtist = trackArtist;
+	}
+
+	public List<Cue> getCues() {
+		return cues;
+	}
+
+	public void setCues(List<Cue> cues) {
+		this.cues = cues;
+	}
+}
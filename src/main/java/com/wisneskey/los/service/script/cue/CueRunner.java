@@ -0,0 +1,631 @@
+package com.wisneskey.los.service.script.cue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.wisneskey.los.error.LaissezException;
+import com.wisneskey.los.kernel.Kernel;
+import com.wisneskey.los.service.ServiceId;
+import com.wisneskey.los.service.music.MusicService;
+import com.wisneskey.los.service.music.TrackAnalysis;
+import com.wisneskey.los.service.script.command.Batch;
+import com.wisneskey.los.service.script.command.Message;
+import com.wisneskey.los.service.script.command.Parallel;
+import com.wisneskey.los.service.script.command.Pause;
+import com.wisneskey.los.service.script.command.PlaySoundEffect;
+import com.wisneskey.los.service.script.command.RelayOn;
+import com.wisneskey.los.service.script.command.ScriptCommand;
+import com.wisneskey.los.state.MusicState;
+import com.wisneskey.los.util.JsonUtils;
+
+/**
+ * Thread that fires the cues of the cue list bound to the playing track. The
+ * playback position is followed with a local clock that is corrected against
+ * the position the player reports: small differences are slewed out, larger
+ * ones snap the clock, and a jump (a seek) moves to the cues at the new
+ * position. Between cues the thread parks until the next one is due, waking at
+ * least every few milliseconds to check the player, so every cue runs on this
+ * one thread with no scheduler in between.
+ *
+ * Copyright (C) 2026 Paul Wisneskey
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public final class CueRunner extends Thread {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CueRunner.class);
+
+	/**
+	 * Extension of cue list files.
+	 */
+	private static final String CUE_EXTENSION = ".json";
+
+	/**
+	 * Time in nanoseconds to wait between checks when no cued track is playing.
+	 */
+	private static final long IDLE_WAIT_NANOS = 50_000_000L;
+
+	/**
+	 * Longest time in nanoseconds to park while a cued track plays, so the clock
+	 * is checked against the player regularly.
+	 */
+	private static final long MAX_WAIT_NANOS = 10_000_000L;
+
+	/**
+	 * Time in nanoseconds the reported position must stay still before the
+	 * track is taken to be paused and the clock stops running ahead.
+	 */
+	private static final long STALL_NANOS = 100_000_000L;
+
+	/**
+	 * Differences from the reported position up to this many microseconds are
+	 * slewed out; larger ones snap the clock to the player.
+	 */
+	private static final long DRIFT_LIMIT_MICROS = 30_000L;
+
+	/**
+	 * Differences from the reported position larger than this many microseconds
+	 * are taken to be a seek.
+	 */
+	private static final long SEEK_MICROS = 500_000L;
+
+	/**
+	 * Fraction of a small difference corrected on each report.
+	 */
+	private static final long SLEW_DIVISOR = 8;
+
+	/**
+	 * Cues found more than this many microseconds late are skipped rather than
+	 * fired out of time.
+	 */
+	private static final long STALE_CUE_MICROS = 250_000L;
+
+	/**
+	 * Cue lists loaded from the cue directory.
+	 */
+	private List<CueList> cueLists;
+
+	/**
+	 * Service playing the music, looked up once it is running.
+	 */
+	private MusicService musicService;
+
+	/**
+	 * Id of the track being followed or null if none.
+	 */
+	private String trackId;
+
+	/**
+	 * Cue list bound to the track or null if the track has none.
+	 */
+	private CueList cueList;
+
+	/**
+	 * Flag indicating if the timeline is waiting for the track's analysis to
+	 * place cues given as beats.
+	 */
+	private boolean awaitingAnalysis;
+
+	/**
+	 * Times of the cues of the bound list in microseconds, in order, and the
+	 * commands of each.
+	 */
+	private long[] cueTimes;
+	private ScriptCommand[][] cueCommands;
+
+	/**
+	 * Index of the next cue to fire.
+	 */
+	private int nextCue;
+
+	/**
+	 * Position of the clock at the anchor time and the anchor time from
+	 * System.nanoTime().
+	 */
+	private boolean anchored;
+	private long anchorMicros;
+	private long anchorNanos;
+
+	/**
+	 * Last position reported by the player and when it last changed.
+	 */
+	private long reportedMicros;
+	private long reportedNanos;
+
+	/**
+	 * Flag indicating if the reported position has stayed still long enough for
+	 * the track to be taken as paused, which holds the clock at that position
+	 * until the player moves again.
+	 */
+	private boolean stalled;
+
+	private long fired;
+	private long skipped;
+	private long seeks;
+	private long corrections;
+	private long totalLatencyMicros;
+	private long maxLatencyMicros;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a runner with the cue lists in a directory.
+	 *
+	 * @param cueDir Directory of cue list files.
+	 */
+	public CueRunner(Path cueDir) {
+
+		cueLists = loadCueLists(cueDir);
+
+		setName("scriptCueRunner");
+		setDaemon(true);
+		setPriority(Thread.MAX_PRIORITY);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Thread methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public void run() {
+
+		LOGGER.info("Cue runner started: lists={}", cueLists.size());
+
+		while (!isInterrupted()) {
+
+			long waitNanos;
+			try {
+				waitNanos = step();
+			} catch (RuntimeException e) {
+				LOGGER.warn("Failed to run cues.", e);
+				waitNanos = IDLE_WAIT_NANOS;
+			}
+
+			LockSupport.parkNanos(waitNanos);
+		}
+
+		LOGGER.info("Cue runner shutdown: {}", getStatistics());
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Stops the runner.
+	 */
+	public void shutdown() {
+		interrupt();
+	}
+
+	/**
+	 * Returns a summary of the cues fired for logging.
+	 *
+	 * @return Summary of the cue statistics.
+	 */
+	public synchronized String getStatistics() {
+
+		return "fired=" + fired + " skipped=" + skipped + " seeks=" + seeks + " corrections=" + corrections
+				+ " averageLatencyUs=" + (fired == 0 ? 0 : totalLatencyMicros / fired) + " maxLatencyUs="
+				+ maxLatencyMicros;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Fires any cues that have come due and works out how long to wait for the
+	 * next one.
+	 *
+	 * @return Time in nanoseconds to wait before checking again.
+	 */
+	private long step() {
+
+		if (musicService == null) {
+			musicService = Kernel.kernel().getService(ServiceId.MUSIC);
+			if (musicService == null) {
+				return IDLE_WAIT_NANOS;
+			}
+		}
+
+		MusicState musicState = musicService.getState();
+		String currentTrackId = musicState.currentTrackId().get();
+		long positionMicros = musicService.getTrackPositionMicros();
+		long nowNanos = System.nanoTime();
+
+		if ((currentTrackId == null) || (positionMicros < 0)) {
+			trackId = null;
+			cueList = null;
+			cueTimes = null;
+			return IDLE_WAIT_NANOS;
+		}
+
+		if (!currentTrackId.equals(trackId)) {
+			trackId = currentTrackId;
+			cueList = findCueList(musicState.currentTrackName().get(), musicState.currentTrackArtist().get());
+			cueTimes = null;
+			awaitingAnalysis = cueList != null;
+		}
+
+		// Cues given as beats can only be placed once the track has been analyzed.
+		if (awaitingAnalysis) {
+			buildTimeline(positionMicros, nowNanos);
+		}
+		if (cueTimes == null) {
+			return IDLE_WAIT_NANOS;
+		}
+
+		return advance(positionMicros, nowNanos);
+	}
+
+	/**
+	 * Moves the timeline of the bound cue list to the player's position, firing
+	 * the cues passed.
+	 *
+	 * @param  positionMicros Position reported by the player.
+	 * @param  nowNanos       Time the position was reported.
+	 * @return                Time in nanoseconds to wait before checking again.
+	 */
+	private long advance(long positionMicros, long nowNanos) {
+
+		long clockMicros = followPlayer(positionMicros, nowNanos);
+
+		while ((nextCue < cueTimes.length) && (cueTimes[nextCue] <= clockMicros)) {
+
+			long lateMicros = clockMicros - cueTimes[nextCue];
+			if (lateMicros > STALE_CUE_MICROS) {
+				LOGGER.debug("Cue skipped: list={} cue={} lateMs={}", cueList.getName(), nextCue, lateMicros / 1000);
+				recordSkip();
+			} else {
+				fire(cueCommands[nextCue]);
+				long latencyMicros = clockAt(System.nanoTime()) - cueTimes[nextCue];
+				LOGGER.debug("Cue fired: list={} cue={} atMs={} latencyUs={}", cueList.getName(), nextCue,
+						cueTimes[nextCue] / 1000, latencyMicros);
+				recordLatency(latencyMicros);
+			}
+
+			nextCue++;
+			clockMicros = clockAt(System.nanoTime());
+		}
+
+		if (nextCue >= cueTimes.length) {
+			return IDLE_WAIT_NANOS;
+		}
+		return Math.max(0, Math.min((cueTimes[nextCue] - clockMicros) * 1000, MAX_WAIT_NANOS));
+	}
+
+	/**
+	 * Places the cues of the bound list on the track's timeline.
+	 *
+	 * @param positionMicros Position reported by the player.
+	 * @param nowNanos       Time the position was reported.
+	 */
+	private void buildTimeline(long positionMicros, long nowNanos) {
+
+		List<Cue> cues = cueList.getCues();
+		boolean needsBeats = cues.stream().anyMatch(cue -> cue.getBeat() != null);
+
+		int[] beats = null;
+		if (needsBeats) {
+			TrackAnalysis analysis = musicService.getTrackAnalysis(trackId);
+			if (analysis == null) {
+				return;
+			}
+			beats = analysis.getBeatTimesMs();
+		}
+
+		List<long[]> placed = new ArrayList<>();
+		for (int index = 0; index < cues.size(); index++) {
+
+			Cue cue = cues.get(index);
+			if (cue.getAt() != null) {
+				placed.add(new long[] { (long) (cue.getAt() * 1_000_000.0), index });
+			} else if (cue.getBeat() < beats.length) {
+				placed.add(new long[] { beats[cue.getBeat()] * 1000L, index });
+			} else {
+				LOGGER.warn("Cue list {} has a cue on beat {} but the track only has {} beats.", cueList.getName(),
+						cue.getBeat(), beats.length);
+			}
+		}
+		placed.sort(Comparator.comparingLong((long[] entry) -> entry[0]).thenComparingLong(entry -> entry[1]));
+
+		cueTimes = new long[placed.size()];
+		cueCommands = new ScriptCommand[placed.size()][];
+		for (int index = 0; index < cueTimes.length; index++) {
+			cueTimes[index] = placed.get(index)[0];
+			cueCommands[index] = Batch.merge(cues.get((int) placed.get(index)[1]).getCommands())
+					.toArray(new ScriptCommand[0]);
+		}
+
+		awaitingAnalysis = false;
+		anchor(positionMicros, nowNanos);
+		nextCue = firstCueAt(positionMicros);
+
+		LOGGER.info("Cue list bound: list={} track={} cues={} next={}", cueList.getName(), trackId, cueTimes.length,
+				nextCue);
+	}
+
+	/**
+	 * Corrects the clock against the position reported by the player.
+	 *
+	 * @param  positionMicros Position reported by the player.
+	 * @param  nowNanos       Time the position was reported.
+	 * @return                Corrected position of the clock.
+	 */
+	private long followPlayer(long positionMicros, long nowNanos) {
+
+		// The reported position only moves when the player advances, so the clock
+		// is only corrected when there is a new report.
+		if (positionMicros == reportedMicros) {
+			if (!stalled && (nowNanos - reportedNanos > STALL_NANOS)) {
+				LOGGER.debug("Cue clock held: list={} atMs={}", cueList.getName(), positionMicros / 1000);
+				stalled = true;
+			}
+			return clockAt(nowNanos);
+		}
+
+		// A paused track resumes from where its clock was held.
+		long clockMicros = clockAt(nowNanos);
+		stalled = false;
+		long errorMicros = positionMicros - clockMicros;
+		reportedMicros = positionMicros;
+		reportedNanos = nowNanos;
+
+		if (Math.abs(errorMicros) > SEEK_MICROS) {
+			anchor(positionMicros, nowNanos);
+			nextCue = firstCueAt(positionMicros);
+			recordCorrection(true);
+			return positionMicros;
+		}
+
+		if (Math.abs(errorMicros) > DRIFT_LIMIT_MICROS) {
+			anchor(positionMicros, nowNanos);
+			recordCorrection(false);
+			return positionMicros;
+		}
+
+		anchorMicros = clockMicros + errorMicros / SLEW_DIVISOR;
+		anchorNanos = nowNanos;
+		return anchorMicros;
+	}
+
+	private void anchor(long positionMicros, long nowNanos) {
+
+		anchored = true;
+		stalled = false;
+		anchorMicros = positionMicros;
+		anchorNanos = nowNanos;
+		reportedMicros = positionMicros;
+		reportedNanos = nowNanos;
+	}
+
+	private long clockAt(long nowNanos) {
+		return (anchored && !stalled) ? anchorMicros + (nowNanos - anchorNanos) / 1000 : reportedMicros;
+	}
+
+	/**
+	 * Returns the index of the first cue at or after a position.
+	 *
+	 * @param  positionMicros Position in the track.
+	 * @return                Index of the cue or the number of cues if there is
+	 *                        none.
+	 */
+	private int firstCueAt(long positionMicros) {
+
+		int index = Arrays.binarySearch(cueTimes, positionMicros);
+		if (index < 0) {
+			return -index - 1;
+		}
+		while ((index > 0) && (cueTimes[index - 1] == positionMicros)) {
+			index--;
+		}
+		return index;
+	}
+
+	/**
+	 * Performs the commands of a cue. Commands that take more than one step are
+	 * rejected when the cue lists are loaded, so each is performed in a single
+	 * step and the cue thread is never held waiting.
+	 *
+	 * @param commands Commands to perform.
+	 */
+	private void fire(ScriptCommand[] commands) {
+
+		for (ScriptCommand command : commands) {
+			try {
+				command.performStage(0);
+			} catch (Exception e) {
+				LOGGER.error("Error performing cue command: {}", command, e);
+			}
+		}
+	}
+
+	private CueList findCueList(String title, String artist) {
+
+		for (CueList list : cueLists) {
+			if (Objects.equals(list.getTrackTitle(), title)
+					&& ((list.getTrackArtist() == null) || list.getTrackArtist().equals(artist))) {
+				return list;
+			}
+		}
+		return null;
+	}
+
+	private synchronized void recordLatency(long latencyMicros) {
+
+		fired++;
+		totalLatencyMicros += latencyMicros;
+		maxLatencyMicros = Math.max(maxLatencyMicros, latencyMicros);
+	}
+
+	private synchronized void recordSkip() {
+		skipped++;
+	}
+
+	private synchronized void recordCorrection(boolean seek) {
+
+		if (seek) {
+			seeks++;
+		} else {
+			corrections++;
+		}
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Static methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Loads and checks every cue list in a directory. Every problem found is
+	 * reported before failing so they can all be fixed together.
+	 *
+	 * @param  cueDir Directory of cue list files.
+	 * @return        List of the cue lists.
+	 */
+	private static List<CueList> loadCueLists(Path cueDir) {
+
+		List<CueList> lists = new ArrayList<>();
+		List<String> errors = new ArrayList<>();
+
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(cueDir, "*" + CUE_EXTENSION)) {
+			for (Path file : files) {
+				try (InputStream inputStream = Files.newInputStream(file)) {
+					CueList list = JsonUtils.toObject(inputStream, CueList.class);
+					validate(file.getFileName().toString(), list, errors);
+					lists.add(list);
+				} catch (Exception e) {
+					errors.add(file.getFileName() + ": failed to load: " + e.getMessage());
+				}
+			}
+		} catch (IOException e) {
+			throw new LaissezException("Failed to read cue directory: " + cueDir, e);
+		}
+
+		if (!errors.isEmpty()) {
+			for (String error : errors) {
+				LOGGER.error("Invalid cue list: {}", error);
+			}
+			throw new LaissezException("Failed to load " + errors.size() + " cue list problem(s); first: " + errors.get(0));
+		}
+
+		return Collections.unmodifiableList(lists);
+	}
+
+	/**
+	 * Checks a cue list.
+	 *
+	 * @param fileName Name of the cue list's file for reporting problems.
+	 * @param list     Cue list to check.
+	 * @param errors   List to add a description of each problem found to.
+	 */
+	private static void validate(String fileName, CueList list, List<String> errors) {
+
+		if (list.getTrackTitle() == null) {
+			errors.add(fileName + ": track title is required.");
+		}
+		if ((list.getCues() == null) || list.getCues().isEmpty()) {
+			errors.add(fileName + ": at least one cue is required.");
+			return;
+		}
+		if (list.getName() == null) {
+			list.setName(fileName);
+		}
+
+		for (int index = 0; index < list.getCues().size(); index++) {
+
+			String prefix = fileName + " cue " + (index + 1) + ": ";
+			Cue cue = list.getCues().get(index);
+			if (cue == null) {
+				errors.add(prefix + "missing cue.");
+				continue;
+			}
+
+			if ((cue.getAt() == null) == (cue.getBeat() == null)) {
+				errors.add(prefix + "exactly one of at or beat is required.");
+			} else if ((cue.getAt() != null) ? cue.getAt() < 0.0 : cue.getBeat() < 0) {
+				errors.add(prefix + "position can not be negative.");
+			}
+
+			if ((cue.getCommands() == null) || cue.getCommands().isEmpty()) {
+				errors.add(prefix + "at least one command is required.");
+				continue;
+			}
+
+			for (ScriptCommand command : cue.getCommands()) {
+
+				if (command == null) {
+					errors.add(prefix + "missing command.");
+				} else if ((command instanceof Pause) || (command instanceof Parallel)) {
+					errors.add(prefix + command.getClass().getSimpleName()
+							+ " can not be cued; use separate cues for commands at different times.");
+				} else if ((command.getPostCommandPause() > 0.0) || takesSteps(command)) {
+					errors.add(prefix + command.getClass().getSimpleName()
+							+ " can not pause or wait in a cue; use separate cues for commands at different times.");
+				} else {
+					List<String> commandErrors = new ArrayList<>();
+					command.validate(commandErrors);
+					for (String error : commandErrors) {
+						errors.add(prefix + command.getClass().getSimpleName() + ": " + error);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks if a command takes more than one step to perform. Cues only perform
+	 * the first step of each command, so anything after it would be lost.
+	 *
+	 * @param  command Command to check.
+	 * @return         True if the command has steps after its first.
+	 */
+	private static boolean takesSteps(ScriptCommand command) {
+
+		// Waited relays, batches containing them and message sequences.
+		if (command.getNominalSeconds() > 0.0) {
+			return true;
+		}
+
+		if (command instanceof Message) {
+			Message message = (Message) command;
+			return (message.getMessage() == null) && (message.getMessages() != null)
+					&& (message.getMessages().size() > 1);
+		}
+		if (command instanceof PlaySoundEffect) {
+			return ((PlaySoundEffect) command).isWaitForCompletion();
+		}
+		if (command instanceof RelayOn) {
+			return ((RelayOn) command).getWaitForCompletion();
+		}
+		return false;
+	}
+}
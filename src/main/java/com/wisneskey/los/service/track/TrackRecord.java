@@ -0,0 +1,121 @@
+package com.wisneskey.los.service.track;
+
+import com.wisneskey.los.service.location.Location;
+
+/**
+ * Class for a single GPS fix read back from a recorded track.
+ * 
+ * Copyright (C) 2026 Paul Wisneskey
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class TrackRecord {
+
+	/**
+	 * Time the fix was recorded in milliseconds since the epoch.
+	 */
+	private long timestamp;
+
+	private double latitude;
+	private double longitude;
+	private double altitude;
+
+	/**
+	 * Ground speed in meters per second.
+	 */
+	private double speed;
+
+	/**
+	 * Heading of motion in degrees from true north.
+	 */
+	private double heading;
+
+	/**
+	 * Number of satellites used for the fix.
+	 */
+	private int satellites;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	public TrackRecord(long timestamp, double latitude, double longitude, double altitude, double speed,
+			double heading, int satellites) {
+		this.timestamp = timestamp;
+		this.latitude = latitude;
+		this.longitude = longitude;
+		this.altitude = altitude;
+		this.speed = speed;
+		this.heading = heading;
+		this.satellites = satellites;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Property getters.
+	// ----------------------------------------------------------------------------------------
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public double getLatitude() {
+		return latitude;
+	}
+
+	public double getLongitude() {
+		return longitude;
+	}
+
+	public double getAltitude() {
+		return altitude;
+	}
+
+	public double getSpeed() {
+		return speed;
+	}
+
+	public double getHeading() {
+		return heading;
+	}
+
+	public int getSatellites() {
+		return satellites;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the location of the fix.
+	 * 
+	 * @return Location object for the fix.
+	 */
+	public Location toLocation() {
+		return Location.of(latitude, longitude, altitude, speed, heading);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Object methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public String toString() {
+		return "TrackRecord[timestamp=" + timestamp + ", latitude=" + latitude + ", longitude=" + longitude
+				+ ", altitude=" + altitude + ", speed=" + speed + ", heading=" + heading + ", satellites=" + satellites
+				+ "]";
+	}
+}
@@ -0,0 +1,166 @@
+package com.wisneskey.los.service.track;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded single producer, single consumer queue of pending track records.
+ * Records are held in preallocated parallel primitive arrays so neither side
+ * allocates and neither side ever blocks: if the queue is full the producer's
+ * record is dropped and counted.
+ * 
+ * Copyright (C) 2026 Paul Wisneskey
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+class TrackRecordQueue {
+
+	/**
+	 * Number of record slots in the queue (must be a power of two).
+	 */
+	private final int capacity;
+
+	/**
+	 * Mask for turning a sequence number into a slot index.
+	 */
+	private final int mask;
+
+	private final long[] timestamps;
+	private final double[] latitudes;
+	private final double[] longitudes;
+	private final double[] altitudes;
+	private final double[] speeds;
+	private final double[] headings;
+	private final int[] satellites;
+
+	/**
+	 * Sequence number of the next slot the producer will write.
+	 */
+	private final AtomicLong writeSequence = new AtomicLong();
+
+	/**
+	 * Sequence number of the next slot the consumer will read.
+	 */
+	private final AtomicLong readSequence = new AtomicLong();
+
+	/**
+	 * Number of records dropped because the queue was full.
+	 */
+	private final AtomicLong dropped = new AtomicLong();
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a queue with a given number of slots.
+	 * 
+	 * @param capacity Number of slots; rounded up to a power of two.
+	 */
+	TrackRecordQueue(int capacity) {
+
+		this.capacity = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+		this.mask = this.capacity - 1;
+
+		timestamps = new long[this.capacity];
+		latitudes = new double[this.capacity];
+		longitudes = new double[this.capacity];
+		altitudes = new double[this.capacity];
+		speeds = new double[this.capacity];
+		headings = new double[this.capacity];
+		satellites = new int[this.capacity];
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Producer methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Adds a record to the queue if there is room.
+	 * 
+	 * @return True if the record was queued; false if it was dropped.
+	 */
+	boolean offer(long timestamp, double latitude, double longitude, double altitude, double speed, double heading,
+			int satelliteCount) {
+
+		long sequence = writeSequence.get();
+		if (sequence - readSequence.get() >= capacity) {
+			dropped.incrementAndGet();
+			return false;
+		}
+
+		int slot = (int) (sequence & mask);
+		timestamps[slot] = timestamp;
+		latitudes[slot] = latitude;
+		longitudes[slot] = longitude;
+		altitudes[slot] = altitude;
+		speeds[slot] = speed;
+		headings[slot] = heading;
+		satellites[slot] = satelliteCount;
+
+		// Publish the slot to the consumer.
+		writeSequence.lazySet(sequence + 1);
+		return true;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Consumer methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Writes all queued records to a segment writer, stopping early if the
+	 * segment fills up.
+	 * 
+	 * @param  writer Writer to append the records to.
+	 * @return        Number of records written.
+	 */
+	int drainTo(TrackSegmentWriter writer) {
+
+		long sequence = readSequence.get();
+		long available = writeSequence.get();
+
+		int written = 0;
+		while ((sequence < available) && writer.hasRoom()) {
+
+			int slot = (int) (sequence & mask);
+			writer.append(timestamps[slot], latitudes[slot], longitudes[slot], altitudes[slot], speeds[slot],
+					headings[slot], satellites[slot]);
+			sequence++;
+			written++;
+		}
+
+		// Hand the slots back to the producer.
+		readSequence.lazySet(sequence);
+		return written;
+	}
+
+	/**
+	 * Returns if there are records waiting in the queue.
+	 * 
+	 * @return True if the queue is empty.
+	 */
+	boolean isEmpty() {
+		return readSequence.get() == writeSequence.get();
+	}
+
+	/**
+	 * Returns the number of records dropped because the queue was full.
+	 * 
+	 * @return Number of dropped records.
+	 */
+	long getDropped() {
+		return dropped.get();
+	}
+}
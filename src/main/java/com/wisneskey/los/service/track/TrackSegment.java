@@ -0,0 +1,164 @@
+package com.wisneskey.los.service.track;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Constants and helpers for the binary GPS track segment files. A segment is
+ * a fixed size header followed by fixed width little endian records in time
+ * order:
+ * 
+ * <pre>
+ * Header:  magic (int), version (short), record size (short), start time (long)
+ * Record:  timestamp (long), latitude (double), longitude (double),
+ *          altitude (float), speed (float), heading (float), satellites (int)
+ * </pre>
+ * 
+ * A record's timestamp is written last so a zero timestamp marks the end of
+ * the records in a segment that is still being written. Segment files are
+ * named for the time they were started so they sort in time order.
+ * 
+ * Copyright (C) 2026 Paul Wisneskey
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class TrackSegment {
+
+	/**
+	 * Magic number at the start of every segment file ("LTRK").
+	 */
+	public static final int MAGIC = 0x4C54524B;
+
+	/**
+	 * Version of the segment file format.
+	 */
+	public static final short VERSION = 1;
+
+	/**
+	 * Byte order of the header and record fields.
+	 */
+	public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	/**
+	 * Size in bytes of the segment header.
+	 */
+	public static final int HEADER_SIZE = 16;
+
+	/**
+	 * Size in bytes of each record.
+	 */
+	public static final int RECORD_SIZE = 40;
+
+	// Offsets of the header fields.
+	static final int HEADER_MAGIC = 0;
+	static final int HEADER_VERSION = 4;
+	static final int HEADER_RECORD_SIZE = 6;
+	static final int HEADER_START_TIME = 8;
+
+	// Offsets of the fields in a record.
+	static final int RECORD_TIMESTAMP = 0;
+	static final int RECORD_LATITUDE = 8;
+	static final int RECORD_LONGITUDE = 16;
+	static final int RECORD_ALTITUDE = 24;
+	static final int RECORD_SPEED = 28;
+	static final int RECORD_HEADING = 32;
+	static final int RECORD_SATELLITES = 36;
+
+	/**
+	 * Prefix of segment file names.
+	 */
+	private static final String FILE_PREFIX = "track-";
+
+	/**
+	 * Extension of segment file names.
+	 */
+	private static final String FILE_EXTENSION = ".ltrk";
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Private constructor to disallow instantiation.
+	 */
+	private TrackSegment() {
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Static methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the file name for a segment started at a given time.
+	 * 
+	 * @param  startTime Time the segment was started in milliseconds since the
+	 *                     epoch.
+	 * @return           File name for the segment.
+	 */
+	public static String fileName(long startTime) {
+		return String.format("%s%013d%s", FILE_PREFIX, startTime, FILE_EXTENSION);
+	}
+
+	/**
+	 * Returns the start time encoded in a segment's file name.
+	 * 
+	 * @param  segment Path to the segment file.
+	 * @return         Start time of the segment or -1 if the path is not a
+	 *                 segment file.
+	 */
+	public static long startTime(Path segment) {
+
+		String name = segment.getFileName().toString();
+		if (!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_EXTENSION)) {
+			return -1;
+		}
+
+		try {
+			return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_EXTENSION.length()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Returns the segment files in a directory in time order.
+	 * 
+	 * @param  directory   Directory containing the segment files.
+	 * @return             List of the segment files sorted by start time.
+	 * @throws IOException If the directory can not be listed.
+	 */
+	public static List<Path> listSegments(Path directory) throws IOException {
+
+		List<Path> segments = new ArrayList<>();
+		if (!Files.isDirectory(directory)) {
+			return segments;
+		}
+
+		try (Stream<Path> files = Files.list(directory)) {
+			files.filter(path -> startTime(path) >= 0).forEach(segments::add);
+		}
+
+		// Names are zero padded so they sort in time order.
+		Collections.sort(segments);
+		return segments;
+	}
+}
@@ -0,0 +1,141 @@
+package com.wisneskey.los.service.track;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.wisneskey.los.error.LaissezException;
+
+/**
+ * Reader for track segment files. Segments are mapped read only and the first
+ * record in a time range is found with a binary search since records are
+ * written in time order. Segments that are still being written can be read;
+ * only the records completed so far are returned.
+ * 
+ * Copyright (C) 2026 Paul Wisneskey
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class TrackSegmentReader {
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Private constructor to disallow instantiation.
+	 */
+	private TrackSegmentReader() {
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Static methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Reads the records in a segment whose timestamps are within a time range.
+	 * 
+	 * @param  segment     Path to the segment file.
+	 * @param  from        Start of the range (inclusive) in milliseconds since the
+	 *                       epoch.
+	 * @param  to          End of the range (inclusive) in milliseconds since the
+	 *                       epoch.
+	 * @param  records     List to add the records in the range to.
+	 * @return             Number of records added.
+	 * @throws IOException If the segment could not be read.
+	 */
+	public static int read(Path segment, long from, long to, List<TrackRecord> records) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+
+			long size = channel.size();
+			if (size < TrackSegment.HEADER_SIZE) {
+				return 0;
+			}
+
+			MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, size);
+			buffer.order(TrackSegment.BYTE_ORDER);
+
+			if ((buffer.getInt(TrackSegment.HEADER_MAGIC) != TrackSegment.MAGIC)
+					|| (buffer.getShort(TrackSegment.HEADER_RECORD_SIZE) != TrackSegment.RECORD_SIZE)) {
+				throw new LaissezException("Not a track segment file: " + segment);
+			}
+
+			int recordCount = (int) ((size - TrackSegment.HEADER_SIZE) / TrackSegment.RECORD_SIZE);
+
+			int added = 0;
+			for (int index = findFirst(buffer, recordCount, from); index < recordCount; index++) {
+
+				int offset = offset(index);
+				long timestamp = buffer.getLong(offset + TrackSegment.RECORD_TIMESTAMP);
+				if ((timestamp == 0) || (timestamp > to)) {
+					break;
+				}
+
+				records.add(new TrackRecord(timestamp, //
+						buffer.getDouble(offset + TrackSegment.RECORD_LATITUDE), //
+						buffer.getDouble(offset + TrackSegment.RECORD_LONGITUDE), //
+						buffer.getFloat(offset + TrackSegment.RECORD_ALTITUDE), //
+						buffer.getFloat(offset + TrackSegment.RECORD_SPEED), //
+						buffer.getFloat(offset + TrackSegment.RECORD_HEADING), //
+						buffer.getInt(offset + TrackSegment.RECORD_SATELLITES)));
+				added++;
+			}
+
+			return added;
+		}
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Finds the index of the first record with a timestamp at or after a time.
+	 * Unwritten records at the end of the segment have a zero timestamp and are
+	 * treated as coming after every written record.
+	 * 
+	 * @param  buffer      Mapped segment.
+	 * @param  recordCount Number of record slots in the segment.
+	 * @param  from        Time to search for.
+	 * @return             Index of the first record at or after the time.
+	 */
+	private static int findFirst(MappedByteBuffer buffer, int recordCount, long from) {
+
+		int low = 0;
+		int high = recordCount;
+		while (low < high) {
+
+			int middle = (low + high) >>> 1;
+			long timestamp = buffer.getLong(offset(middle) + TrackSegment.RECORD_TIMESTAMP);
+			if ((timestamp != 0) && (timestamp < from)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	private static int offset(int index) {
+		return TrackSegment.HEADER_SIZE + (index * TrackSegment.RECORD_SIZE);
+	}
+}
@@ -0,0 +1,175 @@
+package com.wisneskey.los.service.track;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writer that appends records to a single memory mapped track segment file.
+ * The whole segment is mapped when it is created so appending a record is just
+ * a series of puts into the mapped buffer with no allocation or system calls.
+ * When closed, the file is truncated to the records actually written.
+ * 
+ * Copyright (C) 2026 Paul Wisneskey
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class TrackSegmentWriter implements Closeable {
+
+	/**
+	 * Path of the segment file.
+	 */
+	private Path path;
+
+	/**
+	 * Channel to the segment file.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Mapping of the full segment file.
+	 */
+	private MappedByteBuffer buffer;
+
+	/**
+	 * Offset in the segment the next record will be written at.
+	 */
+	private int position = TrackSegment.HEADER_SIZE;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Private constructor to require use of static creation method.
+	 */
+	private TrackSegmentWriter(Path path, FileChannel channel, MappedByteBuffer buffer) {
+		this.path = path;
+		this.channel = channel;
+		this.buffer = buffer;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the path to the segment file being written.
+	 * 
+	 * @return Path of the segment file.
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Returns if there is room in the segment for another record.
+	 * 
+	 * @return True if another record can be appended; false if the segment is
+	 *         full.
+	 */
+	public boolean hasRoom() {
+		return position + TrackSegment.RECORD_SIZE <= buffer.capacity();
+	}
+
+	/**
+	 * Appends a record to the segment. The caller must check there is room
+	 * first.
+	 * 
+	 * @param timestamp  Time of the fix in milliseconds since the epoch.
+	 * @param latitude   Latitude of the fix.
+	 * @param longitude  Longitude of the fix.
+	 * @param altitude   Altitude of the fix.
+	 * @param speed      Ground speed in meters per second.
+	 * @param heading    Heading of motion in degrees from true north.
+	 * @param satellites Number of satellites used for the fix.
+	 */
+	public void append(long timestamp, double latitude, double longitude, double altitude, double speed,
+			double heading, int satellites) {
+
+		buffer.putDouble(position + TrackSegment.RECORD_LATITUDE, latitude);
+		buffer.putDouble(position + TrackSegment.RECORD_LONGITUDE, longitude);
+		buffer.putFloat(position + TrackSegment.RECORD_ALTITUDE, (float) altitude);
+		buffer.putFloat(position + TrackSegment.RECORD_SPEED, (float) speed);
+		buffer.putFloat(position + TrackSegment.RECORD_HEADING, (float) heading);
+		buffer.putInt(position + TrackSegment.RECORD_SATELLITES, satellites);
+
+		// Timestamp goes last since a non-zero timestamp marks the record as
+		// complete for readers of the segment.
+		buffer.putLong(position + TrackSegment.RECORD_TIMESTAMP, timestamp);
+
+		position += TrackSegment.RECORD_SIZE;
+	}
+
+	/**
+	 * Forces the records written so far out to the storage device.
+	 */
+	public void flush() {
+		buffer.force();
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		buffer.force();
+
+		// Trim off the unused end of the segment.
+		channel.truncate(position);
+		channel.close();
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Static methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Creates a new segment file in a directory and maps it for writing.
+	 * 
+	 * @param  directory   Directory to create the segment in.
+	 * @param  startTime   Time the segment is started in milliseconds since the
+	 *                       epoch.
+	 * @param  size        Size in bytes to create the segment with.
+	 * @return             Writer for the new segment.
+	 * @throws IOException If the segment could not be created.
+	 */
+	public static TrackSegmentWriter create(Path directory, long startTime, int size) throws IOException {
+
+		Path path = directory.resolve(TrackSegment.fileName(startTime));
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+
+		try {
+			MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0,
+					Math.max(size, TrackSegment.HEADER_SIZE + TrackSegment.RECORD_SIZE));
+			buffer.order(TrackSegment.BYTE_ORDER);
+
+			buffer.putInt(TrackSegment.HEADER_MAGIC, TrackSegment.MAGIC);
+			buffer.putShort(TrackSegment.HEADER_VERSION, TrackSegment.VERSION);
+			buffer.putShort(TrackSegment.HEADER_RECORD_SIZE, (short) TrackSegment.RECORD_SIZE);
+			buffer.putLong(TrackSegment.HEADER_START_TIME, startTime);
+
+			return new TrackSegmentWriter(path, channel, buffer);
+
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,428 @@
+package com.wisneskey.los.service.track;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.wisneskey.los.error.LaissezException;
+import com.wisneskey.los.kernel.Kernel;
+import com.wisneskey.los.service.AbstractService;
+import com.wisneskey.los.service.ServiceId;
+import com.wisneskey.los.service.location.Location;
+import com.wisneskey.los.service.location.LocationService;
+import com.wisneskey.los.service.profile.model.Profile;
+import com.wisneskey.los.state.TrackState;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.util.Pair;
+
+/**
+ * Service for recording every GPS fix to a binary track for later analysis and
+ * playback. Raw fixes are reported by the location service on the GPS reader
+ * thread and handed to a writer thread through a preallocated queue so the GPS
+ * side never allocates or blocks. The writer appends them to memory mapped
+ * segment files in the track store that roll over when they fill up.
+ * 
+ * Copyright (C) 2026 Paul Wisneskey
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public class TrackService extends AbstractService<TrackState> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TrackService.class);
+
+	/**
+	 * Number of fixes that can be waiting for the writer thread.
+	 */
+	private static final int QUEUE_CAPACITY = 1024;
+
+	/**
+	 * Longest the writer thread waits for new fixes before checking for work.
+	 */
+	private static final long WRITER_PARK_MS = 500;
+
+	/**
+	 * Interval to force the current segment out to storage on so little is lost
+	 * if the chair loses power.
+	 */
+	private static final long FLUSH_INTERVAL_MS = 5000;
+
+	/**
+	 * Internal state object for the track recorder.
+	 */
+	private InternalTrackState trackState;
+
+	/**
+	 * Directory the track segments are stored in or null if not recording.
+	 */
+	private Path trackStorePath;
+
+	/**
+	 * Size in bytes to create each segment with.
+	 */
+	private int segmentSize;
+
+	/**
+	 * Queue of fixes waiting to be written.
+	 */
+	private TrackRecordQueue queue = new TrackRecordQueue(QUEUE_CAPACITY);
+
+	/**
+	 * Thread writing the fixes to the segment files.
+	 */
+	private TrackWriter trackWriter;
+
+	// ----------------------------------------------------------------------------------------
+	// Constructors.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Private constructor to require use of static service creation method.
+	 */
+	private TrackService() {
+		super(ServiceId.TRACK);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Service methods.
+	// ----------------------------------------------------------------------------------------
+
+	@Override
+	public TrackState getState() {
+		return trackState;
+	}
+
+	@Override
+	public void terminate() {
+
+		if (trackWriter != null) {
+			trackWriter.interrupt();
+			try {
+				trackWriter.join();
+			} catch (InterruptedException e) {
+				LOGGER.warn("Interrupted exception waiting for track writer thread to shutdown.");
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		LOGGER.trace("Track service terminated.");
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Public methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the recorded fixes within a time range, including any from the
+	 * segment currently being written.
+	 * 
+	 * @param  from Start of the range (inclusive) in milliseconds since the epoch.
+	 * @param  to   End of the range (inclusive) in milliseconds since the epoch.
+	 * @return      List of the fixes in the range in time order.
+	 */
+	public List<TrackRecord> query(long from, long to) {
+
+		List<TrackRecord> records = new ArrayList<>();
+		if (trackStorePath == null) {
+			return records;
+		}
+
+		try {
+			List<Path> segments = TrackSegment.listSegments(trackStorePath);
+			for (int index = 0; index < segments.size(); index++) {
+
+				// Segments after this one start later so they hold everything
+				// after its start; skip it if the range starts after that.
+				if ((index + 1 < segments.size()) && (TrackSegment.startTime(segments.get(index + 1)) <= from)) {
+					continue;
+				}
+
+				if (TrackSegment.startTime(segments.get(index)) > to) {
+					break;
+				}
+
+				TrackSegmentReader.read(segments.get(index), from, to, records);
+			}
+		} catch (IOException e) {
+			throw new LaissezException("Failed to read track segments.", e);
+		}
+
+		return records;
+	}
+
+	/**
+	 * Returns the directory the track segments are stored in.
+	 * 
+	 * @return Path to the track store or null if tracks are not being recorded.
+	 */
+	public Path getTrackStorePath() {
+		return trackStorePath;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Supporting methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Initializes the service and starts recording if a track store is
+	 * configured.
+	 * 
+	 * @param  profile Profile to use to configure the service.
+	 * @return         Initial state of the service.
+	 */
+	private TrackState initialize(Profile profile) {
+
+		trackState = new InternalTrackState();
+
+		if (profile.getTrackStorePath() == null) {
+			LOGGER.info("No track store configured; GPS tracks will not be recorded.");
+			return trackState;
+		}
+
+		try {
+			trackStorePath = Paths.get(profile.getTrackStorePath()).toAbsolutePath().normalize();
+			Files.createDirectories(trackStorePath);
+		} catch (IOException e) {
+			throw new LaissezException("Failed to create track store directory.", e);
+		}
+
+		segmentSize = profile.getTrackSegmentSize();
+
+		trackWriter = new TrackWriter();
+		trackWriter.start();
+
+		// Capture every raw fix from the GPS rather than the smoothed location.
+		((LocationService) Kernel.kernel().getService(ServiceId.LOCATION)).addFixListener(this::recordFix);
+
+		trackState.recording.set(true);
+		return trackState;
+	}
+
+	/**
+	 * Queues a fix for the writer thread. Called on the GPS reader thread so it
+	 * must not allocate or block.
+	 * 
+	 * @param location        Location of the fix.
+	 * @param satellitesInFix Number of satellites used for the fix.
+	 */
+	private void recordFix(Location location, int satellitesInFix) {
+
+		queue.offer(System.currentTimeMillis(), location.getLatitude(), location.getLongitude(),
+				location.getAltitude(), location.getSpeed(), location.getHeading(), satellitesInFix);
+
+		LockSupport.unpark(trackWriter);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Static service creation methods.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Creates an instance of the track service along with its initial state as
+	 * set from the supplied profile. Must be created after the location service.
+	 * 
+	 * @param  profile Profile to use for configuring the track service.
+	 * @return         Track service instance and its initial state object.
+	 */
+	public static Pair<TrackService, TrackState> createService(Profile profile) {
+
+		TrackService service = new TrackService();
+		TrackState state = service.initialize(profile);
+		return new Pair<>(service, state);
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Inner classes.
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Thread that drains the queue of fixes into the segment files.
+	 */
+	private class TrackWriter extends Thread {
+
+		/**
+		 * Writer for the segment currently being appended to.
+		 */
+		private TrackSegmentWriter segment;
+
+		/**
+		 * Start time of the last segment created.
+		 */
+		private long lastSegmentStart;
+
+		/**
+		 * Total number of records written.
+		 */
+		private long recordsWritten;
+
+		/**
+		 * Time the current segment was last forced out to storage.
+		 */
+		private long lastFlush;
+
+		// ----------------------------------------------------------------------------------------
+		// Constructors.
+		// ----------------------------------------------------------------------------------------
+
+		private TrackWriter() {
+			setName("trackWriter");
+			setDaemon(true);
+		}
+
+		// ----------------------------------------------------------------------------------------
+		// Thread methods.
+		// ----------------------------------------------------------------------------------------
+
+		@Override
+		public void run() {
+
+			LOGGER.info("Track writer thread started: trackStore={}", trackStorePath);
+
+			while (!isInterrupted()) {
+
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(WRITER_PARK_MS));
+
+				try {
+					drainQueue();
+				} catch (Exception e) {
+					LOGGER.warn("Exception writing GPS track; starting a new segment.", e);
+					closeSegment();
+				}
+			}
+
+			// Write anything left before shutting down.
+			try {
+				drainQueue();
+			} catch (Exception e) {
+				LOGGER.warn("Exception writing GPS track during shutdown.", e);
+			}
+			closeSegment();
+
+			trackState.recording.set(false);
+			LOGGER.info("Track writer thread shutdown.");
+		}
+
+		// ----------------------------------------------------------------------------------------
+		// Supporting methods.
+		// ----------------------------------------------------------------------------------------
+
+		/**
+		 * Writes all queued fixes, rolling over to new segments as they fill up.
+		 * 
+		 * @throws IOException If a segment could not be created.
+		 */
+		private void drainQueue() throws IOException {
+
+			while (!queue.isEmpty()) {
+
+				if ((segment == null) || !segment.hasRoom()) {
+					closeSegment();
+					openSegment();
+				}
+
+				recordsWritten += queue.drainTo(segment);
+			}
+
+			trackState.recordsWritten.set(recordsWritten);
+			trackState.recordsDropped.set(queue.getDropped());
+
+			long now = System.currentTimeMillis();
+			if ((segment != null) && (now - lastFlush >= FLUSH_INTERVAL_MS)) {
+				segment.flush();
+				lastFlush = now;
+			}
+		}
+
+		private void openSegment() throws IOException {
+
+			// Make sure a quick rollover can't reuse the previous segment's name.
+			long start = Math.max(System.currentTimeMillis(), lastSegmentStart + 1);
+			segment = TrackSegmentWriter.create(trackStorePath, start, segmentSize);
+			lastSegmentStart = start;
+			lastFlush = start;
+
+			LOGGER.info("Started GPS track segment: {}", segment.getPath());
+		}
+
+		private void closeSegment() {
+
+			if (segment == null) {
+				return;
+			}
+
+			try {
+				segment.close();
+			} catch (IOException e) {
+				LOGGER.warn("Failed to close GPS track segment: " + segment.getPath(), e);
+			}
+
+			segment = null;
+		}
+	}
+
+	/**
+	 * Internal state object for the track service.
+	 */
+	private static class InternalTrackState implements TrackState {
+
+		/**
+		 * Flag indicating if fixes are being recorded.
+		 */
+		private BooleanProperty recording = new SimpleBooleanProperty(false);
+
+		/**
+		 * Number of fixes written since the service started.
+		 */
+		private LongProperty recordsWritten = new SimpleLongProperty(0);
+
+		/**
+		 * Number of fixes dropped since the service started.
+		 */
+		private LongProperty recordsDropped = new SimpleLongProperty(0);
+
+		// ----------------------------------------------------------------------------------------
+		// TrackState methods.
+		// ----------------------------------------------------------------------------------------
+
+		@Override
+		public ReadOnlyBooleanProperty recording() {
+			return recording;
+		}
+
+		@Override
+		public ReadOnlyLongProperty recordsWritten() {
+			return recordsWritten;
+		}
+
+		@Override
+		public ReadOnlyLongProperty recordsDropped() {
+			return recordsDropped;
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package com.wisneskey.los.state;
+
+import java.util.Set;
+
+import javafx.beans.property.ReadOnlyObjectProperty;
+
+/**
+ * Interface denoting the object providing read only access to the state of the
+ * geofence service.
+ * 
+ * Copyright (C) 2026 Paul Wisneskey
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public interface GeofenceState extends State {
+
+	/**
+	 * Property with the names of the geofences the chair is currently inside.
+	 * 
+	 * @return Unmodifiable set of the names of the fences the chair is inside.
+	 */
+	ReadOnlyObjectProperty<Set<String>> insideFences();
+}
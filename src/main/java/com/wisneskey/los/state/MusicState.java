@@ -2,6 +2,8 @@ package com.wisneskey.los.state;
 
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
 import javafx.beans.property.ReadOnlyStringProperty;
 import javafx.beans.property.StringProperty;
 
@@ -71,4 +73,22 @@ public interface MusicState extends State {
 	 * @return Volume of chair from 0 - 11.
 	 */
 	IntegerProperty volume();
-}
\ No newline at end of file
+
+	/**
+	 * Version of the music library that is incremented each time tracks are
+	 * added, changed or removed while the chair is running.
+	 * 
+	 * @return Version number of the music library.
+	 */
+	ReadOnlyIntegerProperty libraryVersion();
+
+	/**
+	 * Playback position of the currently playing track as it is being heard,
+	 * updated several times a second. Use the music service for the exact
+	 * position when synchronizing to the music.
+	 * 
+	 * @return Position in seconds from the start of the track or 0 if no track is
+	 *         playing.
+	 */
+	ReadOnlyDoubleProperty trackPosition();
+}
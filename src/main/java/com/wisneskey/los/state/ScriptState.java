@@ -1,5 +1,7 @@
 package com.wisneskey.los.state;
 
+import javafx.beans.property.ReadOnlyIntegerProperty;
+
 /**
  * Interface denoting the object providing read only access to the state of the
  * script service.
@@ -23,4 +25,17 @@ package com.wisneskey.los.state;
  */
 public interface ScriptState extends State {
 
+	/**
+	 * Number of scripts waiting to run.
+	 * 
+	 * @return Number of queued script requests.
+	 */
+	ReadOnlyIntegerProperty queuedScripts();
+
+	/**
+	 * Number of scripts currently running.
+	 * 
+	 * @return Number of running scripts.
+	 */
+	ReadOnlyIntegerProperty runningScripts();
 }
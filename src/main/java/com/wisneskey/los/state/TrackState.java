@@ -0,0 +1,49 @@
+package com.wisneskey.los.state;
+
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyLongProperty;
+
+/**
+ * Interface denoting the object providing read only access to the state of the
+ * GPS track recorder.
+ * 
+ * Copyright (C) 2026 Paul Wisneskey
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * @author paul.wisneskey@gmail.com
+ */
+public interface TrackState extends State {
+
+	/**
+	 * Property indicating if GPS fixes are being recorded.
+	 * 
+	 * @return True if the track recorder is recording; false otherwise.
+	 */
+	ReadOnlyBooleanProperty recording();
+
+	/**
+	 * Number of GPS fixes written to the track since the recorder started.
+	 * 
+	 * @return Number of track records written.
+	 */
+	ReadOnlyLongProperty recordsWritten();
+
+	/**
+	 * Number of GPS fixes dropped because the recorder fell behind.
+	 * 
+	 * @return Number of track records dropped.
+	 */
+	ReadOnlyLongProperty recordsDropped();
+}